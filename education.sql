@@ -10,7 +10,7 @@ USE education_manage_system;
 CREATE TABLE IF NOT EXISTS SysUser (
    UserID BIGINT AUTO_INCREMENT NOT NULL COMMENT '系统用户ID（主键，如U001001）',
    Account VARCHAR(20) NOT NULL COMMENT '登录账户（唯一）',
-   Password VARCHAR(64) NOT NULL COMMENT '登录密码（SHA256加密）',
+   Password VARCHAR(128) NOT NULL COMMENT '登录密码（PBKDF2-SHA256哈希，格式：pbkdf2_sha256$迭代次数$盐$哈希）',
    Role VARCHAR(10) NOT NULL COMMENT '角色（student/teacher/admin）',
    RelID VARCHAR(10) COMMENT '关联ID（学生编号/教师编号/管理员ID）',
    CreateTime DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
@@ -0,0 +1,146 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量操作结果（BatchResult）
+ * 记录批量写入中每一行的执行结果：成功行的影响行数、失败行的原始数据和失败原因
+ * 行号从0开始，与调用方传入数据的迭代顺序一致
+ * @param <T> 行数据类型（如Score）
+ */
+public class BatchResult<T> {
+    /**
+     * 失败行的执行结果标记（与java.sql.Statement.EXECUTE_FAILED一致）
+     */
+    public static final int FAILED = java.sql.Statement.EXECUTE_FAILED;
+
+    /**
+     * 每行的影响行数（驱动返回SUCCESS_NO_INFO时为-2，失败行为FAILED）
+     */
+    private int[] updateCounts = new int[16];
+
+    private int total;
+
+    private final List<Failure<T>> failures = new ArrayList<>();
+
+    /**
+     * 记录一行执行成功
+     * @param updateCount 影响行数
+     */
+    void recordSuccess(int updateCount) {
+        append(updateCount);
+    }
+
+    /**
+     * 记录一行执行失败
+     * @param row 行数据
+     * @param message 失败原因
+     */
+    void recordFailure(T row, String message) {
+        failures.add(new Failure<>(total, row, message));
+        append(FAILED);
+    }
+
+    private void append(int updateCount) {
+        if (total == updateCounts.length) {
+            updateCounts = Arrays.copyOf(updateCounts, total * 2);
+        }
+        updateCounts[total++] = updateCount;
+    }
+
+    /**
+     * @return int 处理的总行数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return int 成功行数
+     */
+    public int getSuccessCount() {
+        return total - failures.size();
+    }
+
+    /**
+     * @return int 失败行数
+     */
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    /**
+     * @return boolean 是否全部成功
+     */
+    public boolean isAllSucceeded() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * 获取某一行的影响行数
+     * @param rowIndex 行号（从0开始）
+     * @return int 影响行数（失败行返回FAILED）
+     */
+    public int getUpdateCount(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= total) {
+            throw new IndexOutOfBoundsException("行号超出范围：" + rowIndex);
+        }
+        return updateCounts[rowIndex];
+    }
+
+    /**
+     * @return List<Failure<T>> 失败行列表（按行号顺序）
+     */
+    public List<Failure<T>> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "total=" + total +
+                ", success=" + getSuccessCount() +
+                ", failure=" + getFailureCount() +
+                '}';
+    }
+
+    /**
+     * 失败行信息
+     * @param <T> 行数据类型
+     */
+    public static class Failure<T> {
+        private final int rowIndex;
+        private final T row;
+        private final String message;
+
+        public Failure(int rowIndex, T row, String message) {
+            this.rowIndex = rowIndex;
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRowIndex() {
+            return rowIndex;
+        }
+
+        public T getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                    "rowIndex=" + rowIndex +
+                    ", row=" + row +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dao;
+
+import entity.Course;
+
+/**
+ * 课程变更监听器（CourseChangeListener）
+ * 通过CourseDao.addCourseChangeListener注册，新增/修改/删除课程信息在提交成功后回调，
+ * 用于维护依赖课程学分等字段的派生数据（如班级排名）
+ * 注：回调在执行写操作的线程中同步执行，实现应尽量轻量且不抛出异常；删除课程时其成绩的删除先通过ScoreChangeListener回调
+ */
+public interface CourseChangeListener {
+    /**
+     * 课程变更回调
+     * @param cno 课程编号
+     * @param course 新增或修改后的课程信息（课程被删除时为null）
+     */
+    void onCourseChanged(String cno, Course course);
+}
@@ -1,98 +1,166 @@
 package dao;
 
 import entity.Course;
+import entity.Score;
+import util.AppConfig;
 import util.DBUtil;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import util.DaoExecutor;
+import util.JdbcTemplate;
+import util.LocalCache;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 课程数据访问层（CourseDao）
  * 封装Course表的所有数据库操作（增删改查），依赖DBUtil工具类和Course实体类（已去掉学期字段）
+ * SQL经JdbcTemplate执行：写操作使用主库连接，查询使用只读连接，全表扫描使用报表数据源
  */
 public class CourseDao {
+    private static final JdbcTemplate WRITE = JdbcTemplate.forWrite(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate READ = JdbcTemplate.forRead(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate REPORT = JdbcTemplate.forRead(DBUtil.REPORT);
+
+    /**
+     * 课程信息缓存（按课程编号缓存单条查询结果，新增/修改/删除时失效），容量和过期时间见配置项cache.course.*
+     * 注：缓存在各应用节点内独立，其他节点修改的数据最迟在过期时间后可见
+     */
+    private static final LocalCache<String, Course> COURSE_CACHE = new LocalCache<>("course",
+            AppConfig.getInt("cache.course.maxSize", 10000),
+            AppConfig.getLong("cache.course.ttlMillis", 10 * 60 * 1000L));
+
+    /**
+     * 课程变更监听器（修改/删除课程信息提交后回调）
+     */
+    private static final List<CourseChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // -------------------------- 课程变更监听 --------------------------
+    /**
+     * 注册课程变更监听器
+     * @param listener 监听器
+     */
+    public static void addCourseChangeListener(CourseChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除课程变更监听器
+     * @param listener 监听器
+     */
+    public static void removeCourseChangeListener(CourseChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 回调所有监听器（单个监听器异常不影响其他监听器和写操作结果）
+     */
+    private static void fireCourseChanged(String cno, Course course) {
+        for (CourseChangeListener listener : LISTENERS) {
+            try {
+                listener.onCourseChanged(cno, course);
+            } catch (RuntimeException e) {
+                System.err.println("课程变更监听器执行失败（" + cno + "）：" + e.getMessage());
+            }
+        }
+    }
+
     /**
      * 新增课程信息
      * @param course 课程实体对象（需包含非空字段：cno、cname、ccredit，tno可为空）
      * @return boolean 新增成功返回true，失败返回false
-     * 注：学分需>0，否则Course的setCcredit会抛出非法参数异常
+     * 注：学分需>0，否则Course的setCcredit会抛出非法参数异常；新增成功后回调课程变更监听器（排名等派生数据随之登记学分）
      */
     public boolean addCourse(Course course) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
+            return ScoreDao.notifying(() -> insertCourse(course));
+        } finally {
+            COURSE_CACHE.invalidate(course.getCno());
+        }
+    }
+
+    private boolean insertCourse(Course course) {
+        boolean added;
+        try {
             String sql = "INSERT INTO Course (Cno, Cname, Ccredit, Tno) VALUES (?, ?, ?, ?)";
             // 设置参数（学分已由Course的setCcredit校验>0）
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, course.getCno());
-            pstmt.setString(2, course.getCname());
-            pstmt.setFloat(3, course.getCcredit());
-            pstmt.setString(4, course.getTno());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            added = WRITE.execute(conn -> JdbcTemplate.update(conn, sql,
+                    course.getCno(), course.getCname(), course.getCcredit(), course.getTno())) > 0;
         } catch (SQLException e) {
             if (e.getMessage().contains("PRIMARY")) {
                 throw new RuntimeException("新增课程失败：课程编号已存在！", e);
             }
             throw new RuntimeException("新增课程信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(pstmt, conn);
         }
+        if (added) {
+            fireCourseChanged(course.getCno(), course);
+        }
+        return added;
     }
 
     /**
      * 根据课程编号删除课程信息
      * @param cno 课程编号（主键）
      * @return boolean 删除成功返回true，失败返回false
-     * 注：若课程关联成绩数据，数据库外键约束会导致删除失败，需先删除关联成绩
+     * 注：Score表的课程外键为ON DELETE CASCADE，删除课程会一并删除该课程的全部成绩；
+     *     注册了成绩变更监听器时，同一事务中先锁定读出这些成绩，提交后逐条通知监听器（课程统计、排名等随之更新），
+     *     之后回调课程变更监听器
      */
     public boolean deleteCourse(String cno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "DELETE FROM Course WHERE Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, cno);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            if (e.getMessage().contains("FOREIGN KEY")) {
-                throw new RuntimeException("删除课程失败：该课程关联成绩数据，请先删除成绩！", e);
-            }
-            throw new RuntimeException("删除课程信息失败：" + e.getMessage(), e);
+            return ScoreDao.notifying(() -> removeCourse(cno));
         } finally {
-            DBUtil.close(pstmt, conn);
+            COURSE_CACHE.invalidate(cno);
+        }
+    }
+
+    private boolean removeCourse(String cno) {
+        boolean notify = ScoreDao.hasScoreChangeListeners();
+        List<Score> deletedScores = new ArrayList<>();
+        boolean deleted = WRITE.execute("删除课程信息失败", conn -> {
+            if (notify) {
+                conn.setAutoCommit(false);
+                deletedScores.addAll(ScoreDao.selectScoresForCascadeDelete(conn, "Cno", cno));
+            }
+            int affectedRows = JdbcTemplate.update(conn, "DELETE FROM Course WHERE Cno=?", cno);
+            if (notify) {
+                conn.commit();
+            }
+            return affectedRows > 0;
+        });
+        if (deleted) {
+            ScoreDao.fireScoresDeleted(deletedScores);
+            fireCourseChanged(cno, null);
         }
+        return deleted;
     }
 
     /**
-     * 修改课程信息（根据课程编号更新）
+     * 修改课程信息（根据课程编号更新），修改成功后回调课程变更监听器（学分变化时排名随之重建）
      * @param course 课程实体对象（必须包含cno，其他字段按需修改）
      * @return boolean 修改成功返回true，失败返回false
      */
     public boolean updateCourse(Course course) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            // SQL：更新课程名称、学分、授课教师编号，条件为课程编号（主键）
-            String sql = "UPDATE Course SET Cname=?, Ccredit=?, Tno=? WHERE Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, course.getCname());
-            pstmt.setFloat(2, course.getCcredit()); // 学分>0由Course的setter校验
-            pstmt.setString(3, course.getTno());
-            pstmt.setString(4, course.getCno()); // 主键作为更新条件
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("修改课程信息失败：" + e.getMessage(), e);
+            return ScoreDao.notifying(() -> {
+                // SQL：更新课程名称、学分、授课教师编号，条件为课程编号（主键）
+                String sql = "UPDATE Course SET Cname=?, Ccredit=?, Tno=? WHERE Cno=?";
+                boolean updated = WRITE.update("修改课程信息失败", sql, course.getCname(), course.getCcredit(), // 学分>0由Course的setter校验
+                        course.getTno(), course.getCno()) > 0; // 主键作为更新条件
+                if (updated) {
+                    fireCourseChanged(course.getCno(), course);
+                }
+                return updated;
+            });
         } finally {
-            DBUtil.close(pstmt, conn);
+            COURSE_CACHE.invalidate(course.getCno());
         }
     }
 
@@ -102,24 +170,69 @@ public class CourseDao {
      * @return Course 课程实体对象（未查询到返回null）
      */
     public Course getCourseByCno(String cno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Course WHERE Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, cno);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return wrapCourseFromResultSet(rs);
+        Course cached = COURSE_CACHE.get(cno, this::queryCourseByCno);
+        // 返回副本，调用方修改返回对象不会影响缓存中的数据
+        return cached != null ? new Course(cached.getCno(), cached.getCname(), cached.getCcredit(), cached.getTno()) : null;
+    }
+
+    /**
+     * 异步根据课程编号查询单个课程（在DaoExecutor的I/O线程中执行getCourseByCno）
+     * @return CompletableFuture<Course> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Course> getCourseByCnoAsync(String cno) {
+        return DaoExecutor.supplyAsync(() -> getCourseByCno(cno));
+    }
+
+    /**
+     * 批量查询课程信息（列表页等需要多条记录的场景，代替逐条调用单条查询）
+     * 先读缓存，未命中的主键按批拼成IN列表查询（每批一条SQL，共用一个连接），查询结果写回缓存
+     * @param cnos 课程编号集合（null和重复值会被忽略）
+     * @return Map<String, Course> 课程编号 → Course（不存在的编号不在结果中）
+     */
+    public Map<String, Course> getCoursesByCnos(Collection<String> cnos) {
+        Map<String, Course> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String cno : cnos) {
+            if (cno == null || result.containsKey(cno)) {
+                continue;
+            }
+            Course cached = COURSE_CACHE.get(cno);
+            if (cached != null) {
+                result.put(cno, new Course(cached.getCno(), cached.getCname(), cached.getCcredit(), cached.getTno()));
+            } else {
+                misses.add(cno);
             }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询课程信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
         }
+        if (misses.isEmpty()) {
+            return result;
+        }
+        long version = COURSE_CACHE.getInvalidationVersion();
+        return COURSE_CACHE.load(() -> READ.execute("批量查询课程信息失败", conn -> {
+            for (List<String> chunk : DBUtil.partitionKeys(misses)) {
+                String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course WHERE Cno IN (" + DBUtil.placeholders(chunk.size()) + ")";
+                for (Course cached : JdbcTemplate.query(conn, sql, RowMappers.COURSE, chunk.toArray())) {
+                    COURSE_CACHE.putIfNotInvalidated(cached.getCno(), cached, version);
+                    result.put(cached.getCno(), new Course(cached.getCno(), cached.getCname(), cached.getCcredit(), cached.getTno()));
+                }
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * 异步批量查询课程（在DaoExecutor的I/O线程中执行getCoursesByCnos）
+     * @return CompletableFuture<Map<String, Course>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Map<String, Course>> getCoursesByCnosAsync(Collection<String> cnos) {
+        return DaoExecutor.supplyAsync(() -> getCoursesByCnos(cnos));
+    }
+
+    /**
+     * 从数据库查询单个课程信息（缓存未命中时调用）
+     */
+    private Course queryCourseByCno(String cno) {
+        String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course WHERE Cno=?";
+        return READ.queryForObject("查询课程信息失败", sql, RowMappers.COURSE, cno);
     }
 
     /**
@@ -128,25 +241,16 @@ public class CourseDao {
      * @return List<Course> 该教师的授课课程列表（无数据返回空列表）
      */
     public List<Course> getCoursesByTno(String tno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Course> courseList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Course WHERE Tno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, tno);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                courseList.add(wrapCourseFromResultSet(rs));
-            }
-            return courseList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询教师授课课程失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course WHERE Tno=?";
+        return READ.query("查询教师授课课程失败", sql, RowMappers.COURSE, tno);
+    }
+
+    /**
+     * 异步查询教师的授课课程（在DaoExecutor的I/O线程中执行getCoursesByTno）
+     * @return CompletableFuture<List<Course>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<List<Course>> getCoursesByTnoAsync(String tno) {
+        return DaoExecutor.supplyAsync(() -> getCoursesByTno(tno));
     }
 
     /**
@@ -155,26 +259,9 @@ public class CourseDao {
      * @return List<Course> 匹配的课程列表（无数据返回空列表）
      */
     public List<Course> getCoursesByName(String cname) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Course> courseList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            // 使用CONCAT拼接%，避免SQL注入（禁止直接拼接字符串）
-            String sql = "SELECT * FROM Course WHERE Cname LIKE CONCAT('%', ?, '%')";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, cname);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                courseList.add(wrapCourseFromResultSet(rs));
-            }
-            return courseList;
-        } catch (SQLException e) {
-            throw new RuntimeException("根据名称查询课程失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        // 使用CONCAT拼接%，避免SQL注入（禁止直接拼接字符串）
+        String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course WHERE Cname LIKE CONCAT('%', ?, '%')";
+        return READ.query("根据名称查询课程失败", sql, RowMappers.COURSE, cname);
     }
 
     /**
@@ -182,38 +269,69 @@ public class CourseDao {
      * @return List<Course> 课程列表（无数据返回空列表）
      */
     public List<Course> getAllCourses() {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Course> courseList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Course";
-            pstmt = conn.prepareStatement(sql);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                courseList.add(wrapCourseFromResultSet(rs));
-            }
-            return courseList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询所有课程信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        String sql = "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course";
+        return REPORT.query("查询所有课程信息失败", sql, RowMappers.COURSE);
+    }
+
+    /**
+     * 查询课程总数（管理员首页统计使用）
+     * @return int 课程总数
+     */
+    public int countCourses() {
+        return READ.queryForObject("查询课程总数失败", "SELECT COUNT(*) FROM Course", rs -> rs.getInt(1));
+    }
+
+    /**
+     * 异步查询课程总数（在DaoExecutor的I/O线程中执行countCourses）
+     * @return CompletableFuture<Integer> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Integer> countCoursesAsync() {
+        return DaoExecutor.supplyAsync(this::countCourses);
+    }
+
+    /**
+     * 键集分页查询课程信息（按课程编号升序）：以上一页最后一条的课程编号作为起点，翻到任意页都只扫描limit行
+     * 用法：首页传null，之后传上一页最后一个course.getCno()，返回条数小于limit即为最后一页
+     * @param afterCno 上一页最后一条的课程编号（首页传null）
+     * @param limit 每页条数
+     * @return List<Course> 当前页课程信息列表（无数据返回空列表）
+     */
+    public List<Course> getCoursesAfter(String afterCno, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
         }
+        if (afterCno == null) {
+            return REPORT.query("分页查询课程信息失败",
+                    "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course ORDER BY Cno LIMIT ?", RowMappers.COURSE, limit);
+        }
+        return REPORT.query("分页查询课程信息失败",
+                "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course WHERE Cno > ? ORDER BY Cno LIMIT ?", RowMappers.COURSE, afterCno, limit);
+    }
+
+    /**
+     * 流式遍历所有课程信息（按课程编号升序）：逐行读取并回调，不把整表加载到内存，内存占用与表大小无关
+     * 注：回调期间占用一个数据库连接，回调中不宜执行耗时操作
+     * @param action 每行课程信息的处理逻辑
+     * @return int 遍历的行数
+     */
+    public int forEachCourse(Consumer<Course> action) {
+        return REPORT.stream("遍历课程信息失败", "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course ORDER BY Cno",
+                rs -> action.accept(RowMappers.COURSE.mapRow(rs)));
+    }
+
+    /**
+     * 获取课程信息缓存（查看命中/未命中/淘汰计数，评估缓存容量是否合适）
+     * @return LocalCache<String, Course> 课程信息缓存
+     */
+    public static LocalCache<String, Course> getCache() {
+        return COURSE_CACHE;
     }
 
     /**
-     * 工具方法：将ResultSet封装为Course对象（复用代码，减少冗余）
-     * @param rs 结果集
-     * @return Course 课程对象
-     * @throws SQLException 数据库异常
+     * 使某教师所授课程的缓存失效（删除教师时，数据库外键会把这些课程的Tno置空）
+     * @param tno 教师编号
      */
-    private Course wrapCourseFromResultSet(ResultSet rs) throws SQLException {
-        Course course = new Course();
-        course.setCno(rs.getString("Cno"));
-        course.setCname(rs.getString("Cname"));
-        course.setCcredit(rs.getFloat("Ccredit"));
-        course.setTno(rs.getString("Tno"));
-        return course;
+    static void invalidateCoursesByTno(String tno) {
+        COURSE_CACHE.invalidateIf((cno, course) -> tno != null && tno.equals(course.getTno()));
     }
-}
\ No newline at end of file
+}
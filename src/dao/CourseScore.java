@@ -0,0 +1,41 @@
+package dao;
+
+import entity.Score;
+
+/**
+ * 带课程信息的成绩（CourseScore）
+ * 成绩表与课程表联接查询的一行结果：成绩 + 课程名称 + 课程学分，
+ * 用于成绩单等需要学分的场景，避免逐门课程再查询课程表
+ */
+public class CourseScore {
+    private final Score score;
+    private final String cname;
+    private final float ccredit;
+
+    public CourseScore(Score score, String cname, float ccredit) {
+        this.score = score;
+        this.cname = cname;
+        this.ccredit = ccredit;
+    }
+
+    public Score getScore() {
+        return score;
+    }
+
+    public String getCname() {
+        return cname;
+    }
+
+    public float getCcredit() {
+        return ccredit;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseScore{" +
+                "score=" + score +
+                ", cname='" + cname + '\'' +
+                ", ccredit=" + ccredit +
+                '}';
+    }
+}
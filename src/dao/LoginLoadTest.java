@@ -0,0 +1,167 @@
+package dao;
+
+import entity.SysUser;
+import util.AppConfig;
+import util.DBUtil;
+import util.DaoExecutor;
+import util.PasswordHashing;
+import util.ThreadPools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 登录吞吐量压测（LoginLoadTest）
+ * 独立运行的main程序，对比登录账户缓存开启和关闭时每秒完成的登录次数：
+ * 1. cache：正常使用SysUserDao的账户缓存（含不存在账户的否定缓存）
+ * 2. nocache：每次登录前清空账户缓存，每次登录都按账户查询数据库（引入缓存之前的行为）
+ * 测试数据：注册若干个临时账户（lt开头，密码相同），测试结束后删除；
+ * 每次登录随机选一个临时账户，按比例混入不存在的账户（模拟输错账户或撞库），与LoginServlet一样调用SysUserDao.loginAsync
+ * 输出每秒登录次数、延迟百分位（P50/P90/P99/最大值）、失败数和账户缓存命中率
+ * 用法：java -cp <classes:lib/*> dao.LoginLoadTest [并发数] [每种方式的登录次数] [账户数] [不存在账户比例%]
+ * 默认50个并发、5000次、200个账户、20%
+ * 注：登录耗时通常以密码哈希为主，只比较数据库访问的差异时可临时调低成本参数，如-Dpassword.pbkdf2.iterations=1000
+ * （临时账户按调低后的成本注册）；哈希线程数和队列长度见password.hash.*
+ */
+public class LoginLoadTest {
+    private static final String PASSWORD = "LoadTest#2024";
+
+    private LoginLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0].trim()) : 50;
+        int logins = args.length > 1 ? Integer.parseInt(args[1].trim()) : 5000;
+        int accountCount = args.length > 2 ? Integer.parseInt(args[2].trim()) : 200;
+        int unknownPercent = args.length > 3 ? Integer.parseInt(args[3].trim()) : 20;
+
+        SysUserDao sysUserDao = new SysUserDao();
+        String prefix = "lt" + ThreadLocalRandom.current().nextInt(10000) + "_";
+        List<String> accounts = new ArrayList<>(accountCount);
+        try {
+            // 注册时并行计算密码哈希，不计入结果
+            List<CompletableFuture<Boolean>> registrations = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                String account = prefix + i;
+                accounts.add(account);
+                registrations.add(sysUserDao.registerAsync(new SysUser(account, PASSWORD, "student"), PASSWORD));
+            }
+            registrations.forEach(CompletableFuture::join);
+
+            System.out.println("账户" + accountCount + "个，不存在账户" + unknownPercent + "%，password.pbkdf2.iterations="
+                    + AppConfig.getInt("password.pbkdf2.iterations", 0) + "，password.hash.threads="
+                    + AppConfig.getInt("password.hash.threads", 0) + "，并发" + concurrency);
+            System.out.printf("%-8s %7s %9s %9s %9s %9s %10s %7s %9s%n",
+                    "mode", "logins", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "logins/s", "failed", "hitRate");
+            for (String mode : new String[]{"cache", "nocache"}) {
+                // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+                run(sysUserDao, mode, accounts, unknownPercent, concurrency, Math.min(500, logins));
+                System.out.println(run(sysUserDao, mode, accounts, unknownPercent, concurrency, logins));
+            }
+        } finally {
+            for (String account : accounts) {
+                SysUser user = sysUserDao.getSysUserByAccount(account);
+                if (user != null) {
+                    sysUserDao.deleteSysUser(String.valueOf(user.getUserId()));
+                }
+            }
+            PasswordHashing.shutdown();
+            DaoExecutor.shutdown();
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 用concurrency个线程共完成logins次登录，等待全部完成
+     */
+    private static Result run(SysUserDao sysUserDao, String mode, List<String> accounts, int unknownPercent,
+                              int concurrency, int logins) throws InterruptedException {
+        boolean cached = "cache".equals(mode);
+        SysUserDao.getCache().invalidateAll();
+        long hits = SysUserDao.getCache().getHitCount();
+        long misses = SysUserDao.getCache().getMissCount();
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("login-load", concurrency, logins);
+        long[] latencies = new long[logins];
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(logins);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < logins; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    boolean unknown = random.nextInt(100) < unknownPercent;
+                    String account = unknown ? "nobody_" + random.nextInt(1000) : accounts.get(random.nextInt(accounts.size()));
+                    long begin = System.nanoTime();
+                    try {
+                        if (!cached) {
+                            SysUserDao.getCache().invalidateAll();
+                        }
+                        SysUser user = sysUserDao.loginAsync(account, PASSWORD).join();
+                        if ((user != null) == unknown) {
+                            throw new IllegalStateException("登录结果不符合预期：" + account);
+                        }
+                        latencies[index] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        latencies[index] = -1;
+                        failed.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long hitDelta = SysUserDao.getCache().getHitCount() - hits;
+        long missDelta = SysUserDao.getCache().getMissCount() - misses;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        double hitRate = hitDelta + missDelta > 0 ? 100.0 * hitDelta / (hitDelta + missDelta) : 0;
+        return new Result(mode, completed, elapsed, failed.get(), hitRate);
+    }
+
+    /**
+     * 一种方式的统计结果
+     */
+    private static final class Result {
+        private final String mode;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int failed;
+        private final double hitRate;
+
+        Result(String mode, long[] latencies, long elapsedNanos, int failed, double hitRate) {
+            this.mode = mode;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+            this.hitRate = hitRate;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有成功的登录时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %7d %9.1f %9.1f %9.1f %9.1f %10.0f %7d %8.1f%%", mode, latencies.length,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), failed, hitRate);
+        }
+    }
+}
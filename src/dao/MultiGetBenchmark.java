@@ -0,0 +1,135 @@
+package dao;
+
+import entity.Course;
+import entity.Student;
+import entity.SysUser;
+import entity.Teacher;
+import util.DBUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 批量查询对比（MultiGetBenchmark）
+ * 独立运行的main程序，模拟列表页按一批主键取实体，对比两种方式的延迟和每秒取到的记录数：
+ * 1. loop：逐个调用单条查询（getStudentBySno、getTeacherByTno、getCourseByCno、getSysUserByUserId），每个主键一次借用连接、一条SQL
+ * 2. batch：一次调用批量查询（getStudentsBySnos、getTeachersByTnos、getCoursesByCnos、getSysUsersByUserIds），主键按批拼成IN列表，共用一个连接
+ * 每页之前清空学生、教师和课程缓存（冷缓存，每个主键都要查询数据库；用户按ID查询本身不经过缓存）
+ * 测试数据：各表按主键顺序取前若干条已有记录，不修改数据；记录数少于每页主键数时按实际条数
+ * 用法：java -cp <classes:lib/*> dao.MultiGetBenchmark [每页主键数列表] [每种方式的页数]
+ * 默认20,100,500、每种方式200页
+ * 注：单条查询缓存命中时不访问数据库，热缓存下两种方式的差距以缓存读取为主，不在本测试范围内
+ */
+public class MultiGetBenchmark {
+    private MultiGetBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] pageSizes = args.length > 0
+                ? Arrays.stream(args[0].split(",")).map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray()
+                : new int[]{20, 100, 500};
+        int pages = args.length > 1 ? Integer.parseInt(args[1].trim()) : 200;
+        int maxKeys = Arrays.stream(pageSizes).max().orElse(0);
+
+        StudentDao studentDao = new StudentDao();
+        TeacherDao teacherDao = new TeacherDao();
+        CourseDao courseDao = new CourseDao();
+        SysUserDao sysUserDao = new SysUserDao();
+        List<String> snos = new ArrayList<>();
+        for (Student student : studentDao.getStudentsAfter(null, maxKeys)) {
+            snos.add(student.getSno());
+        }
+        List<String> tnos = new ArrayList<>();
+        for (Teacher teacher : teacherDao.getTeachersAfter(null, maxKeys)) {
+            tnos.add(teacher.getTno());
+        }
+        List<String> cnos = new ArrayList<>();
+        for (Course course : courseDao.getCoursesAfter(null, maxKeys)) {
+            cnos.add(course.getCno());
+        }
+        List<Integer> userIds = new ArrayList<>();
+        for (SysUser sysUser : sysUserDao.getSysUsersAfter(null, maxKeys)) {
+            userIds.add(sysUser.getUserId());
+        }
+
+        System.out.printf("%-8s %-6s %6s %9s %9s %9s %9s %10s%n",
+                "entity", "mode", "keys", "p50(ms)", "p99(ms)", "max(ms)", "pages/s", "rows/s");
+        try {
+            for (int pageSize : pageSizes) {
+                benchmark("student", snos, pageSize, pages, studentDao::getStudentBySno, studentDao::getStudentsBySnos);
+                benchmark("teacher", tnos, pageSize, pages, teacherDao::getTeacherByTno, teacherDao::getTeachersByTnos);
+                benchmark("course", cnos, pageSize, pages, courseDao::getCourseByCno, courseDao::getCoursesByCnos);
+                benchmark("sysuser", userIds, pageSize, pages,
+                        userId -> sysUserDao.getSysUserByUserId(String.valueOf(userId)), sysUserDao::getSysUsersByUserIds);
+            }
+        } finally {
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 同一批主键分别用loop和batch方式各取pages页
+     */
+    private static <K> void benchmark(String entity, List<K> allKeys, int pageSize, int pages, Function<K, ?> single,
+                                      Function<Collection<K>, ? extends Map<K, ?>> multi) {
+        List<K> keys = allKeys.subList(0, Math.min(pageSize, allKeys.size()));
+        if (keys.isEmpty()) {
+            System.out.printf("%-8s 表中没有记录，跳过%n", entity);
+            return;
+        }
+        for (String mode : new String[]{"loop", "batch"}) {
+            boolean loop = "loop".equals(mode);
+            // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+            run(keys, Math.min(20, pages), loop, single, multi);
+            long start = System.nanoTime();
+            long[] latencies = run(keys, pages, loop, single, multi);
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(latencies);
+            System.out.printf("%-8s %-6s %6d %9.2f %9.2f %9.2f %9.0f %10.0f%n", entity, mode, keys.size(),
+                    percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 100),
+                    pages / (elapsed / 1e9), (double) pages * keys.size() / (elapsed / 1e9));
+        }
+    }
+
+    /**
+     * 取pages页，每页之前清空缓存，核对取到的记录数
+     * @return long[] 每页的耗时（纳秒）
+     */
+    private static <K> long[] run(List<K> keys, int pages, boolean loop, Function<K, ?> single,
+                                  Function<Collection<K>, ? extends Map<K, ?>> multi) {
+        long[] latencies = new long[pages];
+        for (int i = 0; i < pages; i++) {
+            StudentDao.getCache().invalidateAll();
+            TeacherDao.getCache().invalidateAll();
+            CourseDao.getCache().invalidateAll();
+            long begin = System.nanoTime();
+            int found = 0;
+            if (loop) {
+                for (K key : keys) {
+                    if (single.apply(key) != null) {
+                        found++;
+                    }
+                }
+            } else {
+                found = multi.apply(keys).size();
+            }
+            latencies[i] = System.nanoTime() - begin;
+            if (found != keys.size()) {
+                throw new IllegalStateException("取到" + found + "条记录，应为" + keys.size() + "条（测试期间数据被修改？）");
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * 第p百分位（毫秒，最近秩法）
+     */
+    private static double percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,230 @@
+package dao;
+
+import entity.Score;
+import entity.Student;
+import util.DBUtil;
+import util.RowMapper;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 行映射吞吐量基准（RowMapperBenchmark）
+ * 独立运行的main程序，对比两种把结果集映射为实体的方式每秒映射的行数：
+ * 1. index：RowMappers中的映射器，按列清单顺序以列序号读取（当前方式）
+ * 2. name：按列名读取（引入RowMappers之前wrapScoreFromResultSet和各DAO内联映射的写法，每行每个字段按列名查找一次）
+ * 分别测试成绩（5列，含可空的成绩）和学生（5列）两种实体
+ * 结果集来源：
+ * 1. memory（默认）：JDK的CachedRowSet中的模拟数据，不连接数据库
+ * 2. db：从数据库读取成绩表和学生表的前若干行，使用MySQL驱动的结果集（按列名查找的开销以驱动的实现为准）
+ * 测量方式与JMH的吞吐量模式相同：每个组合先预热若干轮（不计入结果），再测量若干轮，每轮固定时长、反复遍历同一结果集，
+ * 输出各轮每秒映射行数的平均值、最小值和最大值
+ * 用法：java -cp <classes:lib/*> dao.RowMapperBenchmark [memory|db] [行数] [每轮秒数]
+ * 默认memory、10000行、每轮1秒；预热2轮、测量5轮
+ */
+public class RowMapperBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 5;
+
+    /**
+     * 按列名读取成绩（与原wrapScoreFromResultSet相同）
+     */
+    private static final RowMapper<Score> SCORE_BY_NAME = rs -> {
+        Score score = new Score();
+        score.setSno(rs.getString("Sno"));
+        score.setCno(rs.getString("Cno"));
+        if (rs.getObject("Score") != null) {
+            score.setScore(rs.getFloat("Score"));
+        }
+        score.setInputTime(rs.getDate("InputTime"));
+        score.setInputTno(rs.getString("InputTno"));
+        return score;
+    };
+
+    /**
+     * 按列名读取学生（与原StudentDao内联映射相同）
+     */
+    private static final RowMapper<Student> STUDENT_BY_NAME = rs -> {
+        Student student = new Student();
+        student.setSno(rs.getString("Sno"));
+        student.setSname(rs.getString("Sname"));
+        student.setSsex(rs.getString("Ssex"));
+        student.setSgrade(rs.getString("Sgrade"));
+        student.setSmajor(rs.getString("Smajor"));
+        return student;
+    };
+
+    private RowMapperBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String source = args.length > 0 ? args[0].trim() : "memory";
+        int rows = args.length > 1 ? Integer.parseInt(args[1].trim()) : 10000;
+        double roundSeconds = args.length > 2 ? Double.parseDouble(args[2].trim()) : 1;
+        boolean db = "db".equals(source);
+
+        System.out.println("结果集来源：" + source + "，预热" + WARMUP_ROUNDS + "轮，测量" + MEASURE_ROUNDS + "轮，每轮" + roundSeconds + "秒");
+        System.out.printf("%-8s %-6s %8s %14s %14s %14s%n", "entity", "mode", "rows", "rows/s", "min", "max");
+        Connection conn = null;
+        PreparedStatement scoreStmt = null;
+        PreparedStatement studentStmt = null;
+        try {
+            ResultSet scores;
+            ResultSet students;
+            if (db) {
+                conn = DBUtil.getReadConnection();
+                // 可滚动结果集：驱动一次取回全部行，每轮beforeFirst后重新遍历
+                scoreStmt = conn.prepareStatement("SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score LIMIT ?",
+                        ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                scoreStmt.setInt(1, rows);
+                scores = scoreStmt.executeQuery();
+                studentStmt = conn.prepareStatement("SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student LIMIT ?",
+                        ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                studentStmt.setInt(1, rows);
+                students = studentStmt.executeQuery();
+            } else {
+                scores = memoryScores(rows);
+                students = memoryStudents(rows);
+            }
+            benchmark("score", scores, RowMappers.SCORE, SCORE_BY_NAME, roundSeconds);
+            benchmark("student", students, RowMappers.STUDENT, STUDENT_BY_NAME, roundSeconds);
+        } finally {
+            // memory方式不加载DBUtil（不需要数据库驱动和连接池）
+            if (db) {
+                DBUtil.close(null, scoreStmt, null);
+                DBUtil.close(null, studentStmt, conn);
+                DBUtil.shutdown();
+            }
+        }
+    }
+
+    private static <T> void benchmark(String entity, ResultSet rs, RowMapper<T> byIndex, RowMapper<T> byName,
+                                      double seconds) throws SQLException {
+        int rows = countRows(rs);
+        if (rows == 0) {
+            System.out.printf("%-8s 结果集为空，跳过%n", entity);
+            return;
+        }
+        // 两种方式映射同一行的结果应相同
+        rs.beforeFirst();
+        rs.next();
+        if (!String.valueOf(byIndex.mapRow(rs)).equals(String.valueOf(byName.mapRow(rs)))) {
+            throw new IllegalStateException(entity + "按列序号和按列名映射的结果不同");
+        }
+        for (String mode : new String[]{"index", "name"}) {
+            RowMapper<T> mapper = "index".equals(mode) ? byIndex : byName;
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                round(rs, mapper, seconds);
+            }
+            double[] rates = new double[MEASURE_ROUNDS];
+            for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                rates[i] = round(rs, mapper, seconds);
+            }
+            System.out.printf("%-8s %-6s %8d %14.0f %14.0f %14.0f%n", entity, mode, rows,
+                    Arrays.stream(rates).average().orElse(Double.NaN), Arrays.stream(rates).min().orElse(Double.NaN),
+                    Arrays.stream(rates).max().orElse(Double.NaN));
+        }
+    }
+
+    /**
+     * 一轮测量：在给定时长内反复遍历结果集并映射每一行
+     * @return double 每秒映射的行数
+     */
+    private static <T> double round(ResultSet rs, RowMapper<T> mapper, double seconds) throws SQLException {
+        long mapped = 0;
+        int checksum = 0;
+        long start = System.nanoTime();
+        long deadline = start + (long) (seconds * 1e9);
+        while (System.nanoTime() < deadline) {
+            rs.beforeFirst();
+            while (rs.next()) {
+                checksum += mapper.mapRow(rs).hashCode();
+                mapped++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == Integer.MIN_VALUE) {
+            // 使用映射结果，避免被JIT当作无用代码消除
+            System.out.println(checksum);
+        }
+        return mapped / (elapsed / 1e9);
+    }
+
+    private static int countRows(ResultSet rs) throws SQLException {
+        int rows = 0;
+        rs.beforeFirst();
+        while (rs.next()) {
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * 模拟成绩结果集：列与SCORE_COLUMNS相同，约1/10的成绩为null（未录入）
+     */
+    private static ResultSet memoryScores(int rows) throws SQLException {
+        CachedRowSet rs = newRowSet(new String[]{"Sno", "Cno", "Score", "InputTime", "InputTno"},
+                new int[]{Types.VARCHAR, Types.VARCHAR, Types.REAL, Types.TIMESTAMP, Types.VARCHAR});
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            rs.moveToInsertRow();
+            rs.updateString(1, String.format("S%07d", i / 40));
+            rs.updateString(2, String.format("C%05d", i % 40));
+            if (random.nextInt(10) == 0) {
+                rs.updateNull(3);
+            } else {
+                rs.updateFloat(3, 40 + random.nextInt(61));
+            }
+            rs.updateTimestamp(4, new Timestamp(now - random.nextInt(1_000_000_000)));
+            rs.updateString(5, String.format("T%05d", random.nextInt(200)));
+            rs.insertRow();
+            rs.moveToCurrentRow();
+        }
+        return rs;
+    }
+
+    /**
+     * 模拟学生结果集：列与STUDENT_COLUMNS相同
+     */
+    private static ResultSet memoryStudents(int rows) throws SQLException {
+        CachedRowSet rs = newRowSet(new String[]{"Sno", "Sname", "Ssex", "Sgrade", "Smajor"},
+                new int[]{Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            rs.moveToInsertRow();
+            rs.updateString(1, String.format("S%07d", i));
+            rs.updateString(2, "学生" + i);
+            rs.updateString(3, random.nextBoolean() ? "男" : "女");
+            rs.updateString(4, String.valueOf(2021 + random.nextInt(4)));
+            rs.updateString(5, "专业" + random.nextInt(20));
+            rs.insertRow();
+            rs.moveToCurrentRow();
+        }
+        return rs;
+    }
+
+    private static CachedRowSet newRowSet(String[] columns, int[] types) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+            metaData.setNullable(i + 1, ResultSetMetaData.columnNullable);
+        }
+        CachedRowSet rs = RowSetProvider.newFactory().createCachedRowSet();
+        rs.setMetaData(metaData);
+        return rs;
+    }
+}
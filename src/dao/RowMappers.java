@@ -0,0 +1,98 @@
+package dao;
+
+import entity.Course;
+import entity.Score;
+import entity.SysUser;
+import entity.Student;
+import entity.Teacher;
+import util.RowMapper;
+
+/**
+ * 各实体的列清单和行映射器（RowMappers）
+ * 查询语句统一使用这里的列清单（代替SELECT *，只取实体需要的列），映射器按列清单的顺序以列序号读取，
+ * 每行每个字段不再按列名查找；修改列清单时必须同步修改对应映射器的列序号
+ */
+final class RowMappers {
+    /**
+     * 学生表列清单
+     */
+    static final String STUDENT_COLUMNS = "Sno, Sname, Ssex, Sgrade, Smajor";
+
+    static final RowMapper<Student> STUDENT = rs -> {
+        Student student = new Student();
+        student.setSno(rs.getString(1));
+        student.setSname(rs.getString(2));
+        student.setSsex(rs.getString(3));
+        student.setSgrade(rs.getString(4));
+        student.setSmajor(rs.getString(5));
+        return student;
+    };
+
+    /**
+     * 教师表列清单
+     */
+    static final String TEACHER_COLUMNS = "Tno, Tname, Tsex, Ttitle, Tdept";
+
+    static final RowMapper<Teacher> TEACHER = rs -> {
+        Teacher teacher = new Teacher();
+        teacher.setTno(rs.getString(1));
+        teacher.setTname(rs.getString(2));
+        teacher.setTsex(rs.getString(3));
+        teacher.setTtitle(rs.getString(4));
+        teacher.setTdept(rs.getString(5));
+        return teacher;
+    };
+
+    /**
+     * 课程表列清单
+     */
+    static final String COURSE_COLUMNS = "Cno, Cname, Ccredit, Tno";
+
+    static final RowMapper<Course> COURSE = rs -> {
+        Course course = new Course();
+        course.setCno(rs.getString(1));
+        course.setCname(rs.getString(2));
+        course.setCcredit(rs.getFloat(3));
+        course.setTno(rs.getString(4));
+        return course;
+    };
+
+    /**
+     * 成绩表列清单（联接查询时加表别名前缀使用，如s.Sno，顺序保持一致）
+     */
+    static final String SCORE_COLUMNS = "Sno, Cno, Score, InputTime, InputTno";
+
+    static final RowMapper<Score> SCORE = rs -> {
+        Score score = new Score();
+        score.setSno(rs.getString(1));
+        score.setCno(rs.getString(2));
+        // 成绩可为null（未录入）：getFloat对NULL返回0，需用wasNull判断
+        float value = rs.getFloat(3);
+        if (!rs.wasNull()) {
+            score.setScore(value);
+        }
+        score.setInputTime(rs.getDate(4));
+        score.setInputTno(rs.getString(5));
+        return score;
+    };
+
+    /**
+     * 系统用户表列清单
+     */
+    static final String SYS_USER_COLUMNS = "UserID, Account, Password, Role, RelID, CreateTime, Status";
+
+    static final RowMapper<SysUser> SYS_USER = rs -> {
+        SysUser sysUser = new SysUser();
+        sysUser.setUserId(rs.getInt(1));
+        sysUser.setAccount(rs.getString(2));
+        sysUser.setPassword(rs.getString(3)); // 注意：返回的是哈希后的密码
+        sysUser.setRole(rs.getString(4));
+        sysUser.setRelId(rs.getString(5));
+        sysUser.setCreateTime(rs.getDate(6));
+        sysUser.setStatus(rs.getInt(7));
+        return sysUser;
+    };
+
+    private RowMappers() {
+    }
+}
@@ -0,0 +1,43 @@
+package dao;
+
+/**
+ * 保存（插入或更新）结果
+ * 对应MySQL中 INSERT ... ON DUPLICATE KEY UPDATE 的影响行数语义：
+ * 1-新插入一行，2-更新了已有行，0-已有行且数据未变化
+ */
+public enum SaveResult {
+    /**
+     * 新插入
+     */
+    INSERTED,
+    /**
+     * 更新已有记录
+     */
+    UPDATED,
+    /**
+     * 记录已存在且数据未变化
+     */
+    UNCHANGED,
+    /**
+     * 执行失败
+     */
+    FAILED;
+
+    /**
+     * 根据影响行数得到保存结果
+     * @param updateCount INSERT ... ON DUPLICATE KEY UPDATE 的影响行数
+     * @return SaveResult 保存结果
+     */
+    public static SaveResult fromUpdateCount(int updateCount) {
+        switch (updateCount) {
+            case 0:
+                return UNCHANGED;
+            case 1:
+                return INSERTED;
+            case 2:
+                return UPDATED;
+            default:
+                return FAILED;
+        }
+    }
+}
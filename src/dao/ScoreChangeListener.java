@@ -0,0 +1,18 @@
+package dao;
+
+/**
+ * 成绩变更监听器（ScoreChangeListener）
+ * 通过ScoreDao.addScoreChangeListener注册，ScoreDao的新增/修改/保存/删除成绩在事务提交成功后回调，
+ * 用于增量维护内存中的统计、排名等派生数据，避免每次查询都重新扫描成绩表
+ * 注：回调在执行写操作的线程中同步执行，实现应尽量轻量且不抛出异常
+ */
+public interface ScoreChangeListener {
+    /**
+     * 成绩变更回调
+     * @param sno 学生编号
+     * @param cno 课程编号
+     * @param oldScore 变更前的成绩（记录不存在或成绩未录入时为null）
+     * @param newScore 变更后的成绩（记录被删除或成绩未录入时为null）
+     */
+    void onScoreChanged(String sno, String cno, Float oldScore, Float newScore);
+}
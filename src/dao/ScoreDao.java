@@ -1,21 +1,173 @@
 package dao;
 
+import entity.Course;
 import entity.Score;
+import entity.Student;
+import util.AppConfig;
 import util.DBUtil;
+import util.DaoExecutor;
+import util.JdbcTemplate;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
 
 /**
  * 成绩数据访问层（ScoreDao）
  * 封装Score表的所有数据库操作（增删改查），依赖DBUtil工具类和Score实体类
- * 核心适配：复合主键（sno+cno）、成绩范围约束、录入时间默认值、按学生/课程维度查询成绩
+ * 核心适配：复合主键（sno+cno）、成绩范围约束、录入时间默认值、按学生/课程维度查询成绩、期末批量导入
+ * SQL经JdbcTemplate执行：写操作使用oltp数据源，查询使用只读连接，全表扫描使用报表数据源
  */
 public class ScoreDao {
+    private static final JdbcTemplate WRITE = JdbcTemplate.forWrite(DBUtil.OLTP);
+
+    private static final JdbcTemplate READ = JdbcTemplate.forRead(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate REPORT = JdbcTemplate.forRead(DBUtil.REPORT);
+
+    /**
+     * 新增成绩SQL（单条新增和批量导入共用）
+     */
+    private static final String INSERT_SQL = "INSERT INTO Score (Sno, Cno, Score, InputTime, InputTno) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * 保存成绩SQL：复合主键（Sno, Cno）不存在则插入，存在则更新（参数顺序与INSERT_SQL一致）
+     */
+    private static final String UPSERT_SQL = INSERT_SQL
+            + " ON DUPLICATE KEY UPDATE Score=VALUES(Score), InputTime=VALUES(InputTime), InputTno=VALUES(InputTno)";
+
+    /**
+     * 批量导入默认每批行数（可通过配置项score.import.batchSize调整）
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 成绩变更监听器（为空时写操作不读取变更前的成绩，没有额外开销）
+     */
+    private static final List<ScoreChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // -------------------------- 成绩变更监听 --------------------------
+    /**
+     * 注册成绩变更监听器：此后成绩写操作在事务提交后回调监听器
+     * 注：注册后修改/保存/删除成绩会在同一事务中先用SELECT ... FOR UPDATE读取变更前的成绩
+     * @param listener 监听器
+     */
+    public static void addScoreChangeListener(ScoreChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除成绩变更监听器
+     * @param listener 监听器
+     */
+    public static void removeScoreChangeListener(ScoreChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 写操作与派生数据重建之间的栅栏：会回调监听器的写操作从事务开始到回调完成持有读锁（notifying），
+     * 建立重建快照时持有写锁（scanSnapshot），保证任意一次成绩变更要么已包含在快照中且已回调完毕，
+     * 要么在快照建立之后才开始，重建时重放快照之后回调的变更既不会遗漏也不会重复
+     */
+    private static final ReentrantReadWriteLock NOTIFY_FENCE = new ReentrantReadWriteLock();
+
+    /**
+     * 执行会回调成绩变更监听器的写操作（未注册监听器时直接执行）：期间持有NOTIFY_FENCE读锁
+     * 学生/课程的新增、修改和删除同样通过本方法执行（删除会级联删除成绩，新增和修改会回调学生/课程变更监听器，排名等派生数据同时依赖两者）
+     * 注：监听器回调期间持有读锁，回调中不应访问数据库（等待连接或并发许可时会连同读锁一起阻塞重建和其他写操作），所需数据应由变更事件本身提供
+     * @param write 写操作（含提交后的监听器回调）
+     * @return T 写操作的返回值
+     */
+    static <T> T notifying(Supplier<T> write) {
+        if (LISTENERS.isEmpty()) {
+            return write.get();
+        }
+        NOTIFY_FENCE.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            NOTIFY_FENCE.readLock().unlock();
+        }
+    }
+
+    /**
+     * 回调所有监听器（单个监听器异常不影响其他监听器和写操作结果）
+     */
+    private static void fireScoreChanged(String sno, String cno, Float oldScore, Float newScore) {
+        for (ScoreChangeListener listener : LISTENERS) {
+            try {
+                listener.onScoreChanged(sno, cno, oldScore, newScore);
+            } catch (RuntimeException e) {
+                System.err.println("成绩变更监听器执行失败（" + sno + ", " + cno + "）：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return boolean 是否注册了成绩变更监听器（学生/课程删除时据此决定是否需要先读出级联删除的成绩）
+     */
+    static boolean hasScoreChangeListeners() {
+        return !LISTENERS.isEmpty();
+    }
+
+    /**
+     * 在当前事务中锁定并读取某个学生或课程的全部成绩：Score表的外键为ON DELETE CASCADE，
+     * 删除学生/课程时这些成绩随之删除，删除前读出，提交后通过fireScoresDeleted通知监听器
+     * @param keyColumn 条件列（Sno或Cno）
+     * @param key 学生编号或课程编号
+     * @return List<Score> 将被级联删除的成绩（只包含sno、cno、score）
+     */
+    static List<Score> selectScoresForCascadeDelete(Connection conn, String keyColumn, String key) throws SQLException {
+        if (!"Sno".equals(keyColumn) && !"Cno".equals(keyColumn)) {
+            throw new IllegalArgumentException("不支持的级联删除条件列：" + keyColumn);
+        }
+        return JdbcTemplate.query(conn, "SELECT Sno, Cno, Score FROM Score WHERE " + keyColumn + "=? FOR UPDATE", rs -> {
+            Score row = new Score();
+            row.setSno(rs.getString(1));
+            row.setCno(rs.getString(2));
+            float value = rs.getFloat(3);
+            if (!rs.wasNull()) {
+                row.setScore(value);
+            }
+            return row;
+        }, key);
+    }
+
+    /**
+     * 通知监听器成绩已被级联删除（删除学生/课程的事务提交后调用）
+     * @param scores selectScoresForCascadeDelete读出的成绩
+     */
+    static void fireScoresDeleted(List<Score> scores) {
+        for (Score score : scores) {
+            fireScoreChanged(score.getSno(), score.getCno(), score.getScore(), null);
+        }
+    }
+
+    /**
+     * 在当前事务中锁定并读取成绩的当前值（供监听器获取变更前的成绩）
+     * @return Float 当前成绩（记录不存在或成绩未录入返回null）
+     */
+    private Float selectScoreForUpdate(Connection conn, String sno, String cno) throws SQLException {
+        return JdbcTemplate.queryForObject(conn, "SELECT Score FROM Score WHERE Sno=? AND Cno=? FOR UPDATE", rs -> {
+            float value = rs.getFloat(1);
+            return rs.wasNull() ? null : value;
+        }, sno, cno);
+    }
+
     /**
      * 新增成绩信息
      * @param score 成绩实体对象（需包含非空字段：sno、cno，score可为空表示未录入）
@@ -23,34 +175,362 @@ public class ScoreDao {
      * 注：复合主键（sno+cno）重复会抛出异常
      */
     public boolean addScore(Score score) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
+        return notifying(() -> insertScore(score));
+    }
+
+    private boolean insertScore(Score score) {
+        boolean added;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "INSERT INTO Score (Sno, Cno, Score, InputTime, InputTno) VALUES (?, ?, ?, ?, ?)";
-            // 录入时间为空则填充当前时间
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, score.getSno());
-            pstmt.setString(2, score.getCno());
-            // 成绩可为null（未录入）
-            if (score.getScore() != null) {
-                pstmt.setFloat(3, score.getScore());
-            } else {
-                pstmt.setNull(3, java.sql.Types.FLOAT);
-            }
-            // 录入时间默认当前时间
-            pstmt.setDate(4, score.getInputTime() != null ? new java.sql.Date(score.getInputTime().getTime()) : new java.sql.Date(new Date().getTime()));
-            pstmt.setString(5, score.getInputTno());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            added = WRITE.execute(conn -> JdbcTemplate.update(conn, INSERT_SQL, insertArgs(score))) > 0;
         } catch (SQLException e) {
             if (e.getMessage().contains("PRIMARY")) {
                 throw new RuntimeException("新增成绩失败：该学生的该课程成绩已存在！", e);
             }
             throw new RuntimeException("新增成绩信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(pstmt, conn);
         }
+        if (added) {
+            fireScoreChanged(score.getSno(), score.getCno(), null, score.getScore());
+        }
+        return added;
+    }
+
+    /**
+     * 批量导入成绩（期末集中录入场景），每批行数取配置项score.import.batchSize
+     * @param scores 成绩列表
+     * @return BatchResult<Score> 每行的导入结果（失败行附带原因）
+     * @see #addScores(Iterator, int)
+     */
+    public BatchResult<Score> addScores(Collection<Score> scores) {
+        return addScores(scores.iterator(), AppConfig.getInt("score.import.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * 批量导入成绩（流式）：边读取边按批次写入，调用方无需一次性准备好全部数据（如逐行解析Excel/CSV）
+     * 整个导入只占用一个连接；每批使用JDBC批处理执行并单独提交一个事务，
+     * 某批中有行失败（如成绩已存在）时回滚该批，再逐行重试以定位失败行，其余行正常提交
+     * @param scores 成绩迭代器
+     * @param batchSize 每批行数（每批一个事务）
+     * @return BatchResult<Score> 每行的导入结果（失败行附带原因）
+     * @throws RuntimeException 数据库连接异常等无法继续导入时抛出，此前已提交的批次不会回滚
+     */
+    public BatchResult<Score> addScores(Iterator<Score> scores, int batchSize) {
+        return notifying(() -> insertScores(scores, batchSize));
+    }
+
+    private BatchResult<Score> insertScores(Iterator<Score> scores, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("每批行数必须大于0");
+        }
+        BatchResult<Score> result = new BatchResult<>();
+        List<Score> chunk = new ArrayList<>(batchSize);
+        try {
+            // 连接归还连接池时会回滚未提交的事务并恢复自动提交
+            return WRITE.execute(conn -> {
+                conn.setAutoCommit(false);
+                while (scores.hasNext()) {
+                    chunk.add(scores.next());
+                    if (chunk.size() == batchSize) {
+                        executeInsertChunk(conn, chunk, result);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    executeInsertChunk(conn, chunk, result);
+                }
+                return result;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("批量导入成绩失败（已成功导入" + result.getSuccessCount() + "行）：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行一批插入并提交，批处理失败时逐行重试定位失败行
+     */
+    private void executeInsertChunk(Connection conn, List<Score> chunk, BatchResult<Score> result) throws SQLException {
+        int size = chunk.size();
+        String[] errors = new String[size];
+        int[] counts = new int[size];
+        executeChunk(conn, INSERT_SQL, chunk, counts, errors, null);
+        recordChunk(chunk, counts, errors, result);
+        if (!LISTENERS.isEmpty()) {
+            for (int i = 0; i < size; i++) {
+                if (errors[i] == null) {
+                    fireScoreChanged(chunk.get(i).getSno(), chunk.get(i).getCno(), null, chunk.get(i).getScore());
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐行重试前在同一事务中执行的操作（如重新锁定读取该行的原成绩）
+     */
+    @FunctionalInterface
+    private interface RetryHook {
+        void beforeRetry(int index) throws SQLException;
+    }
+
+    /**
+     * 以JDBC批处理执行一批写入并提交（成绩批量导入、批量保存共用）
+     * 批处理失败时回滚，再逐行重试：InnoDB中单条语句失败只回滚该语句，其余行可以正常提交
+     * 注：回滚会释放批处理前加的行锁，此前读出的数据在重试时可能已被其他事务修改，需要的话由beforeRetry重新读取
+     * @param counts 输出：每行的影响行数
+     * @param errors 输出：每行的失败原因（成功为null）
+     * @param beforeRetry 逐行重试时每行执行前的操作（可为null；抛出异常时该行按失败处理）
+     * @return boolean 是否经过逐行重试（重试时counts为逐条执行的实际影响行数）
+     */
+    private boolean executeChunk(Connection conn, String sql, List<Score> chunk,
+                                 int[] counts, String[] errors, RetryHook beforeRetry) throws SQLException {
+        int size = chunk.size();
+        List<Score> valid = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            errors[i] = validateKey(chunk.get(i));
+            if (errors[i] == null) {
+                valid.add(chunk.get(i));
+            }
+        }
+        try {
+            int[] batchCounts = JdbcTemplate.batch(conn, sql, valid, (pstmt, score) -> JdbcTemplate.bind(pstmt, insertArgs(score)));
+            conn.commit();
+            for (int i = 0, j = 0; i < size; i++) {
+                if (errors[i] == null) {
+                    counts[i] = batchCounts[j++];
+                }
+            }
+            return false;
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            for (int i = 0; i < size; i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                try {
+                    if (beforeRetry != null) {
+                        beforeRetry.beforeRetry(i);
+                    }
+                    counts[i] = JdbcTemplate.update(conn, sql, insertArgs(chunk.get(i)));
+                } catch (SQLException rowError) {
+                    errors[i] = describeInsertError(rowError);
+                }
+            }
+            conn.commit();
+            return true;
+        }
+    }
+
+    private void recordChunk(List<Score> chunk, int[] counts, String[] errors, BatchResult<Score> result) {
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] != null) {
+                result.recordFailure(chunk.get(i), errors[i]);
+            } else {
+                result.recordSuccess(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * 校验成绩的复合主键（批量导入时提前拦截，避免整批失败）
+     * @return String 错误原因（校验通过返回null）
+     */
+    private String validateKey(Score score) {
+        if (score == null) {
+            return "成绩数据为空";
+        }
+        if (score.getSno() == null || score.getCno() == null) {
+            return "学生编号和课程编号不能为空";
+        }
+        return null;
+    }
+
+    private String describeInsertError(SQLException e) {
+        if (e.getMessage() != null && e.getMessage().contains("PRIMARY")) {
+            return "该学生的该课程成绩已存在";
+        }
+        return e.getMessage();
+    }
+
+    /**
+     * INSERT_SQL/UPSERT_SQL的参数（新增、批量导入、保存共用）
+     */
+    private static Object[] insertArgs(Score score) {
+        return new Object[] {
+                score.getSno(),
+                score.getCno(),
+                score.getScore(), // 成绩可为null（未录入）
+                JdbcTemplate.toSqlDate(score.getInputTime()), // 录入时间默认当前时间
+                score.getInputTno()
+        };
+    }
+
+    /**
+     * 保存成绩（成绩录入推荐使用）：不存在则新增，已存在则更新成绩、录入时间和录入教师
+     * 基于复合主键（sno+cno）的 INSERT ... ON DUPLICATE KEY UPDATE，一次往返完成，
+     * 无需先调用getScoreBySnoAndCno判断，多位教师同时录入同一成绩时也不会出现主键冲突
+     * @param score 成绩实体对象（需包含非空字段：sno、cno）
+     * @return SaveResult 新增返回INSERTED，更新返回UPDATED，数据未变化返回UNCHANGED
+     */
+    public SaveResult saveScore(Score score) {
+        return notifying(() -> upsertScore(score));
+    }
+
+    private SaveResult upsertScore(Score score) {
+        String error = validateKey(score);
+        if (error != null) {
+            throw new IllegalArgumentException("保存成绩失败：" + error);
+        }
+        boolean notify = !LISTENERS.isEmpty();
+        // 变更前的成绩（在事务中读取，连接归还后再回调监听器）
+        Float[] oldScore = new Float[1];
+        SaveResult saveResult = WRITE.execute("保存成绩信息失败", conn -> {
+            if (notify) {
+                conn.setAutoCommit(false);
+                oldScore[0] = selectScoreForUpdate(conn, score.getSno(), score.getCno());
+            }
+            SaveResult updateResult = SaveResult.fromUpdateCount(JdbcTemplate.update(conn, UPSERT_SQL, insertArgs(score)));
+            if (notify) {
+                conn.commit();
+            }
+            return updateResult;
+        });
+        if (notify && (saveResult == SaveResult.INSERTED || saveResult == SaveResult.UPDATED)) {
+            fireScoreChanged(score.getSno(), score.getCno(), oldScore[0], score.getScore());
+        }
+        return saveResult;
+    }
+
+    /**
+     * 批量保存成绩：不存在则新增，已存在则更新，每批行数取配置项score.import.batchSize
+     * @param scores 成绩列表
+     * @return BatchResult<Score> 每行的保存结果，可用SaveResult.fromUpdateCount(result.getUpdateCount(i))区分新增/更新
+     * @see #saveScores(Iterator, int)
+     */
+    public BatchResult<Score> saveScores(Collection<Score> scores) {
+        return saveScores(scores.iterator(), AppConfig.getInt("score.import.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * 批量保存成绩（流式）：每批先用一条IN查询取出已存在的主键，再以JDBC批处理执行upsert并提交一个事务
+     * 驱动合并批处理（rewriteBatchedStatements）后无法返回逐行影响行数，此时按批前是否存在区分新增/更新，
+     * 成绩与原值相同的行视为未变化（只比较成绩，不比较录入时间和录入教师）
+     * @param scores 成绩迭代器
+     * @param batchSize 每批行数（每批一个事务）
+     * @return BatchResult<Score> 每行的保存结果（影响行数语义同saveScore：1-新增，2-更新，0-未变化）
+     * @throws RuntimeException 数据库连接异常等无法继续保存时抛出，此前已提交的批次不会回滚
+     */
+    public BatchResult<Score> saveScores(Iterator<Score> scores, int batchSize) {
+        return notifying(() -> upsertScores(scores, batchSize));
+    }
+
+    private BatchResult<Score> upsertScores(Iterator<Score> scores, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("每批行数必须大于0");
+        }
+        BatchResult<Score> result = new BatchResult<>();
+        List<Score> chunk = new ArrayList<>(batchSize);
+        try {
+            return WRITE.execute(conn -> {
+                conn.setAutoCommit(false);
+                while (scores.hasNext()) {
+                    chunk.add(scores.next());
+                    if (chunk.size() == batchSize) {
+                        executeUpsertChunk(conn, chunk, result);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    executeUpsertChunk(conn, chunk, result);
+                }
+                return result;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("批量保存成绩失败（已成功保存" + result.getSuccessCount() + "行）：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行一批upsert：先查出本批中已存在的成绩，驱动未返回逐行影响行数时据此区分新增/更新/未变化
+     * 注册了成绩变更监听器时，同一事务中锁定这些行，提交后按查出的原成绩回调监听器（未变化的行不回调）
+     * 批处理失败回滚后行锁已释放，逐行重试时每行执行前重新锁定读取原成绩，不使用批前查出的值
+     */
+    private void executeUpsertChunk(Connection conn, List<Score> chunk, BatchResult<Score> result) throws SQLException {
+        int size = chunk.size();
+        String[] errors = new String[size];
+        int[] counts = new int[size];
+        boolean notify = !LISTENERS.isEmpty();
+        // 按行顺序推进的"当前成绩"：同一批中同一主键出现多次时，后面的行与前一行写入的值比较
+        Map<Score, Float> current = findExistingScores(conn, chunk, notify);
+        Float[] oldScores = new Float[size];
+        boolean retried = executeChunk(conn, UPSERT_SQL, chunk, counts, errors, !notify ? null : i -> {
+            Score score = chunk.get(i);
+            oldScores[i] = selectScoreForUpdate(conn, score.getSno(), score.getCno());
+        });
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null || retried) {
+                continue; // 逐行重试时影响行数和原成绩都是逐条得到的
+            }
+            Score score = chunk.get(i);
+            boolean exists = current.containsKey(score);
+            oldScores[i] = current.get(score);
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                counts[i] = !exists ? 1 : Objects.equals(oldScores[i], score.getScore()) ? 0 : 2;
+            }
+            current.put(score, score.getScore());
+        }
+        recordChunk(chunk, counts, errors, result);
+        if (notify) {
+            for (int i = 0; i < size; i++) {
+                if (errors[i] == null && counts[i] != 0) {
+                    Score score = chunk.get(i);
+                    fireScoreChanged(score.getSno(), score.getCno(), oldScores[i], score.getScore());
+                }
+            }
+        }
+    }
+
+    /**
+     * 一次查询取出本批成绩中已存在的复合主键及其原成绩
+     * @param forUpdate 是否锁定查出的行（需要把原成绩交给监听器时使用）
+     * @return Map<Score, Float> 已存在的成绩 → 原成绩（Score的equals/hashCode基于复合主键；成绩未录入时值为null）
+     */
+    private Map<Score, Float> findExistingScores(Connection conn, List<Score> chunk, boolean forUpdate) throws SQLException {
+        List<Score> keys = new ArrayList<>(chunk.size());
+        for (Score score : chunk) {
+            if (validateKey(score) == null) {
+                keys.add(score);
+            }
+        }
+        Map<Score, Float> existing = new HashMap<>();
+        if (keys.isEmpty()) {
+            return existing;
+        }
+        StringBuilder sql = new StringBuilder("SELECT Sno, Cno, Score FROM Score WHERE (Sno, Cno) IN (");
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        sql.append(')');
+        if (forUpdate) {
+            sql.append(" FOR UPDATE");
+        }
+        Object[] args = new Object[keys.size() * 2];
+        int index = 0;
+        for (Score key : keys) {
+            args[index++] = key.getSno();
+            args[index++] = key.getCno();
+        }
+        List<Score> rows = JdbcTemplate.query(conn, sql.toString(), rs -> {
+            Score row = new Score();
+            row.setSno(rs.getString(1));
+            row.setCno(rs.getString(2));
+            float value = rs.getFloat(3);
+            if (!rs.wasNull()) {
+                row.setScore(value);
+            }
+            return row;
+        }, args);
+        for (Score row : rows) {
+            existing.put(row, row.getScore());
+        }
+        return existing;
     }
 
     /**
@@ -60,54 +540,67 @@ public class ScoreDao {
      * @return boolean 删除成功返回true，失败返回false
      */
     public boolean deleteScore(String sno, String cno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "DELETE FROM Score WHERE Sno=? AND Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sno);
-            pstmt.setString(2, cno);
-            int affectedRows = pstmt.executeUpdate();
+        return notifying(() -> removeScore(sno, cno));
+    }
+
+    private boolean removeScore(String sno, String cno) {
+        boolean notify = !LISTENERS.isEmpty();
+        Float[] oldScore = new Float[1];
+        boolean deleted = WRITE.execute("删除成绩信息失败", conn -> {
+            if (notify) {
+                conn.setAutoCommit(false);
+                oldScore[0] = selectScoreForUpdate(conn, sno, cno);
+            }
+            int affectedRows = JdbcTemplate.update(conn, "DELETE FROM Score WHERE Sno=? AND Cno=?", sno, cno);
+            if (notify) {
+                conn.commit();
+            }
             return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("删除成绩信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(pstmt, conn);
+        });
+        if (notify && deleted) {
+            fireScoreChanged(sno, cno, oldScore[0], null);
         }
+        return deleted;
     }
 
     /**
      * 修改成绩信息（根据复合主键更新）
      * @param score 成绩实体对象（必须包含sno、cno，其他字段按需修改）
-     * @return boolean 修改成功返回true，失败返回false
+     * @return boolean 成绩记录存在返回true（包括数据与原记录相同、未实际修改的情况），不存在返回false
+     * 注：oltp数据源开启了useAffectedRows，数据未变化时影响行数为0，此时再按主键确认记录是否存在，
+     *     未实际修改时不回调成绩变更监听器；需要区分更新/未变化时使用saveScore
      */
     public boolean updateScore(Score score) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        try {
-            conn = DBUtil.getConnection();
+        return notifying(() -> modifyScore(score));
+    }
+
+    private boolean modifyScore(Score score) {
+        boolean notify = !LISTENERS.isEmpty();
+        Float[] oldScore = new Float[1];
+        boolean[] changed = new boolean[1];
+        boolean updated = WRITE.execute("修改成绩信息失败", conn -> {
+            if (notify) {
+                conn.setAutoCommit(false);
+                oldScore[0] = selectScoreForUpdate(conn, score.getSno(), score.getCno());
+            }
             String sql = "UPDATE Score SET Score=?, InputTime=?, InputTno=? WHERE Sno=? AND Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            // 成绩可为null
-            if (score.getScore() != null) {
-                pstmt.setFloat(1, score.getScore());
-            } else {
-                pstmt.setNull(1, java.sql.Types.FLOAT);
-            }
-            // 录入时间默认当前时间
-            pstmt.setDate(2, score.getInputTime() != null ? new java.sql.Date(score.getInputTime().getTime()) : new java.sql.Date(new Date().getTime()));
-            pstmt.setString(3, score.getInputTno());
-            // 复合主键作为更新条件
-            pstmt.setString(4, score.getSno());
-            pstmt.setString(5, score.getCno());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("修改成绩信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(pstmt, conn);
+            int affectedRows = JdbcTemplate.update(conn, sql,
+                    score.getScore(), // 成绩可为null
+                    JdbcTemplate.toSqlDate(score.getInputTime()), // 录入时间默认当前时间
+                    score.getInputTno(),
+                    score.getSno(), score.getCno()); // 复合主键作为更新条件
+            changed[0] = affectedRows > 0;
+            boolean found = changed[0] || JdbcTemplate.queryForObject(conn, "SELECT 1 FROM Score WHERE Sno=? AND Cno=?",
+                    rs -> Boolean.TRUE, score.getSno(), score.getCno()) != null;
+            if (notify) {
+                conn.commit();
+            }
+            return found;
+        });
+        if (notify && changed[0]) {
+            fireScoreChanged(score.getSno(), score.getCno(), oldScore[0], score.getScore());
         }
+        return updated;
     }
 
     /**
@@ -117,25 +610,16 @@ public class ScoreDao {
      * @return Score 成绩实体对象（未查询到返回null）
      */
     public Score getScoreBySnoAndCno(String sno, String cno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Score WHERE Sno=? AND Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sno);
-            pstmt.setString(2, cno);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return wrapScoreFromResultSet(rs);
-            }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询成绩信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score WHERE Sno=? AND Cno=?";
+        return READ.queryForObject("查询成绩信息失败", sql, RowMappers.SCORE, sno, cno);
+    }
+
+    /**
+     * 异步查询单条成绩（在DaoExecutor的I/O线程中执行getScoreBySnoAndCno）
+     * @return CompletableFuture<Score> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Score> getScoreBySnoAndCnoAsync(String sno, String cno) {
+        return DaoExecutor.supplyAsync(() -> getScoreBySnoAndCno(sno, cno));
     }
 
     /**
@@ -144,25 +628,38 @@ public class ScoreDao {
      * @return List<Score> 该学生的成绩列表（无数据返回空列表）
      */
     public List<Score> getScoresBySno(String sno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Score> scoreList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Score WHERE Sno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sno);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                scoreList.add(wrapScoreFromResultSet(rs));
-            }
-            return scoreList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询学生成绩列表失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score WHERE Sno=?";
+        return READ.query("查询学生成绩列表失败", sql, RowMappers.SCORE, sno);
+    }
+
+    /**
+     * 异步查询学生的全部成绩（在DaoExecutor的I/O线程中执行getScoresBySno）
+     * @return CompletableFuture<List<Score>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<List<Score>> getScoresBySnoAsync(String sno) {
+        return DaoExecutor.supplyAsync(() -> getScoresBySno(sno));
+    }
+
+    /**
+     * 查询学生所有课程的成绩及课程学分（成绩表联接课程表，一次查询取回成绩单所需的全部数据）
+     * 按录入时间、课程编号升序排列
+     * @param sno 学生编号
+     * @return List<CourseScore> 带课程名称和学分的成绩列表（无数据返回空列表）
+     */
+    public List<CourseScore> getCourseScoresBySno(String sno) {
+        String sql = "SELECT s.Sno, s.Cno, s.Score, s.InputTime, s.InputTno, c.Cname, c.Ccredit " +
+                "FROM Score s JOIN Course c ON c.Cno = s.Cno WHERE s.Sno=? ORDER BY s.InputTime, s.Cno";
+        // 前5列为成绩表列清单（s.前缀），之后为课程名称和学分
+        return READ.query("查询学生成绩单失败", sql,
+                rs -> new CourseScore(RowMappers.SCORE.mapRow(rs), rs.getString(6), rs.getFloat(7)), sno);
+    }
+
+    /**
+     * 异步查询学生的成绩单（在DaoExecutor的I/O线程中执行getCourseScoresBySno）
+     * @return CompletableFuture<List<CourseScore>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<List<CourseScore>> getCourseScoresBySnoAsync(String sno) {
+        return DaoExecutor.supplyAsync(() -> getCourseScoresBySno(sno));
     }
 
     /**
@@ -171,68 +668,175 @@ public class ScoreDao {
      * @return List<Score> 该课程的成绩列表（无数据返回空列表）
      */
     public List<Score> getScoresByCno(String cno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Score> scoreList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Score WHERE Cno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, cno);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                scoreList.add(wrapScoreFromResultSet(rs));
-            }
-            return scoreList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询课程成绩列表失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score WHERE Cno=?";
+        return READ.query("查询课程成绩列表失败", sql, RowMappers.SCORE, cno);
+    }
+
+    /**
+     * 异步查询课程的全部成绩（在DaoExecutor的I/O线程中执行getScoresByCno）
+     * @return CompletableFuture<List<Score>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<List<Score>> getScoresByCnoAsync(String cno) {
+        return DaoExecutor.supplyAsync(() -> getScoresByCno(cno));
+    }
+
+    /**
+     * 查询教师每门授课课程的选课人数（课程表左联接成绩表按课程分组，一次查询；没有成绩记录的课程人数为0）
+     * @param tno 教师编号
+     * @return Map<String, Integer> 课程编号 → 选课人数
+     */
+    public Map<String, Integer> getRosterSizesByTno(String tno) {
+        String sql = "SELECT c.Cno, COUNT(s.Sno) FROM Course c LEFT JOIN Score s ON s.Cno = c.Cno WHERE c.Tno=? GROUP BY c.Cno";
+        Map<String, Integer> result = new HashMap<>();
+        READ.stream("查询课程选课人数失败", sql, rs -> result.put(rs.getString(1), rs.getInt(2)), tno);
+        return result;
+    }
+
+    /**
+     * 异步查询教师各课程的选课人数（在DaoExecutor的I/O线程中执行getRosterSizesByTno）
+     * @return CompletableFuture<Map<String, Integer>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Map<String, Integer>> getRosterSizesByTnoAsync(String tno) {
+        return DaoExecutor.supplyAsync(() -> getRosterSizesByTno(tno));
+    }
+
+    /**
+     * 流式读取课程的所有成绩值（只查询成绩列，跳过未录入的成绩）：逐行以原始double回调，不创建Score对象
+     * 用于课程成绩统计等只需要成绩数值的场景
+     * @param cno 课程编号
+     * @param action 每个成绩值的处理逻辑
+     * @return int 读取的成绩条数
+     */
+    public int forEachScoreValueByCno(String cno, DoubleConsumer action) {
+        return READ.stream("读取课程成绩失败", "SELECT Score FROM Score WHERE Cno=? AND Score IS NOT NULL",
+                rs -> action.accept(rs.getDouble(1)), cno);
+    }
+
+    /**
+     * 流式读取全部已录入的成绩值（课程编号 + 成绩）：一次扫描成绩表，逐行回调，不创建Score对象
+     * 用于报表等全表汇总场景（使用报表数据源，可能读到从库的旧数据；需要与增量变更对齐的派生数据请使用scanScoreSnapshot）
+     * @param action 每行的处理逻辑（课程编号, 成绩）
+     * @return int 读取的成绩条数
+     */
+    public int forEachCourseScoreValue(ObjDoubleConsumer<String> action) {
+        return REPORT.stream("遍历成绩信息失败", "SELECT Cno, Score FROM Score WHERE Score IS NOT NULL",
+                rs -> action.accept(rs.getString(1), rs.getDouble(2)));
+    }
+
+    /**
+     * 流式读取全部已录入的成绩值（学生编号 + 课程编号 + 成绩）：一次扫描成绩表，逐行回调，不创建Score对象
+     * 用于报表等全表汇总场景（使用报表数据源，可能读到从库的旧数据；需要与增量变更对齐的派生数据请使用scanSnapshot）
+     * @param action 每行的处理逻辑
+     * @return int 读取的成绩条数
+     */
+    public int forEachScoreValue(ScoreValueConsumer action) {
+        return REPORT.stream("遍历成绩信息失败", "SELECT Sno, Cno, Score FROM Score WHERE Score IS NOT NULL",
+                rs -> action.accept(rs.getString(1), rs.getString(2), rs.getDouble(3)));
+    }
+
+    /**
+     * 一致性快照扫描（派生数据重建使用，如班级排名）：在主库的一个REPEATABLE READ一致性快照事务中，
+     * 依次流式读取全部课程、学生和已录入的成绩，三张表的数据对应同一时间点
+     * 快照在成绩写操作静止时建立（持有NOTIFY_FENCE写锁，等待进行中的写操作提交并回调完毕），onSnapshot在同一时刻执行：
+     * 此前回调过的成绩变更都已包含在快照中，此后回调的变更都不在快照中，调用方在onSnapshot中开始记录变更，扫描结束后重放即可
+     * 注：onSnapshot执行期间成绩写操作等待，应只做内存操作
+     * @param onSnapshot 快照建立时的回调
+     * @param courseAction 每门课程的处理逻辑
+     * @param studentAction 每个学生的处理逻辑
+     * @param scoreAction 每条已录入成绩的处理逻辑
+     */
+    public void scanSnapshot(Runnable onSnapshot, Consumer<Course> courseAction, Consumer<Student> studentAction,
+                             ScoreValueConsumer scoreAction) {
+        inSnapshot(onSnapshot, conn -> {
+            JdbcTemplate.stream(conn, "SELECT " + RowMappers.COURSE_COLUMNS + " FROM Course",
+                    rs -> courseAction.accept(RowMappers.COURSE.mapRow(rs)));
+            JdbcTemplate.stream(conn, "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student",
+                    rs -> studentAction.accept(RowMappers.STUDENT.mapRow(rs)));
+            return streamScoreValues(conn, scoreAction);
+        });
+    }
+
+    /**
+     * 一致性快照扫描，只读取已录入的成绩（课程成绩统计等只依赖成绩表的派生数据使用），快照与onSnapshot的约定同scanSnapshot
+     * @param onSnapshot 快照建立时的回调
+     * @param scoreAction 每条已录入成绩的处理逻辑
+     * @return int 读取的成绩条数
+     */
+    public int scanScoreSnapshot(Runnable onSnapshot, ScoreValueConsumer scoreAction) {
+        return inSnapshot(onSnapshot, conn -> streamScoreValues(conn, scoreAction));
+    }
+
+    /**
+     * 在主库开启一致性快照事务（持有NOTIFY_FENCE写锁建立快照并执行onSnapshot），在快照中执行scan后提交
+     */
+    private static int inSnapshot(Runnable onSnapshot, JdbcTemplate.ConnectionCallback<Integer> scan) {
+        return WRITE.execute("扫描成绩快照失败", conn -> {
+            int isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                conn.setAutoCommit(false);
+                NOTIFY_FENCE.writeLock().lock();
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                    onSnapshot.run();
+                } finally {
+                    NOTIFY_FENCE.writeLock().unlock();
+                }
+                int count = scan.doInConnection(conn);
+                conn.commit();
+                return count;
+            } finally {
+                conn.setTransactionIsolation(isolation);
+            }
+        });
+    }
+
+    private static int streamScoreValues(Connection conn, ScoreValueConsumer scoreAction) throws SQLException {
+        return JdbcTemplate.stream(conn, "SELECT Sno, Cno, Score FROM Score WHERE Score IS NOT NULL",
+                rs -> scoreAction.accept(rs.getString(1), rs.getString(2), rs.getDouble(3)));
     }
 
     /**
      * 查询所有成绩信息
+     * 注：会把整表加载到内存，成绩数据量大时请使用getScoresAfter分页或forEachScore流式遍历
      * @return List<Score> 成绩列表（无数据返回空列表）
      */
     public List<Score> getAllScores() {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Score> scoreList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Score";
-            pstmt = conn.prepareStatement(sql);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                scoreList.add(wrapScoreFromResultSet(rs));
-            }
-            return scoreList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询所有成绩信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score";
+        return REPORT.query("查询所有成绩信息失败", sql, RowMappers.SCORE);
     }
 
     /**
-     * 工具方法：将ResultSet封装为Score对象（复用代码，减少冗余）
-     * @param rs 结果集
-     * @return Score 成绩对象
-     * @throws SQLException 数据库异常
+     * 键集分页查询成绩（按复合主键Sno、Cno升序）：以上一页最后一条的（学生编号, 课程编号）作为起点，
+     * 翻到任意页都只扫描limit行，适合导出多年累积的成绩数据
+     * 用法：首页两个参数都传null，之后传上一页最后一条成绩的sno和cno，返回条数小于limit即为最后一页
+     * @param afterSno 上一页最后一条的学生编号（首页传null）
+     * @param afterCno 上一页最后一条的课程编号（首页传null）
+     * @param limit 每页条数
+     * @return List<Score> 当前页成绩列表（无数据返回空列表）
      */
-    private Score wrapScoreFromResultSet(ResultSet rs) throws SQLException {
-        Score score = new Score();
-        score.setSno(rs.getString("Sno"));
-        score.setCno(rs.getString("Cno"));
-        // 成绩可为null，需判空
-        if (rs.getObject("Score") != null) {
-            score.setScore(rs.getFloat("Score"));
+    public List<Score> getScoresAfter(String afterSno, String afterCno, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        if (afterSno == null || afterCno == null) {
+            return REPORT.query("分页查询成绩信息失败",
+                    "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score ORDER BY Sno, Cno LIMIT ?", RowMappers.SCORE, limit);
         }
-        score.setInputTime(rs.getDate("InputTime"));
-        score.setInputTno(rs.getString("InputTno"));
-        return score;
+        // 展开写法而非(Sno, Cno) > (?, ?)，保证能走主键索引范围扫描
+        return REPORT.query("分页查询成绩信息失败",
+                "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score WHERE Sno > ? OR (Sno = ? AND Cno > ?) ORDER BY Sno, Cno LIMIT ?",
+                RowMappers.SCORE, afterSno, afterSno, afterCno, limit);
+    }
+
+    /**
+     * 流式遍历所有成绩（按复合主键升序）：逐行读取并回调，不把整表加载到内存，内存占用与表大小无关
+     * 注：回调期间占用一个数据库连接，回调中不宜执行耗时操作
+     * @param action 每行成绩的处理逻辑
+     * @return int 遍历的行数
+     */
+    public int forEachScore(Consumer<Score> action) {
+        return REPORT.stream("遍历成绩信息失败", "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score ORDER BY Sno, Cno",
+                rs -> action.accept(RowMappers.SCORE.mapRow(rs)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package dao;
+
+import entity.Course;
+import entity.Score;
+import entity.Student;
+import util.DBUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 成绩批量导入吞吐量对比（ScoreImportBenchmark）
+ * 独立运行的main程序，对比两种写入同一批成绩的方式每秒写入的行数：
+ * 1. loop：逐行调用ScoreDao.addScore（每行一次借用连接、一条INSERT、自动提交）
+ * 2. batch：ScoreDao.addScores（JDBC批处理，每批一个事务），可指定多个批大小分别测试
+ * 测试数据：新建若干门临时课程（编号BK开头），为已有学生各录入一条成绩，行数 = 学生数 × 课程数；
+ * 每轮测试结束后删除临时课程，其成绩由外键ON DELETE CASCADE一并删除，不影响已有数据
+ * 用法：java -cp <classes:lib/*> dao.ScoreImportBenchmark [行数] [批大小列表]
+ * 1. 行数：默认5000（学生较少时增加临时课程数凑足行数）
+ * 2. 批大小列表：逗号分隔，默认100,500,1000
+ * 注：数据源URL需开启rewriteBatchedStatements=true（app.properties默认已开启），否则批处理仍逐条发送
+ */
+public class ScoreImportBenchmark {
+    private ScoreImportBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0].trim()) : 5000;
+        int[] batchSizes = args.length > 1
+                ? Arrays.stream(args[1].split(",")).map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray()
+                : new int[]{100, 500, 1000};
+        List<Student> students = new StudentDao().getStudentsAfter(null, rows);
+        if (students.isEmpty()) {
+            System.err.println("Student表中没有学生，无法生成测试成绩");
+            return;
+        }
+        int courses = (rows + students.size() - 1) / students.size();
+        System.out.println("学生" + students.size() + "人 × 临时课程" + courses + "门，共" + Math.min(rows, students.size() * courses) + "行");
+        System.out.printf("%-12s %8s %10s %10s %8s%n", "mode", "rows", "ms", "rows/s", "failed");
+        try {
+            // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+            run("loop", 0, students, 1, Math.min(rows, 200));
+            run("batch", batchSizes[0], students, 1, Math.min(rows, 200));
+            System.out.println(run("loop", 0, students, courses, rows));
+            for (int batchSize : batchSizes) {
+                System.out.println(run("batch", batchSize, students, courses, rows));
+            }
+        } finally {
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 新建临时课程并写入rows行成绩，计时只包含写入成绩，结束后删除临时课程
+     * @param batchSize batch方式的每批行数（loop方式忽略）
+     * @return String 一行统计结果
+     */
+    private static String run(String mode, int batchSize, List<Student> students, int courses, int rows) {
+        CourseDao courseDao = new CourseDao();
+        ScoreDao scoreDao = new ScoreDao();
+        List<String> cnos = new ArrayList<>(courses);
+        try {
+            for (int i = 0; i < courses; i++) {
+                String cno = String.format("BK%06d", ThreadLocalRandom.current().nextInt(1_000_000));
+                courseDao.addCourse(new Course(cno, "批量导入测试", 1.0f, null));
+                cnos.add(cno);
+            }
+            List<Score> scores = new ArrayList<>(rows);
+            for (String cno : cnos) {
+                for (Student student : students) {
+                    if (scores.size() == rows) {
+                        break;
+                    }
+                    float value = ThreadLocalRandom.current().nextInt(40, 101);
+                    scores.add(new Score(student.getSno(), cno, value, new Date(), null));
+                }
+            }
+
+            int failed = 0;
+            long start = System.nanoTime();
+            if ("loop".equals(mode)) {
+                for (Score score : scores) {
+                    try {
+                        if (!scoreDao.addScore(score)) {
+                            failed++;
+                        }
+                    } catch (RuntimeException e) {
+                        failed++;
+                    }
+                }
+            } else {
+                failed = scoreDao.addScores(scores.iterator(), batchSize).getFailureCount();
+            }
+            long elapsed = System.nanoTime() - start;
+            return String.format("%-12s %8d %10.0f %10.0f %8d", "loop".equals(mode) ? mode : mode + "(" + batchSize + ")",
+                    scores.size(), elapsed / 1e6, scores.size() / (elapsed / 1e9), failed);
+        } finally {
+            for (String cno : cnos) {
+                courseDao.deleteCourse(cno);
+            }
+        }
+    }
+}
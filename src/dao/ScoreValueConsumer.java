@@ -0,0 +1,15 @@
+package dao;
+
+/**
+ * 成绩值回调（ScoreValueConsumer）
+ * 流式读取成绩时逐行回调复合主键和原始double成绩，不创建Score对象，用于全表汇总计算
+ */
+@FunctionalInterface
+public interface ScoreValueConsumer {
+    /**
+     * @param sno 学生编号
+     * @param cno 课程编号
+     * @param score 成绩
+     */
+    void accept(String sno, String cno, double score);
+}
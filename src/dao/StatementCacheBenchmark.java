@@ -0,0 +1,187 @@
+package dao;
+
+import entity.Student;
+import entity.SysUser;
+import util.ConnectionPool;
+import util.DBUtil;
+import util.JdbcTemplate;
+import util.PoolConfig;
+import util.ThreadPools;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预编译语句缓存对比（StatementCacheBenchmark）
+ * 独立运行的main程序，在两条高频查询上对比连接池预编译语句缓存和MySQL服务器端预编译的四种组合：
+ * 1. client：useServerPrepStmts=false，不缓存（引入缓存之前的方式，驱动在客户端拼接参数）
+ * 2. server-nocache：useServerPrepStmts=true，不缓存（每次prepareStatement都要在服务器预编译一次，并在关闭时释放）
+ * 3. client-cache：useServerPrepStmts=false，缓存
+ * 4. server-cache：useServerPrepStmts=true，缓存（app.properties的默认配置，同一连接上的SQL只在服务器预编译一次）
+ * 查询与ScoreDao.getScoresBySno、SysUserDao.getSysUserByAccount使用的SQL和映射器相同（账户查询不经过登录账户缓存），
+ * 参数从已有学生和账户中随机选取
+ * 每种组合按default数据源的连接参数单独建立一个连接池（只修改URL中的useServerPrepStmts和statementCacheSize），
+ * 统计每次查询的延迟百分位（P50/P90/P99/最大值）、每秒查询次数、失败数和缓存命中数
+ * 用法：java -cp <classes:lib/*> dao.StatementCacheBenchmark [并发数] [每种组合每条查询的次数]
+ * 默认8个并发、20000次；缓存容量取datasource.default.statementCacheSize（为0时按100）
+ */
+public class StatementCacheBenchmark {
+    private static final String SCORES_BY_SNO_SQL = "SELECT " + RowMappers.SCORE_COLUMNS + " FROM Score WHERE Sno=?";
+    private static final String USER_BY_ACCOUNT_SQL = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE Account=? AND Status=1";
+
+    private StatementCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0].trim()) : 8;
+        int queries = args.length > 1 ? Integer.parseInt(args[1].trim()) : 20000;
+
+        PoolConfig defaults = DBUtil.getPool(DBUtil.DEFAULT).getConfig();
+        int cacheSize = defaults.getStatementCacheSize() > 0 ? defaults.getStatementCacheSize() : 100;
+        try {
+            List<String> snos = new ArrayList<>();
+            for (Student student : new StudentDao().getStudentsAfter(null, 1000)) {
+                snos.add(student.getSno());
+            }
+            List<String> accounts = new ArrayList<>();
+            for (SysUser sysUser : new SysUserDao().getSysUsersAfter(null, 1000)) {
+                accounts.add(sysUser.getAccount());
+            }
+            if (snos.isEmpty() || accounts.isEmpty()) {
+                System.err.println("Student表或SysUser表中没有数据，无法生成查询参数");
+                return;
+            }
+
+            System.out.println("学生" + snos.size() + "个、账户" + accounts.size() + "个，并发" + concurrency
+                    + "，maxPoolSize=" + defaults.getMaxPoolSize() + "，statementCacheSize=" + cacheSize);
+            System.out.printf("%-15s %-13s %7s %9s %9s %9s %9s %9s %7s %9s%n", "variant", "query", "count",
+                    "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "queries/s", "failed", "cacheHits");
+            for (String variant : new String[]{"client", "server-nocache", "client-cache", "server-cache"}) {
+                PoolConfig config = new PoolConfig("bench-" + variant,
+                        withServerPrepStmts(defaults.getUrl(), variant.startsWith("server")),
+                        defaults.getUser(), defaults.getPassword());
+                config.setMaxPoolSize(defaults.getMaxPoolSize());
+                config.setStatementCacheSize(variant.endsWith("-cache") ? cacheSize : 0);
+                ConnectionPool pool = new ConnectionPool(config);
+                try {
+                    JdbcTemplate template = new JdbcTemplate(() -> {
+                        try {
+                            return pool.getConnection();
+                        } catch (SQLException e) {
+                            throw new RuntimeException("获取数据库连接失败：" + e.getMessage(), e);
+                        }
+                    });
+                    Query scoresBySno = sno -> template.query("查询学生成绩列表失败", SCORES_BY_SNO_SQL, RowMappers.SCORE, sno);
+                    Query userByAccount = account -> template.queryForObject("验证登录账户失败", USER_BY_ACCOUNT_SQL,
+                            RowMappers.SYS_USER, account);
+                    // 预热：建立连接、JIT编译，不计入结果
+                    run(scoresBySno, snos, concurrency, Math.min(1000, queries));
+                    run(userByAccount, accounts, concurrency, Math.min(1000, queries));
+                    long hits = pool.getStatementCacheHitCount();
+                    Result result = run(scoresBySno, snos, concurrency, queries);
+                    System.out.println(result.format(variant, "scoresBySno", pool.getStatementCacheHitCount() - hits));
+                    hits = pool.getStatementCacheHitCount();
+                    result = run(userByAccount, accounts, concurrency, queries);
+                    System.out.println(result.format(variant, "userByAccount", pool.getStatementCacheHitCount() - hits));
+                } finally {
+                    pool.close();
+                }
+            }
+        } finally {
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 替换（或追加）URL中的useServerPrepStmts参数
+     */
+    private static String withServerPrepStmts(String url, boolean enabled) {
+        String value = "useServerPrepStmts=" + enabled;
+        String replaced = url.replaceAll("useServerPrepStmts=(true|false)", value);
+        if (!replaced.equals(url) || url.contains(value)) {
+            return replaced;
+        }
+        return url + (url.contains("?") ? "&" : "?") + value;
+    }
+
+    /**
+     * 用concurrency个线程共执行count次查询（参数随机选取），等待全部完成
+     */
+    private static Result run(Query query, List<String> params, int concurrency, int count) throws InterruptedException {
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("stmt-cache-bench", concurrency, count);
+        long[] latencies = new long[count];
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    String param = params.get(ThreadLocalRandom.current().nextInt(params.size()));
+                    long begin = System.nanoTime();
+                    try {
+                        query.run(param);
+                        latencies[index] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        latencies[index] = -1;
+                        failed.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Result(completed, elapsed, failed.get());
+    }
+
+    /**
+     * 被测查询（参数为学生编号或账户）
+     */
+    @FunctionalInterface
+    private interface Query {
+        Object run(String param);
+    }
+
+    /**
+     * 一种组合、一条查询的统计结果
+     */
+    private static final class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int failed;
+
+        Result(long[] latencies, long elapsedNanos, int failed) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有成功的查询时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        String format(String variant, String query, long cacheHits) {
+            return String.format("%-15s %-13s %7d %9.2f %9.2f %9.2f %9.2f %9.0f %7d %9d", variant, query, latencies.length,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), failed, cacheHits);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dao;
+
+import entity.Student;
+
+/**
+ * 学生变更监听器（StudentChangeListener）
+ * 通过StudentDao.addStudentChangeListener注册，新增/修改/删除学生信息在提交成功后回调，
+ * 用于维护依赖学生年级、专业等字段的派生数据（如班级排名）
+ * 注：回调在执行写操作的线程中同步执行，实现应尽量轻量且不抛出异常；删除学生时其成绩的删除先通过ScoreChangeListener回调
+ */
+public interface StudentChangeListener {
+    /**
+     * 学生变更回调
+     * @param sno 学生编号
+     * @param student 新增或修改后的学生信息（学生被删除时为null）
+     */
+    void onStudentChanged(String sno, Student student);
+}
@@ -1,90 +1,150 @@
 package dao;
+import entity.Score;
 import entity.Student;
+import util.AppConfig;
 import util.DBUtil;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import util.DaoExecutor;
+import util.JdbcTemplate;
+import util.LocalCache;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 学生数据访问层（StudentDao）
  * 封装Student表的所有数据库操作（增删改查），依赖DBUtil工具类和Student实体类
+ * SQL经JdbcTemplate执行：写操作使用主库连接，查询使用只读连接，全表扫描使用报表数据源
  */
 public class StudentDao {
+    private static final JdbcTemplate WRITE = JdbcTemplate.forWrite(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate READ = JdbcTemplate.forRead(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate REPORT = JdbcTemplate.forRead(DBUtil.REPORT);
+
+    /**
+     * 学生信息缓存（按学生编号缓存单条查询结果，新增/修改/删除时失效），容量和过期时间见配置项cache.student.*
+     * 注：缓存在各应用节点内独立，其他节点修改的数据最迟在过期时间后可见
+     */
+    private static final LocalCache<String, Student> STUDENT_CACHE = new LocalCache<>("student",
+            AppConfig.getInt("cache.student.maxSize", 10000),
+            AppConfig.getLong("cache.student.ttlMillis", 10 * 60 * 1000L));
+
     /**
-     * 新增学生信息
+     * 学生变更监听器（修改/删除学生信息提交后回调）
+     */
+    private static final List<StudentChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // -------------------------- 学生变更监听 --------------------------
+    /**
+     * 注册学生变更监听器
+     * @param listener 监听器
+     */
+    public static void addStudentChangeListener(StudentChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除学生变更监听器
+     * @param listener 监听器
+     */
+    public static void removeStudentChangeListener(StudentChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 回调所有监听器（单个监听器异常不影响其他监听器和写操作结果）
+     */
+    private static void fireStudentChanged(String sno, Student student) {
+        for (StudentChangeListener listener : LISTENERS) {
+            try {
+                listener.onStudentChanged(sno, student);
+            } catch (RuntimeException e) {
+                System.err.println("学生变更监听器执行失败（" + sno + "）：" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 新增学生信息，新增成功后回调学生变更监听器（排名等派生数据随之登记该学生，之后的成绩变更无需再查询学生信息）
      * @param student 学生实体对象（需包含非空字段：sno、sname、ssex）
      * @return boolean 新增成功返回true，失败返回false
      */
     public boolean addStudent(Student student) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "INSERT INTO Student (Sno, Sname, Ssex, Sgrade, Smajor) VALUES (?, ?, ?, ?, ?)";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, student.getSno());
-            pstmt.setString(2, student.getSname());
-            pstmt.setString(3, student.getSsex());
-            pstmt.setString(4, student.getSgrade());
-            pstmt.setString(5, student.getSmajor());
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("新增学生信息失败：" + e.getMessage(), e);
+            return ScoreDao.notifying(() -> {
+                String sql = "INSERT INTO Student (Sno, Sname, Ssex, Sgrade, Smajor) VALUES (?, ?, ?, ?, ?)";
+                boolean added = WRITE.update("新增学生信息失败", sql, student.getSno(), student.getSname(), student.getSsex(),
+                        student.getSgrade(), student.getSmajor()) > 0;
+                if (added) {
+                    fireStudentChanged(student.getSno(), student);
+                }
+                return added;
+            });
         } finally {
-            DBUtil.close(pstmt, conn);
+            STUDENT_CACHE.invalidate(student.getSno());
         }
     }
 
     /**
      * 根据学生编号删除学生信息
+     * 该学生的成绩由外键ON DELETE CASCADE一并删除：注册了成绩变更监听器时，同一事务中先锁定读出这些成绩，
+     * 提交后逐条通知监听器（课程统计、排名等派生数据随之更新），之后回调学生变更监听器
      * @param sno 学生编号（主键）
      * @return boolean 删除成功返回true，失败返回false
      */
     public boolean deleteStudent(String sno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "DELETE FROM Student WHERE Sno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sno);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("删除学生信息失败：" + e.getMessage(), e);
+            return ScoreDao.notifying(() -> removeStudent(sno));
         } finally {
-            DBUtil.close(pstmt, conn);
+            STUDENT_CACHE.invalidate(sno);
+        }
+    }
+
+    private boolean removeStudent(String sno) {
+        boolean notify = ScoreDao.hasScoreChangeListeners();
+        List<Score> deletedScores = new ArrayList<>();
+        boolean deleted = WRITE.execute("删除学生信息失败", conn -> {
+            if (notify) {
+                conn.setAutoCommit(false);
+                deletedScores.addAll(ScoreDao.selectScoresForCascadeDelete(conn, "Sno", sno));
+            }
+            int affectedRows = JdbcTemplate.update(conn, "DELETE FROM Student WHERE Sno=?", sno);
+            if (notify) {
+                conn.commit();
+            }
+            return affectedRows > 0;
+        });
+        if (deleted) {
+            ScoreDao.fireScoresDeleted(deletedScores);
+            fireStudentChanged(sno, null);
         }
+        return deleted;
     }
 
     /**
-     * 修改学生信息（根据学生编号更新所有字段）
+     * 修改学生信息（根据学生编号更新所有字段），修改成功后回调学生变更监听器（年级/专业变化时排名随之调整）
      * @param student 学生实体对象（必须包含sno，其他字段按需修改）
      * @return boolean 修改成功返回true，失败返回false
      */
     public boolean updateStudent(Student student) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "UPDATE Student SET Sname=?, Ssex=?, Sgrade=?, Smajor=? WHERE Sno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, student.getSname());
-            pstmt.setString(2, student.getSsex());
-            pstmt.setString(3, student.getSgrade());
-            pstmt.setString(4, student.getSmajor());
-            pstmt.setString(5, student.getSno()); // 主键作为更新条件
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("修改学生信息失败：" + e.getMessage(), e);
+            return ScoreDao.notifying(() -> {
+                String sql = "UPDATE Student SET Sname=?, Ssex=?, Sgrade=?, Smajor=? WHERE Sno=?";
+                boolean updated = WRITE.update("修改学生信息失败", sql, student.getSname(), student.getSsex(), student.getSgrade(),
+                        student.getSmajor(), student.getSno()) > 0; // 主键作为更新条件
+                if (updated) {
+                    fireStudentChanged(student.getSno(), student);
+                }
+                return updated;
+            });
         } finally {
-            DBUtil.close(pstmt, conn);
+            STUDENT_CACHE.invalidate(student.getSno());
         }
     }
 
@@ -94,31 +154,69 @@ public class StudentDao {
      * @return Student 学生实体对象（未查询到返回null）
      */
     public Student getStudentBySno(String sno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Student WHERE Sno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sno);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                // 将ResultSet数据封装为Student对象
-                Student student = new Student();
-                student.setSno(rs.getString("Sno"));
-                student.setSname(rs.getString("Sname"));
-                student.setSsex(rs.getString("Ssex"));
-                student.setSgrade(rs.getString("Sgrade"));
-                student.setSmajor(rs.getString("Smajor"));
-                return student;
+        Student cached = STUDENT_CACHE.get(sno, this::queryStudentBySno);
+        // 返回副本，调用方修改返回对象不会影响缓存中的数据
+        return cached != null ? new Student(cached.getSno(), cached.getSname(), cached.getSsex(), cached.getSgrade(), cached.getSmajor()) : null;
+    }
+
+    /**
+     * 异步根据学号查询单个学生（在DaoExecutor的I/O线程中执行getStudentBySno）
+     * @return CompletableFuture<Student> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Student> getStudentBySnoAsync(String sno) {
+        return DaoExecutor.supplyAsync(() -> getStudentBySno(sno));
+    }
+
+    /**
+     * 批量查询学生信息（列表页等需要多条记录的场景，代替逐条调用单条查询）
+     * 先读缓存，未命中的主键按批拼成IN列表查询（每批一条SQL，共用一个连接），查询结果写回缓存
+     * @param snos 学生编号集合（null和重复值会被忽略）
+     * @return Map<String, Student> 学生编号 → Student（不存在的编号不在结果中）
+     */
+    public Map<String, Student> getStudentsBySnos(Collection<String> snos) {
+        Map<String, Student> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String sno : snos) {
+            if (sno == null || result.containsKey(sno)) {
+                continue;
             }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询学生信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+            Student cached = STUDENT_CACHE.get(sno);
+            if (cached != null) {
+                result.put(sno, new Student(cached.getSno(), cached.getSname(), cached.getSsex(), cached.getSgrade(), cached.getSmajor()));
+            } else {
+                misses.add(sno);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
         }
+        long version = STUDENT_CACHE.getInvalidationVersion();
+        return STUDENT_CACHE.load(() -> READ.execute("批量查询学生信息失败", conn -> {
+            for (List<String> chunk : DBUtil.partitionKeys(misses)) {
+                String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student WHERE Sno IN (" + DBUtil.placeholders(chunk.size()) + ")";
+                for (Student cached : JdbcTemplate.query(conn, sql, RowMappers.STUDENT, chunk.toArray())) {
+                    STUDENT_CACHE.putIfNotInvalidated(cached.getSno(), cached, version);
+                    result.put(cached.getSno(), new Student(cached.getSno(), cached.getSname(), cached.getSsex(), cached.getSgrade(), cached.getSmajor()));
+                }
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * 异步批量查询学生（在DaoExecutor的I/O线程中执行getStudentsBySnos）
+     * @return CompletableFuture<Map<String, Student>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Map<String, Student>> getStudentsBySnosAsync(Collection<String> snos) {
+        return DaoExecutor.supplyAsync(() -> getStudentsBySnos(snos));
+    }
+
+    /**
+     * 从数据库查询单个学生信息（缓存未命中时调用）
+     */
+    private Student queryStudentBySno(String sno) {
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student WHERE Sno=?";
+        return READ.queryForObject("查询学生信息失败", sql, RowMappers.STUDENT, sno);
     }
 
     /**
@@ -126,30 +224,54 @@ public class StudentDao {
      * @return List<Student> 学生列表（无数据返回空列表，不返回null）
      */
     public List<Student> getAllStudents() {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Student> studentList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Student";
-            pstmt = conn.prepareStatement(sql);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Student student = new Student();
-                student.setSno(rs.getString("Sno"));
-                student.setSname(rs.getString("Sname"));
-                student.setSsex(rs.getString("Ssex"));
-                student.setSgrade(rs.getString("Sgrade"));
-                student.setSmajor(rs.getString("Smajor"));
-                studentList.add(student);
-            }
-            return studentList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询所有学生信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student";
+        return REPORT.query("查询所有学生信息失败", sql, RowMappers.STUDENT);
+    }
+
+    /**
+     * 查询学生总数（管理员首页统计使用）
+     * @return int 学生总数
+     */
+    public int countStudents() {
+        return READ.queryForObject("查询学生总数失败", "SELECT COUNT(*) FROM Student", rs -> rs.getInt(1));
+    }
+
+    /**
+     * 异步查询学生总数（在DaoExecutor的I/O线程中执行countStudents）
+     * @return CompletableFuture<Integer> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Integer> countStudentsAsync() {
+        return DaoExecutor.supplyAsync(this::countStudents);
+    }
+
+    /**
+     * 键集分页查询学生信息（按学生编号升序）：以上一页最后一条的学生编号作为起点，翻到任意页都只扫描limit行
+     * 用法：首页传null，之后传上一页最后一个student.getSno()，返回条数小于limit即为最后一页
+     * @param afterSno 上一页最后一条的学生编号（首页传null）
+     * @param limit 每页条数
+     * @return List<Student> 当前页学生信息列表（无数据返回空列表）
+     */
+    public List<Student> getStudentsAfter(String afterSno, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        if (afterSno == null) {
+            return REPORT.query("分页查询学生信息失败",
+                    "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student ORDER BY Sno LIMIT ?", RowMappers.STUDENT, limit);
         }
+        return REPORT.query("分页查询学生信息失败",
+                "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student WHERE Sno > ? ORDER BY Sno LIMIT ?", RowMappers.STUDENT, afterSno, limit);
+    }
+
+    /**
+     * 流式遍历所有学生信息（按学生编号升序）：逐行读取并回调，不把整表加载到内存，内存占用与表大小无关
+     * 注：回调期间占用一个数据库连接，回调中不宜执行耗时操作
+     * @param action 每行学生信息的处理逻辑
+     * @return int 遍历的行数
+     */
+    public int forEachStudent(Consumer<Student> action) {
+        return REPORT.stream("遍历学生信息失败", "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student ORDER BY Sno",
+                rs -> action.accept(RowMappers.STUDENT.mapRow(rs)));
     }
 
     /**
@@ -158,31 +280,16 @@ public class StudentDao {
      * @return List<Student> 匹配的学生列表
      */
     public List<Student> getStudentsByName(String sname) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Student> studentList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            // 使用CONCAT拼接%，避免SQL注入（禁止直接拼接字符串）
-            String sql = "SELECT * FROM Student WHERE Sname LIKE CONCAT('%', ?, '%')";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sname);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                Student student = new Student();
-                student.setSno(rs.getString("Sno"));
-                student.setSname(rs.getString("Sname"));
-                student.setSsex(rs.getString("Ssex"));
-                student.setSgrade(rs.getString("Sgrade"));
-                student.setSmajor(rs.getString("Smajor"));
-                studentList.add(student);
-            }
-            return studentList;
-        } catch (SQLException e) {
-            throw new RuntimeException("根据姓名查询学生信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        // 使用CONCAT拼接%，避免SQL注入（禁止直接拼接字符串）
+        String sql = "SELECT " + RowMappers.STUDENT_COLUMNS + " FROM Student WHERE Sname LIKE CONCAT('%', ?, '%')";
+        return READ.query("根据姓名查询学生信息失败", sql, RowMappers.STUDENT, sname);
+    }
+
+    /**
+     * 获取学生信息缓存（查看命中/未命中/淘汰计数，评估缓存容量是否合适）
+     * @return LocalCache<String, Student> 学生信息缓存
+     */
+    public static LocalCache<String, Student> getCache() {
+        return STUDENT_CACHE;
     }
-}
\ No newline at end of file
+}
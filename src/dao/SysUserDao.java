@@ -1,74 +1,186 @@
 package dao;
 
 import entity.SysUser;
+import util.AppConfig;
 import util.DBUtil;
+import util.DaoExecutor;
+import util.JdbcTemplate;
+import util.LocalCache;
+import util.PasswordHashing;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * 系统用户数据访问层（SysUserDao）
  * 封装SysUser表的所有数据库操作（增删改查），依赖DBUtil工具类和SysUser实体类
  * 核心适配场景：登录验证（按账户查询）、按角色管理用户、账户唯一性约束、密码加密存储
+ * SQL经JdbcTemplate执行：写操作使用主库连接，查询使用只读连接，全表扫描使用报表数据源
  */
 public class SysUserDao {
+    private static final JdbcTemplate WRITE = JdbcTemplate.forWrite(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate READ = JdbcTemplate.forRead(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate REPORT = JdbcTemplate.forRead(DBUtil.REPORT);
+
+    /**
+     * 登录账户缓存（按账户缓存启用状态的用户，含密码摘要），登录风暴时绝大多数登录无需访问数据库
+     * 不存在/已禁用的账户也会以NOT_FOUND缓存一段较短的时间（否定缓存），避免反复尝试错误账户打满数据库
+     * 新增/修改/删除用户时失效；容量和过期时间见配置项cache.account.*
+     */
+    private static final long ACCOUNT_TTL_MILLIS = AppConfig.getLong("cache.account.ttlMillis", 5 * 60 * 1000L);
+
+    private static final LocalCache<String, SysUser> ACCOUNT_CACHE = new LocalCache<>("account",
+            AppConfig.getInt("cache.account.maxSize", 20000), ACCOUNT_TTL_MILLIS);
+
+    /**
+     * 否定缓存的过期时间（毫秒），较短以便新注册/重新启用的账户尽快可登录（本节点的变更会立即失效缓存）
+     */
+    private static final long NEGATIVE_TTL_MILLIS = AppConfig.getLong("cache.account.negativeTtlMillis", 30 * 1000L);
+
+    /**
+     * 否定缓存标记：账户不存在或已禁用
+     */
+    private static final SysUser NOT_FOUND = new SysUser();
+
     /**
      * 用户注册（核心：加密原始密码）
+     * 密码经PasswordHashing哈希后保存（在专用哈希线程池中计算）
      */
     public boolean register(SysUser sysUser, String rawPassword) {
-        sysUser.setPassword(rawPassword);
+        sysUser.setPassword(PasswordHashing.hash(rawPassword));
         return this.addSysUser(sysUser);
     }
 
     /**
      * 登录验证（核心：加密输入密码，对比数据库加密密码）
+     * 账户不存在（含否定缓存命中）时同样对一个占位哈希做一次完整验证，响应时间与账户存在时一致，无法据此探测账户是否存在
+     * 验证通过后，若数据库中的密码是旧格式（明文/SHA-256）或成本参数已调整，自动按当前配置重新哈希保存
      */
     public SysUser login(String account, String rawPassword) {
         SysUser sysUser = this.getSysUserByAccount(account);
         if (sysUser == null) {
+            PasswordHashing.verifyUnknownAccount(rawPassword);
             return null; // 账户不存在
         }
+        if (!PasswordHashing.verify(rawPassword, sysUser.getPassword())) {
+            return null; // 密码错误
+        }
+        if (PasswordHashing.needsRehash(sysUser.getPassword())) {
+            try {
+                saveRehashedPassword(sysUser, PasswordHashing.hash(rawPassword));
+            } catch (RuntimeException e) {
+                logRehashFailure(account, e);
+            }
+        }
+        return sysUser;
+    }
+
+    /**
+     * 异步用户注册：密码在哈希线程池中哈希，插入在DaoExecutor的I/O线程中执行
+     * @return CompletableFuture<Boolean> 注册结果（数据库异常时以异常完成）
+     */
+    public CompletableFuture<Boolean> registerAsync(SysUser sysUser, String rawPassword) {
+        return PasswordHashing.hashAsync(rawPassword).thenComposeAsync(passwordHash -> {
+            sysUser.setPassword(passwordHash);
+            return DaoExecutor.supplyAsync(() -> this.addSysUser(sysUser));
+        }, DaoExecutor.executor());
+    }
+
+    /**
+     * 异步登录验证：按账户查询在I/O线程中执行，密码验证和重新哈希在哈希线程池中执行，全程不阻塞调用线程
+     * 账户不存在时同样验证一次占位哈希（见login）
+     * @return CompletableFuture<SysUser> 登录成功的用户（账户不存在或密码错误时为null）
+     */
+    public CompletableFuture<SysUser> loginAsync(String account, String rawPassword) {
+        // 在调用线程中获取I/O线程池，后续阶段沿用调用线程的读写路由上下文
+        Executor io = DaoExecutor.executor();
+        return getSysUserByAccountAsync(account).thenCompose(sysUser -> {
+            if (sysUser == null) {
+                return PasswordHashing.verifyUnknownAccountAsync(rawPassword).thenApply(matched -> null); // 账户不存在
+            }
+            return PasswordHashing.verifyAsync(rawPassword, sysUser.getPassword()).thenCompose(matched -> {
+                if (!matched) {
+                    return CompletableFuture.completedFuture(null); // 密码错误
+                }
+                if (!PasswordHashing.needsRehash(sysUser.getPassword())) {
+                    return CompletableFuture.completedFuture(sysUser);
+                }
+                // 重新哈希在哈希线程池中计算，保存在I/O线程中执行；失败不影响本次登录
+                return PasswordHashing.hashAsync(rawPassword)
+                        .thenApplyAsync(newHash -> {
+                            saveRehashedPassword(sysUser, newHash);
+                            return sysUser;
+                        }, io)
+                        .exceptionally(e -> {
+                            logRehashFailure(account, e);
+                            return sysUser;
+                        });
+            });
+        });
+    }
+
+    /**
+     * 保存按当前配置重新哈希的密码（密码是旧格式或成本参数已调整时，验证通过后调用）
+     */
+    private void saveRehashedPassword(SysUser sysUser, String newHash) {
+        if (updatePassword(sysUser.getUserId(), newHash)) {
+            sysUser.setPassword(newHash);
+        }
+    }
 
-        return rawPassword.equals(sysUser.getPassword()) ? sysUser : null;
+    /**
+     * 重新哈希失败不影响本次登录，下次登录再尝试
+     */
+    private static void logRehashFailure(String account, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        System.err.println("重新哈希用户密码失败（账户：" + account + "）：" + cause.getMessage());
     }
 
+    /**
+     * 按用户ID更新密码（登录时重新哈希使用，密码需已哈希）
+     */
+    private boolean updatePassword(Integer userId, String passwordHash) {
+        try {
+            return WRITE.update("更新用户密码失败", "UPDATE SysUser SET Password=? WHERE UserID=?", passwordHash, userId) > 0;
+        } finally {
+            invalidateByUserId(String.valueOf(userId));
+        }
+    }
 
     /**
      * 新增系统用户
-     * @param sysUser 系统用户实体对象（需包含非空字段：userId、account、password、role）
+     * @param sysUser 系统用户实体对象（需包含非空字段：account、password、role；userId为空时自增生成）
      * @return boolean 新增成功返回true，失败返回false
      * 注：account唯一约束由数据库保证，重复账户会抛出异常
      */
     public boolean addSysUser(SysUser sysUser) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
             String sql = "INSERT INTO SysUser (UserID, Account, Password, Role, RelID, CreateTime, Status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, sysUser.getUserId());
-            pstmt.setString(2, sysUser.getAccount());
-            pstmt.setString(3, sysUser.getPassword());
-            pstmt.setString(4, sysUser.getRole() != null ? sysUser.getRole() : "");
-            pstmt.setString(5, sysUser.getRelId());
-            // 若创建时间为空，设为当前时间
-            pstmt.setDate(6, sysUser.getCreateTime() != null ? new java.sql.Date(sysUser.getCreateTime().getTime()) : new java.sql.Date(new Date().getTime()));
-            // 若状态为空，设为1（启用）
-            pstmt.setInt(7, sysUser.getStatus() != null ? sysUser.getStatus() : 1);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            return WRITE.execute(conn -> JdbcTemplate.update(conn, sql,
+                    sysUser.getUserId(), // 未指定用户ID时（如注册）绑定为NULL，由数据库自增生成
+                    sysUser.getAccount(),
+                    sysUser.getPassword(),
+                    sysUser.getRole() != null ? sysUser.getRole() : "",
+                    sysUser.getRelId(),
+                    JdbcTemplate.toSqlDate(sysUser.getCreateTime()), // 若创建时间为空，设为当前时间
+                    sysUser.getStatus() != null ? sysUser.getStatus() : 1)) > 0; // 若状态为空，设为1（启用）
         } catch (SQLException e) {
             if (e.getMessage().contains("uk_sysuser_account")) {
                 throw new RuntimeException("新增用户失败：登录账户已存在！", e);
             }
             throw new RuntimeException("新增系统用户失败：" + e.getMessage(), e);
         } finally {
-            DBUtil.close(pstmt, conn);
+            // 清除该账户的否定缓存，新注册的账户可立即登录
+            ACCOUNT_CACHE.invalidate(sysUser.getAccount());
         }
     }
 
@@ -78,19 +190,10 @@ public class SysUserDao {
      * @return boolean 删除成功返回true，失败返回false
      */
     public boolean deleteSysUser(String userId) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "DELETE FROM SysUser WHERE UserID=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, userId);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("删除系统用户失败：" + e.getMessage(), e);
+            return WRITE.update("删除系统用户失败", "DELETE FROM SysUser WHERE UserID=?", userId) > 0;
         } finally {
-            DBUtil.close(pstmt, conn);
+            invalidateByUserId(userId);
         }
     }
 
@@ -101,24 +204,21 @@ public class SysUserDao {
      * 注：账户（Account）建议不允许修改，避免唯一性冲突
      */
     public boolean updateSysUser(SysUser sysUser) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
             // SQL：更新密码、角色、关联ID、状态，不更新账户和创建时间（账户唯一，创建时间不可改）
             String sql = "UPDATE SysUser SET Password=?, Role=?, RelID=?, Status=? WHERE UserID=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, sysUser.getPassword()); // 密码需加密后传入
-            pstmt.setString(2, sysUser.getRole());
-            pstmt.setString(3, sysUser.getRelId());
-            pstmt.setInt(4, sysUser.getStatus() != null ? sysUser.getStatus() : 1);
-            pstmt.setString(5, sysUser.getAccount());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("修改系统用户失败：" + e.getMessage(), e);
+            return WRITE.update("修改系统用户失败", sql,
+                    sysUser.getPassword(), // 密码需加密后传入
+                    sysUser.getRole(),
+                    sysUser.getRelId(),
+                    sysUser.getStatus() != null ? sysUser.getStatus() : 1,
+                    sysUser.getUserId()) > 0; // 主键作为更新条件
         } finally {
-            DBUtil.close(pstmt, conn);
+            // 密码/状态变更后旧缓存不可再用于登录验证
+            ACCOUNT_CACHE.invalidate(sysUser.getAccount());
+            if (sysUser.getUserId() != null) {
+                invalidateByUserId(String.valueOf(sysUser.getUserId()));
+            }
         }
     }
 
@@ -128,50 +228,78 @@ public class SysUserDao {
      * @return SysUser 系统用户实体对象（未查询到返回null）
      */
     public SysUser getSysUserByUserId(String userId) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM SysUser WHERE UserID=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, userId);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return wrapSysUserFromResultSet(rs);
-            }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询系统用户失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        String sql = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE UserID=?";
+        return READ.queryForObject("查询系统用户失败", sql, RowMappers.SYS_USER, userId);
+    }
+
+    /**
+     * 异步根据用户ID查询单个系统用户（在DaoExecutor的I/O线程中执行getSysUserByUserId）
+     * @return CompletableFuture<SysUser> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<SysUser> getSysUserByUserIdAsync(String userId) {
+        return DaoExecutor.supplyAsync(() -> getSysUserByUserId(userId));
+    }
+
+    /**
+     * 批量查询系统用户（列表页等需要多条记录的场景，代替逐条调用getSysUserByUserId）
+     * 用户ID按批拼成IN列表查询（每批一条SQL，共用一个连接）
+     * @param userIds 用户ID集合（null和重复值会被忽略）
+     * @return Map<Integer, SysUser> 用户ID → SysUser（不存在的用户ID不在结果中）
+     */
+    public Map<Integer, SysUser> getSysUsersByUserIds(Collection<Integer> userIds) {
+        Map<Integer, SysUser> result = new HashMap<>();
+        List<List<Integer>> chunks = DBUtil.partitionKeys(userIds);
+        if (chunks.isEmpty()) {
+            return result;
         }
+        return READ.execute("批量查询系统用户失败", conn -> {
+            for (List<Integer> chunk : chunks) {
+                String sql = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE UserID IN (" + DBUtil.placeholders(chunk.size()) + ")";
+                for (SysUser sysUser : JdbcTemplate.query(conn, sql, RowMappers.SYS_USER, chunk.toArray())) {
+                    result.put(sysUser.getUserId(), sysUser);
+                }
+            }
+            return result;
+        });
     }
 
     /**
      * 登录核心方法：根据账户查询系统用户（验证登录）
+     * 结果（包括"账户不存在或已禁用"）经ACCOUNT_CACHE缓存，重复登录同一账户无需查询数据库
      * @param account 登录账户（唯一）
      * @return SysUser 系统用户实体对象（未查询到返回null）
      */
     public SysUser getSysUserByAccount(String account) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM SysUser WHERE Account=? AND Status=1"; // 仅查询启用状态的用户
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, account);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return wrapSysUserFromResultSet(rs);
-            }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("验证登录账户失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        SysUser cached = ACCOUNT_CACHE.get(account);
+        if (cached == null) {
+            long version = ACCOUNT_CACHE.getInvalidationVersion();
+            SysUser loaded = ACCOUNT_CACHE.load(() -> querySysUserByAccount(account));
+            cached = loaded != null ? loaded : NOT_FOUND;
+            ACCOUNT_CACHE.putIfNotInvalidated(account, cached,
+                    loaded != null ? ACCOUNT_TTL_MILLIS : NEGATIVE_TTL_MILLIS, version);
+        }
+        // 返回副本，调用方修改返回对象不会影响缓存中的数据
+        return cached != NOT_FOUND ? copyOf(cached) : null;
+    }
+
+    /**
+     * 异步按账户查询系统用户（缓存命中时直接返回已完成的Future，未命中时在DaoExecutor的I/O线程中查询）
+     * @return CompletableFuture<SysUser> 系统用户（未查询到为null）
+     */
+    public CompletableFuture<SysUser> getSysUserByAccountAsync(String account) {
+        SysUser cached = ACCOUNT_CACHE.get(account);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached != NOT_FOUND ? copyOf(cached) : null);
         }
+        return DaoExecutor.supplyAsync(() -> getSysUserByAccount(account));
+    }
+
+    /**
+     * 从数据库按账户查询启用状态的系统用户（缓存未命中时调用）
+     */
+    private SysUser querySysUserByAccount(String account) {
+        String sql = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE Account=? AND Status=1"; // 仅查询启用状态的用户
+        return READ.queryForObject("验证登录账户失败", sql, RowMappers.SYS_USER, account);
     }
 
     /**
@@ -180,25 +308,8 @@ public class SysUserDao {
      * @return List<SysUser> 该角色的用户列表（无数据返回空列表）
      */
     public List<SysUser> getSysUsersByRole(String role) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<SysUser> sysUserList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM SysUser WHERE Role=? AND Status=1"; // 仅查询启用状态
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, role);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                sysUserList.add(wrapSysUserFromResultSet(rs));
-            }
-            return sysUserList;
-        } catch (SQLException e) {
-            throw new RuntimeException("按角色查询用户失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        String sql = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE Role=? AND Status=1"; // 仅查询启用状态
+        return READ.query("按角色查询用户失败", sql, RowMappers.SYS_USER, role);
     }
 
     /**
@@ -206,41 +317,82 @@ public class SysUserDao {
      * @return List<SysUser> 系统用户列表（无数据返回空列表）
      */
     public List<SysUser> getAllSysUsers() {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<SysUser> sysUserList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM SysUser";
-            pstmt = conn.prepareStatement(sql);
-            rs = pstmt.executeQuery();
-            while (rs.next()) {
-                sysUserList.add(wrapSysUserFromResultSet(rs));
-            }
-            return sysUserList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询所有系统用户失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        String sql = "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser";
+        return REPORT.query("查询所有系统用户失败", sql, RowMappers.SYS_USER);
+    }
+
+    /**
+     * 按角色统计启用状态的系统用户数（管理员首页统计使用）
+     * @return Map<String, Integer> 角色 → 用户数（没有用户的角色不在结果中）
+     */
+    public Map<String, Integer> countSysUsersByRole() {
+        Map<String, Integer> result = new HashMap<>();
+        READ.stream("按角色统计用户失败", "SELECT Role, COUNT(*) FROM SysUser WHERE Status=1 GROUP BY Role",
+                rs -> result.put(rs.getString(1), rs.getInt(2)));
+        return result;
+    }
+
+    /**
+     * 异步按角色统计用户数（在DaoExecutor的I/O线程中执行countSysUsersByRole）
+     * @return CompletableFuture<Map<String, Integer>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Map<String, Integer>> countSysUsersByRoleAsync() {
+        return DaoExecutor.supplyAsync(this::countSysUsersByRole);
+    }
+
+    /**
+     * 键集分页查询系统用户（按用户ID升序，含启用/禁用状态）：以上一页最后一条的用户ID作为起点，翻到任意页都只扫描limit行
+     * 用法：首页传null，之后传上一页最后一个sysUser.getUserId()，返回条数小于limit即为最后一页
+     * @param afterUserId 上一页最后一条的用户ID（首页传null）
+     * @param limit 每页条数
+     * @return List<SysUser> 当前页系统用户列表（无数据返回空列表）
+     */
+    public List<SysUser> getSysUsersAfter(Integer afterUserId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
+        }
+        if (afterUserId == null) {
+            return REPORT.query("分页查询系统用户失败",
+                    "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser ORDER BY UserID LIMIT ?", RowMappers.SYS_USER, limit);
         }
+        return REPORT.query("分页查询系统用户失败",
+                "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser WHERE UserID > ? ORDER BY UserID LIMIT ?", RowMappers.SYS_USER, afterUserId, limit);
     }
 
     /**
-     * 工具方法：将ResultSet封装为SysUser对象（复用代码，减少冗余）
-     * @param rs 结果集
-     * @return SysUser 系统用户对象
-     * @throws SQLException 数据库异常
+     * 流式遍历所有系统用户（按用户ID升序，含启用/禁用状态）：逐行读取并回调，不把整表加载到内存
+     * 注：回调期间占用一个数据库连接，回调中不宜执行耗时操作
+     * @param action 每个系统用户的处理逻辑
+     * @return int 遍历的行数
      */
-    private SysUser wrapSysUserFromResultSet(ResultSet rs) throws SQLException {
-        SysUser sysUser = new SysUser();
-        sysUser.setUserId(rs.getInt("UserID"));
-        sysUser.setAccount(rs.getString("Account"));
-        sysUser.setPassword(rs.getString("Password")); // 注意：返回的是加密后的密码
-        sysUser.setRole(rs.getString("Role"));
-        sysUser.setRelId(rs.getString("RelID"));
-        sysUser.setCreateTime(rs.getDate("CreateTime"));
-        sysUser.setStatus(rs.getInt("Status"));
-        return sysUser;
+    public int forEachSysUser(Consumer<SysUser> action) {
+        return REPORT.stream("遍历系统用户失败", "SELECT " + RowMappers.SYS_USER_COLUMNS + " FROM SysUser ORDER BY UserID",
+                rs -> action.accept(RowMappers.SYS_USER.mapRow(rs)));
+    }
+
+    /**
+     * 复制系统用户对象（缓存中的对象不直接交给调用方）
+     */
+    private static SysUser copyOf(SysUser source) {
+        SysUser copy = new SysUser(source.getAccount(), source.getPassword(), source.getRole(),
+                source.getRelId(), source.getCreateTime(), source.getStatus());
+        copy.setUserId(source.getUserId());
+        return copy;
+    }
+
+    /**
+     * 按用户ID失效账户缓存（删除/修改用户时只知道用户ID）
+     */
+    private static void invalidateByUserId(String userId) {
+        ACCOUNT_CACHE.invalidateIf((account, user) -> user != NOT_FOUND
+                && user.getUserId() != null && String.valueOf(user.getUserId()).equals(userId));
+    }
+
+    /**
+     * 获取登录账户缓存（查看命中/未命中/淘汰计数，评估缓存容量是否合适）
+     * @return LocalCache<String, SysUser> 登录账户缓存
+     */
+    public static LocalCache<String, SysUser> getCache() {
+        return ACCOUNT_CACHE;
     }
-}
\ No newline at end of file
+}
@@ -1,43 +1,52 @@
 package dao;
 
 import entity.Teacher;
+import util.AppConfig;
 import util.DBUtil;
+import util.DaoExecutor;
+import util.JdbcTemplate;
+import util.LocalCache;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * 教师数据访问层（TeacherDao）
  * 封装Teacher表的所有数据库操作（增删改查），依赖DBUtil工具类和Teacher实体类
+ * SQL经JdbcTemplate执行：写操作使用主库连接，查询使用只读连接，全表扫描使用报表数据源
  */
 public class TeacherDao {
+    private static final JdbcTemplate WRITE = JdbcTemplate.forWrite(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate READ = JdbcTemplate.forRead(DBUtil.DEFAULT);
+
+    private static final JdbcTemplate REPORT = JdbcTemplate.forRead(DBUtil.REPORT);
+
+    /**
+     * 教师信息缓存（按教师编号缓存单条查询结果，新增/修改/删除时失效），容量和过期时间见配置项cache.teacher.*
+     * 注：缓存在各应用节点内独立，其他节点修改的数据最迟在过期时间后可见
+     */
+    private static final LocalCache<String, Teacher> TEACHER_CACHE = new LocalCache<>("teacher",
+            AppConfig.getInt("cache.teacher.maxSize", 10000),
+            AppConfig.getLong("cache.teacher.ttlMillis", 10 * 60 * 1000L));
+
     /**
      * 新增教师信息
      * @param teacher 教师实体对象（需包含非空字段：tno、tname）
      * @return boolean 新增成功返回true，失败返回false
      */
     public boolean addTeacher(Teacher teacher) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
             String sql = "INSERT INTO Teacher (Tno, Tname, Tsex, Ttitle, Tdept) VALUES (?, ?, ?, ?, ?)";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, teacher.getTno());
-            pstmt.setString(2, teacher.getTname());
-            pstmt.setString(3, teacher.getTsex());
-            pstmt.setString(4, teacher.getTtitle());
-            pstmt.setString(5, teacher.getTdept());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("新增教师信息失败：" + e.getMessage(), e);
+            return WRITE.update("新增教师信息失败", sql, teacher.getTno(), teacher.getTname(), teacher.getTsex(),
+                    teacher.getTtitle(), teacher.getTdept()) > 0;
         } finally {
-            DBUtil.close(pstmt, conn);
+            TEACHER_CACHE.invalidate(teacher.getTno());
         }
     }
 
@@ -47,19 +56,12 @@ public class TeacherDao {
      * @return boolean 删除成功返回true，失败返回false
      */
     public boolean deleteTeacher(String tno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
-            String sql = "DELETE FROM Teacher WHERE Tno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, tno);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("删除教师信息失败：" + e.getMessage(), e);
+            return WRITE.update("删除教师信息失败", "DELETE FROM Teacher WHERE Tno=?", tno) > 0;
         } finally {
-            DBUtil.close(pstmt, conn);
+            TEACHER_CACHE.invalidate(tno);
+            // 外键ON DELETE SET NULL会清空该教师所授课程的Tno，课程缓存一并失效
+            CourseDao.invalidateCoursesByTno(tno);
         }
     }
 
@@ -69,23 +71,12 @@ public class TeacherDao {
      * @return boolean 修改成功返回true，失败返回false
      */
     public boolean updateTeacher(Teacher teacher) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         try {
-            conn = DBUtil.getConnection();
             String sql = "UPDATE Teacher SET Tname=?, Tsex=?, Ttitle=?, Tdept=? WHERE Tno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, teacher.getTname());
-            pstmt.setString(2, teacher.getTsex());
-            pstmt.setString(3, teacher.getTtitle());
-            pstmt.setString(4, teacher.getTdept());
-            pstmt.setString(5, teacher.getTno()); // 主键作为更新条件
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("修改教师信息失败：" + e.getMessage(), e);
+            return WRITE.update("修改教师信息失败", sql, teacher.getTname(), teacher.getTsex(), teacher.getTtitle(),
+                    teacher.getTdept(), teacher.getTno()) > 0; // 主键作为更新条件
         } finally {
-            DBUtil.close(pstmt, conn);
+            TEACHER_CACHE.invalidate(teacher.getTno());
         }
     }
 
@@ -95,30 +86,69 @@ public class TeacherDao {
      * @return Teacher 教师实体对象（未查询到返回null）
      */
     public Teacher getTeacherByTno(String tno) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Teacher WHERE Tno=?";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, tno);
-            rs = pstmt.executeQuery();
-            if (rs.next()) {
-                Teacher teacher = new Teacher();
-                teacher.setTno(rs.getString("Tno"));
-                teacher.setTname(rs.getString("Tname"));
-                teacher.setTsex(rs.getString("Tsex"));
-                teacher.setTtitle(rs.getString("Ttitle"));
-                teacher.setTdept(rs.getString("Tdept"));
-                return teacher;
+        Teacher cached = TEACHER_CACHE.get(tno, this::queryTeacherByTno);
+        // 返回副本，调用方修改返回对象不会影响缓存中的数据
+        return cached != null ? new Teacher(cached.getTno(), cached.getTname(), cached.getTsex(), cached.getTtitle(), cached.getTdept()) : null;
+    }
+
+    /**
+     * 异步根据工号查询单个教师（在DaoExecutor的I/O线程中执行getTeacherByTno）
+     * @return CompletableFuture<Teacher> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Teacher> getTeacherByTnoAsync(String tno) {
+        return DaoExecutor.supplyAsync(() -> getTeacherByTno(tno));
+    }
+
+    /**
+     * 批量查询教师信息（列表页等需要多条记录的场景，代替逐条调用单条查询）
+     * 先读缓存，未命中的主键按批拼成IN列表查询（每批一条SQL，共用一个连接），查询结果写回缓存
+     * @param tnos 教师编号集合（null和重复值会被忽略）
+     * @return Map<String, Teacher> 教师编号 → Teacher（不存在的编号不在结果中）
+     */
+    public Map<String, Teacher> getTeachersByTnos(Collection<String> tnos) {
+        Map<String, Teacher> result = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String tno : tnos) {
+            if (tno == null || result.containsKey(tno)) {
+                continue;
             }
-            return null;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询教师信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+            Teacher cached = TEACHER_CACHE.get(tno);
+            if (cached != null) {
+                result.put(tno, new Teacher(cached.getTno(), cached.getTname(), cached.getTsex(), cached.getTtitle(), cached.getTdept()));
+            } else {
+                misses.add(tno);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
         }
+        long version = TEACHER_CACHE.getInvalidationVersion();
+        return TEACHER_CACHE.load(() -> READ.execute("批量查询教师信息失败", conn -> {
+            for (List<String> chunk : DBUtil.partitionKeys(misses)) {
+                String sql = "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher WHERE Tno IN (" + DBUtil.placeholders(chunk.size()) + ")";
+                for (Teacher cached : JdbcTemplate.query(conn, sql, RowMappers.TEACHER, chunk.toArray())) {
+                    TEACHER_CACHE.putIfNotInvalidated(cached.getTno(), cached, version);
+                    result.put(cached.getTno(), new Teacher(cached.getTno(), cached.getTname(), cached.getTsex(), cached.getTtitle(), cached.getTdept()));
+                }
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * 异步批量查询教师（在DaoExecutor的I/O线程中执行getTeachersByTnos）
+     * @return CompletableFuture<Map<String, Teacher>> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Map<String, Teacher>> getTeachersByTnosAsync(Collection<String> tnos) {
+        return DaoExecutor.supplyAsync(() -> getTeachersByTnos(tnos));
+    }
+
+    /**
+     * 从数据库查询单个教师信息（缓存未命中时调用）
+     */
+    private Teacher queryTeacherByTno(String tno) {
+        String sql = "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher WHERE Tno=?";
+        return READ.queryForObject("查询教师信息失败", sql, RowMappers.TEACHER, tno);
     }
 
     /**
@@ -126,31 +156,54 @@ public class TeacherDao {
      * @return List<Teacher> 教师列表（无数据返回空列表，不返回null）
      */
     public List<Teacher> getAllTeachers() {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Teacher> teacherList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Teacher";
-            pstmt = conn.prepareStatement(sql);
-            rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Teacher teacher = new Teacher();
-                teacher.setTno(rs.getString("Tno"));
-                teacher.setTname(rs.getString("Tname"));
-                teacher.setTsex(rs.getString("Tsex"));
-                teacher.setTtitle(rs.getString("Ttitle"));
-                teacher.setTdept(rs.getString("Tdept"));
-                teacherList.add(teacher);
-            }
-            return teacherList;
-        } catch (SQLException e) {
-            throw new RuntimeException("查询所有教师信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
+        String sql = "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher";
+        return REPORT.query("查询所有教师信息失败", sql, RowMappers.TEACHER);
+    }
+
+    /**
+     * 查询教师总数（管理员首页统计使用）
+     * @return int 教师总数
+     */
+    public int countTeachers() {
+        return READ.queryForObject("查询教师总数失败", "SELECT COUNT(*) FROM Teacher", rs -> rs.getInt(1));
+    }
+
+    /**
+     * 异步查询教师总数（在DaoExecutor的I/O线程中执行countTeachers）
+     * @return CompletableFuture<Integer> 查询结果（数据库异常或I/O线程池已满时以异常完成）
+     */
+    public CompletableFuture<Integer> countTeachersAsync() {
+        return DaoExecutor.supplyAsync(this::countTeachers);
+    }
+
+    /**
+     * 键集分页查询教师信息（按教师编号升序）：以上一页最后一条的教师编号作为起点，翻到任意页都只扫描limit行
+     * 用法：首页传null，之后传上一页最后一个teacher.getTno()，返回条数小于limit即为最后一页
+     * @param afterTno 上一页最后一条的教师编号（首页传null）
+     * @param limit 每页条数
+     * @return List<Teacher> 当前页教师信息列表（无数据返回空列表）
+     */
+    public List<Teacher> getTeachersAfter(String afterTno, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("每页条数必须大于0");
         }
+        if (afterTno == null) {
+            return REPORT.query("分页查询教师信息失败",
+                    "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher ORDER BY Tno LIMIT ?", RowMappers.TEACHER, limit);
+        }
+        return REPORT.query("分页查询教师信息失败",
+                "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher WHERE Tno > ? ORDER BY Tno LIMIT ?", RowMappers.TEACHER, afterTno, limit);
+    }
+
+    /**
+     * 流式遍历所有教师信息（按教师编号升序）：逐行读取并回调，不把整表加载到内存，内存占用与表大小无关
+     * 注：回调期间占用一个数据库连接，回调中不宜执行耗时操作
+     * @param action 每行教师信息的处理逻辑
+     * @return int 遍历的行数
+     */
+    public int forEachTeacher(Consumer<Teacher> action) {
+        return REPORT.stream("遍历教师信息失败", "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher ORDER BY Tno",
+                rs -> action.accept(RowMappers.TEACHER.mapRow(rs)));
     }
 
     /**
@@ -159,31 +212,16 @@ public class TeacherDao {
      * @return List<Teacher> 匹配的教师列表
      */
     public List<Teacher> getTeachersByName(String tname) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
-        ResultSet rs = null;
-        List<Teacher> teacherList = new ArrayList<>();
-        try {
-            conn = DBUtil.getConnection();
-            String sql = "SELECT * FROM Teacher WHERE Tname LIKE CONCAT('%', ?, '%')";
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, tname);
-            rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                Teacher teacher = new Teacher();
-                teacher.setTno(rs.getString("Tno"));
-                teacher.setTname(rs.getString("Tname"));
-                teacher.setTsex(rs.getString("Tsex"));
-                teacher.setTtitle(rs.getString("Ttitle"));
-                teacher.setTdept(rs.getString("Tdept"));
-                teacherList.add(teacher);
-            }
-            return teacherList;
-        } catch (SQLException e) {
-            throw new RuntimeException("根据姓名查询教师信息失败：" + e.getMessage(), e);
-        } finally {
-            DBUtil.close(rs, pstmt, conn);
-        }
+        // 使用CONCAT拼接%，避免SQL注入（禁止直接拼接字符串）
+        String sql = "SELECT " + RowMappers.TEACHER_COLUMNS + " FROM Teacher WHERE Tname LIKE CONCAT('%', ?, '%')";
+        return READ.query("根据姓名查询教师信息失败", sql, RowMappers.TEACHER, tname);
+    }
+
+    /**
+     * 获取教师信息缓存（查看命中/未命中/淘汰计数，评估缓存容量是否合适）
+     * @return LocalCache<String, Teacher> 教师信息缓存
+     */
+    public static LocalCache<String, Teacher> getCache() {
+        return TEACHER_CACHE;
     }
-}
\ No newline at end of file
+}
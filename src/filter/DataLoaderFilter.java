@@ -0,0 +1,37 @@
+package filter;
+
+import service.RequestLoaders;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * 请求级批量加载过滤器（DataLoaderFilter）
+ * 为每个动态请求绑定一组RequestLoaders（当前线程 + 请求属性），请求结束时解绑；静态资源直接放行
+ * 异步处理完成后转发到页面（ASYNC）时在容器线程中重新绑定同一组加载器，页面仍可复用请求中已加载的数据
+ */
+@WebFilter(filterName = "DataLoaderFilter", urlPatterns = "/*", asyncSupported = true,
+        dispatcherTypes = {DispatcherType.REQUEST, DispatcherType.ASYNC})
+public class DataLoaderFilter extends HttpFilter {
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request.getServletPath().startsWith("/static/")) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RequestLoaders.bind(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestLoaders.unbind();
+        }
+    }
+}
@@ -1,4 +1,163 @@
 package filter;
 
-public class LoginFilter {
+import entity.SysUser;
+import util.SessionToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 登录权限过滤器（LoginFilter）
+ * 拦截所有请求，根据LoginServlet写入Session的loginUser判断是否已登录、角色是否有权访问目标页面
+ * 判断只读取Session中的用户对象和启动时构建好的规则表，不访问数据库，每个请求不创建新对象
+ * 令牌模式（session.mode=token）下改为验证签名令牌Cookie，验证通过后把轻量用户对象（用户ID、角色、关联ID）
+ * 放入请求属性loginUser，同样不访问数据库；页面和Servlet统一通过getLoginUser获取当前用户
+ * 规则：
+ * 1. /static/ 下的静态资源、登录/注册相关页面和请求直接放行
+ * 2. 角色页面（如/pages/admin_page.jsp）只允许对应角色访问，其他角色返回403
+ * 3. 其余请求需要登录，未登录重定向到登录页
+ */
+@WebFilter(filterName = "LoginFilter", urlPatterns = "/*", asyncSupported = true)
+public class LoginFilter extends HttpFilter {
+    /**
+     * 登录用户在Session中的属性名（与LoginServlet一致）
+     */
+    public static final String LOGIN_USER = "loginUser";
+
+    /**
+     * 登录页路径（LoginServlet的GET请求显示登录页）
+     */
+    public static final String LOGIN_PAGE = "/login";
+
+    /**
+     * 无需登录即可访问的路径前缀
+     */
+    private static final String[] PUBLIC_PREFIXES = {"/static/", "/pages/login/"};
+
+    /**
+     * 无需登录即可访问的路径
+     */
+    private static final Set<String> PUBLIC_PATHS;
+
+    /**
+     * 角色页面 → 允许访问的角色
+     */
+    private static final Map<String, String> PAGE_ROLES;
+
+    static {
+        Set<String> publicPaths = new HashSet<>();
+        publicPaths.add("");
+        publicPaths.add("/");
+        publicPaths.add("/index.jsp");
+        publicPaths.add("/login");
+        publicPaths.add("/register");
+        PUBLIC_PATHS = Collections.unmodifiableSet(publicPaths);
+
+        Map<String, String> pageRoles = new HashMap<>();
+        pageRoles.put("/pages/admin_page.jsp", "admin");
+        pageRoles.put("/pages/teacher_page.jsp", "teacher");
+        pageRoles.put("/pages/student_page.jsp", "student");
+        PAGE_ROLES = Collections.unmodifiableMap(pageRoles);
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        // servletPath为容器解析好的路径（不含上下文路径），无需再截取字符串
+        String path = request.getServletPath();
+        if (isPublic(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 1. 登录校验
+        SysUser loginUser = SessionToken.isTokenMode() ? authenticateToken(request) : getSessionUser(request);
+        if (loginUser == null) {
+            response.sendRedirect(request.getContextPath() + LOGIN_PAGE);
+            return;
+        }
+
+        // 2. 角色校验
+        String requiredRole = PAGE_ROLES.get(path);
+        if (requiredRole != null && !requiredRole.equalsIgnoreCase(loginUser.getRole())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "无权访问该页面");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * 获取当前登录用户（令牌模式下为过滤器放入请求属性的轻量用户对象，否则为Session中的用户对象）
+     * @param request 请求
+     * @return SysUser 当前登录用户（未登录返回null）
+     */
+    public static SysUser getLoginUser(HttpServletRequest request) {
+        Object attribute = request.getAttribute(LOGIN_USER);
+        if (attribute instanceof SysUser) {
+            return (SysUser) attribute;
+        }
+        return getSessionUser(request);
+    }
+
+    /**
+     * 从Session中读取登录用户（getSession(false)：未登录时不创建Session）
+     */
+    private static SysUser getSessionUser(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        Object attribute = session != null ? session.getAttribute(LOGIN_USER) : null;
+        return attribute instanceof SysUser ? (SysUser) attribute : null;
+    }
+
+    /**
+     * 验证令牌Cookie，通过后把轻量用户对象放入请求属性
+     */
+    private static SysUser authenticateToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (SessionToken.COOKIE_NAME.equals(cookie.getName())) {
+                SessionToken token = SessionToken.verify(cookie.getValue());
+                if (token == null) {
+                    return null;
+                }
+                SysUser loginUser = new SysUser();
+                loginUser.setUserId(token.getUserId());
+                loginUser.setRole(token.getRole());
+                loginUser.setRelId(token.getRelId());
+                request.setAttribute(LOGIN_USER, loginUser);
+                return loginUser;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 判断路径是否无需登录
+     */
+    private static boolean isPublic(String path) {
+        if (PUBLIC_PATHS.contains(path)) {
+            return true;
+        }
+        for (String prefix : PUBLIC_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,114 @@
+package filter;
+
+import util.ReadWriteRouter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读自己的写过滤器（ReadYourWritesFilter）
+ * 把最近写操作时间（ReadWriteRouter）从"按线程记录"改为按请求/Session记录：
+ * 1. 请求开始时从Session（没有Session时新建，只在本请求内有效）取出记录并绑定到当前线程，请求结束时恢复
+ * 2. 写操作发生在请求中时，记录保存在Session里，写入后重定向到的下一个请求（通常在另一个容器线程中）仍然走主库
+ * 3. 异步处理的请求在执行线程中通过bind重新绑定，DaoExecutor中的查询由ReadWriteRouter.propagating沿用同一记录
+ * 注：令牌模式（session.mode=token）下没有Session，写操作时间只在本次请求（含其中的异步查询）内有效
+ */
+@WebFilter(filterName = "ReadYourWritesFilter", urlPatterns = "/*", asyncSupported = true,
+        dispatcherTypes = {DispatcherType.REQUEST, DispatcherType.ASYNC})
+public class ReadYourWritesFilter extends HttpFilter {
+    /**
+     * 最近写操作时间在请求/Session中的属性名
+     */
+    public static final String LAST_WRITE = "lastWriteTime";
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request.getServletPath().startsWith("/static/") || !ReadWriteRouter.hasReplicas()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AtomicLong lastWrite = lastWriteOf(request);
+        AtomicLong previous = ReadWriteRouter.bindLastWrite(lastWrite);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRouter.bindLastWrite(previous);
+            if (request.isAsyncStarted()) {
+                // 异步处理中的写操作（及登录时新建的Session）在请求结束时才确定
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        saveToSession(request, lastWrite);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                saveToSession(request, lastWrite);
+            }
+        }
+    }
+
+    /**
+     * 把请求的写操作时间记录绑定到当前线程（异步处理的请求在执行线程中调用，用返回值恢复）
+     * @param request 请求
+     * @return AtomicLong 之前绑定的记录
+     */
+    public static AtomicLong bind(HttpServletRequest request) {
+        return ReadWriteRouter.bindLastWrite(lastWriteOf(request));
+    }
+
+    /**
+     * 获取请求的写操作时间记录：请求属性 → Session属性 → 新建（保存到请求属性）
+     */
+    private static AtomicLong lastWriteOf(HttpServletRequest request) {
+        Object attribute = request.getAttribute(LAST_WRITE);
+        if (attribute instanceof AtomicLong) {
+            return (AtomicLong) attribute;
+        }
+        HttpSession session = request.getSession(false);
+        attribute = session != null ? session.getAttribute(LAST_WRITE) : null;
+        AtomicLong lastWrite = attribute instanceof AtomicLong ? (AtomicLong) attribute : new AtomicLong();
+        request.setAttribute(LAST_WRITE, lastWrite);
+        return lastWrite;
+    }
+
+    /**
+     * 本请求发生过写操作且有Session时，把记录保存到Session（不为没有写操作的请求创建Session或写入属性）
+     */
+    private static void saveToSession(HttpServletRequest request, AtomicLong lastWrite) {
+        if (lastWrite.get() == 0) {
+            return;
+        }
+        try {
+            HttpSession session = request.getSession(false);
+            if (session != null && session.getAttribute(LAST_WRITE) != lastWrite) {
+                session.setAttribute(LAST_WRITE, lastWrite);
+            }
+        } catch (IllegalStateException e) {
+            // Session已失效（如退出登录），无需保存
+        }
+    }
+}
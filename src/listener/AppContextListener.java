@@ -0,0 +1,50 @@
+package listener;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+import service.CourseStatsStore;
+import service.RankingService;
+import servlet.Pages;
+import servlet.RequestExecution;
+import util.AppConfig;
+import util.DBUtil;
+import util.DaoExecutor;
+import util.PasswordHashing;
+
+/**
+ * 应用生命周期监听器
+ * 应用启动时编译页面模板（Pages），构建内存中的课程成绩统计（CourseStatsStore）和班级排名（RankingService）
+ * 应用停止（或热部署重载）时释放数据库连接池、停止配置热加载线程、密码哈希线程、请求执行线程和数据库异步查询线程，避免物理连接和后台线程泄漏
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        // 连接池在首次使用DBUtil时创建，这里无需预热
+        // 页面模板在启动时一次性加载编译，模板缺失或语法错误时应用启动失败
+        Pages.preload();
+        try {
+            CourseStatsStore.getInstance().start();
+        } catch (RuntimeException e) {
+            // 数据库暂不可用时不影响应用启动，课程统计回退为实时扫描，可稍后调用rebuild()
+            System.err.println("构建课程成绩统计失败：" + e.getMessage());
+        }
+        try {
+            RankingService.getInstance().start();
+        } catch (RuntimeException e) {
+            System.err.println("构建班级排名失败：" + e.getMessage());
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        CourseStatsStore.getInstance().stop();
+        RankingService.getInstance().stop();
+        RequestExecution.shutdown();
+        DaoExecutor.shutdown();
+        DBUtil.shutdown();
+        PasswordHashing.shutdown();
+        AppConfig.shutdown();
+    }
+}
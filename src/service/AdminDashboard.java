@@ -0,0 +1,52 @@
+package service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 管理员首页数据（AdminDashboard）
+ * 学生数、教师数、课程数、按角色的用户数四个数据块
+ */
+public class AdminDashboard extends Dashboard {
+    private final DashboardSection<Integer> studentCount;
+    private final DashboardSection<Integer> teacherCount;
+    private final DashboardSection<Integer> courseCount;
+    private final DashboardSection<Map<String, Integer>> userCounts;
+
+    AdminDashboard(DashboardSection<Integer> studentCount, DashboardSection<Integer> teacherCount,
+                   DashboardSection<Integer> courseCount, DashboardSection<Map<String, Integer>> userCounts) {
+        super(studentCount, teacherCount, courseCount, userCounts);
+        this.studentCount = studentCount;
+        this.teacherCount = teacherCount;
+        this.courseCount = courseCount;
+        this.userCounts = userCounts;
+    }
+
+    public DashboardSection<Integer> getStudentCount() {
+        return studentCount;
+    }
+
+    public DashboardSection<Integer> getTeacherCount() {
+        return teacherCount;
+    }
+
+    public DashboardSection<Integer> getCourseCount() {
+        return courseCount;
+    }
+
+    /**
+     * @return DashboardSection<Map<String, Integer>> 角色 → 启用状态的用户数
+     */
+    public DashboardSection<Map<String, Integer>> getUserCounts() {
+        return userCounts;
+    }
+
+    /**
+     * @param role 角色（student/teacher/admin）
+     * @return int 该角色的用户数（用户数未能加载时为0）
+     */
+    public int getUserCount(String role) {
+        Integer count = userCounts.getValueOr(Collections.<String, Integer>emptyMap()).get(role);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,50 @@
+package service;
+
+import dao.CourseDao;
+import dao.StudentDao;
+import dao.SysUserDao;
+import dao.TeacherDao;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 管理员首页服务（AdminDashboardService）
+ * 同时发起学生数、教师数、课程数、按角色用户数四个统计查询（DAO的*Async方法），在截止时间内合并为AdminDashboard
+ */
+public class AdminDashboardService {
+    private final StudentDao studentDao;
+    private final TeacherDao teacherDao;
+    private final CourseDao courseDao;
+    private final SysUserDao sysUserDao;
+
+    public AdminDashboardService() {
+        this(new StudentDao(), new TeacherDao(), new CourseDao(), new SysUserDao());
+    }
+
+    public AdminDashboardService(StudentDao studentDao, TeacherDao teacherDao, CourseDao courseDao, SysUserDao sysUserDao) {
+        this.studentDao = studentDao;
+        this.teacherDao = teacherDao;
+        this.courseDao = courseDao;
+        this.sysUserDao = sysUserDao;
+    }
+
+    /**
+     * 加载管理员首页数据（不阻塞调用线程）
+     * @return CompletableFuture<AdminDashboard> 首页数据（不会以异常完成，查询超时或失败的数据块标记为降级）
+     */
+    public CompletableFuture<AdminDashboard> load() {
+        long deadline = DashboardSection.deadline();
+        CompletableFuture<DashboardSection<Integer>> studentCount =
+                DashboardSection.load("学生人数", studentDao.countStudentsAsync(), deadline);
+        CompletableFuture<DashboardSection<Integer>> teacherCount =
+                DashboardSection.load("教师人数", teacherDao.countTeachersAsync(), deadline);
+        CompletableFuture<DashboardSection<Integer>> courseCount =
+                DashboardSection.load("课程数量", courseDao.countCoursesAsync(), deadline);
+        CompletableFuture<DashboardSection<Map<String, Integer>>> userCounts =
+                DashboardSection.load("用户统计", sysUserDao.countSysUsersByRoleAsync(), deadline);
+        return CompletableFuture.allOf(studentCount, teacherCount, courseCount, userCounts)
+                .thenApply(ignored -> new AdminDashboard(studentCount.join(), teacherCount.join(),
+                        courseCount.join(), userCounts.join()));
+    }
+}
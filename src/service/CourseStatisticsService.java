@@ -0,0 +1,51 @@
+package service;
+
+import dao.ScoreDao;
+
+import java.util.Collection;
+
+/**
+ * 课程成绩统计服务（CourseStatisticsService）
+ * 通过ScoreDao.forEachScoreValueByCno流式读取课程的成绩列，一次遍历累加到ScoreStatistics，
+ * 得到平均分、中位数、标准差、及格率和分数段分布；不创建Score对象，内存占用与选课人数无关
+ * 内存统计（CourseStatsStore）构建完成后单门课程的统计直接从内存读取，不再扫描成绩表
+ */
+public class CourseStatisticsService {
+    private final ScoreDao scoreDao;
+
+    public CourseStatisticsService() {
+        this(new ScoreDao());
+    }
+
+    public CourseStatisticsService(ScoreDao scoreDao) {
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * 统计单门课程的成绩
+     * @param cno 课程编号
+     * @return ScoreStatistics 成绩统计（无成绩时各项为0）
+     */
+    public ScoreStatistics getCourseStatistics(String cno) {
+        CourseStatsStore store = CourseStatsStore.getInstance();
+        if (store.isReady()) {
+            return store.getStatistics(cno);
+        }
+        ScoreStatistics statistics = new ScoreStatistics();
+        scoreDao.forEachScoreValueByCno(cno, statistics::add);
+        return statistics;
+    }
+
+    /**
+     * 合并统计多门课程的成绩（如同一课程的多个教学班）
+     * @param cnos 课程编号集合
+     * @return ScoreStatistics 合并后的成绩统计
+     */
+    public ScoreStatistics getCourseStatistics(Collection<String> cnos) {
+        ScoreStatistics statistics = new ScoreStatistics();
+        for (String cno : cnos) {
+            statistics.merge(getCourseStatistics(cno));
+        }
+        return statistics;
+    }
+}
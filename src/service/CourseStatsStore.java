@@ -0,0 +1,216 @@
+package service;
+
+import dao.ScoreChangeListener;
+import dao.ScoreDao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 课程成绩统计存储（CourseStatsStore）
+ * 在内存中按课程编号维护ScoreStatistics（人数、总和、平方和、直方图），查询统计时直接读取，不再扫描成绩表
+ * 维护方式：
+ * 1. 应用启动时（AppContextListener）在主库的一致性快照中扫描成绩表（ScoreDao.scanScoreSnapshot）构建全部课程的统计
+ * 2. 作为ScoreChangeListener注册到ScoreDao，成绩新增/修改/保存/删除提交后增量更新；
+ *    快照建立后收到的变更暂存，扫描结束后补上，与快照中的数据不会重复也不会遗漏
+ * 3. verify()在一致性快照中重新扫描成绩表，与快照建立时刻的内存统计逐课程比较，用于发现遗漏的变更（如直接在数据库中修改成绩）
+ * 注：只能感知通过本应用ScoreDao发生的变更，多节点部署或直接修改数据库后需调用rebuild()
+ */
+public class CourseStatsStore implements ScoreChangeListener {
+    private static final CourseStatsStore INSTANCE = new CourseStatsStore(new ScoreDao());
+
+    private final ScoreDao scoreDao;
+
+    /**
+     * 课程编号 → 成绩统计（所有访问在this上同步）
+     */
+    private Map<String, ScoreStatistics> statistics = new HashMap<>();
+
+    /**
+     * 重建快照建立后收到的成绩变更（不为null表示正在扫描），重建完成后按顺序补上
+     */
+    private List<PendingChange> pendingChanges;
+
+    private boolean rebuilding;
+
+    private boolean ready;
+
+    private boolean started;
+
+    public CourseStatsStore(ScoreDao scoreDao) {
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * @return CourseStatsStore 全局统计存储
+     */
+    public static CourseStatsStore getInstance() {
+        return INSTANCE;
+    }
+
+    // -------------------------- 生命周期 --------------------------
+    /**
+     * 开始维护：注册成绩变更监听器并扫描成绩表构建统计
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+        ScoreDao.addScoreChangeListener(this);
+        rebuild();
+    }
+
+    /**
+     * 停止维护：移除成绩变更监听器
+     */
+    public void stop() {
+        ScoreDao.removeScoreChangeListener(this);
+        synchronized (this) {
+            started = false;
+        }
+    }
+
+    /**
+     * 在一致性快照中扫描成绩表，重新构建全部课程的统计（已有线程在重建时直接返回）
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (rebuilding) {
+                return;
+            }
+            rebuilding = true;
+        }
+        Map<String, ScoreStatistics> rebuilt = new HashMap<>();
+        try {
+            scoreDao.scanScoreSnapshot(() -> {
+                // 快照建立的同一时刻开始暂存变更：此后回调的变更都不在快照中
+                synchronized (this) {
+                    pendingChanges = new ArrayList<>();
+                }
+            }, (sno, cno, score) -> rebuilt.computeIfAbsent(cno, key -> new ScoreStatistics()).add(score));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+                rebuilding = false;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            statistics = rebuilt;
+            for (PendingChange change : pendingChanges) {
+                apply(change.cno, change.oldScore, change.newScore);
+            }
+            pendingChanges = null;
+            rebuilding = false;
+            ready = true;
+        }
+    }
+
+    /**
+     * @return boolean 是否已完成首次构建
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    // -------------------------- 增量更新 --------------------------
+    @Override
+    public synchronized void onScoreChanged(String sno, String cno, Float oldScore, Float newScore) {
+        if (pendingChanges != null) {
+            pendingChanges.add(new PendingChange(cno, oldScore, newScore));
+        }
+        apply(cno, oldScore, newScore);
+    }
+
+    private void apply(String cno, Float oldScore, Float newScore) {
+        ScoreStatistics courseStatistics = statistics.get(cno);
+        if (oldScore != null && courseStatistics != null) {
+            try {
+                courseStatistics.remove(oldScore);
+            } catch (IllegalStateException e) {
+                // 内存统计与数据库不一致（如数据库被直接修改），跳过移除，等待verify()/rebuild()修正
+                System.err.println("课程[" + cno + "]成绩统计与数据库不一致：" + e.getMessage());
+            }
+        }
+        if (newScore != null) {
+            if (courseStatistics == null) {
+                courseStatistics = new ScoreStatistics();
+                statistics.put(cno, courseStatistics);
+            }
+            courseStatistics.add(newScore);
+        }
+        if (courseStatistics != null && courseStatistics.getCount() == 0) {
+            statistics.remove(cno);
+        }
+    }
+
+    // -------------------------- 查询 --------------------------
+    /**
+     * 查询课程的成绩统计
+     * @param cno 课程编号
+     * @return ScoreStatistics 统计数据副本（无成绩的课程返回各项为0的统计）
+     */
+    public synchronized ScoreStatistics getStatistics(String cno) {
+        ScoreStatistics courseStatistics = statistics.get(cno);
+        return courseStatistics != null ? courseStatistics.copy() : new ScoreStatistics();
+    }
+
+    /**
+     * @return Set<String> 有成绩的课程编号
+     */
+    public synchronized Set<String> getCourseNos() {
+        return new HashSet<>(statistics.keySet());
+    }
+
+    // -------------------------- 一致性检查 --------------------------
+    /**
+     * 在主库的一致性快照中重新扫描成绩表，与快照建立时刻的内存统计逐课程比较
+     * 快照建立时成绩写操作静止且已回调完毕（见ScoreDao.scanScoreSnapshot），两边对应同一时间点，
+     * 检查期间的正常成绩变更和从库延迟都不会被报告为不一致
+     * @return List<String> 统计不一致的课程编号（一致时返回空列表）
+     */
+    public List<String> verify() {
+        Map<String, ScoreStatistics> actual = new HashMap<>();
+        Map<String, ScoreStatistics> expected = new HashMap<>();
+        scoreDao.scanScoreSnapshot(() -> {
+            synchronized (this) {
+                for (Map.Entry<String, ScoreStatistics> entry : statistics.entrySet()) {
+                    actual.put(entry.getKey(), entry.getValue().copy());
+                }
+            }
+        }, (sno, cno, score) -> expected.computeIfAbsent(cno, key -> new ScoreStatistics()).add(score));
+        Set<String> cnos = new HashSet<>(expected.keySet());
+        cnos.addAll(actual.keySet());
+        List<String> mismatched = new ArrayList<>();
+        for (String cno : cnos) {
+            ScoreStatistics inMemory = actual.get(cno);
+            ScoreStatistics recomputed = expected.get(cno);
+            if (inMemory == null || recomputed == null || !inMemory.sameDistribution(recomputed)) {
+                mismatched.add(cno);
+            }
+        }
+        return mismatched;
+    }
+
+    /**
+     * 重建期间暂存的成绩变更
+     */
+    private static final class PendingChange {
+        private final String cno;
+        private final Float oldScore;
+        private final Float newScore;
+
+        PendingChange(String cno, Float oldScore, Float newScore) {
+            this.cno = cno;
+            this.oldScore = oldScore;
+            this.newScore = newScore;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 角色首页数据（Dashboard）
+ * 学生/教师/管理员首页数据的公共部分：记录各数据块，供页面判断是否有数据块降级（超时或加载失败）
+ */
+public abstract class Dashboard {
+    private final List<DashboardSection<?>> sections;
+
+    protected Dashboard(DashboardSection<?>... sections) {
+        this.sections = Collections.unmodifiableList(Arrays.asList(sections));
+    }
+
+    /**
+     * @return boolean 是否有数据块未能加载
+     */
+    public boolean isDegraded() {
+        for (DashboardSection<?> section : sections) {
+            if (!section.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return List<String> 未能加载的数据块名称（全部加载时返回空列表）
+     */
+    public List<String> getDegradedSections() {
+        List<String> names = new ArrayList<>();
+        for (DashboardSection<?> section : sections) {
+            if (!section.isAvailable()) {
+                names.add(section.getName());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + sections;
+    }
+}
@@ -0,0 +1,107 @@
+package service;
+
+import util.AppConfig;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首页数据块（DashboardSection）
+ * 角色首页由多个互不依赖的查询组成，每个查询的结果包装为一个数据块：已加载、超时或加载失败
+ * 所有查询同时发起，共用一个截止时间（dashboard.deadlineMillis），页面耗时取决于最慢的查询而不是所有查询之和；
+ * 截止时间到达时仍未完成的查询按超时处理，页面只对该数据块显示"暂时无法加载"，其余数据照常显示
+ * 注：超时只是不再等待结果，已发出的查询仍在DaoExecutor中执行完毕（结果被丢弃）
+ * @param <T> 数据类型
+ */
+public class DashboardSection<T> {
+    /**
+     * 数据块状态
+     */
+    public enum Status {
+        /**
+         * 已加载
+         */
+        OK,
+        /**
+         * 截止时间内未完成
+         */
+        TIMEOUT,
+        /**
+         * 查询失败
+         */
+        FAILED
+    }
+
+    private final String name;
+    private final Status status;
+    private final T value;
+
+    private DashboardSection(String name, Status status, T value) {
+        this.name = name;
+        this.status = status;
+        this.value = value;
+    }
+
+    /**
+     * 计算本次首页加载的截止时间
+     * @return long 截止时间（System.nanoTime()时间线）
+     */
+    public static long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, AppConfig.getLong("dashboard.deadlineMillis", 1500)));
+    }
+
+    /**
+     * 把一个查询包装为数据块：查询在截止时间前完成为OK，抛出异常为FAILED，截止时间到达仍未完成为TIMEOUT
+     * 返回的Future不会以异常完成；超时完成时，同步注册的后续阶段（thenApply等）在JDK全局唯一的超时调度线程中执行，
+     * 后续阶段只应做轻量的组装，渲染页面、写响应等操作需用*Async方法切换到其他线程（见DashboardServlet）
+     * @param name 数据块名称（用于页面提示和日志）
+     * @param query 查询（通常是DAO的*Async方法）
+     * @param deadlineNanos 截止时间（deadline()的返回值）
+     * @return CompletableFuture<DashboardSection<T>> 数据块
+     */
+    public static <T> CompletableFuture<DashboardSection<T>> load(String name, CompletableFuture<T> query, long deadlineNanos) {
+        long remainingNanos = Math.max(0, deadlineNanos - System.nanoTime());
+        return query.thenApply(value -> new DashboardSection<>(name, Status.OK, value))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    System.err.println("首页数据[" + name + "]加载失败：" + cause.getMessage());
+                    return new DashboardSection<>(name, Status.FAILED, null);
+                })
+                .completeOnTimeout(new DashboardSection<>(name, Status.TIMEOUT, null), remainingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return boolean 是否已加载（超时或失败时为false）
+     */
+    public boolean isAvailable() {
+        return status == Status.OK;
+    }
+
+    /**
+     * @return T 数据（未加载时为null；已加载但查询结果为空时也可能为null）
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * 获取数据，未加载时返回默认值
+     */
+    public T getValueOr(T defaultValue) {
+        return status == Status.OK && value != null ? value : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return name + "=" + status;
+    }
+}
@@ -0,0 +1,303 @@
+package service;
+
+import dao.ScoreDao;
+import dao.ScoreValueConsumer;
+import entity.Course;
+import entity.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 班级排名基准（RankingBenchmark）
+ * 独立运行的main程序，用内存生成的模拟数据（不连接数据库）测量RankingService在大群体下的性能：
+ * 1. build：首次构建（扫描全部课程、学生和成绩，按群体排序）的耗时
+ * 2. incremental：单个成绩变更（onScoreChanged，与ScoreDao写操作后的回调相同）的延迟和每秒次数
+ * 3. resort：对照组，每个成绩变更后重新计算该学生的绩点并对其年级和专业群体整体重新排序
+ *    （引入排名服务之前每次查询都要全量取数排序，此对照组只计排序，不含取数，是旧方式的下限）
+ * 4. query：getRank、getPercentile、getTopN(10)混合查询的每秒次数
+ * 增量更新之后（对照组之前）抽查若干学生的名次，与按当前全部成绩从头计算的名次核对
+ * 模拟数据：每个学生选全部课程，成绩40~100分随机，学分1~4，年级和专业均匀分布；固定随机种子，结果可重复
+ * 用法：java -cp <classes> service.RankingBenchmark [学生数] [课程数] [成绩变更次数] [年级数] [专业数]
+ * 默认50000人、40门、100000次、4个年级、20个专业；build和query预热2轮、测量5轮
+ */
+public class RankingBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int RESORT_CHANGES = 200;
+    private static final int QUERY_COUNT = 200_000;
+    private static final int VERIFY_COUNT = 1000;
+
+    private RankingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int students = args.length > 0 ? Integer.parseInt(args[0].trim()) : 50_000;
+        int courses = args.length > 1 ? Integer.parseInt(args[1].trim()) : 40;
+        int changes = args.length > 2 ? Integer.parseInt(args[2].trim()) : 100_000;
+        int grades = args.length > 3 ? Integer.parseInt(args[3].trim()) : 4;
+        int majors = args.length > 4 ? Integer.parseInt(args[4].trim()) : 20;
+
+        Data data = new Data(students, courses, grades, majors, new Random(42));
+        RankingService service = new RankingService(new SyntheticScoreDao(data));
+        System.out.println("学生" + students + "人 × 课程" + courses + "门（成绩" + (long) students * courses + "条），年级"
+                + grades + "个，专业" + majors + "个");
+
+        // build：每轮都从模拟数据完整重建
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            service.rebuild();
+        }
+        double[] buildMillis = new double[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            service.rebuild();
+            buildMillis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        System.out.printf("build        平均%.0fms（最小%.0fms，最大%.0fms）%n", Arrays.stream(buildMillis).average().orElse(Double.NaN),
+                Arrays.stream(buildMillis).min().orElse(Double.NaN), Arrays.stream(buildMillis).max().orElse(Double.NaN));
+
+        // incremental：前1/10的变更作为预热，不计入结果
+        Random random = new Random(7);
+        int warmup = changes / 10;
+        for (int i = 0; i < warmup; i++) {
+            changeScore(service, data, random);
+        }
+        long[] latencies = new long[changes];
+        long start = System.nanoTime();
+        for (int i = 0; i < changes; i++) {
+            long begin = System.nanoTime();
+            changeScore(service, data, random);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        printLatencies("incremental", latencies, System.nanoTime() - start);
+        System.out.println("名次核对：抽查" + VERIFY_COUNT + "人，不一致" + verify(service, data, random) + "人");
+
+        // resort：对照组，只做少量变更（修改的成绩不通知排名服务，因此名次核对在此之前）
+        double[] gpas = new double[students];
+        for (int s = 0; s < students; s++) {
+            gpas[s] = data.gpa(s);
+        }
+        Map<String, List<Integer>> gradeCohorts = data.cohorts(data.grades);
+        Map<String, List<Integer>> majorCohorts = data.cohorts(data.majors);
+        for (int i = 0; i < RESORT_CHANGES / 10; i++) {
+            resort(data, random, gpas, gradeCohorts, majorCohorts);
+        }
+        long[] resortLatencies = new long[RESORT_CHANGES];
+        start = System.nanoTime();
+        for (int i = 0; i < RESORT_CHANGES; i++) {
+            long begin = System.nanoTime();
+            resort(data, random, gpas, gradeCohorts, majorCohorts);
+            resortLatencies[i] = System.nanoTime() - begin;
+        }
+        printLatencies("resort", resortLatencies, System.nanoTime() - start);
+
+        // query
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            query(service, data, random);
+        }
+        double[] rates = new double[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            rates[i] = query(service, data, random);
+        }
+        System.out.printf("query        平均%.0f次/秒（最小%.0f，最大%.0f）%n", Arrays.stream(rates).average().orElse(Double.NaN),
+                Arrays.stream(rates).min().orElse(Double.NaN), Arrays.stream(rates).max().orElse(Double.NaN));
+    }
+
+    /**
+     * 随机修改一条成绩并通知排名服务
+     */
+    private static void changeScore(RankingService service, Data data, Random random) {
+        int student = random.nextInt(data.students);
+        int course = random.nextInt(data.courses);
+        float oldScore = data.score(student, course);
+        float newScore = 40 + random.nextInt(61);
+        data.scores[student * data.courses + course] = newScore;
+        service.onScoreChanged(data.snos[student], data.cnos[course], oldScore, newScore);
+    }
+
+    /**
+     * 对照组：随机修改一条成绩，重新计算该学生的绩点，再把其年级和专业群体整体重新排序
+     */
+    private static void resort(Data data, Random random, double[] gpas, Map<String, List<Integer>> gradeCohorts,
+                               Map<String, List<Integer>> majorCohorts) {
+        int student = random.nextInt(data.students);
+        int course = random.nextInt(data.courses);
+        data.scores[student * data.courses + course] = 40 + random.nextInt(61);
+        gpas[student] = data.gpa(student);
+        for (List<Integer> cohort : Arrays.asList(gradeCohorts.get(data.grades[student]), majorCohorts.get(data.majors[student]))) {
+            cohort.sort((a, b) -> {
+                int compare = Double.compare(gpas[b], gpas[a]);
+                return compare != 0 ? compare : Integer.compare(a, b);
+            });
+        }
+    }
+
+    /**
+     * 一轮混合查询
+     * @return double 每秒查询次数
+     */
+    private static double query(RankingService service, Data data, Random random) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int student = random.nextInt(data.students);
+            switch (i % 3) {
+                case 0:
+                    RankingService.RankEntry entry = service.getRank(data.snos[student], RankingService.CohortType.GRADE);
+                    checksum += entry == null ? 0 : entry.getRank();
+                    break;
+                case 1:
+                    checksum += (long) service.getPercentile(data.snos[student], RankingService.CohortType.MAJOR);
+                    break;
+                default:
+                    checksum += service.getTopN(RankingService.CohortType.MAJOR, data.majors[student], 10).size();
+                    break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == Long.MIN_VALUE) {
+            // 使用查询结果，避免被JIT当作无用代码消除
+            System.out.println(checksum);
+        }
+        return QUERY_COUNT / (elapsed / 1e9);
+    }
+
+    /**
+     * 抽查学生的年级名次：1 + 同年级中绩点更高的人数（绩点按排名服务的规则保留6位小数）
+     * @return int 不一致的人数
+     */
+    private static int verify(RankingService service, Data data, Random random) {
+        double[] gpas = new double[data.students];
+        for (int s = 0; s < data.students; s++) {
+            gpas[s] = Math.round(data.gpa(s) * 1e6) / 1e6;
+        }
+        int mismatches = 0;
+        for (int i = 0; i < VERIFY_COUNT; i++) {
+            int student = random.nextInt(data.students);
+            int expected = 1;
+            for (int s = 0; s < data.students; s++) {
+                if (data.grades[s].equals(data.grades[student]) && gpas[s] > gpas[student]) {
+                    expected++;
+                }
+            }
+            RankingService.RankEntry entry = service.getRank(data.snos[student], RankingService.CohortType.GRADE);
+            if (entry == null || entry.getRank() != expected) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static void printLatencies(String mode, long[] latencies, long elapsedNanos) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-12s %d次，%.0f次/秒，p50=%.3fms p99=%.3fms max=%.3fms%n", mode, sorted.length,
+                sorted.length / (elapsedNanos / 1e9), percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 100));
+    }
+
+    /**
+     * 第p百分位（毫秒，最近秩法）
+     */
+    private static double percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    /**
+     * 模拟数据：学生编号、年级、专业，课程编号、学分，以及学生×课程的成绩矩阵
+     */
+    private static final class Data {
+        final int students;
+        final int courses;
+        final String[] snos;
+        final String[] grades;
+        final String[] majors;
+        final String[] cnos;
+        final float[] credits;
+        final float[] scores;
+
+        Data(int students, int courses, int gradeCount, int majorCount, Random random) {
+            this.students = students;
+            this.courses = courses;
+            snos = new String[students];
+            grades = new String[students];
+            majors = new String[students];
+            for (int s = 0; s < students; s++) {
+                snos[s] = String.format("S%07d", s);
+                grades[s] = String.valueOf(2021 + random.nextInt(gradeCount));
+                majors[s] = "专业" + random.nextInt(majorCount);
+            }
+            cnos = new String[courses];
+            credits = new float[courses];
+            for (int c = 0; c < courses; c++) {
+                cnos[c] = String.format("C%05d", c);
+                credits[c] = 1 + random.nextInt(4);
+            }
+            scores = new float[students * courses];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = 40 + random.nextInt(61);
+            }
+        }
+
+        float score(int student, int course) {
+            return scores[student * courses + course];
+        }
+
+        /**
+         * 按当前成绩从头计算学分加权绩点（规则同TranscriptService）
+         */
+        double gpa(int student) {
+            double creditSum = 0;
+            double points = 0;
+            for (int c = 0; c < courses; c++) {
+                creditSum += credits[c];
+                points += credits[c] * TranscriptService.gradePoint(score(student, c));
+            }
+            return points / creditSum;
+        }
+
+        /**
+         * 按年级或专业分组的学生下标
+         */
+        Map<String, List<Integer>> cohorts(String[] keys) {
+            Map<String, List<Integer>> cohorts = new HashMap<>();
+            for (int s = 0; s < students; s++) {
+                cohorts.computeIfAbsent(keys[s], k -> new ArrayList<>()).add(s);
+            }
+            return cohorts;
+        }
+    }
+
+    /**
+     * 用模拟数据代替数据库快照扫描的ScoreDao（只用于RankingService.rebuild）
+     */
+    private static final class SyntheticScoreDao extends ScoreDao {
+        private final Data data;
+
+        SyntheticScoreDao(Data data) {
+            this.data = data;
+        }
+
+        @Override
+        public void scanSnapshot(Runnable onSnapshot, Consumer<Course> courseAction, Consumer<Student> studentAction,
+                                 ScoreValueConsumer scoreAction) {
+            onSnapshot.run();
+            for (int c = 0; c < data.courses; c++) {
+                courseAction.accept(new Course(data.cnos[c], "课程" + c, data.credits[c], null));
+            }
+            for (int s = 0; s < data.students; s++) {
+                studentAction.accept(new Student(data.snos[s], "学生" + s, "男", data.grades[s], data.majors[s]));
+            }
+            for (int s = 0; s < data.students; s++) {
+                for (int c = 0; c < data.courses; c++) {
+                    scoreAction.accept(data.snos[s], data.cnos[c], data.score(s, c));
+                }
+            }
+        }
+    }
+}
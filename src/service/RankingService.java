@@ -0,0 +1,732 @@
+package service;
+
+import dao.CourseChangeListener;
+import dao.CourseDao;
+import dao.ScoreChangeListener;
+import dao.ScoreDao;
+import dao.StudentChangeListener;
+import dao.StudentDao;
+import entity.Course;
+import entity.Student;
+import util.DaoExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 班级排名服务（RankingService）
+ * 按年级（Sgrade）或专业（Smajor）划分群体，按学分加权绩点（规则同TranscriptService）从高到低排名，
+ * 提供名次、前N名和百分位查询
+ * 数据结构：学生以连续的int编号表示，每个群体维护按绩点降序排列的学生编号数组和绩点数组（原始类型，无装箱），
+ * 名次查询为二分查找；单个成绩变更只把该学生在数组中移动到新位置（移动区间内的元素整体平移），不重新排序
+ * 维护方式与CourseStatsStore相同：启动时一次扫描构建，之后通过ScoreChangeListener增量更新
+ * 学生和课程的变更同样跟踪（StudentChangeListener、CourseChangeListener）：
+ * 1. 新增学生时登记其年级/专业；年级/专业修改后把该学生移到新群体；删除学生时其成绩先逐条扣除，再移出排名
+ * 2. 新增课程时登记学分；删除课程时其成绩先逐条扣除，再删除学分；学分修改影响所有选课学生的绩点，在后台重建排名
+ * 因此排名数据包含全部学生和课程，成绩变更回调只读写内存，不查询数据库（回调期间写操作持有ScoreDao的栅栏读锁）
+ * 重建在ScoreDao.scanSnapshot的一致性快照中读取课程、学生和成绩，快照建立后收到的变更暂存，重建完成后补上，不会遗漏或重复计算
+ * 并列规则：绩点相同的学生名次相同（如1、2、2、4），前N名中并列学生按加入顺序排列
+ */
+public class RankingService implements ScoreChangeListener, StudentChangeListener, CourseChangeListener {
+    /**
+     * 排名群体类型
+     */
+    public enum CohortType {
+        /**
+         * 按年级
+         */
+        GRADE,
+        /**
+         * 按专业
+         */
+        MAJOR
+    }
+
+    private static final RankingService INSTANCE = new RankingService(new ScoreDao());
+
+    private final ScoreDao scoreDao;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 当前排名数据（读写都在lock保护下）
+     */
+    private State state = new State();
+
+    /**
+     * 重建快照建立后收到的变更（不为null表示正在扫描），重建完成后按顺序补上
+     */
+    private List<Consumer<State>> pendingChanges;
+
+    /**
+     * 是否正在重建，以及重建期间是否又有重建请求（如课程学分修改，需在当前重建完成后再重建一次）
+     */
+    private boolean rebuilding;
+    private boolean rebuildAgain;
+
+    private volatile boolean ready;
+
+    private boolean started;
+
+    public RankingService(ScoreDao scoreDao) {
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * @return RankingService 全局排名服务
+     */
+    public static RankingService getInstance() {
+        return INSTANCE;
+    }
+
+    // -------------------------- 生命周期 --------------------------
+    /**
+     * 开始维护：注册成绩、学生和课程变更监听器并扫描构建排名
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+        ScoreDao.addScoreChangeListener(this);
+        StudentDao.addStudentChangeListener(this);
+        CourseDao.addCourseChangeListener(this);
+        rebuild();
+    }
+
+    /**
+     * 停止维护：移除成绩、学生和课程变更监听器
+     */
+    public void stop() {
+        ScoreDao.removeScoreChangeListener(this);
+        StudentDao.removeStudentChangeListener(this);
+        CourseDao.removeCourseChangeListener(this);
+        synchronized (this) {
+            started = false;
+        }
+    }
+
+    /**
+     * 重新构建排名：在同一个一致性快照中扫描课程表（学分）、学生表（年级/专业）和成绩表，按群体排序
+     * 已有线程在重建时只记录请求，由该线程在当前重建完成后再重建一次
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                rebuildAgain = true;
+                return;
+            }
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean again = true;
+        try {
+            while (again) {
+                rebuildOnce();
+                lock.writeLock().lock();
+                try {
+                    again = rebuildAgain;
+                    rebuildAgain = false;
+                    rebuilding = again;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+                rebuilding = false;
+                rebuildAgain = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void rebuildOnce() {
+        State rebuilt = new State();
+        scoreDao.scanSnapshot(() -> {
+            // 快照建立的同一时刻开始暂存变更：此后回调的变更都不在快照中
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, course -> rebuilt.courseCredits.put(course.getCno(), course.getCcredit()),
+                student -> rebuilt.addStudent(student.getSno(), student.getSgrade(), student.getSmajor()),
+                (sno, cno, score) -> {
+                    Integer id = rebuilt.ids.get(sno);
+                    Float credit = rebuilt.courseCredits.get(cno);
+                    if (id != null && credit != null) {
+                        rebuilt.accumulate(id, credit, score, 1);
+                    }
+                });
+        rebuilt.buildCohorts();
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<State> change : pendingChanges) {
+                change.accept(rebuilt);
+            }
+            state = rebuilt;
+            pendingChanges = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 在后台线程中重建排名（在监听器回调中调用，不阻塞写操作）
+     */
+    private void requestRebuild() {
+        DaoExecutor.supplyAsync(() -> {
+            rebuild();
+            return null;
+        }).exceptionally(e -> {
+            System.err.println("重建班级排名失败：" + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * @return boolean 是否已完成首次构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    // -------------------------- 增量更新 --------------------------
+    @Override
+    public void onScoreChanged(String sno, String cno, Float oldScore, Float newScore) {
+        applyChange(state -> state.applyScore(sno, cno, oldScore, newScore));
+    }
+
+    @Override
+    public void onStudentChanged(String sno, Student student) {
+        if (student == null) {
+            applyChange(state -> state.removeStudent(sno));
+        } else {
+            applyChange(state -> state.putStudent(sno, student.getSgrade(), student.getSmajor()));
+        }
+    }
+
+    @Override
+    public void onCourseChanged(String cno, Course course) {
+        if (course == null) {
+            // 该课程的成绩已在级联删除时逐条扣除
+            applyChange(state -> state.courseCredits.remove(cno));
+            return;
+        }
+        Float credit = course.getCcredit();
+        boolean creditChanged;
+        lock.readLock().lock();
+        try {
+            Float oldCredit = state.courseCredits.get(cno);
+            creditChanged = oldCredit != null && !Objects.equals(oldCredit, credit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (creditChanged) {
+            // 学分变化影响所有选课学生已累计的学分绩点，而排名数据不保留每门课程的成绩，只能重建
+            requestRebuild();
+        } else {
+            // 新增课程或学分未变
+            applyChange(state -> state.courseCredits.put(cno, credit));
+        }
+    }
+
+    /**
+     * 在写锁下把变更应用到当前排名数据，正在重建时同时暂存，重建完成后再应用到新数据
+     */
+    private void applyChange(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            change.accept(state);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------------- 查询 --------------------------
+    /**
+     * 查询学生在群体中的名次
+     * @param sno 学生编号
+     * @param type 群体类型
+     * @return RankEntry 名次信息（学生不存在、没有已录入成绩或年级/专业为空时返回null）
+     */
+    public RankEntry getRank(String sno, CohortType type) {
+        lock.readLock().lock();
+        try {
+            Integer id = state.ids.get(sno);
+            if (id == null) {
+                return null;
+            }
+            CohortIndex index = state.index(type);
+            String key = state.cohortKey(id, type);
+            int position = index.positionOf(id);
+            if (key == null || position < 0) {
+                return null;
+            }
+            return index.cohorts.get(key).entryAt(position, state.snos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询学生在群体中的百分位
+     * @param sno 学生编号
+     * @param type 群体类型
+     * @return double 百分位（0~100，绩点低于该学生的人数占比，并列按一半计；未参与排名返回NaN）
+     */
+    public double getPercentile(String sno, CohortType type) {
+        RankEntry entry = getRank(sno, type);
+        return entry != null ? entry.getPercentile() : Double.NaN;
+    }
+
+    /**
+     * 查询群体前N名
+     * @param type 群体类型
+     * @param cohortKey 群体（年级或专业名称）
+     * @param n 人数
+     * @return List<RankEntry> 前N名（按名次升序，群体不存在返回空列表）
+     */
+    public List<RankEntry> getTopN(CohortType type, String cohortKey, int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("人数必须大于0");
+        }
+        lock.readLock().lock();
+        try {
+            Cohort cohort = state.index(type).cohorts.get(cohortKey);
+            if (cohort == null) {
+                return Collections.emptyList();
+            }
+            int limit = Math.min(n, cohort.size);
+            List<RankEntry> top = new ArrayList<>(limit);
+            for (int i = 0; i < limit; i++) {
+                top.add(cohort.entryAt(i, state.snos));
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return int 群体中参与排名的人数（群体不存在返回0）
+     */
+    public int getCohortSize(CohortType type, String cohortKey) {
+        lock.readLock().lock();
+        try {
+            Cohort cohort = state.index(type).cohorts.get(cohortKey);
+            return cohort != null ? cohort.size : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 名次信息
+     */
+    public static class RankEntry {
+        private final String sno;
+        private final double gpa;
+        private final int rank;
+        private final int cohortSize;
+        private final double percentile;
+
+        RankEntry(String sno, double gpa, int rank, int cohortSize, double percentile) {
+            this.sno = sno;
+            this.gpa = gpa;
+            this.rank = rank;
+            this.cohortSize = cohortSize;
+            this.percentile = percentile;
+        }
+
+        public String getSno() {
+            return sno;
+        }
+
+        public double getGpa() {
+            return gpa;
+        }
+
+        /**
+         * @return int 名次（从1开始，绩点相同名次相同）
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        public int getCohortSize() {
+            return cohortSize;
+        }
+
+        /**
+         * @return double 百分位（0~100）
+         */
+        public double getPercentile() {
+            return percentile;
+        }
+
+        @Override
+        public String toString() {
+            return "RankEntry{" +
+                    "sno='" + sno + '\'' +
+                    ", gpa=" + String.format("%.3f", gpa) +
+                    ", rank=" + rank + "/" + cohortSize +
+                    ", percentile=" + String.format("%.1f", percentile) +
+                    '}';
+        }
+    }
+
+    // -------------------------- 内部数据结构 --------------------------
+    /**
+     * 排名数据：学生编号映射、每个学生的学分/学分绩点累计，以及按年级、按专业的群体
+     */
+    private static final class State {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<String, Float> courseCredits = new HashMap<>();
+        private final CohortIndex byGrade = new CohortIndex();
+        private final CohortIndex byMajor = new CohortIndex();
+
+        private String[] snos = new String[16];
+        private String[] grades = new String[16];
+        private String[] majors = new String[16];
+        private double[] credits = new double[16];
+        private double[] creditPoints = new double[16];
+        private int count;
+
+        int addStudent(String sno, String grade, String major) {
+            if (count == snos.length) {
+                int capacity = count * 2;
+                snos = Arrays.copyOf(snos, capacity);
+                grades = Arrays.copyOf(grades, capacity);
+                majors = Arrays.copyOf(majors, capacity);
+                credits = Arrays.copyOf(credits, capacity);
+                creditPoints = Arrays.copyOf(creditPoints, capacity);
+            }
+            int id = count++;
+            snos[id] = sno;
+            grades[id] = grade;
+            majors[id] = major;
+            ids.put(sno, id);
+            byGrade.ensureCapacity(count);
+            byMajor.ensureCapacity(count);
+            return id;
+        }
+
+        /**
+         * 新增学生时登记；学生年级/专业修改时按原群体移出，再以当前绩点加入新群体
+         */
+        void putStudent(String sno, String grade, String major) {
+            Integer id = ids.get(sno);
+            if (id == null) {
+                addStudent(sno, grade, major);
+                return;
+            }
+            double gpa = gpa(id);
+            byGrade.update(grades[id], id, Double.NaN);
+            byMajor.update(majors[id], id, Double.NaN);
+            grades[id] = grade;
+            majors[id] = major;
+            byGrade.update(grade, id, gpa);
+            byMajor.update(major, id, gpa);
+        }
+
+        /**
+         * 删除学生：移出所在群体并解除学号映射（同一学号再次出现时作为新学生加入）
+         */
+        void removeStudent(String sno) {
+            Integer id = ids.remove(sno);
+            if (id == null) {
+                return;
+            }
+            byGrade.update(grades[id], id, Double.NaN);
+            byMajor.update(majors[id], id, Double.NaN);
+            credits[id] = 0;
+            creditPoints[id] = 0;
+        }
+
+        /**
+         * 累加（sign=1）或扣除（sign=-1）一门课程成绩
+         */
+        void accumulate(int id, double credit, double score, int sign) {
+            credits[id] += sign * credit;
+            creditPoints[id] += sign * credit * TranscriptService.gradePoint(score);
+            if (credits[id] < 1e-9) {
+                // 成绩全部删除后清零，消除浮点误差
+                credits[id] = 0;
+                creditPoints[id] = 0;
+            }
+        }
+
+        /**
+         * @return double 学分加权绩点（保留6位小数，避免增量累加的浮点误差导致相同绩点排名不同；无成绩返回NaN）
+         */
+        double gpa(int id) {
+            return credits[id] > 0 ? Math.round(creditPoints[id] / credits[id] * 1e6) / 1e6 : Double.NaN;
+        }
+
+        CohortIndex index(CohortType type) {
+            return type == CohortType.GRADE ? byGrade : byMajor;
+        }
+
+        String cohortKey(int id, CohortType type) {
+            return type == CohortType.GRADE ? grades[id] : majors[id];
+        }
+
+        /**
+         * 成绩变更：扣除旧成绩、累加新成绩后移动学生在群体中的位置（学生或课程不在排名数据中时忽略）
+         */
+        void applyScore(String sno, String cno, Float oldScore, Float newScore) {
+            Integer id = ids.get(sno);
+            Float credit = courseCredits.get(cno);
+            if (id == null || credit == null) {
+                return;
+            }
+            if (oldScore != null) {
+                accumulate(id, credit, oldScore, -1);
+            }
+            if (newScore != null) {
+                accumulate(id, credit, newScore, 1);
+            }
+            double gpa = gpa(id);
+            byGrade.update(grades[id], id, gpa);
+            byMajor.update(majors[id], id, gpa);
+        }
+
+        /**
+         * 首次构建：按群体分组后各排序一次
+         */
+        void buildCohorts() {
+            for (CohortType type : CohortType.values()) {
+                Map<String, List<Integer>> groups = new HashMap<>();
+                for (int id = 0; id < count; id++) {
+                    String key = cohortKey(id, type);
+                    if (key != null && !Double.isNaN(gpa(id))) {
+                        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+                    }
+                }
+                CohortIndex index = index(type);
+                for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+                    List<Integer> members = group.getValue();
+                    members.sort((a, b) -> {
+                        int compare = Double.compare(gpa(b), gpa(a));
+                        return compare != 0 ? compare : Integer.compare(a, b);
+                    });
+                    Cohort cohort = new Cohort(members.size());
+                    for (int id : members) {
+                        cohort.students[cohort.size] = id;
+                        cohort.gpas[cohort.size] = gpa(id);
+                        index.positions[id] = cohort.size++;
+                    }
+                    index.cohorts.put(group.getKey(), cohort);
+                }
+            }
+        }
+    }
+
+    /**
+     * 同一类型（年级或专业）的全部群体，以及每个学生在所属群体数组中的位置
+     */
+    private static final class CohortIndex {
+        private final Map<String, Cohort> cohorts = new HashMap<>();
+
+        /**
+         * 学生编号 → 在所属群体数组中的位置（-1表示未参与排名）
+         */
+        private int[] positions = new int[0];
+
+        void ensureCapacity(int studentCount) {
+            if (positions.length < studentCount) {
+                int oldLength = positions.length;
+                positions = Arrays.copyOf(positions, Math.max(16, Math.max(studentCount, oldLength * 2)));
+                Arrays.fill(positions, oldLength, positions.length, -1);
+            }
+        }
+
+        int positionOf(int student) {
+            return student < positions.length ? positions[student] : -1;
+        }
+
+        /**
+         * 更新学生的绩点（NaN表示不再参与排名）
+         */
+        void update(String key, int student, double gpa) {
+            if (key == null) {
+                return;
+            }
+            int position = positions[student];
+            if (Double.isNaN(gpa)) {
+                if (position >= 0) {
+                    cohorts.get(key).remove(position, positions);
+                }
+                return;
+            }
+            if (position < 0) {
+                cohorts.computeIfAbsent(key, k -> new Cohort(16)).insert(student, gpa, positions);
+            } else {
+                cohorts.get(key).move(position, gpa, positions);
+            }
+        }
+    }
+
+    /**
+     * 单个群体：按绩点降序（绩点相同按内部编号升序）排列的学生编号数组和绩点数组
+     */
+    private static final class Cohort {
+        private int[] students;
+        private double[] gpas;
+        private int size;
+
+        Cohort(int capacity) {
+            students = new int[Math.max(capacity, 1)];
+            gpas = new double[Math.max(capacity, 1)];
+        }
+
+        /**
+         * (gpaA, a)是否排在(gpaB, b)前面
+         */
+        private static boolean before(double gpaA, int a, double gpaB, int b) {
+            return gpaA > gpaB || (gpaA == gpaB && a < b);
+        }
+
+        /**
+         * 在[from, to)中查找第一个排在(gpa, student)后面的位置（没有则返回to）
+         */
+        private int search(double gpa, int student, int from, int to) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (before(gpa, student, gpas[mid], students[mid])) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        void insert(int student, double gpa, int[] positions) {
+            if (size == students.length) {
+                students = Arrays.copyOf(students, size * 2);
+                gpas = Arrays.copyOf(gpas, size * 2);
+            }
+            int at = search(gpa, student, 0, size);
+            System.arraycopy(students, at, students, at + 1, size - at);
+            System.arraycopy(gpas, at, gpas, at + 1, size - at);
+            size++;
+            set(at, student, gpa, positions);
+            reindex(at + 1, size, positions);
+        }
+
+        void remove(int position, int[] positions) {
+            positions[students[position]] = -1;
+            System.arraycopy(students, position + 1, students, position, size - position - 1);
+            System.arraycopy(gpas, position + 1, gpas, position, size - position - 1);
+            size--;
+            reindex(position, size, positions);
+        }
+
+        /**
+         * 绩点变化后把学生移动到新位置：只平移新旧位置之间的元素
+         */
+        void move(int from, double gpa, int[] positions) {
+            int student = students[from];
+            int to;
+            if (from > 0 && before(gpa, student, gpas[from - 1], students[from - 1])) {
+                // 名次上升：[to, from)整体后移一位
+                to = search(gpa, student, 0, from);
+                System.arraycopy(students, to, students, to + 1, from - to);
+                System.arraycopy(gpas, to, gpas, to + 1, from - to);
+                reindex(to + 1, from + 1, positions);
+            } else if (from < size - 1 && before(gpas[from + 1], students[from + 1], gpa, student)) {
+                // 名次下降：(from, to]整体前移一位
+                to = search(gpa, student, from + 1, size) - 1;
+                System.arraycopy(students, from + 1, students, from, to - from);
+                System.arraycopy(gpas, from + 1, gpas, from, to - from);
+                reindex(from, to, positions);
+            } else {
+                to = from;
+            }
+            set(to, student, gpa, positions);
+        }
+
+        private void set(int position, int student, double gpa, int[] positions) {
+            students[position] = student;
+            gpas[position] = gpa;
+            positions[student] = position;
+        }
+
+        private void reindex(int from, int to, int[] positions) {
+            for (int i = from; i < to; i++) {
+                positions[students[i]] = i;
+            }
+        }
+
+        /**
+         * 第一个绩点不高于gpa的位置（即绩点高于gpa的人数）
+         */
+        private int countAbove(double gpa) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (gpas[mid] > gpa) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 第一个绩点低于gpa的位置（即绩点不低于gpa的人数）
+         */
+        private int countNotBelow(double gpa) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (gpas[mid] >= gpa) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        RankEntry entryAt(int position, String[] snos) {
+            double gpa = gpas[position];
+            int above = countAbove(gpa);
+            int notBelow = countNotBelow(gpa);
+            int below = size - notBelow;
+            int equal = notBelow - above;
+            double percentile = 100.0 * (below + 0.5 * equal) / size;
+            return new RankEntry(snos[students[position]], gpa, above + 1, size, percentile);
+        }
+    }
+}
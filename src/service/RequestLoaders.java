@@ -0,0 +1,128 @@
+package service;
+
+import dao.CourseDao;
+import dao.StudentDao;
+import dao.TeacherDao;
+import entity.Course;
+import entity.Student;
+import entity.Teacher;
+import util.DataLoader;
+
+import jakarta.servlet.ServletRequest;
+
+/**
+ * 请求级批量加载器（RequestLoaders）
+ * 每个HTTP请求一组学生/教师/课程DataLoader：页面和Servlet按单条方式取数据，
+ * 同一请求中的零散查询去重后合并为每种实体一次批量查询（getStudentsBySnos等），结果在请求内复用
+ * 由DataLoaderFilter在请求开始时绑定到当前线程和请求属性，请求结束时解绑
+ * 示例（JSP列表中显示授课教师姓名）：
+ * 先遍历课程调用loaders.loadTeacher(course.getTno())登记，再遍历输出deferred.get()，全部教师只查询一次
+ */
+public class RequestLoaders {
+    /**
+     * 请求属性名（异步处理的请求在其他线程中通过of(request)获取）
+     */
+    public static final String ATTRIBUTE = "requestLoaders";
+
+    private static final ThreadLocal<RequestLoaders> CURRENT = new ThreadLocal<>();
+
+    private final DataLoader<String, Student> students;
+    private final DataLoader<String, Teacher> teachers;
+    private final DataLoader<String, Course> courses;
+
+    public RequestLoaders() {
+        this(new StudentDao(), new TeacherDao(), new CourseDao());
+    }
+
+    public RequestLoaders(StudentDao studentDao, TeacherDao teacherDao, CourseDao courseDao) {
+        students = new DataLoader<>(studentDao::getStudentsBySnos);
+        teachers = new DataLoader<>(teacherDao::getTeachersByTnos);
+        courses = new DataLoader<>(courseDao::getCoursesByCnos);
+    }
+
+    // -------------------------- 绑定 --------------------------
+    /**
+     * 绑定到当前线程和请求（DataLoaderFilter调用；异步处理的请求在执行线程和异步转发时再次调用，复用请求已有的加载器）
+     */
+    public static RequestLoaders bind(ServletRequest request) {
+        RequestLoaders loaders = of(request);
+        CURRENT.set(loaders);
+        return loaders;
+    }
+
+    /**
+     * 解除当前线程的绑定（请求结束时调用，避免线程池复用线程时串用上一个请求的数据）
+     */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 获取当前线程绑定的加载器
+     * @return RequestLoaders 当前请求的加载器（不在请求线程中时返回新的加载器，只在本次调用范围内复用结果）
+     */
+    public static RequestLoaders current() {
+        RequestLoaders loaders = CURRENT.get();
+        return loaders != null ? loaders : new RequestLoaders();
+    }
+
+    /**
+     * 获取请求的加载器（异步处理时在非请求线程中使用）
+     * @return RequestLoaders 该请求的加载器（未绑定时创建并绑定到请求属性）
+     */
+    public static RequestLoaders of(ServletRequest request) {
+        Object attribute = request.getAttribute(ATTRIBUTE);
+        if (attribute instanceof RequestLoaders) {
+            return (RequestLoaders) attribute;
+        }
+        RequestLoaders loaders = new RequestLoaders();
+        request.setAttribute(ATTRIBUTE, loaders);
+        return loaders;
+    }
+
+    // -------------------------- 学生 --------------------------
+    public DataLoader.Deferred<Student> loadStudent(String sno) {
+        return students.load(sno);
+    }
+
+    public Student getStudent(String sno) {
+        return students.get(sno);
+    }
+
+    public DataLoader<String, Student> students() {
+        return students;
+    }
+
+    // -------------------------- 教师 --------------------------
+    public DataLoader.Deferred<Teacher> loadTeacher(String tno) {
+        return teachers.load(tno);
+    }
+
+    public Teacher getTeacher(String tno) {
+        return teachers.get(tno);
+    }
+
+    public DataLoader<String, Teacher> teachers() {
+        return teachers;
+    }
+
+    // -------------------------- 课程 --------------------------
+    public DataLoader.Deferred<Course> loadCourse(String cno) {
+        return courses.load(cno);
+    }
+
+    public Course getCourse(String cno) {
+        return courses.get(cno);
+    }
+
+    public DataLoader<String, Course> courses() {
+        return courses;
+    }
+
+    /**
+     * @return int 本请求执行的批量查询总次数
+     */
+    public int getBatchCount() {
+        return students.getBatchCount() + teachers.getBatchCount() + courses.getBatchCount();
+    }
+}
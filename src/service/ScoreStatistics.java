@@ -0,0 +1,261 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * 成绩统计累加器（ScoreStatistics）
+ * 逐个累加成绩（原始double，不装箱），一次遍历即可得到人数、平均分、方差/标准差、及格率、中位数/分位数和分数段分布
+ * 中位数和分位数基于固定的0.1分精度直方图（0.0~100.0共1001个格子）计算：成绩本身最多一位小数时结果精确，
+ * 内存占用固定（约8KB），与成绩条数无关
+ * 支持合并（merge，如把多个教学班合并统计）和移除（remove，成绩修改/删除时增量更新）
+ * 注：非线程安全，多线程共享时需由调用方同步
+ */
+public class ScoreStatistics {
+    /**
+     * 最高分
+     */
+    public static final double MAX_SCORE = 100.0;
+
+    /**
+     * 及格线
+     */
+    public static final double PASS_SCORE = 60.0;
+
+    /**
+     * 直方图精度：每个格子0.1分
+     */
+    private static final int BINS_PER_POINT = 10;
+
+    private static final int BIN_COUNT = (int) MAX_SCORE * BINS_PER_POINT + 1;
+
+    private static final int PASS_BIN = (int) PASS_SCORE * BINS_PER_POINT;
+
+    private final long[] bins = new long[BIN_COUNT];
+
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+
+    // -------------------------- 累加 --------------------------
+    /**
+     * 累加一个成绩
+     * @param score 成绩（0-100）
+     */
+    public void add(double score) {
+        bins[binOf(score)]++;
+        count++;
+        sum += score;
+        sumOfSquares += score * score;
+    }
+
+    /**
+     * 移除一个之前累加过的成绩（成绩修改或删除时调用）
+     * @param score 成绩（0-100）
+     * @throws IllegalStateException 该成绩未被累加过
+     */
+    public void remove(double score) {
+        int bin = binOf(score);
+        if (bins[bin] == 0) {
+            throw new IllegalStateException("移除的成绩不在统计中：" + score);
+        }
+        bins[bin]--;
+        count--;
+        if (count == 0) {
+            // 全部移除后清零，消除浮点累加误差
+            sum = 0;
+            sumOfSquares = 0;
+        } else {
+            sum -= score;
+            sumOfSquares -= score * score;
+        }
+    }
+
+    /**
+     * 合并另一个累加器的统计数据
+     * @param other 另一个累加器
+     */
+    public void merge(ScoreStatistics other) {
+        for (int i = 0; i < BIN_COUNT; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+    }
+
+    /**
+     * @return ScoreStatistics 当前统计数据的副本
+     */
+    public ScoreStatistics copy() {
+        ScoreStatistics copy = new ScoreStatistics();
+        copy.merge(this);
+        return copy;
+    }
+
+    private static int binOf(double score) {
+        if (Double.isNaN(score) || score < 0 || score > MAX_SCORE) {
+            throw new IllegalArgumentException("成绩需在0-100范围内：" + score);
+        }
+        return (int) Math.round(score * BINS_PER_POINT);
+    }
+
+    // -------------------------- 统计结果 --------------------------
+    /**
+     * @return long 成绩条数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return double 成绩总和
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return double 平均分（无成绩时为0）
+     */
+    public double getMean() {
+        return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * @return double 方差（总体方差，无成绩时为0）
+     */
+    public double getVariance() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = sum / count;
+        // 浮点误差可能使结果略小于0
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    /**
+     * @return double 标准差（总体标准差，无成绩时为0）
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return double 及格率（0~1，成绩不低于60分的比例；无成绩时为0）
+     */
+    public double getPassRate() {
+        if (count == 0) {
+            return 0;
+        }
+        long passed = 0;
+        for (int i = PASS_BIN; i < BIN_COUNT; i++) {
+            passed += bins[i];
+        }
+        return (double) passed / count;
+    }
+
+    /**
+     * @return double 最低分（精度0.1分，无成绩时为0）
+     */
+    public double getMin() {
+        return count > 0 ? valueAtRank(0) : 0;
+    }
+
+    /**
+     * @return double 最高分（精度0.1分，无成绩时为0）
+     */
+    public double getMax() {
+        return count > 0 ? valueAtRank(count - 1) : 0;
+    }
+
+    /**
+     * @return double 中位数（精度0.1分，无成绩时为0）
+     */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * 分位数（相邻两个排名之间线性插值，精度0.1分）
+     * @param q 分位（0~1，如0.5为中位数、0.9为90分位）
+     * @return double 分位数（无成绩时为0）
+     */
+    public double getQuantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("分位需在0-1范围内：" + q);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        double position = q * (count - 1);
+        long lower = (long) Math.floor(position);
+        long upper = (long) Math.ceil(position);
+        double lowerValue = valueAtRank(lower);
+        if (upper == lower) {
+            return lowerValue;
+        }
+        return lowerValue + (valueAtRank(upper) - lowerValue) * (position - lower);
+    }
+
+    /**
+     * 按成绩从低到高第rank个（从0开始）成绩所在格子的分数
+     */
+    private double valueAtRank(long rank) {
+        long seen = 0;
+        for (int i = 0; i < BIN_COUNT; i++) {
+            seen += bins[i];
+            if (seen > rank) {
+                return (double) i / BINS_PER_POINT;
+            }
+        }
+        throw new IllegalStateException("排名超出范围：" + rank);
+    }
+
+    /**
+     * 分数段分布
+     * @param bucketWidth 分数段宽度（如10表示0-9.9、10-19.9……90-100，满分归入最后一段）
+     * @return long[] 每个分数段的人数（从低到高）
+     */
+    public long[] getHistogram(int bucketWidth) {
+        if (bucketWidth <= 0 || bucketWidth > MAX_SCORE) {
+            throw new IllegalArgumentException("分数段宽度需在1-100范围内：" + bucketWidth);
+        }
+        int bucketCount = (int) Math.ceil(MAX_SCORE / bucketWidth);
+        long[] histogram = new long[bucketCount];
+        int binsPerBucket = bucketWidth * BINS_PER_POINT;
+        for (int i = 0; i < BIN_COUNT; i++) {
+            histogram[Math.min(i / binsPerBucket, bucketCount - 1)] += bins[i];
+        }
+        return histogram;
+    }
+
+    /**
+     * @return long[] 默认分数段（每10分一段，共10段）的人数
+     */
+    public long[] getHistogram() {
+        return getHistogram(10);
+    }
+
+    /**
+     * 判断两个累加器的成绩分布是否一致（条数和直方图相同，总和允许浮点累加误差）
+     * @param other 另一个累加器
+     * @return boolean 是否一致
+     */
+    public boolean sameDistribution(ScoreStatistics other) {
+        return count == other.count
+                && Arrays.equals(bins, other.bins)
+                && Math.abs(sum - other.sum) <= 1e-6 * Math.max(1, Math.abs(sum));
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreStatistics{" +
+                "count=" + count +
+                ", mean=" + String.format("%.2f", getMean()) +
+                ", median=" + String.format("%.1f", getMedian()) +
+                ", stdDev=" + String.format("%.2f", getStandardDeviation()) +
+                ", passRate=" + String.format("%.2f", getPassRate()) +
+                ", histogram=" + Arrays.toString(getHistogram()) +
+                '}';
+    }
+}
@@ -0,0 +1,51 @@
+package service;
+
+import entity.Student;
+
+/**
+ * 学生首页数据（StudentDashboard）
+ * 学生信息、成绩单（含各课程名称、学分和成绩）两个数据块，以及从内存排名读取的专业/年级排名
+ */
+public class StudentDashboard extends Dashboard {
+    private final String sno;
+    private final DashboardSection<Student> student;
+    private final DashboardSection<Transcript> transcript;
+    private final RankingService.RankEntry majorRank;
+    private final RankingService.RankEntry gradeRank;
+
+    StudentDashboard(String sno, DashboardSection<Student> student, DashboardSection<Transcript> transcript,
+                     RankingService.RankEntry majorRank, RankingService.RankEntry gradeRank) {
+        super(student, transcript);
+        this.sno = sno;
+        this.student = student;
+        this.transcript = transcript;
+        this.majorRank = majorRank;
+        this.gradeRank = gradeRank;
+    }
+
+    public String getSno() {
+        return sno;
+    }
+
+    public DashboardSection<Student> getStudent() {
+        return student;
+    }
+
+    public DashboardSection<Transcript> getTranscript() {
+        return transcript;
+    }
+
+    /**
+     * @return RankingService.RankEntry 专业内排名（排名尚未构建或没有成绩时为null）
+     */
+    public RankingService.RankEntry getMajorRank() {
+        return majorRank;
+    }
+
+    /**
+     * @return RankingService.RankEntry 年级内排名（排名尚未构建或没有成绩时为null）
+     */
+    public RankingService.RankEntry getGradeRank() {
+        return gradeRank;
+    }
+}
@@ -0,0 +1,46 @@
+package service;
+
+import dao.ScoreDao;
+import dao.StudentDao;
+import entity.Student;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 学生首页服务（StudentDashboardService）
+ * 同时发起学生信息和成绩单两个查询（DAO的*Async方法），在截止时间内合并为StudentDashboard；
+ * 排名直接读取内存中的RankingService，不访问数据库
+ */
+public class StudentDashboardService {
+    private final StudentDao studentDao;
+    private final ScoreDao scoreDao;
+
+    public StudentDashboardService() {
+        this(new StudentDao(), new ScoreDao());
+    }
+
+    public StudentDashboardService(StudentDao studentDao, ScoreDao scoreDao) {
+        this.studentDao = studentDao;
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * 加载学生首页数据（不阻塞调用线程）
+     * @param sno 学生编号（登录用户的关联ID）
+     * @return CompletableFuture<StudentDashboard> 首页数据（不会以异常完成，查询超时或失败的数据块标记为降级）
+     */
+    public CompletableFuture<StudentDashboard> load(String sno) {
+        long deadline = DashboardSection.deadline();
+        CompletableFuture<DashboardSection<Student>> student =
+                DashboardSection.load("学生信息", studentDao.getStudentBySnoAsync(sno), deadline);
+        CompletableFuture<DashboardSection<Transcript>> transcript = DashboardSection.load("成绩单",
+                scoreDao.getCourseScoresBySnoAsync(sno).thenApply(courseScores -> TranscriptService.build(sno, courseScores)), deadline);
+        return student.thenCombine(transcript, (studentSection, transcriptSection) -> new StudentDashboard(sno,
+                studentSection, transcriptSection, rankOf(sno, RankingService.CohortType.MAJOR), rankOf(sno, RankingService.CohortType.GRADE)));
+    }
+
+    private static RankingService.RankEntry rankOf(String sno, RankingService.CohortType type) {
+        RankingService rankingService = RankingService.getInstance();
+        return rankingService.isReady() ? rankingService.getRank(sno, type) : null;
+    }
+}
@@ -0,0 +1,67 @@
+package service;
+
+import entity.Course;
+import entity.Teacher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 教师首页数据（TeacherDashboard）
+ * 教师信息、授课课程列表、各课程选课人数三个数据块
+ */
+public class TeacherDashboard extends Dashboard {
+    private final String tno;
+    private final DashboardSection<Teacher> teacher;
+    private final DashboardSection<List<Course>> courses;
+    private final DashboardSection<Map<String, Integer>> rosterSizes;
+
+    TeacherDashboard(String tno, DashboardSection<Teacher> teacher, DashboardSection<List<Course>> courses,
+                     DashboardSection<Map<String, Integer>> rosterSizes) {
+        super(teacher, courses, rosterSizes);
+        this.tno = tno;
+        this.teacher = teacher;
+        this.courses = courses;
+        this.rosterSizes = rosterSizes;
+    }
+
+    public String getTno() {
+        return tno;
+    }
+
+    public DashboardSection<Teacher> getTeacher() {
+        return teacher;
+    }
+
+    public DashboardSection<List<Course>> getCourses() {
+        return courses;
+    }
+
+    public DashboardSection<Map<String, Integer>> getRosterSizes() {
+        return rosterSizes;
+    }
+
+    /**
+     * @param cno 课程编号
+     * @return Integer 该课程的选课人数（选课人数未能加载时返回null）
+     */
+    public Integer getRosterSize(String cno) {
+        if (!rosterSizes.isAvailable()) {
+            return null;
+        }
+        Integer size = rosterSizes.getValue().get(cno);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * @return int 所有授课课程的选课人次之和（选课人数未能加载时为0）
+     */
+    public int getTotalRosterSize() {
+        int total = 0;
+        for (Integer size : rosterSizes.getValueOr(Collections.<String, Integer>emptyMap()).values()) {
+            total += size;
+        }
+        return total;
+    }
+}
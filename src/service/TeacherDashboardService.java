@@ -0,0 +1,49 @@
+package service;
+
+import dao.CourseDao;
+import dao.ScoreDao;
+import dao.TeacherDao;
+import entity.Course;
+import entity.Teacher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 教师首页服务（TeacherDashboardService）
+ * 同时发起教师信息、授课课程、各课程选课人数三个查询（DAO的*Async方法），在截止时间内合并为TeacherDashboard
+ * 选课人数按教师编号一次分组查询（ScoreDao.getRosterSizesByTno），不依赖课程列表的查询结果，因此可以与之同时进行
+ */
+public class TeacherDashboardService {
+    private final TeacherDao teacherDao;
+    private final CourseDao courseDao;
+    private final ScoreDao scoreDao;
+
+    public TeacherDashboardService() {
+        this(new TeacherDao(), new CourseDao(), new ScoreDao());
+    }
+
+    public TeacherDashboardService(TeacherDao teacherDao, CourseDao courseDao, ScoreDao scoreDao) {
+        this.teacherDao = teacherDao;
+        this.courseDao = courseDao;
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * 加载教师首页数据（不阻塞调用线程）
+     * @param tno 教师编号（登录用户的关联ID）
+     * @return CompletableFuture<TeacherDashboard> 首页数据（不会以异常完成，查询超时或失败的数据块标记为降级）
+     */
+    public CompletableFuture<TeacherDashboard> load(String tno) {
+        long deadline = DashboardSection.deadline();
+        CompletableFuture<DashboardSection<Teacher>> teacher =
+                DashboardSection.load("教师信息", teacherDao.getTeacherByTnoAsync(tno), deadline);
+        CompletableFuture<DashboardSection<List<Course>>> courses =
+                DashboardSection.load("授课课程", courseDao.getCoursesByTnoAsync(tno), deadline);
+        CompletableFuture<DashboardSection<Map<String, Integer>>> rosterSizes =
+                DashboardSection.load("选课人数", scoreDao.getRosterSizesByTnoAsync(tno), deadline);
+        return CompletableFuture.allOf(teacher, courses, rosterSizes)
+                .thenApply(ignored -> new TeacherDashboard(tno, teacher.join(), courses.join(), rosterSizes.join()));
+    }
+}
@@ -0,0 +1,175 @@
+package service;
+
+import dao.CourseScore;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 学生成绩单（Transcript）
+ * 由TranscriptService一次性计算得到的不可变结果：各课程成绩、总学分、学分加权绩点（GPA）及按学期的汇总
+ * 学分统计只计入已录入成绩的课程；成绩为空（未录入）的课程出现在课程列表中，但不参与学分和绩点计算
+ */
+public class Transcript {
+    private final String sno;
+    private final List<CourseScore> courses;
+    private final List<TermSummary> terms;
+    private final Summary total;
+
+    Transcript(String sno, List<CourseScore> courses, List<TermSummary> terms, Summary total) {
+        this.sno = sno;
+        this.courses = Collections.unmodifiableList(courses);
+        this.terms = Collections.unmodifiableList(terms);
+        this.total = total;
+    }
+
+    public String getSno() {
+        return sno;
+    }
+
+    /**
+     * @return List<CourseScore> 各课程成绩（按录入时间、课程编号升序）
+     */
+    public List<CourseScore> getCourses() {
+        return courses;
+    }
+
+    /**
+     * @return List<TermSummary> 按学期的汇总（按学期升序）
+     */
+    public List<TermSummary> getTerms() {
+        return terms;
+    }
+
+    /**
+     * @return int 已录入成绩的课程数
+     */
+    public int getGradedCount() {
+        return total.gradedCount;
+    }
+
+    /**
+     * @return double 修读学分（已录入成绩的课程学分之和）
+     */
+    public double getAttemptedCredits() {
+        return total.attemptedCredits;
+    }
+
+    /**
+     * @return double 获得学分（及格课程学分之和）
+     */
+    public double getEarnedCredits() {
+        return total.earnedCredits;
+    }
+
+    /**
+     * @return double 学分加权平均绩点（无已录入成绩时为0）
+     */
+    public double getGpa() {
+        return total.getGpa();
+    }
+
+    /**
+     * @return double 学分加权平均分（无已录入成绩时为0）
+     */
+    public double getWeightedAverageScore() {
+        return total.getWeightedAverageScore();
+    }
+
+    @Override
+    public String toString() {
+        return "Transcript{" +
+                "sno='" + sno + '\'' +
+                ", courses=" + courses.size() +
+                ", terms=" + terms.size() +
+                ", attemptedCredits=" + total.attemptedCredits +
+                ", earnedCredits=" + total.earnedCredits +
+                ", gpa=" + String.format("%.2f", getGpa()) +
+                '}';
+    }
+
+    /**
+     * 学期汇总
+     */
+    public static class TermSummary {
+        private final String term;
+        private final Summary summary;
+
+        TermSummary(String term, Summary summary) {
+            this.term = term;
+            this.summary = summary;
+        }
+
+        /**
+         * @return String 学期（如2025-2026-1，录入时间为空的课程归入"未知学期"）
+         */
+        public String getTerm() {
+            return term;
+        }
+
+        public int getGradedCount() {
+            return summary.gradedCount;
+        }
+
+        public double getAttemptedCredits() {
+            return summary.attemptedCredits;
+        }
+
+        public double getEarnedCredits() {
+            return summary.earnedCredits;
+        }
+
+        public double getGpa() {
+            return summary.getGpa();
+        }
+
+        public double getWeightedAverageScore() {
+            return summary.getWeightedAverageScore();
+        }
+
+        @Override
+        public String toString() {
+            return "TermSummary{" +
+                    "term='" + term + '\'' +
+                    ", attemptedCredits=" + summary.attemptedCredits +
+                    ", earnedCredits=" + summary.earnedCredits +
+                    ", gpa=" + String.format("%.2f", getGpa()) +
+                    '}';
+        }
+    }
+
+    /**
+     * 学分与绩点累加器（总计和每个学期各一个）
+     */
+    static class Summary {
+        private int gradedCount;
+        private double attemptedCredits;
+        private double earnedCredits;
+        private double creditPoints;
+        private double creditScores;
+
+        /**
+         * 累加一门已录入成绩的课程
+         * @param credit 课程学分
+         * @param score 成绩
+         * @param gradePoint 该成绩对应的绩点
+         */
+        void add(double credit, double score, double gradePoint) {
+            gradedCount++;
+            attemptedCredits += credit;
+            if (gradePoint > 0) {
+                earnedCredits += credit;
+            }
+            creditPoints += credit * gradePoint;
+            creditScores += credit * score;
+        }
+
+        double getGpa() {
+            return attemptedCredits > 0 ? creditPoints / attemptedCredits : 0;
+        }
+
+        double getWeightedAverageScore() {
+            return attemptedCredits > 0 ? creditScores / attemptedCredits : 0;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package service;
+
+import dao.CourseDao;
+import dao.CourseScore;
+import dao.ScoreDao;
+import dao.StudentDao;
+import entity.Course;
+import entity.Score;
+import entity.Student;
+import util.DBUtil;
+import util.ThreadPools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 成绩单查询对比（TranscriptBenchmark）
+ * 独立运行的main程序，对比同一名学生的成绩单的三种取数方式的延迟和吞吐量：
+ * 1. join：TranscriptService.getTranscript（成绩表联接课程表，一次查询）
+ * 2. nplus1：ScoreDao.getScoresBySno后逐门调用CourseDao.getCourseByCno取学分（引入成绩单服务之前的方式），
+ *    每份成绩单之前清空课程缓存，即每门课程一次查询
+ * 3. nplus1-cached：同nplus1，但不清空课程缓存（课程缓存命中时的最好情况）
+ * 三种方式都用TranscriptService.build计算，并核对与join的绩点和学分一致
+ * 测试数据：新建一名临时学生（编号TB开头）和若干门临时课程（编号TC开头），成绩的录入时间分布在多个学期；
+ * 测试结束后删除临时学生和课程，成绩由外键ON DELETE CASCADE一并删除
+ * 用法：java -cp <classes:lib/*> service.TranscriptBenchmark [课程数] [并发数] [每种方式的成绩单份数]
+ * 默认60门、4个并发、2000份
+ */
+public class TranscriptBenchmark {
+    private static final String[] MODES = {"join", "nplus1", "nplus1-cached"};
+
+    private TranscriptBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int courses = args.length > 0 ? Integer.parseInt(args[0].trim()) : 60;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1].trim()) : 4;
+        int transcripts = args.length > 2 ? Integer.parseInt(args[2].trim()) : 2000;
+
+        StudentDao studentDao = new StudentDao();
+        CourseDao courseDao = new CourseDao();
+        ScoreDao scoreDao = new ScoreDao();
+        String sno = String.format("TB%06d", ThreadLocalRandom.current().nextInt(1_000_000));
+        List<String> cnos = new ArrayList<>(courses);
+        boolean studentAdded = false;
+        try {
+            studentAdded = studentDao.addStudent(new Student(sno, "成绩单测试", "男", null, null));
+            Calendar calendar = Calendar.getInstance();
+            List<Score> scores = new ArrayList<>(courses);
+            for (int i = 0; i < courses; i++) {
+                String cno = String.format("TC%06d", ThreadLocalRandom.current().nextInt(1_000_000));
+                if (!courseDao.addCourse(new Course(cno, "成绩单测试", (float) (1 + i % 4), null))) {
+                    continue;
+                }
+                cnos.add(cno);
+                // 每学期约8门课程，录入时间逐学期往前推
+                calendar.setTimeInMillis(System.currentTimeMillis());
+                calendar.add(Calendar.MONTH, -6 * (i / 8));
+                scores.add(new Score(sno, cno, (float) ThreadLocalRandom.current().nextInt(40, 101), calendar.getTime(), null));
+            }
+            scoreDao.addScores(scores);
+
+            Transcript expected = new TranscriptService(scoreDao).getTranscript(sno);
+            System.out.println("学生" + sno + "，课程" + expected.getCourses().size() + "门，学期" + expected.getTerms().size()
+                    + "个，并发" + concurrency);
+            System.out.printf("%-14s %7s %9s %9s %9s %9s %8s %7s%n",
+                    "mode", "count", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "count/s", "failed");
+            for (String mode : MODES) {
+                // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+                run(mode, sno, expected, concurrency, Math.min(200, transcripts));
+                System.out.println(run(mode, sno, expected, concurrency, transcripts));
+            }
+        } finally {
+            for (String cno : cnos) {
+                courseDao.deleteCourse(cno);
+            }
+            if (studentAdded) {
+                studentDao.deleteStudent(sno);
+            }
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 用concurrency个线程共查询count份成绩单，等待全部完成
+     */
+    private static Result run(String mode, String sno, Transcript expected, int concurrency, int count)
+            throws InterruptedException {
+        TranscriptService transcriptService = new TranscriptService();
+        ScoreDao scoreDao = new ScoreDao();
+        CourseDao courseDao = new CourseDao();
+        CourseDao.getCache().invalidateAll();
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("transcript-bench", concurrency, count);
+        long[] latencies = new long[count];
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(count);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        Transcript transcript = "join".equals(mode)
+                                ? transcriptService.getTranscript(sno)
+                                : nPlusOne(scoreDao, courseDao, sno, "nplus1".equals(mode));
+                        if (transcript.getCourses().size() != expected.getCourses().size()
+                                || Math.abs(transcript.getGpa() - expected.getGpa()) > 1e-9
+                                || Math.abs(transcript.getEarnedCredits() - expected.getEarnedCredits()) > 1e-9) {
+                            throw new IllegalStateException("成绩单与join方式不一致：" + transcript);
+                        }
+                        latencies[index] = System.nanoTime() - begin;
+                    } catch (RuntimeException e) {
+                        latencies[index] = -1;
+                        failed.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Result(mode, completed, elapsed, failed.get());
+    }
+
+    /**
+     * 引入成绩单服务之前的取数方式：先查成绩，再逐门查询课程学分
+     * @param coldCache 是否先清空课程缓存（每门课程都查询数据库）
+     */
+    private static Transcript nPlusOne(ScoreDao scoreDao, CourseDao courseDao, String sno, boolean coldCache) {
+        if (coldCache) {
+            CourseDao.getCache().invalidateAll();
+        }
+        List<Score> scores = scoreDao.getScoresBySno(sno);
+        List<CourseScore> courseScores = new ArrayList<>(scores.size());
+        for (Score score : scores) {
+            Course course = courseDao.getCourseByCno(score.getCno());
+            courseScores.add(new CourseScore(score, course.getCname(), course.getCcredit()));
+        }
+        return TranscriptService.build(sno, courseScores);
+    }
+
+    /**
+     * 一种方式的统计结果
+     */
+    private static final class Result {
+        private final String mode;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int failed;
+
+        Result(String mode, long[] latencies, long elapsedNanos, int failed) {
+            this.mode = mode;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有成功的查询时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s %7d %9.2f %9.2f %9.2f %9.2f %8.0f %7d", mode, latencies.length,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), failed);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package service;
+
+import dao.CourseScore;
+import dao.ScoreDao;
+import entity.Score;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 成绩单服务（TranscriptService）
+ * 通过ScoreDao.getCourseScoresBySno一次联接查询取回学生的全部成绩和课程学分（而不是逐门课程查询课程表），
+ * 在内存中一次遍历计算总学分、学分加权绩点和按学期的汇总
+ * 绩点规则：60分以下为0，60分及以上为(成绩-50)/10，最高4.0（即60分1.0、90分及以上4.0）
+ * 学期规则：成绩表没有学期字段，按录入时间推算——8月至次年1月为第一学期，2月至7月为第二学期
+ */
+public class TranscriptService {
+    /**
+     * 录入时间为空的课程所属学期
+     */
+    public static final String UNKNOWN_TERM = "未知学期";
+
+    private final ScoreDao scoreDao;
+
+    public TranscriptService() {
+        this(new ScoreDao());
+    }
+
+    public TranscriptService(ScoreDao scoreDao) {
+        this.scoreDao = scoreDao;
+    }
+
+    /**
+     * 查询学生成绩单
+     * @param sno 学生编号
+     * @return Transcript 成绩单（无成绩时各项学分和绩点为0）
+     */
+    public Transcript getTranscript(String sno) {
+        return build(sno, scoreDao.getCourseScoresBySno(sno));
+    }
+
+    /**
+     * 根据带学分的成绩列表计算成绩单
+     * @param sno 学生编号
+     * @param courseScores 该学生的成绩及课程学分
+     * @return Transcript 成绩单
+     */
+    public static Transcript build(String sno, List<CourseScore> courseScores) {
+        Transcript.Summary total = new Transcript.Summary();
+        Map<String, Transcript.Summary> termSummaries = new TreeMap<>();
+        for (CourseScore courseScore : courseScores) {
+            Score score = courseScore.getScore();
+            String term = termOf(score.getInputTime());
+            Transcript.Summary termSummary = termSummaries.computeIfAbsent(term, key -> new Transcript.Summary());
+            if (score.getScore() == null) {
+                continue;
+            }
+            double value = score.getScore();
+            double gradePoint = gradePoint(value);
+            total.add(courseScore.getCcredit(), value, gradePoint);
+            termSummary.add(courseScore.getCcredit(), value, gradePoint);
+        }
+
+        List<Transcript.TermSummary> terms = new ArrayList<>(termSummaries.size());
+        for (Map.Entry<String, Transcript.Summary> entry : termSummaries.entrySet()) {
+            terms.add(new Transcript.TermSummary(entry.getKey(), entry.getValue()));
+        }
+        return new Transcript(sno, new ArrayList<>(courseScores), terms, total);
+    }
+
+    /**
+     * 成绩换算绩点
+     * @param score 成绩（0-100）
+     * @return double 绩点（0-4.0）
+     */
+    public static double gradePoint(double score) {
+        if (score < 60) {
+            return 0;
+        }
+        return Math.min(4.0, (score - 50) / 10);
+    }
+
+    /**
+     * 根据录入时间推算学期
+     * @param inputTime 成绩录入时间
+     * @return String 学期（如2025-2026-1；录入时间为空返回UNKNOWN_TERM）
+     */
+    public static String termOf(Date inputTime) {
+        if (inputTime == null) {
+            return UNKNOWN_TERM;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(inputTime);
+        int year = calendar.get(Calendar.YEAR);
+        int month = calendar.get(Calendar.MONTH) + 1;
+        if (month >= 8) {
+            return year + "-" + (year + 1) + "-1";
+        }
+        if (month == 1) {
+            return (year - 1) + "-" + year + "-1";
+        }
+        return (year - 1) + "-" + year + "-2";
+    }
+}
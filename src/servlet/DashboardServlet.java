@@ -0,0 +1,79 @@
+package servlet;
+
+import entity.SysUser;
+import filter.LoginFilter;
+import service.AdminDashboardService;
+import service.Dashboard;
+import service.StudentDashboardService;
+import service.TeacherDashboardService;
+import util.DaoExecutor;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * 角色首页Servlet
+ * 登录成功后跳转到这里：按登录用户的角色同时发起首页所需的各项查询（*DashboardService），
+ * 在截止时间内合并为首页数据后由Pages渲染对应角色的页面；查询期间不占用容器线程
+ */
+@WebServlet(name = "DashboardServlet", urlPatterns = "/dashboard", asyncSupported = true)
+public class DashboardServlet extends HttpServlet {
+    /**
+     * 首页数据的请求属性名（使用JSP页面时）
+     */
+    public static final String DASHBOARD = "dashboard";
+
+    private final StudentDashboardService studentDashboardService = new StudentDashboardService();
+    private final TeacherDashboardService teacherDashboardService = new TeacherDashboardService();
+    private final AdminDashboardService adminDashboardService = new AdminDashboardService();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        RequestExecution.executeAsync(request, response, this::dashboard);
+    }
+
+    /**
+     * 加载当前用户角色的首页数据
+     * 有数据块超时时，首页数据在JDK的超时调度线程（completeOnTimeout）中完成，该线程全局只有一个，
+     * 因此渲染切换到DaoExecutor中执行，不在超时调度线程中写响应
+     * @return CompletionStage<String> 需要转发到的JSP路径（使用模板渲染时为null；未知角色显示登录页）
+     */
+    private CompletionStage<String> dashboard(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SysUser loginUser = LoginFilter.getLoginUser(request); // LoginFilter已保证登录
+        String role = loginUser.getRole() != null ? loginUser.getRole().toLowerCase() : "";
+        Executor renderExecutor = DaoExecutor.executor(); // 在请求线程中获取，沿用本请求的写操作时间记录
+        switch (role) {
+            case "student":
+                return studentDashboardService.load(loginUser.getRelId())
+                        .thenApplyAsync(dashboard -> render(request, response, dashboard), renderExecutor);
+            case "teacher":
+                return teacherDashboardService.load(loginUser.getRelId())
+                        .thenApplyAsync(dashboard -> render(request, response, dashboard), renderExecutor);
+            case "admin":
+                return adminDashboardService.load()
+                        .thenApplyAsync(dashboard -> render(request, response, dashboard), renderExecutor);
+            default:
+                return CompletableFuture.completedFuture(Pages.login(request, response, "登录失败：未知的用户角色！"));
+        }
+    }
+
+    /**
+     * 渲染首页（Pages：预编译模板直接写入响应，或按配置转发到角色JSP）
+     */
+    private static String render(HttpServletRequest request, HttpServletResponse response, Dashboard dashboard) {
+        try {
+            return Pages.dashboard(request, response, dashboard);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
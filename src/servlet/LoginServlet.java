@@ -2,23 +2,42 @@ package servlet;
 
 import dao.SysUserDao;
 import entity.SysUser;
+import filter.LoginFilter;
+import util.DaoExecutor;
+import util.SessionToken;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * 登录请求处理Servlet
  * 核心功能：接收登录表单参数、调用UserDao验证账号密码、处理多角色跳转、传递错误提示
+ * 登录页由Pages渲染（预编译模板直接写入响应，或按配置转发到login.jsp）
  */
-@WebServlet(name = "LoginServlet", urlPatterns = "/login")
+@WebServlet(name = "LoginServlet", urlPatterns = "/login", asyncSupported = true)
 public class LoginServlet extends HttpServlet {
-    // 重写doPost方法（适配login.jsp的POST提交方式）
+    // 重写doPost方法（适配login.jsp的POST提交方式），异步处理：账户查询和密码验证期间不占用容器线程
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        RequestExecution.executeAsync(request, response, this::login);
+    }
+
+    /**
+     * 处理登录表单
+     * 登录结果在DaoExecutor中处理（写Session、渲染页面）：登录的Future可能由密码哈希线程池、DAO线程或JDK的超时调度线程完成，
+     * 不在这些线程中写响应
+     * @return CompletionStage<String> 需要转发到的页面（登录成功重定向时为null）
+     */
+    private CompletionStage<String> login(HttpServletRequest request, HttpServletResponse response) throws IOException {
         request.setCharacterEncoding("UTF-8");
         response.setContentType("text/html;charset=UTF-8");
         // 1. 获取登录表单参数（EncodingFilter已统一设置UTF-8编码）
@@ -27,61 +46,85 @@ public class LoginServlet extends HttpServlet {
 
         // 2. 非空校验
         if (account == null || account.trim().isEmpty() || rawPassword == null || rawPassword.trim().isEmpty()) {
-            request.setAttribute("errorMsg", "登录失败：账户和密码不能为空！");
-            request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
-            return;
+            return CompletableFuture.completedFuture(Pages.login(request, response, "登录失败：账户和密码不能为空！"));
         }
         SysUserDao sysUserDao = new SysUserDao();
-        try {
-            // 3. 调用DAO层登录验证方法
-            SysUser loginUser = sysUserDao.login(account.trim(), rawPassword.trim());
-
-            // 4. 验证结果处理
-            if (loginUser != null) {
-                // 登录成功：将用户信息存入Session，用于后续权限控制
-                HttpSession session = request.getSession();
-                session.setAttribute("loginUser", loginUser);
-                session.setMaxInactiveInterval(3600); // 设置Session有效期1小时
-
-                // 5. 根据用户角色跳转对应页面
-                String role = loginUser.getRole();
-                switch (role.toLowerCase()) {
-                    case "admin":
-                        // 管理员页面
-                        response.sendRedirect(request.getContextPath() + "/pages/admin_page.jsp");
-                        break;
-                    case "teacher":
-                        // 教师页面
-                        response.sendRedirect(request.getContextPath() + "/pages/teacher_page.jsp");
-                        break;
-                    case "student":
-                        // 学生页面
-                        response.sendRedirect(request.getContextPath() + "/pages/student_page.jsp");
-                        break;
-                    default:
-                        // 未知角色，返回登录页提示
-                        request.setAttribute("errorMsg", "登录失败：未知的用户角色！");
-                        request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
-                        break;
+        // 3. 调用DAO层异步登录验证方法（查询在DaoExecutor中执行，密码验证在哈希线程池中执行）
+        Executor renderExecutor = DaoExecutor.executor(); // 在请求线程中获取，沿用本请求的写操作时间记录
+        return sysUserDao.loginAsync(account.trim(), rawPassword.trim()).handleAsync((loginUser, error) -> {
+            try {
+                if (error != null) {
+                    // 捕获数据库异常等系统错误
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    System.err.println("登录失败（" + account.trim() + "）：" + cause.getMessage());
+                    return Pages.login(request, response, "登录失败：系统异常，请联系管理员！");
                 }
-            } else {
-                // 登录失败：账户或密码错误
-                request.setAttribute("errorMsg", "登录失败：账户或密码错误！");
-                request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
+                return onLoginResult(request, response, loginUser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, renderExecutor);
+    }
+
+    /**
+     * 处理登录验证结果：保存登录状态并按角色跳转，或返回登录页提示错误
+     * @return String 需要转发到的页面（重定向时返回null）
+     */
+    private String onLoginResult(HttpServletRequest request, HttpServletResponse response, SysUser loginUser) throws IOException {
+        // 4. 验证结果处理
+        if (loginUser == null) {
+            // 登录失败：账户或密码错误
+            return Pages.login(request, response, "登录失败：账户或密码错误！");
+        }
+        // 登录成功：保存登录状态，用于后续权限控制（LoginFilter）
+        if (SessionToken.isTokenMode()) {
+            // 令牌模式：签名令牌写入Cookie，服务端不保存会话，任意节点均可验证
+            response.addCookie(createTokenCookie(request, loginUser));
+        } else {
+            // 登录前已有会话时更换会话ID（防止会话固定攻击：攻击者预先植入的会话ID在登录后失效），再将用户信息存入Session
+            if (request.getSession(false) != null) {
+                request.changeSessionId();
             }
-        } catch (Exception e) {
-            // 捕获数据库异常等系统错误
-            e.printStackTrace();
-            request.setAttribute("errorMsg", "登录失败：系统异常，请联系管理员！");
-            request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
+            HttpSession session = request.getSession();
+            session.setAttribute(LoginFilter.LOGIN_USER, loginUser);
+            session.setMaxInactiveInterval(3600); // 设置Session有效期1小时
+        }
+
+        // 5. 根据用户角色跳转：首页数据由DashboardServlet按角色加载后转发到对应页面
+        String role = loginUser.getRole();
+        switch (role.toLowerCase()) {
+            case "admin":
+            case "teacher":
+            case "student":
+                response.sendRedirect(request.getContextPath() + "/dashboard");
+                return null;
+            default:
+                // 未知角色，返回登录页提示
+                return Pages.login(request, response, "登录失败：未知的用户角色！");
         }
     }
 
+    /**
+     * 创建登录令牌Cookie（HttpOnly，防止页面脚本读取；有效期与令牌一致）
+     */
+    private Cookie createTokenCookie(HttpServletRequest request, SysUser loginUser) {
+        Cookie cookie = new Cookie(SessionToken.COOKIE_NAME,
+                SessionToken.issue(loginUser.getUserId(), loginUser.getRole(), loginUser.getRelId()));
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setMaxAge(SessionToken.getTtlSeconds());
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
 
-    // 兼容GET请求（防止用户直接访问LoginServlet的GET方式）
+    // GET请求显示登录页（LoginFilter未登录时重定向到这里）
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        // GET请求直接重定向到登录页
-        response.sendRedirect(request.getContextPath() + "/pages/login/pages/login/login.jsp");
+        String view = Pages.login(request, response, null);
+        if (view != null) {
+            // 使用JSP页面时转发到登录页（与POST一致，两种渲染方式的对比不受重定向的额外往返影响）
+            request.getRequestDispatcher(view).forward(request, response);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package servlet;
+
+import dao.CourseScore;
+import entity.Course;
+import entity.Student;
+import entity.Teacher;
+import service.AdminDashboard;
+import service.Dashboard;
+import service.DashboardSection;
+import service.StudentDashboard;
+import service.TeacherDashboard;
+import service.Transcript;
+import util.AppConfig;
+import util.Template;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 页面渲染（Pages）
+ * 登录页、注册页和角色首页使用预编译模板（util.Template，模板文件在类路径templates/下）直接写入响应，
+ * 模板在应用启动时加载编译一次（AppContextListener调用preload），静态部分已是UTF-8字节，每次渲染只转义和编码变量
+ * 配置view.engine=jsp时退回原来的JSP页面（设置请求属性后转发），用于对比两种方式的性能或临时回退
+ * 各方法返回需要转发到的JSP路径；使用模板时已写出响应，返回null（与RequestExecution.Handler的约定一致）
+ */
+public class Pages {
+    public static final String LOGIN_JSP = "/pages/login/login.jsp";
+    public static final String REGISTER_JSP = "/pages/login/register.jsp";
+
+    private static final Template LOGIN = Template.load("templates/login.html");
+    private static final Template LOGIN_ERROR = LOGIN.block("errorBox");
+
+    private static final Template REGISTER = Template.load("templates/register.html");
+
+    private static final Template STUDENT = Template.load("templates/student.html");
+    private static final Template STUDENT_DEGRADED = STUDENT.block("degraded");
+    private static final Template STUDENT_UNAVAILABLE = STUDENT.block("unavailable");
+    private static final Template STUDENT_PROFILE = STUDENT.block("profile");
+    private static final Template STUDENT_SCORES = STUDENT.block("scores");
+    private static final Template STUDENT_RANK = STUDENT.block("rank");
+    private static final Template STUDENT_SCORE_ROW = STUDENT.block("scoreRow");
+
+    private static final Template TEACHER = Template.load("templates/teacher.html");
+    private static final Template TEACHER_DEGRADED = TEACHER.block("degraded");
+    private static final Template TEACHER_UNAVAILABLE = TEACHER.block("unavailable");
+    private static final Template TEACHER_PROFILE = TEACHER.block("profile");
+    private static final Template TEACHER_COURSES = TEACHER.block("courses");
+    private static final Template TEACHER_COURSE_ROW = TEACHER.block("courseRow");
+
+    private static final Template ADMIN = Template.load("templates/admin.html");
+    private static final Template ADMIN_DEGRADED = ADMIN.block("degraded");
+    private static final Template ADMIN_UNAVAILABLE = ADMIN.block("unavailable");
+    private static final Template ADMIN_USER_COUNTS = ADMIN.block("userCounts");
+
+    private Pages() {
+    }
+
+    /**
+     * 加载并编译全部模板（应用启动时调用，模板文件缺失或语法错误时启动即报错，而不是等到第一个请求）
+     */
+    public static void preload() {
+        // 首次访问本类时静态字段完成加载，这里无需其他操作
+    }
+
+    /**
+     * @return boolean 是否使用预编译模板（view.engine=template，默认）
+     */
+    public static boolean isTemplateEngine() {
+        return !"jsp".equalsIgnoreCase(AppConfig.getString("view.engine", "template").trim());
+    }
+
+    // -------------------------- 登录/注册 --------------------------
+    /**
+     * 渲染登录页
+     * @param errorMsg 提示信息（无提示时为null）
+     * @return String 需要转发到的JSP路径（使用模板时为null）
+     */
+    public static String login(HttpServletRequest request, HttpServletResponse response, String errorMsg) throws IOException {
+        if (!isTemplateEngine()) {
+            request.setAttribute("errorMsg", errorMsg);
+            return LOGIN_JSP;
+        }
+        Map<String, Object> model = pageModel(request);
+        model.put("errorBox", errorMsg != null && !errorMsg.isEmpty() ? LOGIN_ERROR.with(model("errorMsg", errorMsg)) : Template.EMPTY);
+        model.put("userId", request.getParameter("userId")); // 登录失败时回显账号（转义后输出）
+        render(response, LOGIN, model);
+        return null;
+    }
+
+    /**
+     * 渲染注册页
+     * @return String 需要转发到的JSP路径（使用模板时为null）
+     */
+    public static String register(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!isTemplateEngine()) {
+            return REGISTER_JSP;
+        }
+        render(response, REGISTER, pageModel(request));
+        return null;
+    }
+
+    // -------------------------- 角色首页 --------------------------
+    /**
+     * 渲染角色首页（按首页数据类型选择学生/教师/管理员页面）
+     * @return String 需要转发到的JSP路径（使用模板时为null）
+     */
+    public static String dashboard(HttpServletRequest request, HttpServletResponse response, Dashboard dashboard) throws IOException {
+        if (!isTemplateEngine()) {
+            request.setAttribute(DashboardServlet.DASHBOARD, dashboard);
+            if (dashboard instanceof StudentDashboard) {
+                return "/pages/student_page.jsp";
+            }
+            return dashboard instanceof TeacherDashboard ? "/pages/teacher_page.jsp" : "/pages/admin_page.jsp";
+        }
+        if (dashboard instanceof StudentDashboard) {
+            render(response, STUDENT, studentModel(request, (StudentDashboard) dashboard));
+        } else if (dashboard instanceof TeacherDashboard) {
+            render(response, TEACHER, teacherModel(request, (TeacherDashboard) dashboard));
+        } else {
+            render(response, ADMIN, adminModel(request, (AdminDashboard) dashboard));
+        }
+        return null;
+    }
+
+    private static Map<String, Object> studentModel(HttpServletRequest request, StudentDashboard dashboard) {
+        Map<String, Object> model = pageModel(request);
+        model.put("degraded", degraded(STUDENT_DEGRADED, dashboard));
+
+        DashboardSection<Student> studentSection = dashboard.getStudent();
+        Student student = studentSection.getValue();
+        if (!studentSection.isAvailable()) {
+            model.put("profile", STUDENT_UNAVAILABLE.with(model("message", "个人信息暂时无法加载，请稍后刷新")));
+        } else if (student == null) {
+            model.put("profile", STUDENT_UNAVAILABLE.with(model("message", "未找到学号为 " + dashboard.getSno() + " 的学生信息")));
+        } else {
+            model.put("profile", STUDENT_PROFILE.with(model("sno", student.getSno(), "sname", student.getSname(),
+                    "sgrade", student.getSgrade(), "smajor", student.getSmajor())));
+        }
+
+        DashboardSection<Transcript> transcriptSection = dashboard.getTranscript();
+        if (!transcriptSection.isAvailable()) {
+            model.put("scores", STUDENT_UNAVAILABLE.with(model("message", "成绩暂时无法加载，请稍后刷新")));
+        } else {
+            Transcript transcript = transcriptSection.getValue();
+            List<CourseScore> courseScores = transcript.getCourses();
+            Template.Fragment rows = out -> {
+                for (CourseScore courseScore : courseScores) {
+                    Float score = courseScore.getScore().getScore();
+                    STUDENT_SCORE_ROW.render(model("cno", courseScore.getScore().getCno(), "cname", courseScore.getCname(),
+                            "ccredit", courseScore.getCcredit(), "score", score != null ? score : "未录入"), out);
+                }
+            };
+            Template.Fragment rank = dashboard.getMajorRank() == null ? Template.EMPTY : STUDENT_RANK.with(model(
+                    "rank", dashboard.getMajorRank().getRank(), "cohortSize", dashboard.getMajorRank().getCohortSize()));
+            model.put("scores", STUDENT_SCORES.with(model("earnedCredits", transcript.getEarnedCredits(),
+                    "attemptedCredits", transcript.getAttemptedCredits(), "gpa", String.format("%.2f", transcript.getGpa()),
+                    "rank", rank, "rows", rows)));
+        }
+        return model;
+    }
+
+    private static Map<String, Object> teacherModel(HttpServletRequest request, TeacherDashboard dashboard) {
+        Map<String, Object> model = pageModel(request);
+        model.put("degraded", degraded(TEACHER_DEGRADED, dashboard));
+
+        DashboardSection<Teacher> teacherSection = dashboard.getTeacher();
+        Teacher teacher = teacherSection.getValue();
+        if (!teacherSection.isAvailable()) {
+            model.put("profile", TEACHER_UNAVAILABLE.with(model("message", "个人信息暂时无法加载，请稍后刷新")));
+        } else if (teacher == null) {
+            model.put("profile", TEACHER_UNAVAILABLE.with(model("message", "未找到工号为 " + dashboard.getTno() + " 的教师信息")));
+        } else {
+            model.put("profile", TEACHER_PROFILE.with(model("tno", teacher.getTno(), "tname", teacher.getTname(),
+                    "ttitle", teacher.getTtitle(), "tdept", teacher.getTdept())));
+        }
+
+        DashboardSection<List<Course>> coursesSection = dashboard.getCourses();
+        if (!coursesSection.isAvailable()) {
+            model.put("courses", TEACHER_UNAVAILABLE.with(model("message", "授课课程暂时无法加载，请稍后刷新")));
+        } else {
+            List<Course> courses = coursesSection.getValue();
+            Template.Fragment rows = out -> {
+                for (Course course : courses) {
+                    Integer rosterSize = dashboard.getRosterSize(course.getCno());
+                    TEACHER_COURSE_ROW.render(model("cno", course.getCno(), "cname", course.getCname(),
+                            "ccredit", course.getCcredit(), "rosterSize", rosterSize != null ? rosterSize : "--"), out);
+                }
+            };
+            model.put("courses", TEACHER_COURSES.with(model("rows", rows)));
+        }
+        return model;
+    }
+
+    private static Map<String, Object> adminModel(HttpServletRequest request, AdminDashboard dashboard) {
+        Map<String, Object> model = pageModel(request);
+        model.put("degraded", degraded(ADMIN_DEGRADED, dashboard));
+        model.put("studentCount", countOf(dashboard.getStudentCount()));
+        model.put("teacherCount", countOf(dashboard.getTeacherCount()));
+        model.put("courseCount", countOf(dashboard.getCourseCount()));
+        if (!dashboard.getUserCounts().isAvailable()) {
+            model.put("userCounts", ADMIN_UNAVAILABLE.with(model("message", "用户统计暂时无法加载，请稍后刷新")));
+        } else {
+            model.put("userCounts", ADMIN_USER_COUNTS.with(model("admin", dashboard.getUserCount("admin"),
+                    "teacher", dashboard.getUserCount("teacher"), "student", dashboard.getUserCount("student"))));
+        }
+        return model;
+    }
+
+    // -------------------------- 工具方法 --------------------------
+    /**
+     * 统计数据块的显示值（未能加载时显示"--"）
+     */
+    private static Object countOf(DashboardSection<Integer> section) {
+        return section.isAvailable() ? section.getValue() : "--";
+    }
+
+    /**
+     * 有数据块降级时的提示
+     */
+    private static Template.Fragment degraded(Template block, Dashboard dashboard) {
+        return dashboard.isDegraded() ? block.with(model("sections", String.join("、", dashboard.getDegradedSections()))) : Template.EMPTY;
+    }
+
+    /**
+     * 页面公共变量（上下文路径、样式表的指纹地址）
+     */
+    private static Map<String, Object> pageModel(HttpServletRequest request) {
+        return model("contextPath", request.getContextPath(),
+                "indexCss", StaticAssetServlet.url(request, "/static/css/index.css"),
+                "loginCss", StaticAssetServlet.url(request, "/static/css/login.css"));
+    }
+
+    /**
+     * 按 名称, 值, 名称, 值... 的顺序创建变量表
+     */
+    private static Map<String, Object> model(Object... namesAndValues) {
+        Map<String, Object> model = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            model.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return model;
+    }
+
+    private static void render(HttpServletResponse response, Template template, Map<String, Object> model) throws IOException {
+        response.setContentType("text/html;charset=UTF-8");
+        template.render(model, response.getOutputStream());
+    }
+}
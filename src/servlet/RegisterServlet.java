@@ -2,84 +2,164 @@ package servlet;
 
 import entity.SysUser;
 import dao.SysUserDao;
+import util.DaoExecutor;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * 注册Servlet
- * 处理用户注册请求，完成注册后跳转回登录页
+ * 处理用户注册请求，完成注册后显示登录页；注册页和登录页由Pages渲染
  */
-@WebServlet("/register") // 注册页面表单提交的action路径需对应此值
+@WebServlet(urlPatterns = "/register", asyncSupported = true) // 注册页面表单提交的action路径需对应此值
 public class RegisterServlet extends HttpServlet {
-    // 实例化Dao对象（实际开发建议用依赖注入，此处简化）
+    /**
+     * 注册失败提示的前缀
+     */
+    private static final String FAILED = "注册失败：";
 
+    /**
+     * 允许公开注册的用户角色（不含admin）
+     */
+    private static final Set<String> SELF_REGISTER_ROLES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("teacher", "student")));
 
+    // 异步处理注册请求：账号查询、密码哈希和插入期间不占用容器线程
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        RequestExecution.executeAsync(request, response, this::register);
+    }
+
+    /**
+     * 处理注册表单：校验失败、账号已存在或注册失败时回到登录页并提示原因
+     * 异步阶段只得出提示信息，页面在DaoExecutor中渲染（不在密码哈希线程池、DAO线程或JDK超时调度线程中写响应）
+     * @return CompletionStage<String> 需要转发到的页面
+     */
+    private CompletionStage<String> register(HttpServletRequest request, HttpServletResponse response) throws IOException {
         // 1. 解决请求参数中文乱码问题（必须放在最前面）
         request.setCharacterEncoding("UTF-8");
         response.setContentType("text/html;charset=UTF-8");
 
-        // 2. 获取注册表单提交的参数
-        String username = request.getParameter("username").trim(); // 注册账号
-        String password = request.getParameter("password").trim(); // 密码
-        String repassword = request.getParameter("repassword").trim(); // 确认密码
+        // 2. 获取注册表单提交的参数（参数缺失时按空值处理）
+        String username = trimToEmpty(request.getParameter("username")); // 注册账号
+        String password = trimToEmpty(request.getParameter("password")); // 密码
+        String repassword = trimToEmpty(request.getParameter("repassword")); // 确认密码
         String userType = request.getParameter("userType"); // 用户角色
 
         // 3. 后端数据验证（前端验证可被绕过，后端必须二次验证）
-//        try {
-            // 3.1 非空验证
-            if (username.isEmpty()) {
-//                throw new Exception("请输入注册账号！");
-            }
-            if (password.isEmpty()) {
-//                throw new Exception("请输入登录密码！");
+        String error = validate(username, password, repassword, userType);
+        if (error != null) {
+            return CompletableFuture.completedFuture(failed(request, response, error));
+        }
+
+        // 4. 账号是否已存在验证，不存在时调用Dao完成注册（密码哈希后保存）
+        SysUserDao userDao = new SysUserDao();
+        Executor renderExecutor = DaoExecutor.executor(); // 在请求线程中获取，沿用本请求的写操作时间记录
+        return userDao.getSysUserByAccountAsync(username).thenCompose(existUser -> {
+            if (existUser != null) {
+                return CompletableFuture.completedFuture(FAILED + "该账号已存在，请更换账号注册！");
             }
-            if (repassword.isEmpty()) {
-//                throw new Exception("请输入确认密码！");
+            SysUser newUser = new SysUser(username, password, userType);
+            return userDao.registerAsync(newUser, password).thenApply(registerSuccess -> registerSuccess
+                    // 5. 注册成功：显示登录页并提示
+                    ? "注册成功！请登录"
+                    : FAILED + "注册失败，请稍后重试！");
+        }).handleAsync((message, e) -> {
+            if (e == null) {
+                return showLogin(request, response, message);
             }
-            if (userType == null) {
-//                throw new Exception("请选择用户角色！");
+            // 6. 数据库异常等系统错误；查询后、插入前被其他请求抢先注册时按账号已存在提示
+            if (isDuplicateKey(e)) {
+                return failed(request, response, "该账号已存在，请更换账号注册！");
             }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("注册失败（" + username + "）：" + cause.getMessage());
+            return failed(request, response, "系统异常，请联系管理员！");
+        }, renderExecutor);
+    }
 
-            // 3.2 密码一致性验证
-            if (!password.equals(repassword)) {
-//                throw new Exception("两次输入的密码不一致！");
-            }
+    /**
+     * 校验注册表单
+     * @return String 校验失败的原因（通过返回null）
+     */
+    private static String validate(String username, String password, String repassword, String userType) {
+        // 非空验证
+        if (username.isEmpty()) {
+            return "请输入注册账号！";
+        }
+        if (password.isEmpty()) {
+            return "请输入登录密码！";
+        }
+        if (repassword.isEmpty()) {
+            return "请输入确认密码！";
+        }
+        if (userType == null || userType.trim().isEmpty()) {
+            return "请选择用户角色！";
+        }
+        // 角色白名单：公开注册只能注册教师/学生，管理员账号由已有管理员在后台创建
+        if (!SELF_REGISTER_ROLES.contains(userType)) {
+            return "不支持注册该用户角色！";
+        }
+        // 密码一致性验证
+        if (!password.equals(repassword)) {
+            return "两次输入的密码不一致！";
+        }
+        return null;
+    }
 
-            // 3.3 账号是否已存在验证
-            SysUserDao userDao = new SysUserDao();
-            SysUser existUser = userDao.getSysUserByAccount(username);
-            if (existUser != null) {
-//                throw new Exception("该账号已存在，请更换账号注册！");
-            }
+    /**
+     * 注册失败：回到登录页并提示原因
+     */
+    private static String failed(HttpServletRequest request, HttpServletResponse response, String reason) {
+        return showLogin(request, response, FAILED + reason);
+    }
 
-            // 4. 调用Dao完成注册
-            SysUser newUser = new SysUser(username, password, userType);
-            boolean registerSuccess = userDao.addSysUser(newUser);
-            if (!registerSuccess) {
-//                throw new Exception("注册失败，请稍后重试！");
-            }
+    /**
+     * 显示登录页（异步阶段中调用，IOException包装为UncheckedIOException）
+     */
+    private static String showLogin(HttpServletRequest request, HttpServletResponse response, String message) {
+        try {
+            return Pages.login(request, response, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-            // 5. 注册成功：设置提示信息，跳转登录页
-            request.setAttribute("errorMsg", "注册成功！请登录");
-            request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
+    /**
+     * 判断异常是否由唯一键冲突（账号重复）引起
+     */
+    private static boolean isDuplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-//        } catch (Exception e) {
-            // 6. 注册失败：捕获异常，设置错误提示，跳转回登录页
-//            request.setAttribute("errorMsg", "注册失败：" + e.getMessage());
-            request.getRequestDispatcher("/pages/login/login.jsp").forward(request, response);
-//        }
+    private static String trimToEmpty(String value) {
+        return value != null ? value.trim() : "";
     }
 
-    // 处理GET请求（防止用户直接访问RegisterServlet）
+    // GET请求显示注册页
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        // 直接重定向到登录页
-        response.sendRedirect(request.getContextPath() + "/pages/login/login.jsp");
+        String view = Pages.register(request, response);
+        if (view != null) {
+            // 使用JSP页面时转发到注册页（与POST一致，两种渲染方式的对比不受重定向的额外往返影响）
+            request.getRequestDispatcher(view).forward(request, response);
+        }
     }
 }
@@ -0,0 +1,280 @@
+package servlet;
+
+import filter.ReadYourWritesFilter;
+import service.RequestLoaders;
+import util.AppConfig;
+import util.ReadWriteRouter;
+import util.ThreadPools;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求执行方式（RequestExecution）
+ * Servlet把请求处理逻辑（含阻塞的DAO调用）交给这里执行，按servlet.execution.mode配置选择执行线程：
+ * 1. container（默认）：在容器请求线程中直接执行，与普通Servlet相同
+ * 2. virtual：开启异步处理（AsyncContext），每个请求在一个虚拟线程中执行，阻塞等待数据库时不占用容器线程和平台线程；
+ *    运行在不支持虚拟线程的JDK（21以下）上时退回platform方式
+ * 3. platform：开启异步处理，在有界的平台线程池中执行，队列满时直接返回503
+ * 虚拟线程数量几乎没有上限，同时访问数据库的线程数由DbConcurrencyLimiter（db.concurrency.limit）限制，避免压垮连接池
+ * 使用DAO的*Async方法的处理逻辑（AsyncHandler）通过executeAsync执行：始终开启异步处理，容器线程在发起查询后立即释放，
+ * 查询在DaoExecutor中进行，多个互不依赖的查询可以同时进行，结果就绪后再转发页面，与servlet.execution.mode无关
+ * 注：执行方式在应用启动时确定，修改servlet.execution.*后需重启应用
+ */
+public class RequestExecution {
+    /**
+     * 请求处理逻辑
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * 处理请求
+         * @return String 需要转发到的页面路径（已重定向或已写出响应时返回null）
+         */
+        String handle(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException;
+    }
+
+    /**
+     * 异步请求处理逻辑：发起查询后立即返回，不阻塞调用线程
+     */
+    @FunctionalInterface
+    public interface AsyncHandler {
+        /**
+         * 处理请求
+         * @return CompletionStage<String> 需要转发到的页面路径（已重定向或已写出响应时为null）
+         */
+        CompletionStage<String> handle(HttpServletRequest request, HttpServletResponse response)
+                throws ServletException, IOException;
+    }
+
+    private static final String MODE = AppConfig.getString("servlet.execution.mode", "container").trim().toLowerCase();
+
+    /**
+     * 异步处理的超时时间（毫秒），超时返回503
+     */
+    private static final long ASYNC_TIMEOUT_MILLIS = AppConfig.getLong("servlet.execution.asyncTimeoutMillis", 30000);
+
+    /**
+     * 请求执行线程池（container方式为null）
+     */
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private RequestExecution() {
+    }
+
+    private static ExecutorService createExecutor() {
+        if ("virtual".equals(MODE)) {
+            ExecutorService executor = ThreadPools.newVirtualThreadExecutor("request-vt");
+            if (executor != null) {
+                return executor;
+            }
+            System.err.println("当前JDK不支持虚拟线程，请求处理退回平台线程池执行");
+        } else if (!"platform".equals(MODE)) {
+            return null;
+        }
+        return ThreadPools.newBoundedDaemonExecutor("request-worker",
+                Math.max(1, AppConfig.getInt("servlet.execution.platformThreads", 200)),
+                Math.max(1, AppConfig.getInt("servlet.execution.queueCapacity", 1000)));
+    }
+
+    /**
+     * 按配置的执行方式处理请求
+     * 异步执行时在执行线程中重新绑定请求级加载器（RequestLoaders），处理完成后转发到handler返回的页面
+     * @param request 请求
+     * @param response 响应
+     * @param handler 请求处理逻辑
+     */
+    public static void execute(HttpServletRequest request, HttpServletResponse response, Handler handler)
+            throws ServletException, IOException {
+        ExecutorService executor = EXECUTOR;
+        if (executor == null || !request.isAsyncSupported()) {
+            String view = handler.handle(request, response);
+            if (view != null) {
+                request.getRequestDispatcher(view).forward(request, response);
+            }
+            return;
+        }
+        AsyncRequest asyncRequest = AsyncRequest.start(request, response);
+        try {
+            executor.execute(() -> run(asyncRequest, handler));
+        } catch (RejectedExecutionException e) {
+            asyncRequest.fail(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "系统繁忙，请稍后重试！");
+        }
+    }
+
+    /**
+     * 异步处理请求：在容器线程中调用handler发起查询后立即返回，结果就绪时（通常在DaoExecutor的I/O线程中）转发到页面
+     * 请求不支持异步处理时（如经过未声明asyncSupported的过滤器）在当前线程中等待结果
+     * @param request 请求
+     * @param response 响应
+     * @param handler 异步请求处理逻辑
+     */
+    public static void executeAsync(HttpServletRequest request, HttpServletResponse response, AsyncHandler handler)
+            throws ServletException, IOException {
+        if (!request.isAsyncSupported()) {
+            String view;
+            try {
+                view = handler.handle(request, response).toCompletableFuture().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("请求处理被中断", e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (view != null) {
+                request.getRequestDispatcher(view).forward(request, response);
+            }
+            return;
+        }
+        AsyncRequest asyncRequest = AsyncRequest.start(request, response);
+        CompletionStage<String> result;
+        try {
+            result = handler.handle(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            e.printStackTrace();
+            asyncRequest.fail(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "系统异常，请联系管理员！");
+            return;
+        }
+        result.whenComplete((view, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                cause.printStackTrace();
+                asyncRequest.fail(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "系统异常，请联系管理员！");
+            } else {
+                asyncRequest.finish(view);
+            }
+        });
+    }
+
+    /**
+     * 在执行线程中处理请求（重新绑定请求级加载器和写操作时间记录）
+     */
+    private static void run(AsyncRequest asyncRequest, Handler handler) {
+        HttpServletRequest request = asyncRequest.getRequest();
+        String view;
+        RequestLoaders.bind(request);
+        AtomicLong previousLastWrite = ReadYourWritesFilter.bind(request);
+        try {
+            view = handler.handle(request, asyncRequest.getResponse());
+        } catch (Exception e) {
+            e.printStackTrace();
+            asyncRequest.fail(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "系统异常，请联系管理员！");
+            return;
+        } finally {
+            ReadWriteRouter.bindLastWrite(previousLastWrite);
+            RequestLoaders.unbind();
+        }
+        asyncRequest.finish(view);
+    }
+
+    /**
+     * @return String 当前生效的执行方式（container、virtual或platform）
+     */
+    public static String getMode() {
+        return EXECUTOR == null ? "container" : MODE;
+    }
+
+    /**
+     * 关闭请求执行线程池（应用停止时调用）
+     */
+    public static void shutdown() {
+        if (EXECUTOR != null) {
+            EXECUTOR.shutdownNow();
+        }
+    }
+
+    /**
+     * 异步处理中的一个请求：处理完成与容器通知超时/出错只有先到的一方结束异步处理
+     */
+    private static final class AsyncRequest implements AsyncListener {
+        private final AsyncContext asyncContext;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private AsyncRequest(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        /**
+         * 开启异步处理（超时时间见servlet.execution.asyncTimeoutMillis）
+         */
+        static AsyncRequest start(HttpServletRequest request, HttpServletResponse response) {
+            AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(ASYNC_TIMEOUT_MILLIS);
+            AsyncRequest asyncRequest = new AsyncRequest(asyncContext);
+            asyncContext.addListener(asyncRequest);
+            return asyncRequest;
+        }
+
+        HttpServletRequest getRequest() {
+            return (HttpServletRequest) asyncContext.getRequest();
+        }
+
+        HttpServletResponse getResponse() {
+            return (HttpServletResponse) asyncContext.getResponse();
+        }
+
+        /**
+         * 处理完成：转发到页面，或结束异步处理（已超时时忽略，响应已由onTimeout写出）
+         */
+        void finish(String view) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            if (view != null) {
+                asyncContext.dispatch(view);
+            } else {
+                asyncContext.complete();
+            }
+        }
+
+        /**
+         * 返回错误状态码并结束异步处理（已结束时忽略）
+         */
+        void fail(int status, String message) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                HttpServletResponse response = getResponse();
+                if (!response.isCommitted()) {
+                    response.sendError(status, message);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("写出错误响应失败：" + e.getMessage());
+            } finally {
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            fail(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "请求处理超时，请稍后重试！");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            fail(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "系统异常，请联系管理员！");
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
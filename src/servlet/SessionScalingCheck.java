@@ -0,0 +1,237 @@
+package servlet;
+
+import entity.SysUser;
+import filter.LoginFilter;
+import util.Pbkdf2PasswordHasher;
+import util.SessionToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 会话模式多节点对比（SessionScalingCheck）
+ * 独立运行的main程序，在同一进程中模拟两个应用节点和一个轮询负载均衡器（不粘滞），对比三种登录状态保存方式：
+ * 1. session-replicated：session模式 + 会话复制（多节点不粘滞时的常见做法）：登录节点在HttpSession中保存SysUser，
+ *    序列化后复制到另一节点，每个节点都保存全部用户的会话
+ * 2. session-local：session模式，不复制会话：请求被轮询到没有该会话的节点时相当于未登录
+ * 3. token：token模式（session.mode=token）：登录节点签发SessionToken放入Cookie，节点不保存任何状态，
+ *    任意节点按LoginFilter的方式验证签名后得到轻量用户对象
+ * 每种方式先让N个用户各登录一次（经负载均衡器分配到节点），测量节点保存的登录状态占用的堆内存（GC后，节点对象释放前后的差值），
+ * 再发送R个随机用户的请求（同样轮询分配），统计每次请求验证登录状态的平均耗时和被当作未登录的请求比例
+ * 节点的会话对象只包含会话ID、时间戳、有效期和属性表（与容器的会话实现相比偏小），会话方式的结果是下限
+ * 用法：java -cp <classes> servlet.SessionScalingCheck [用户数] [请求数]
+ * 默认20000个用户、200000个请求；建议固定堆大小（如-Xms512m -Xmx512m）减少GC对测量的干扰
+ * 注：token方式的签名密钥取session.token.secret（为空时随机生成，两个模拟节点在同一进程中共用）
+ */
+public class SessionScalingCheck {
+    private static final String[] MODES = {"session-replicated", "session-local", "token"};
+
+    private SessionScalingCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0].trim()) : 20000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1].trim()) : 200000;
+
+        // 模拟数据库中的用户（所有方式共用，不计入节点内存）；密码字段为真实格式的哈希值
+        String passwordHash = new Pbkdf2PasswordHasher(1000).hash("SessionCheck#2024");
+        List<SysUser> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            SysUser user = new SysUser("user" + i, passwordHash, "student", String.format("S%07d", i), new Date(), 1);
+            user.setUserId(i + 1);
+            users.add(user);
+        }
+
+        System.out.println("节点2个（轮询，不粘滞），用户" + userCount + "个，请求" + requests + "个");
+        System.out.printf("%-18s %10s %12s %14s %13s %12s %9s%n", "mode", "heap(KB)", "bytes/user", "states/node",
+                "cookie(chars)", "auth(ns/req)", "lost(%)");
+        for (String mode : MODES) {
+            // 预热：类加载、JIT编译，不计入结果
+            run(mode, users.subList(0, Math.min(1000, userCount)), Math.min(10000, requests), false);
+            run(mode, users, requests, true);
+        }
+    }
+
+    /**
+     * N个用户登录后测量节点内存，再发送请求统计验证耗时
+     * @param print 是否输出结果（预热时不输出）
+     */
+    private static void run(String mode, List<SysUser> users, int requests, boolean print) throws Exception {
+        String[] cookies = new String[users.size()];
+        Node[] nodes = {new Node(), new Node()};
+        LoadBalancer balancer = new LoadBalancer(nodes);
+        for (int i = 0; i < users.size(); i++) {
+            Node node = balancer.next();
+            cookies[i] = node.login(mode, users.get(i));
+            if ("session-replicated".equals(mode)) {
+                for (Node other : nodes) {
+                    if (other != node) {
+                        other.replicate(node.sessions.get(cookies[i]));
+                    }
+                }
+            }
+        }
+        long withNodes = usedHeap();
+        int states = nodes[0].sessions.size();
+
+        Random random = new Random(42);
+        int lost = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            if (balancer.next().authenticate(mode, cookies[random.nextInt(cookies.length)]) == null) {
+                lost++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // 释放节点后再测一次，差值即节点保存的登录状态（客户端的Cookie仍在cookies中，不计入）
+        nodes = null;
+        balancer = null;
+        long withoutNodes = usedHeap();
+        if (print) {
+            long nodeBytes = Math.max(0, withNodes - withoutNodes);
+            System.out.printf("%-18s %10d %12d %14d %13d %12.0f %9.1f%n", mode, nodeBytes / 1024, nodeBytes / users.size(),
+                    states, cookies[0].length(), (double) elapsed / requests, 100.0 * lost / requests);
+        }
+    }
+
+    /**
+     * GC后的已用堆内存（字节）
+     */
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * 复制SysUser：按数据库查询或会话复制的方式得到一个独立的新对象（序列化再反序列化）
+     */
+    private static Object copy(Object value) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return in.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("复制会话属性失败：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 轮询负载均衡器（不按会话粘滞）
+     */
+    private static final class LoadBalancer {
+        private final Node[] nodes;
+        private final AtomicInteger next = new AtomicInteger();
+
+        LoadBalancer(Node[] nodes) {
+            this.nodes = nodes;
+        }
+
+        Node next() {
+            return nodes[Math.floorMod(next.getAndIncrement(), nodes.length)];
+        }
+    }
+
+    /**
+     * 模拟的应用节点：会话表（会话ID → 会话）
+     */
+    private static final class Node {
+        private static final SecureRandom ID_RANDOM = new SecureRandom();
+
+        private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+        /**
+         * 登录成功后保存登录状态（与LoginServlet.onLoginResult相同）
+         * @return String 客户端保存的Cookie值（会话ID或令牌）
+         */
+        String login(String mode, SysUser user) {
+            if ("token".equals(mode)) {
+                return SessionToken.issue(user.getUserId(), user.getRole(), user.getRelId());
+            }
+            byte[] idBytes = new byte[16];
+            ID_RANDOM.nextBytes(idBytes);
+            StringBuilder id = new StringBuilder(32);
+            for (byte b : idBytes) {
+                id.append(String.format("%02X", b));
+            }
+            Session session = new Session(id.toString());
+            session.maxInactiveInterval = 3600;
+            // 登录时从数据库查询到的用户对象
+            session.attributes.put(LoginFilter.LOGIN_USER, copy(user));
+            sessions.put(session.id, session);
+            return session.id;
+        }
+
+        /**
+         * 接收另一节点复制过来的会话（属性经序列化复制）
+         */
+        void replicate(Session source) {
+            Session session = new Session(source.id);
+            session.creationTime = source.creationTime;
+            session.lastAccessedTime = source.lastAccessedTime;
+            session.maxInactiveInterval = source.maxInactiveInterval;
+            for (Map.Entry<String, Object> attribute : source.attributes.entrySet()) {
+                session.attributes.put(attribute.getKey(), copy(attribute.getValue()));
+            }
+            sessions.put(session.id, session);
+        }
+
+        /**
+         * 验证请求的登录状态（与LoginFilter相同）
+         * @return SysUser 登录用户（未登录返回null）
+         */
+        SysUser authenticate(String mode, String cookie) {
+            if ("token".equals(mode)) {
+                SessionToken token = SessionToken.verify(cookie);
+                if (token == null) {
+                    return null;
+                }
+                SysUser loginUser = new SysUser();
+                loginUser.setUserId(token.getUserId());
+                loginUser.setRole(token.getRole());
+                loginUser.setRelId(token.getRelId());
+                return loginUser;
+            }
+            Session session = sessions.get(cookie);
+            if (session == null) {
+                return null;
+            }
+            session.lastAccessedTime = System.currentTimeMillis();
+            return (SysUser) session.attributes.get(LoginFilter.LOGIN_USER);
+        }
+    }
+
+    /**
+     * 模拟的HttpSession
+     */
+    private static final class Session {
+        private final String id;
+        private long creationTime = System.currentTimeMillis();
+        private volatile long lastAccessedTime = creationTime;
+        private int maxInactiveInterval;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        Session(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package servlet;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静态资源Servlet（/static/*）
+ * 应用启动时把web/static下的全部文件读入内存并建立索引，之后的请求不再访问磁盘：
+ * 1. 指纹：按内容SHA-256生成带哈希的文件名（如 /static/css/login.3f2a9c1e0b7d.css），页面通过url()引用，
+ *    内容变化后文件名随之变化，因此指纹地址可以设置一年有效期并标记immutable，浏览器无需再验证
+ * 2. 预压缩：文本类资源启动时压缩一次gzip版本（压缩后明显变小才保留），请求头Accept-Encoding包含gzip时直接返回
+ * 3. 验证：每种表示（原始/gzip）有各自的强ETag，If-None-Match匹配时返回304，不含响应体
+ * 原始地址（不带指纹）仍可访问，返回no-cache，浏览器每次用ETag验证
+ * 注：文件修改后需重新部署（或重启应用）才会重新建立索引
+ */
+@WebServlet(name = "StaticAssetServlet", urlPatterns = "/static/*", loadOnStartup = 1)
+public class StaticAssetServlet extends HttpServlet {
+    private static final String STATIC_ROOT = "/static/";
+
+    /**
+     * 指纹地址的缓存策略：内容不变则地址不变，缓存一年且无需验证
+     */
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * 原始地址的缓存策略：可以缓存，但每次使用前用ETag验证
+     */
+    private static final String REVALIDATE = "no-cache";
+
+    /**
+     * 指纹长度（SHA-256十六进制前缀）
+     */
+    private static final int FINGERPRINT_LENGTH = 12;
+
+    /**
+     * 值得压缩的内容类型前缀
+     */
+    private static final String[] COMPRESSIBLE_TYPES = {"text/", "application/javascript", "application/json", "image/svg+xml"};
+
+    /**
+     * 请求路径（原始地址和指纹地址） → 资源（启动时整体构建，之后只读）
+     */
+    private static volatile Map<String, Asset> assets = Collections.emptyMap();
+
+    /**
+     * 原始地址 → 指纹地址
+     */
+    private static volatile Map<String, String> fingerprintedPaths = Collections.emptyMap();
+
+    @Override
+    public void init() throws ServletException {
+        Map<String, Asset> index = new HashMap<>();
+        Map<String, String> fingerprinted = new HashMap<>();
+        try {
+            loadDirectory(getServletContext(), STATIC_ROOT, index, fingerprinted);
+        } catch (IOException e) {
+            throw new ServletException("加载静态资源失败：" + e.getMessage(), e);
+        }
+        assets = Collections.unmodifiableMap(index);
+        fingerprintedPaths = Collections.unmodifiableMap(fingerprinted);
+    }
+
+    /**
+     * 获取静态资源的指纹地址（页面引用样式表等资源时使用）
+     * @param request 当前请求（用于拼接上下文路径）
+     * @param path 资源路径，如 /static/css/login.css
+     * @return String 带上下文路径的指纹地址（资源不存在或索引尚未建立时返回原始地址）
+     */
+    public static String url(HttpServletRequest request, String path) {
+        String fingerprintedPath = fingerprintedPaths.get(path);
+        return request.getContextPath() + (fingerprintedPath != null ? fingerprintedPath : path);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        boolean gzip = asset.gzip != null && acceptsGzip(request);
+        String etag = gzip ? asset.gzipEtag : asset.etag;
+        response.setHeader("Cache-Control", path.equals(asset.fingerprintedPath) ? IMMUTABLE : REVALIDATE);
+        response.setHeader("ETag", etag);
+        if (asset.gzip != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = gzip ? asset.gzip : asset.content;
+        response.setContentType(asset.contentType);
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // -------------------------- 索引构建 --------------------------
+    private static void loadDirectory(ServletContext context, String directory, Map<String, Asset> index,
+                                      Map<String, String> fingerprinted) throws IOException {
+        Set<String> paths = context.getResourcePaths(directory);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                loadDirectory(context, path, index, fingerprinted);
+                continue;
+            }
+            byte[] content;
+            try (InputStream in = context.getResourceAsStream(path)) {
+                if (in == null) {
+                    continue;
+                }
+                content = readAll(in);
+            }
+            String contentType = context.getMimeType(path);
+            if (contentType == null) {
+                contentType = "application/octet-stream";
+            } else if (contentType.startsWith("text/") && !contentType.contains("charset")) {
+                contentType += ";charset=UTF-8";
+            }
+            Asset asset = new Asset(path, contentType, content);
+            index.put(path, asset);
+            index.put(asset.fingerprintedPath, asset);
+            fingerprinted.put(path, asset.fingerprintedPath);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 以最高压缩级别压缩（只在启动时执行一次），压缩后没有明显变小（小于原始大小的90%）时返回null
+     */
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+        return buffer.size() < content.length * 0.9 ? buffer.toByteArray() : null;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        for (String prefix : COMPRESSIBLE_TYPES) {
+            if (contentType.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256Hex(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JDK不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 在文件扩展名前插入指纹：/static/css/login.css → /static/css/login.3f2a9c1e0b7d.css
+     */
+    private static String fingerprint(String path, String hash) {
+        String fingerprint = hash.substring(0, FINGERPRINT_LENGTH);
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            return path + "." + fingerprint;
+        }
+        return path.substring(0, dot) + "." + fingerprint + path.substring(dot);
+    }
+
+    // -------------------------- 请求头处理 --------------------------
+    /**
+     * 判断客户端是否接受gzip：明确列出gzip（或等价的x-gzip）时以它的q值为准，q=0表示拒绝；
+     * 没有列出gzip时才按通配符*的q值判断（如"*, gzip;q=0"不接受gzip）
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+                gzipQuality = Math.max(gzipQuality, quality(parts));
+            } else if ("*".equals(name)) {
+                wildcardQuality = Math.max(wildcardQuality, quality(parts));
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : wildcardQuality > 0;
+    }
+
+    /**
+     * 编码条目的q值（没有q参数时为1，格式错误时按0处理）
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * If-None-Match是否匹配当前ETag（If-None-Match使用弱比较：忽略W/前缀；*匹配任意表示）
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 内存中的静态资源
+     */
+    private static final class Asset {
+        private final String fingerprintedPath;
+        private final String contentType;
+        private final byte[] content;
+        private final byte[] gzip;
+        private final String etag;
+        private final String gzipEtag;
+
+        Asset(String path, String contentType, byte[] content) throws IOException {
+            String hash = sha256Hex(content);
+            this.fingerprintedPath = fingerprint(path, hash);
+            this.contentType = contentType;
+            this.content = content;
+            this.gzip = isCompressible(contentType) ? gzip(content) : null;
+            this.etag = "\"" + hash.substring(0, 32) + "\"";
+            this.gzipEtag = "\"" + hash.substring(0, 32) + "-gzip\"";
+        }
+    }
+}
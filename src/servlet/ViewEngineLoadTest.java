@@ -0,0 +1,146 @@
+package servlet;
+
+import util.ThreadPools;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 页面渲染方式压测（ViewEngineLoadTest）
+ * 独立运行的main程序，对比view.engine的template（预编译模板）和jsp两种方式渲染同一页面的耗时：
+ * JSP只能在容器中执行，因此通过HTTP访问两个分别配置了view.engine=template和view.engine=jsp的部署（或同一部署修改配置前后各测一次），
+ * 每个地址先预热，再用固定数量的并发连接发送GET请求，统计延迟百分位（P50/P90/P99/最大值）、吞吐量、平均响应大小和失败数
+ * 用法：java -cp <classes> servlet.ViewEngineLoadTest <地址1> [地址2 ...] [-n 请求数] [-c 并发数]
+ * 如：servlet.ViewEngineLoadTest http://localhost:8080/template/login http://localhost:8080/jsp/login -n 20000 -c 50
+ * 注：不跟随重定向，状态码不是200的响应计为失败（确认测的是页面本身，而不是重定向）
+ */
+public class ViewEngineLoadTest {
+    private static final int WARMUP_REQUESTS = 500;
+
+    private ViewEngineLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int requests = 10000;
+        int concurrency = 20;
+        String[] urls = new String[args.length];
+        int urlCount = 0;
+        for (int i = 0; i < args.length; i++) {
+            if ("-n".equals(args[i]) && i + 1 < args.length) {
+                requests = Integer.parseInt(args[++i]);
+            } else if ("-c".equals(args[i]) && i + 1 < args.length) {
+                concurrency = Integer.parseInt(args[++i]);
+            } else {
+                urls[urlCount++] = args[i];
+            }
+        }
+        if (urlCount == 0) {
+            System.err.println("用法：ViewEngineLoadTest <地址1> [地址2 ...] [-n 请求数] [-c 并发数]");
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        System.out.println("请求数=" + requests + "，并发数=" + concurrency);
+        System.out.printf("%-50s %9s %9s %9s %9s %9s %9s %7s%n",
+                "url", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "req/s", "bytes", "failed");
+        for (String url : Arrays.copyOf(urls, urlCount)) {
+            // 预热：JSP首次访问时编译、JIT编译、建立连接，不计入结果
+            run(client, url, Math.min(WARMUP_REQUESTS, requests), concurrency);
+            System.out.println(run(client, url, requests, concurrency));
+        }
+    }
+
+    /**
+     * 用concurrency个线程共发送requests个GET请求，等待全部完成
+     */
+    private static Result run(HttpClient client, String url, int requests, int concurrency) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("page-load", concurrency, requests);
+        long[] latencies = new long[requests];
+        LongAdder bytes = new LongAdder();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() == 200) {
+                            latencies[index] = System.nanoTime() - begin;
+                            bytes.add(response.body().length);
+                        } else {
+                            latencies[index] = -1;
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        latencies[index] = -1;
+                        failed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        latencies[index] = -1;
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Result(url, completed, elapsed, bytes.sum(), failed.get());
+    }
+
+    /**
+     * 一个地址的统计结果
+     */
+    private static final class Result {
+        private final String url;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final long totalBytes;
+        private final int failed;
+
+        Result(String url, long[] latencies, long elapsedNanos, long totalBytes, int failed) {
+            this.url = url;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.totalBytes = totalBytes;
+            this.failed = failed;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有成功的请求时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-50s %9.2f %9.2f %9.2f %9.2f %9.0f %9d %7d", url,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), latencies.length > 0 ? totalBytes / latencies.length : 0, failed);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 应用配置工具类（AppConfig）
+ * 统一读取应用配置，优先级从低到高：类路径app.properties → -Dapp.config指定的外部文件 → JVM系统属性(-Dkey=value)
+ * 支持热加载：后台线程定期检查配置文件修改时间，变化后重新加载并通知监听者（如DBUtil切换连接池）
+ */
+public class AppConfig {
+    /**
+     * 类路径下的默认配置文件名
+     */
+    private static final String CONFIG_FILE = "app.properties";
+
+    /**
+     * 指定外部配置文件路径的系统属性名，如 -Dapp.config=/etc/education/app.properties
+     */
+    private static final String EXTERNAL_CONFIG_PROPERTY = "app.config";
+
+    /**
+     * 热加载检查间隔的配置项（毫秒，0表示关闭热加载）
+     */
+    private static final String RELOAD_INTERVAL_KEY = "config.reloadIntervalMillis";
+
+    /**
+     * 当前生效的配置快照（整体替换，读取方无需加锁）
+     */
+    private static volatile Properties properties;
+
+    /**
+     * 当前配置对应的文件修改时间（用于判断是否需要热加载）
+     */
+    private static volatile long loadedFingerprint;
+
+    /**
+     * 配置变更监听者
+     */
+    private static final List<Runnable> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * 热加载检查线程（未开启热加载时为null）
+     */
+    private static final ScheduledExecutorService WATCHER;
+
+    static {
+        loadedFingerprint = fingerprint();
+        properties = load();
+        long interval = getLong(RELOAD_INTERVAL_KEY, 10000);
+        if (interval > 0) {
+            WATCHER = ThreadPools.newSingleDaemonScheduler("app-config-watcher");
+            WATCHER.scheduleWithFixedDelay(AppConfig::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            WATCHER = null;
+        }
+    }
+
+    private AppConfig() {
+    }
+
+    // -------------------------- 读取配置项 --------------------------
+    /**
+     * 读取字符串配置项
+     * @param key 配置键
+     * @param defaultValue 未配置时的默认值
+     * @return String 配置值（已去除首尾空格）
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项" + key + "必须为整数：" + value, e);
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项" + key + "必须为整数：" + value, e);
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * 读取逗号分隔的列表配置项（去空格、去重，保持配置顺序）
+     * @param key 配置键
+     * @return Set<String> 列表值（未配置返回空集合）
+     */
+    public static Set<String> getList(String key) {
+        Set<String> values = new LinkedHashSet<>();
+        String value = getString(key, null);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    // -------------------------- 热加载 --------------------------
+    /**
+     * 注册配置变更监听者（配置文件变化并重新加载后回调）
+     * @param listener 监听者
+     */
+    public static void addReloadListener(Runnable listener) {
+        RELOAD_LISTENERS.add(listener);
+    }
+
+    /**
+     * 检查配置文件是否变化，变化则重新加载并通知监听者
+     * @return boolean 是否发生了重新加载
+     */
+    public static synchronized boolean reloadIfChanged() {
+        long current = fingerprint();
+        if (current == loadedFingerprint) {
+            return false;
+        }
+        try {
+            properties = load();
+            loadedFingerprint = current;
+        } catch (RuntimeException e) {
+            // 新配置有误时保留旧配置继续运行
+            System.err.println("配置文件重新加载失败，继续使用旧配置：" + e.getMessage());
+            return false;
+        }
+        System.out.println("配置文件已变化，重新加载完成");
+        for (Runnable listener : RELOAD_LISTENERS) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("配置变更处理失败：" + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 停止热加载检查线程（应用停止时调用）
+     */
+    public static void shutdown() {
+        if (WATCHER != null) {
+            WATCHER.shutdownNow();
+        }
+    }
+
+    // -------------------------- 加载配置 --------------------------
+    private static Properties load() {
+        Properties loaded = new Properties();
+        URL resource = AppConfig.class.getClassLoader().getResource(CONFIG_FILE);
+        if (resource != null) {
+            try (InputStream in = resource.openStream()) {
+                loadUtf8(loaded, in);
+            } catch (IOException e) {
+                throw new RuntimeException("读取配置文件" + CONFIG_FILE + "失败", e);
+            }
+        }
+        File external = externalFile();
+        if (external != null) {
+            try (InputStream in = new FileInputStream(external)) {
+                loadUtf8(loaded, in);
+            } catch (IOException e) {
+                throw new RuntimeException("读取外部配置文件" + external + "失败", e);
+            }
+        }
+        // 系统属性优先级最高，便于启动时临时覆盖单个配置项
+        for (String name : System.getProperties().stringPropertyNames()) {
+            loaded.setProperty(name, System.getProperty(name));
+        }
+        return loaded;
+    }
+
+    private static void loadUtf8(Properties target, InputStream in) throws IOException {
+        // 配置文件中有中文注释，按UTF-8读取
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            target.load(reader);
+        }
+    }
+
+    private static File externalFile() {
+        String path = System.getProperty(EXTERNAL_CONFIG_PROPERTY);
+        return path == null || path.trim().isEmpty() ? null : new File(path.trim());
+    }
+
+    /**
+     * 配置文件指纹：类路径文件与外部文件的修改时间组合（类路径文件在jar包内时无法感知修改）
+     */
+    private static long fingerprint() {
+        long fingerprint = 0;
+        URL resource = AppConfig.class.getClassLoader().getResource(CONFIG_FILE);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                fingerprint = new File(resource.toURI()).lastModified();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // 无法定位到文件时不参与热加载
+            }
+        }
+        File external = externalFile();
+        if (external != null) {
+            fingerprint = fingerprint * 31 + external.lastModified();
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,638 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据库连接池（ConnectionPool）
+ * 复用物理连接，避免每次DAO调用都重新进行TCP+认证握手，供DBUtil内部使用
+ * 特点：容量有界、借用超时、借用时校验、空闲回收、连接泄漏检测、预编译语句缓存
+ * 借出的是Connection代理对象，调用close()时归还连接池而不是关闭物理连接；
+ * unwrap只返回代理本身，不交出物理连接（物理连接被直接关闭或在归还后继续使用会破坏连接池的计数和复用）
+ * 空闲连接不足minIdle时由后台线程补足（创建后即开始定时维护，启动后很快预热）
+ * 预编译语句缓存：每个物理连接按SQL文本缓存最近使用的PreparedStatement（LRU，容量见statementCacheSize），
+ * prepareStatement(sql)优先取缓存，语句代理的close()清空参数后放回缓存而不是关闭；
+ * 取出的语句在归还前不在缓存中，同一连接上同时使用相同SQL时另行预编译，语句不会被两处共享
+ */
+public class ConnectionPool {
+    /**
+     * 连接池配置
+     */
+    private final PoolConfig config;
+
+    /**
+     * 空闲连接队列（后进先出，优先复用最近使用过的"热"连接，便于冷连接被空闲回收）
+     */
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    /**
+     * 已借出的连接（用于泄漏检测和统计）
+     */
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 许可数=最大连接数，借用前先获取许可，保证物理连接总数有界
+     */
+    private final Semaphore permits;
+
+    /**
+     * 当前物理连接总数（借出+空闲）
+     */
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    /**
+     * 后台线程：空闲回收、补足最小空闲连接、泄漏检测
+     */
+    private final ScheduledExecutorService housekeeper;
+
+    /**
+     * 预编译语句缓存命中/未命中次数
+     */
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    /**
+     * 连接池是否已关闭
+     */
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        if (config.getUrl() == null || config.getUrl().isEmpty()) {
+            throw new IllegalArgumentException("连接池[" + config.getName() + "]未配置数据库连接URL");
+        }
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxPoolSize(), true);
+        this.housekeeper = ThreadPools.newSingleDaemonScheduler("db-pool-housekeeper-" + config.getName());
+        long interval = config.getHousekeepingIntervalMillis();
+        // 首次维护立即执行：预先建立minIdle个连接，不在第一个请求中建立
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // -------------------------- 借用/归还连接 --------------------------
+    /**
+     * 从连接池借用一个连接
+     * @return Connection 连接代理对象（close()即归还）
+     * @throws SQLTimeoutException 在borrowTimeoutMillis内没有可用连接
+     * @throws SQLException 连接池已关闭或新建物理连接失败
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("连接池[" + config.getName() + "]已关闭");
+        }
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("获取数据库连接超时（" + config.getBorrowTimeoutMillis()
+                        + "ms），连接池[" + config.getName() + "]已满，当前借出：" + borrowedConnections.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待数据库连接时线程被中断", e);
+        }
+        if (closed) {
+            // 等待期间连接池被关闭（如配置热加载替换了连接池），由调用方改用新连接池
+            permits.release();
+            throw new SQLException("连接池[" + config.getName() + "]已关闭");
+        }
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = createPooledConnection();
+            }
+            Connection connection = pooled.borrow(config.getLeakDetectionThresholdMillis() > 0);
+            borrowedConnections.add(pooled);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 取出一个可用的空闲连接，失效连接直接丢弃
+     * @return PooledConnection 可用连接（无空闲连接返回null）
+     */
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            closePhysical(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * 借用时校验：刚归还不久的连接直接复用，空闲较久的连接先ping一次
+     */
+    private boolean isValid(PooledConnection pooled) {
+        long idleMillis = System.currentTimeMillis() - pooled.lastReturnTime;
+        if (idleMillis < config.getValidateAfterIdleMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createPooledConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword());
+        totalConnections.incrementAndGet();
+        return new PooledConnection(this, physical);
+    }
+
+    /**
+     * 归还连接（由连接代理的close()调用）
+     * 事务未提交的连接先回滚并恢复自动提交，失效连接或连接池已关闭时直接关闭物理连接
+     */
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+        try {
+            if (closed || pooled.broken) {
+                closePhysical(pooled);
+                return;
+            }
+            try {
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                closePhysical(pooled);
+                return;
+            }
+            pooled.lastReturnTime = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        // 关闭物理连接会一并关闭（释放服务器端的）缓存语句
+        synchronized (pooled.statementCache) {
+            pooled.statementCache.clear();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("关闭物理连接失败：" + e.getMessage());
+        }
+    }
+
+    // -------------------------- 后台维护：空闲回收、补足最小空闲连接、泄漏检测 --------------------------
+    private void housekeep() {
+        try {
+            evictIdleConnections();
+            fillIdleConnections();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            // 后台线程不能因单次异常退出
+            System.err.println("连接池[" + config.getName() + "]后台维护失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 回收空闲超时的连接（从队尾即最久未用的连接开始），至少保留minIdle个
+     */
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && idleConnections.size() > config.getMinIdle()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnTime > config.getIdleTimeoutMillis() && idleConnections.remove(pooled)) {
+                closePhysical(pooled);
+            }
+        }
+    }
+
+    /**
+     * 空闲连接不足minIdle时新建物理连接补足（物理连接总数不超过maxPoolSize）
+     * 新建期间占用一个许可，与借用线程新建连接互斥计数；许可已全部被占用（连接池繁忙）时本轮不补，借用线程自行新建
+     */
+    private void fillIdleConnections() {
+        while (!closed && idleConnections.size() < config.getMinIdle()
+                && totalConnections.get() < config.getMaxPoolSize() && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = createPooledConnection();
+                // 新连接放在队尾，借用时仍优先复用最近使用过的连接
+                idleConnections.offerLast(pooled);
+                if (closed && idleConnections.remove(pooled)) {
+                    // 新建期间连接池被关闭：close()可能已清空过空闲队列
+                    closePhysical(pooled);
+                    return;
+                }
+            } catch (SQLException e) {
+                System.err.println("连接池[" + config.getName() + "]补足最小空闲连接失败：" + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * 借出超过阈值仍未归还的连接视为疑似泄漏，打印借用位置的堆栈（每个连接每次借出只报告一次）
+     */
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowedConnections) {
+            Throwable borrowTrace = pooled.borrowTrace;
+            if (borrowTrace != null && !pooled.leakReported && now - pooled.borrowTime > threshold) {
+                pooled.leakReported = true;
+                System.err.println("疑似连接泄漏：连接池[" + config.getName() + "]的连接已借出"
+                        + (now - pooled.borrowTime) + "ms未归还，借用位置如下：");
+                borrowTrace.printStackTrace();
+            }
+        }
+    }
+
+    // -------------------------- 预编译语句缓存 --------------------------
+    /**
+     * 判断prepareStatement调用是否走缓存：只缓存默认结果集类型（只进、只读）且SQL不超过长度上限的语句
+     */
+    private boolean isStatementCacheable(Object[] args) {
+        if (config.getStatementCacheSize() <= 0 || args == null || !(args[0] instanceof String)
+                || ((String) args[0]).length() > config.getStatementCacheSqlLimit()) {
+            return false;
+        }
+        return args.length == 1 || (args.length == 3
+                && Integer.valueOf(ResultSet.TYPE_FORWARD_ONLY).equals(args[1])
+                && Integer.valueOf(ResultSet.CONCUR_READ_ONLY).equals(args[2]));
+    }
+
+    /**
+     * 从连接的语句缓存中取出语句（未命中时在物理连接上预编译），包装为语句代理
+     */
+    private PreparedStatement prepareCached(ConnectionHandle owner, Connection connectionProxy, String sql) throws SQLException {
+        PooledConnection pooled = owner.pooled;
+        PreparedStatement physical;
+        synchronized (pooled.statementCache) {
+            physical = pooled.statementCache.remove(sql);
+        }
+        if (physical != null) {
+            statementCacheHits.increment();
+        } else {
+            statementCacheMisses.increment();
+            physical = pooled.physical.prepareStatement(sql);
+        }
+        StatementHandle handle = new StatementHandle(owner, connectionProxy, sql, physical);
+        owner.openStatements.add(handle);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, handle);
+    }
+
+    /**
+     * 语句代理关闭时调用：关闭未关闭的结果集、恢复语句状态后放回缓存
+     * 连接已损坏、重置失败或缓存中已有同一SQL的语句时直接关闭
+     */
+    private void returnStatement(StatementHandle handle) {
+        PooledConnection pooled = handle.owner.pooled;
+        PreparedStatement physical = handle.physical;
+        boolean reusable = !closed && !pooled.broken;
+        try {
+            if (handle.resultSet != null) {
+                handle.resultSet.close();
+            }
+            if (reusable) {
+                physical.clearParameters();
+                if (handle.batched) {
+                    physical.clearBatch();
+                }
+                if (handle.settingsChanged) {
+                    physical.setFetchSize(0);
+                    physical.setMaxRows(0);
+                    physical.setQueryTimeout(0);
+                }
+                physical.clearWarnings();
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        List<PreparedStatement> toClose = new ArrayList<>(1);
+        if (reusable) {
+            synchronized (pooled.statementCache) {
+                if (pooled.statementCache.putIfAbsent(handle.sql, physical) != null) {
+                    toClose.add(physical);
+                }
+                Iterator<PreparedStatement> it = pooled.statementCache.values().iterator();
+                while (pooled.statementCache.size() > config.getStatementCacheSize() && it.hasNext()) {
+                    // 访问顺序的LinkedHashMap：迭代顺序从最久未使用的语句开始
+                    toClose.add(it.next());
+                    it.remove();
+                }
+            }
+        } else {
+            toClose.add(physical);
+        }
+        for (PreparedStatement statement : toClose) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("关闭预编译语句失败：" + e.getMessage());
+            }
+        }
+    }
+
+    // -------------------------- 统计与关闭 --------------------------
+    /**
+     * @return int 当前借出中的连接数
+     */
+    public int getActiveCount() {
+        return borrowedConnections.size();
+    }
+
+    /**
+     * @return int 当前空闲连接数
+     */
+    public int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return int 当前物理连接总数
+     */
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return int 正在等待借用连接的线程数（估算值）
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return long 预编译语句缓存命中次数（命中率低时考虑调大statementCacheSize）
+     */
+    public long getStatementCacheHitCount() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * @return long 预编译语句缓存未命中次数（即实际预编译的次数）
+     */
+    public long getStatementCacheMissCount() {
+        return statementCacheMisses.sum();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 关闭连接池：不再借出新连接，立即关闭空闲连接，借出中的连接在归还时关闭
+     * 正在等待的借用线程会被唤醒并收到"连接池已关闭"异常
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+        permits.release(Math.max(permits.getQueueLength(), 1));
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{name='" + config.getName() + "', active=" + getActiveCount()
+                + ", idle=" + getIdleCount() + ", total=" + getTotalCount() + ", waiting=" + getWaitingCount()
+                + ", statementCacheHits=" + getStatementCacheHitCount() + ", statementCacheMisses=" + getStatementCacheMissCount() + '}';
+    }
+
+    // -------------------------- 池化连接：代理Connection，拦截close() --------------------------
+    /**
+     * 池化连接：持有物理连接及其在池中的状态
+     */
+    private static final class PooledConnection {
+        private final ConnectionPool pool;
+        private final Connection physical;
+        /**
+         * 物理连接是否已损坏（出现连接类异常，SQLState以08开头）
+         */
+        private volatile boolean broken;
+        private volatile long borrowTime;
+        private volatile long lastReturnTime = System.currentTimeMillis();
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+        /**
+         * 预编译语句缓存：SQL文本 → 空闲语句（访问顺序，最久未使用的在前）
+         */
+        private final Map<String, PreparedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(ConnectionPool pool, Connection physical) {
+            this.pool = pool;
+            this.physical = physical;
+        }
+
+        /**
+         * 借出：每次借出生成新的代理，旧代理（上一个借用者持有的引用）归还后无法再操作物理连接
+         * @return Connection 本次借出的连接代理
+         */
+        Connection borrow(boolean traceBorrower) {
+            leakReported = false;
+            borrowTime = System.currentTimeMillis();
+            borrowTrace = traceBorrower ? new Throwable("连接借用位置") : null;
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * 单次借出的连接代理处理器：close()归还连接池，归还后的其它调用一律拒绝
+     * unwrap(Connection.class)等返回代理本身；要求解包为驱动的连接类型时拒绝，避免物理连接绕过连接池被关闭或在归还后继续使用
+     */
+    private static final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private volatile boolean returned;
+        /**
+         * 本次借出期间未关闭的缓存语句（连接同一时刻只由一个线程使用），归还连接时一并关闭（放回缓存）
+         */
+        private final List<StatementHandle> openStatements = new ArrayList<>();
+
+        ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxyObj, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        for (StatementHandle statement : new ArrayList<>(openStatements)) {
+                            statement.close();
+                        }
+                        returned = true;
+                        pooled.borrowTrace = null;
+                        pooled.pool.release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxyObj == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObj);
+                case "toString":
+                    return "PooledConnection[" + pooled.pool.config.getName() + "]@"
+                            + Integer.toHexString(System.identityHashCode(proxyObj));
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxyObj);
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxyObj)) {
+                        return proxyObj;
+                    }
+                    throw new SQLException("连接池[" + pooled.pool.config.getName() + "]不允许获取底层物理连接："
+                            + ((Class<?>) args[0]).getName());
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("连接已归还连接池，不能继续使用");
+            }
+            if ("prepareStatement".equals(method.getName()) && pooled.pool.isStatementCacheable(args)) {
+                try {
+                    return pooled.pool.prepareCached(this, (Connection) proxyObj, (String) args[0]);
+                } catch (SQLException e) {
+                    checkBroken(pooled, e);
+                    throw e;
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                checkBroken(pooled, cause);
+                throw cause;
+            }
+        }
+    }
+
+    /**
+     * 出现连接类异常（SQLState以08开头）时标记物理连接已损坏，归还时关闭
+     */
+    private static void checkBroken(PooledConnection pooled, Throwable error) {
+        if (error instanceof SQLException) {
+            String sqlState = ((SQLException) error).getSQLState();
+            if (sqlState != null && sqlState.startsWith("08")) {
+                pooled.broken = true;
+            }
+        }
+    }
+
+    /**
+     * 缓存语句的代理处理器：close()放回连接的语句缓存，getConnection()返回连接代理，关闭后的其它调用一律拒绝
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final ConnectionHandle owner;
+        private final Connection connectionProxy;
+        private final String sql;
+        private final PreparedStatement physical;
+        /**
+         * 最近一次执行返回的结果集（放回缓存前关闭）
+         */
+        private ResultSet resultSet;
+        /**
+         * 是否调用过addBatch（放回缓存前清空批处理）
+         */
+        private boolean batched;
+        /**
+         * 是否修改过fetchSize等语句设置（放回缓存前恢复默认值）
+         */
+        private boolean settingsChanged;
+        private boolean closed;
+
+        StatementHandle(ConnectionHandle owner, Connection connectionProxy, String sql, PreparedStatement physical) {
+            this.owner = owner;
+            this.connectionProxy = connectionProxy;
+            this.sql = sql;
+            this.physical = physical;
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                owner.openStatements.remove(this);
+                owner.pooled.pool.returnStatement(this);
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxyObj, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionProxy;
+                case "equals":
+                    return proxyObj == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObj);
+                case "toString":
+                    return "CachedStatement[" + sql + "]";
+                case "addBatch":
+                    batched = true;
+                    break;
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                    settingsChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("语句已关闭，不能继续使用");
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof ResultSet) {
+                    resultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                checkBroken(owner.pooled, cause);
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接池吞吐量对比（ConnectionPoolBenchmark）
+ * 独立运行的main程序，对比两种获取连接的方式执行同一条简单查询的吞吐量和延迟：
+ * 1. pool：DBUtil.getConnection()从连接池借用，DBUtil.close(...)归还（当前方式）
+ * 2. direct：每次调用DriverManager.getConnection()新建物理连接，用完关闭（引入连接池之前的方式，每次都有TCP+认证握手）
+ * 每种方式用N个线程各执行M次"借用连接 → SELECT 1 → 关闭/归还"，统计每次调用的延迟百分位（P50/P90/P99/最大值）、每秒调用次数和失败数
+ * 用法：java -cp <classes:lib/*> util.ConnectionPoolBenchmark [线程数列表] [每线程调用次数]
+ * 1. 线程数列表：逗号分隔，默认1,10,50
+ * 2. 每线程调用次数：默认200
+ * 连接参数和连接池大小取default数据源的配置，可用系统属性临时覆盖，如-Ddatasource.default.maxPoolSize=50
+ * 注：direct方式并发较高时可能超过MySQL的max_connections，失败数即为被拒绝的连接
+ */
+public class ConnectionPoolBenchmark {
+    private static final String[] MODES = {"pool", "direct"};
+
+    private ConnectionPoolBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] threadCounts = args.length > 0 ? parseCounts(args[0]) : new int[]{1, 10, 50};
+        int callsPerThread = args.length > 1 ? Integer.parseInt(args[1].trim()) : 200;
+        PoolConfig config = DBUtil.getPool(DBUtil.DEFAULT).getConfig();
+
+        System.out.println("数据源：" + config.getUrl() + "，maxPoolSize=" + config.getMaxPoolSize()
+                + "，每线程调用" + callsPerThread + "次");
+        System.out.printf("%-8s %7s %9s %9s %9s %9s %10s %7s%n",
+                "mode", "threads", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "calls/s", "failed");
+        for (String mode : MODES) {
+            // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+            run(mode, config, Math.min(4, threadCounts[0]), Math.min(50, callsPerThread));
+            for (int threads : threadCounts) {
+                System.out.println(run(mode, config, threads, callsPerThread));
+            }
+        }
+        DBUtil.shutdown();
+    }
+
+    /**
+     * 用threads个线程各执行calls次调用，等待全部完成
+     */
+    private static Result run(String mode, PoolConfig config, int threads, int calls) throws InterruptedException {
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("pool-bench", threads, threads);
+        long[] latencies = new long[threads * calls];
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t * calls;
+                executor.execute(() -> {
+                    try {
+                        for (int i = 0; i < calls; i++) {
+                            long begin = System.nanoTime();
+                            try {
+                                selectOne(mode, config);
+                                latencies[offset + i] = System.nanoTime() - begin;
+                            } catch (SQLException | RuntimeException e) {
+                                latencies[offset + i] = -1;
+                                failed.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Result(mode, threads, completed, elapsed, failed.get());
+    }
+
+    /**
+     * 获取连接执行一次SELECT 1后关闭（pool方式为归还连接池）
+     */
+    private static void selectOne(String mode, PoolConfig config) throws SQLException {
+        Connection conn = "pool".equals(mode)
+                ? DBUtil.getConnection()
+                : DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword());
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement("SELECT 1");
+            rs = pstmt.executeQuery();
+            rs.next();
+        } finally {
+            DBUtil.close(rs, pstmt, conn);
+        }
+    }
+
+    private static int[] parseCounts(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                .mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * 一轮测试的统计结果
+     */
+    private static final class Result {
+        private final String mode;
+        private final int threads;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int failed;
+
+        Result(String mode, int threads, long[] latencies, long elapsedNanos, int failed) {
+            this.mode = mode;
+            this.threads = threads;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.failed = failed;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有成功的调用时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %7d %9.2f %9.2f %9.2f %9.2f %10.0f %7d", mode, threads,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), failed);
+        }
+    }
+}
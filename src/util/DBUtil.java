@@ -1,39 +1,60 @@
 package util;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据库工具类（DBUtil）
  * 封装MySQL数据库连接获取、资源关闭等核心操作，适配小型教务信息管理系统
  * 特点：配置集中管理、资源安全释放、异常友好处理、使用简单
+ * 连接由内置连接池（ConnectionPool）提供，close(conn)将连接归还连接池而不是断开
+ * 数据源定义来自AppConfig（app.properties/系统属性），支持多个命名数据源，配置变化时自动替换连接池
+ * 读写分离：写操作使用getConnection，查询使用getReadConnection（由ReadWriteRouter路由到只读副本）
  */
 public class DBUtil {
-    // -------------------------- 数据库连接配置（集中管理，便于修改） --------------------------
+    // -------------------------- 数据源名称 --------------------------
     /**
-     * 数据库驱动类名（MySQL 8.0+ 驱动类名）
+     * 默认数据源
      */
-    private static final String DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
+    public static final String DEFAULT = "default";
+
+    /**
+     * 写库数据源（成绩录入等在线写操作）
+     */
+    public static final String OLTP = "oltp";
+
+    /**
+     * 报表数据源（getAll*等全表扫描）
+     */
+    public static final String REPORT = "report";
 
     /**
-     * 数据库连接URL
+     * 数据库驱动类名（MySQL 8.0+ 驱动类名）
      */
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/education_manage_system?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai&useSSL=false&allowPublicKeyRetrieval=true";
+    private static final String DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
 
     /**
-     * 数据库用户名（根据自己的MySQL配置修改）
+     * 数据源配置项前缀，完整配置键为 datasource.数据源名.配置项
      */
-    private static final String DB_USER = "root";
+    private static final String CONFIG_PREFIX = "datasource.";
 
     /**
-     * 数据库密码（根据自己的MySQL配置修改）
+     * 各命名数据源的连接池（配置热加载时整体替换单个连接池）
      */
-    private static final String DB_PASSWORD = "123456";
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
 
-    // -------------------------- 静态代码块：加载数据库驱动（仅加载一次） --------------------------
+    // -------------------------- 静态代码块：加载数据库驱动（仅加载一次），创建连接池 --------------------------
     static {
         try {
             Class.forName(DRIVER_CLASS);
@@ -41,48 +62,266 @@ public class DBUtil {
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("数据库驱动加载失败，请检查驱动包是否引入！", e);
         }
+        applyDataSourceConfig();
+        AppConfig.addReloadListener(DBUtil::applyDataSourceConfig);
     }
 
     // -------------------------- 获取数据库连接 --------------------------
     /**
-     * 获取数据库连接（静态方法，无需创建对象即可调用）
+     * 获取默认数据源的数据库连接（静态方法，无需创建对象即可调用）
+     * 从连接池借用连接，用完后必须调用close(...)归还
      * @return Connection 数据库连接对象
-     * @throws RuntimeException 连接失败时抛出运行时异常
+     * @throws RuntimeException 连接失败或等待连接超时时抛出运行时异常
      */
     public static Connection getConnection() {
-        Connection conn = null;
+        return getConnection(DEFAULT);
+    }
+
+    /**
+     * 获取指定数据源的数据库连接（未配置该数据源时使用默认数据源），用于写操作
+     * 借用后当前线程在一段时间内的读操作也走主库，保证能读到自己刚写入的数据
+     * @param dataSourceName 数据源名称（DEFAULT/OLTP/REPORT或app.properties中自定义的名称）
+     * @return Connection 数据库连接对象
+     * @throws RuntimeException 连接失败或等待连接超时时抛出运行时异常
+     */
+    public static Connection getConnection(String dataSourceName) {
+        ReadWriteRouter.markWrite();
+        return borrow(dataSourceName);
+    }
+
+    /**
+     * 获取只读连接（DAO的查询方法使用）：配置了只读副本时按负载均衡策略选择副本，否则使用默认数据源
+     * @return Connection 数据库连接对象
+     */
+    public static Connection getReadConnection() {
+        return getReadConnection(DEFAULT);
+    }
+
+    /**
+     * 获取只读连接：配置了只读副本时按负载均衡策略选择副本，否则使用指定的数据源
+     * 副本不可用时退回指定的数据源，保证查询不因副本故障失败
+     * @param fallbackDataSourceName 未配置副本（或副本不可用）时使用的数据源，如REPORT
+     * @return Connection 数据库连接对象
+     */
+    public static Connection getReadConnection(String fallbackDataSourceName) {
+        String routed = ReadWriteRouter.routeRead(fallbackDataSourceName);
+        if (routed.equals(fallbackDataSourceName) || routed.equals(DEFAULT)) {
+            return borrow(routed);
+        }
         try {
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            // 小型系统可关闭自动提交，便于手动事务控制（可选）
-            // conn.setAutoCommit(false);
-        } catch (SQLException e) {
-            throw new RuntimeException("数据库连接失败！请检查：1.数据库服务是否启动 2.连接参数是否正确", e);
+            return borrow(routed);
+        } catch (RuntimeException e) {
+            System.err.println("只读副本[" + routed + "]不可用，改用数据源[" + fallbackDataSourceName + "]：" + e.getMessage());
+            return borrow(fallbackDataSourceName);
+        }
+    }
+
+    /**
+     * 从指定数据源的连接池借用连接
+     * 借用期间连接池恰好被配置热加载替换时，自动改从新连接池借用，请求不会失败
+     */
+    private static Connection borrow(String dataSourceName) {
+        while (true) {
+            ConnectionPool pool = getPool(dataSourceName);
+            try {
+                return pool.getConnection();
+            } catch (SQLTimeoutException e) {
+                throw new RuntimeException("获取数据库连接超时！连接池已满，请稍后重试", e);
+            } catch (SQLException e) {
+                if (pool.isClosed() && getPool(dataSourceName) != pool) {
+                    continue;
+                }
+                throw new RuntimeException("数据库连接失败！请检查：1.数据库服务是否启动 2.连接参数是否正确", e);
+            }
+        }
+    }
+
+    // -------------------------- 流式查询 --------------------------
+    /**
+     * 创建流式查询语句：结果集逐批从服务器读取，不会一次性加载到内存，适合全表扫描
+     * 配置项streaming.fetchSize大于0时使用服务器端游标按该批大小读取（数据源URL需开启useCursorFetch=true）；
+     * 为0（默认）时使用MySQL驱动的逐行流式读取（fetchSize=Integer.MIN_VALUE），对任何数据源都有效
+     * 注：流式结果集未读完前，该连接不能执行其他语句
+     * @param conn 数据库连接
+     * @param sql SQL语句
+     * @return PreparedStatement 只进、只读的流式查询语句
+     * @throws SQLException 数据库异常
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        int fetchSize = AppConfig.getInt("streaming.fetchSize", 0);
+        pstmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+        return pstmt;
+    }
+
+    /**
+     * 将主键拆分为多批IN列表查询的参数：去掉null和重复值，每批不超过配置项dao.inList.chunkSize个（默认500）
+     * 控制单条SQL的长度和参数个数，避免超出max_allowed_packet或让优化器放弃使用索引
+     * @param keys 主键集合
+     * @return List<List<T>> 每批的主键（keys为空时返回空列表）
+     */
+    public static <T> List<List<T>> partitionKeys(Collection<T> keys) {
+        Set<T> distinct = new LinkedHashSet<>(keys);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int chunkSize = Math.max(1, AppConfig.getInt("dao.inList.chunkSize", 500));
+        List<List<T>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, distinct.size()));
+        for (T key : distinct) {
+            chunk.add(key);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
         }
-        return conn;
+        return chunks;
+    }
+
+    /**
+     * 生成IN列表的占位符
+     * @param count 占位符个数
+     * @return String 如count为3时返回"?, ?, ?"
+     */
+    public static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 获取连接池（用于查看活动/空闲连接数等运行状态）
+     * @param dataSourceName 数据源名称（未配置该数据源时返回默认数据源的连接池）
+     * @return ConnectionPool 连接池
+     */
+    public static ConnectionPool getPool(String dataSourceName) {
+        ConnectionPool pool = POOLS.get(dataSourceName);
+        return pool != null ? pool : POOLS.get(DEFAULT);
+    }
+
+    /**
+     * @return Set<String> 当前已配置的数据源名称
+     */
+    public static Set<String> getDataSourceNames() {
+        return POOLS.keySet();
+    }
+
+    /**
+     * 关闭所有连接池（应用停止时调用，释放所有物理连接）
+     */
+    public static void shutdown() {
+        for (ConnectionPool pool : POOLS.values()) {
+            pool.close();
+        }
+        POOLS.clear();
+    }
+
+    // -------------------------- 数据源配置 --------------------------
+    /**
+     * 按当前配置创建/替换连接池：配置未变的连接池保持不动；
+     * 变化的连接池先放入新池再关闭旧池，旧池借出中的连接在归还时关闭（排空），新请求直接使用新池
+     */
+    private static synchronized void applyDataSourceConfig() {
+        Set<String> names = AppConfig.getList(CONFIG_PREFIX + "names");
+        names.add(DEFAULT);
+        for (String name : names) {
+            PoolConfig poolConfig = readPoolConfig(name);
+            ConnectionPool current = POOLS.get(name);
+            if (current != null && current.getConfig().equals(poolConfig)) {
+                continue;
+            }
+            POOLS.put(name, new ConnectionPool(poolConfig));
+            if (current != null) {
+                current.close();
+                System.out.println("数据源[" + name + "]配置已变化，连接池已替换：" + poolConfig);
+            }
+        }
+        // 配置中已删除的数据源
+        for (String name : POOLS.keySet()) {
+            if (!names.contains(name)) {
+                ConnectionPool removed = POOLS.remove(name);
+                if (removed != null) {
+                    removed.close();
+                }
+            }
+        }
+        ReadWriteRouter.reload();
+    }
+
+    /**
+     * 读取单个数据源的配置，未配置的项沿用default数据源的配置
+     */
+    private static PoolConfig readPoolConfig(String name) {
+        PoolConfig poolConfig = new PoolConfig(name,
+                appendUrlParams(readSetting(name, "url", null), readSetting(name, "urlParams", null)),
+                readSetting(name, "user", null),
+                readSetting(name, "password", null));
+        PoolConfig defaults = new PoolConfig();
+        poolConfig.setMaxPoolSize(Integer.parseInt(readSetting(name, "maxPoolSize", String.valueOf(defaults.getMaxPoolSize()))));
+        poolConfig.setMinIdle(Integer.parseInt(readSetting(name, "minIdle", String.valueOf(defaults.getMinIdle()))));
+        poolConfig.setBorrowTimeoutMillis(Long.parseLong(readSetting(name, "borrowTimeoutMillis", String.valueOf(defaults.getBorrowTimeoutMillis()))));
+        poolConfig.setIdleTimeoutMillis(Long.parseLong(readSetting(name, "idleTimeoutMillis", String.valueOf(defaults.getIdleTimeoutMillis()))));
+        poolConfig.setHousekeepingIntervalMillis(Long.parseLong(readSetting(name, "housekeepingIntervalMillis", String.valueOf(defaults.getHousekeepingIntervalMillis()))));
+        poolConfig.setValidateAfterIdleMillis(Long.parseLong(readSetting(name, "validateAfterIdleMillis", String.valueOf(defaults.getValidateAfterIdleMillis()))));
+        poolConfig.setValidationTimeoutSeconds(Integer.parseInt(readSetting(name, "validationTimeoutSeconds", String.valueOf(defaults.getValidationTimeoutSeconds()))));
+        poolConfig.setLeakDetectionThresholdMillis(Long.parseLong(readSetting(name, "leakDetectionThresholdMillis", String.valueOf(defaults.getLeakDetectionThresholdMillis()))));
+        poolConfig.setStatementCacheSize(Integer.parseInt(readSetting(name, "statementCacheSize", String.valueOf(defaults.getStatementCacheSize()))));
+        poolConfig.setStatementCacheSqlLimit(Integer.parseInt(readSetting(name, "statementCacheSqlLimit", String.valueOf(defaults.getStatementCacheSqlLimit()))));
+        return poolConfig;
+    }
+
+    /**
+     * 在连接URL后追加数据源专属的连接参数（如oltp数据源的useAffectedRows），避免为此重复配置整条URL
+     */
+    private static String appendUrlParams(String url, String urlParams) {
+        if (url == null || urlParams == null) {
+            return url;
+        }
+        return url + (url.indexOf('?') >= 0 ? "&" : "?") + urlParams;
+    }
+
+    private static String readSetting(String name, String key, String defaultValue) {
+        String inherited = AppConfig.getString(CONFIG_PREFIX + DEFAULT + "." + key, defaultValue);
+        return AppConfig.getString(CONFIG_PREFIX + name + "." + key, inherited);
     }
 
     // -------------------------- 关闭数据库资源（重载方法，适配不同场景） --------------------------
     /**
-     * 关闭ResultSet、Statement/PreparedStatement、Connection
+     * 关闭ResultSet、Statement/PreparedStatement，并将Connection归还连接池
      * 最完整的资源关闭方法，适配查询操作（有结果集）
      * @param rs 结果集对象
      * @param stmt 执行语句对象（Statement/PreparedStatement）
      * @param conn 连接对象
      */
     public static void close(ResultSet rs, Statement stmt, Connection conn) {
+        // 逐个关闭：前面的资源关闭失败时，连接仍然必须归还，否则连接池会被耗尽
         try {
             if (rs != null) {
                 rs.close();
             }
+        } catch (SQLException e) {
+            System.err.println("结果集关闭失败：" + e.getMessage());
+        }
+        try {
             if (stmt != null) {
                 stmt.close();
             }
+        } catch (SQLException e) {
+            System.err.println("语句对象关闭失败：" + e.getMessage());
+        }
+        try {
             if (conn != null) {
+                // 池化连接的close()即归还连接池
                 conn.close();
-                System.out.println("数据库连接已关闭！");
             }
-        }catch (SQLException e){
-            System.err.println("数据库资源关闭失败：" + e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("数据库连接归还失败：" + e.getMessage());
         }
     }
 
@@ -0,0 +1,74 @@
+package util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * 数据库异步执行器（DaoExecutor）
+ * DAO的*Async查询方法在专用的有界I/O线程池中执行阻塞的JDBC调用并返回CompletableFuture：
+ * 调用方（如异步Servlet）不必占用容器线程等待数据库，多个互不依赖的查询可以同时进行
+ * 线程数和等待队列都有上限，队列满时返回失败的Future（系统繁忙），不会无限排队
+ * 任务沿用提交线程的读写路由上下文（ReadWriteRouter.propagating），请求中写入后发起的异步查询仍走主库
+ * 相关配置：
+ * dao.async.threads：I/O线程数（建议与连接池大小datasource.*.maxPoolSize相当，更多线程只会在连接池上等待），配置热加载后生效
+ * dao.async.queueCapacity：等待队列长度，队列在线程池创建时确定，修改后需重启应用
+ */
+public class DaoExecutor {
+    private static final ThreadPoolExecutor EXECUTOR = ThreadPools.newBoundedDaemonExecutor("dao-io",
+            Math.max(1, AppConfig.getInt("dao.async.threads", 20)),
+            Math.max(1, AppConfig.getInt("dao.async.queueCapacity", 500)));
+
+    static {
+        AppConfig.addReloadListener(DaoExecutor::applyConfig);
+    }
+
+    private DaoExecutor() {
+    }
+
+    /**
+     * 在I/O线程池中执行数据库操作
+     * @param task 数据库操作（通常是DAO的同步方法）
+     * @return CompletableFuture<T> 操作结果（操作抛出的异常、线程池已满均以异常完成）
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("系统繁忙：数据库查询请求过多，请稍后重试！", e));
+        }
+    }
+
+    /**
+     * 获取I/O线程池（用于thenApplyAsync等在I/O线程中继续执行阻塞操作）
+     * 返回的Executor绑定调用本方法时当前线程的读写路由上下文，应在请求线程中获取后传给后续阶段
+     * @return Executor I/O线程池
+     */
+    public static Executor executor() {
+        return ReadWriteRouter.propagating(EXECUTOR);
+    }
+
+    /**
+     * 读取线程数配置（配置热加载后调用）
+     */
+    private static synchronized void applyConfig() {
+        int threads = Math.max(1, AppConfig.getInt("dao.async.threads", 20));
+        // 先调大最大线程数再调核心线程数，保证任意时刻core <= max
+        if (threads > EXECUTOR.getMaximumPoolSize()) {
+            EXECUTOR.setMaximumPoolSize(threads);
+            EXECUTOR.setCorePoolSize(threads);
+        } else {
+            EXECUTOR.setCorePoolSize(threads);
+            EXECUTOR.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * 关闭I/O线程池（应用停止时调用）
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
@@ -0,0 +1,162 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 批量加载器（DataLoader）
+ * 收集零散的单条查询请求，去重后合并为一次批量查询，并在加载器的生命周期内（通常为一个HTTP请求）记住查询结果
+ * 用法：
+ * 1. 先对需要的每个主键调用load(key)登记，拿到延迟结果Deferred（如渲染列表前遍历每一行）
+ * 2. 第一次调用任意Deferred.get()时，所有已登记但未加载的主键一次批量查询（dispatch）
+ * 3. 之后再次请求同一主键直接返回已记住的结果，不再查询
+ * 直接调用get(key)等价于load(key).get()：只有这一个主键时也可以使用，结果同样被记住
+ * 注：方法在加载器对象上同步，允许异步处理的请求在其他线程中使用
+ * @param <K> 主键类型
+ * @param <V> 值类型
+ */
+public class DataLoader<K, V> {
+    /**
+     * 已查询但不存在的主键的标记
+     */
+    private static final Object MISSING = new Object();
+
+    private final Function<Collection<K>, Map<K, V>> batchLoader;
+
+    /**
+     * 已加载的结果（值为MISSING表示不存在）
+     */
+    private final Map<K, Object> loaded = new HashMap<>();
+
+    /**
+     * 已登记、等待批量加载的主键
+     */
+    private final Set<K> pending = new LinkedHashSet<>();
+
+    private int batchCount;
+
+    /**
+     * @param batchLoader 批量查询逻辑（如StudentDao::getStudentsBySnos），返回的Map中不包含不存在的主键
+     */
+    public DataLoader(Function<Collection<K>, Map<K, V>> batchLoader) {
+        this.batchLoader = batchLoader;
+    }
+
+    /**
+     * 登记一个主键，返回延迟结果（登记本身不查询数据库）
+     * @param key 主键（null时延迟结果为null）
+     * @return Deferred<V> 延迟结果
+     */
+    public synchronized Deferred<V> load(K key) {
+        if (key != null && !loaded.containsKey(key)) {
+            pending.add(key);
+        }
+        return new Deferred<>(this, key);
+    }
+
+    /**
+     * 立即获取单个结果（若还有其他已登记的主键，一并批量加载）
+     * @param key 主键
+     * @return V 结果（不存在返回null）
+     */
+    public V get(K key) {
+        return load(key).get();
+    }
+
+    /**
+     * 批量获取结果
+     * @param keys 主键集合
+     * @return Map<K, V> 主键 → 结果（不存在的主键不在结果中）
+     */
+    public synchronized Map<K, V> getAll(Collection<K> keys) {
+        for (K key : keys) {
+            if (key != null && !loaded.containsKey(key)) {
+                pending.add(key);
+            }
+        }
+        dispatch();
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = valueOf(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 预先放入已知的结果（如列表查询已经查出的实体），之后请求该主键不再查询
+     */
+    public synchronized void prime(K key, V value) {
+        if (key != null) {
+            loaded.put(key, value != null ? value : MISSING);
+            pending.remove(key);
+        }
+    }
+
+    /**
+     * 批量加载所有已登记的主键
+     */
+    public synchronized void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(pending);
+        pending.clear();
+        batchCount++;
+        Map<K, V> values = batchLoader.apply(keys);
+        for (K key : keys) {
+            V value = values.get(key);
+            loaded.put(key, value != null ? value : MISSING);
+        }
+    }
+
+    /**
+     * @return int 已执行的批量查询次数（用于确认页面的查询次数）
+     */
+    public synchronized int getBatchCount() {
+        return batchCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized V valueOf(K key) {
+        if (key == null) {
+            return null;
+        }
+        if (!loaded.containsKey(key)) {
+            pending.add(key);
+            dispatch();
+        }
+        Object value = loaded.get(key);
+        return value == MISSING ? null : (V) value;
+    }
+
+    /**
+     * 延迟结果：第一次get()时触发批量加载
+     * @param <V> 值类型
+     */
+    public static final class Deferred<V> {
+        private final DataLoader<?, V> loader;
+        private final Object key;
+
+        private <K> Deferred(DataLoader<K, V> loader, K key) {
+            this.loader = loader;
+            this.key = key;
+        }
+
+        /**
+         * @return V 结果（不存在返回null）
+         */
+        @SuppressWarnings("unchecked")
+        public V get() {
+            return ((DataLoader<Object, V>) loader).valueOf(key);
+        }
+    }
+}
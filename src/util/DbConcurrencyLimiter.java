@@ -0,0 +1,141 @@
+package util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据库并发限制器（DbConcurrencyLimiter）
+ * 限制同时借用数据库连接执行SQL的线程数：请求在虚拟线程中处理时线程数几乎没有上限，
+ * 大量线程同时借用连接会在连接池上长时间排队并逐个超时，这里先按许可数排队，等待超时直接提示系统繁忙
+ * JdbcTemplate借用连接前获取许可、归还连接后释放；同一线程嵌套借用连接时不重复获取（避免许可耗尽时自身死锁）
+ * 相关配置：
+ * db.concurrency.limit：同时执行数据库操作的线程数上限（0表示不限制，建议不超过各数据源maxPoolSize之和）
+ * db.concurrency.timeoutMillis：等待许可的最长时间
+ */
+public class DbConcurrencyLimiter {
+    /**
+     * 当前生效的信号量（不限制时为null；配置热加载后整体替换，已获取的许可归还到原信号量）
+     */
+    private static volatile Semaphore semaphore;
+
+    private static volatile long timeoutMillis;
+
+    /**
+     * 当前线程已持有的许可（嵌套借用连接时复用，深度为0时释放）
+     */
+    private static final ThreadLocal<Permit> HELD = new ThreadLocal<>();
+
+    private static final LongAdder REJECTED_COUNT = new LongAdder();
+
+    static {
+        applyConfig();
+        AppConfig.addReloadListener(DbConcurrencyLimiter::applyConfig);
+    }
+
+    private DbConcurrencyLimiter() {
+    }
+
+    /**
+     * 获取执行数据库操作的许可（用完必须close，建议配合try-with-resources）
+     * @return Permit 许可（不限制时也返回可close的许可）
+     */
+    public static Permit acquire() {
+        Permit held = HELD.get();
+        if (held != null) {
+            held.depth++;
+            return held;
+        }
+        Semaphore current = semaphore;
+        if (current != null) {
+            boolean acquired;
+            try {
+                acquired = current.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("等待数据库连接被中断", e);
+            }
+            if (!acquired) {
+                REJECTED_COUNT.increment();
+                throw new RuntimeException("系统繁忙：数据库访问请求过多，请稍后重试！");
+            }
+        }
+        Permit permit = new Permit(current);
+        HELD.set(permit);
+        return permit;
+    }
+
+    /**
+     * @return int 正在等待许可的线程数（估计值，不限制时为0）
+     */
+    public static int getWaitingCount() {
+        Semaphore current = semaphore;
+        return current != null ? current.getQueueLength() : 0;
+    }
+
+    /**
+     * @return int 剩余可用许可数（不限制时为-1）
+     */
+    public static int getAvailablePermits() {
+        Semaphore current = semaphore;
+        return current != null ? current.availablePermits() : -1;
+    }
+
+    /**
+     * @return long 等待超时被拒绝的次数
+     */
+    public static long getRejectedCount() {
+        return REJECTED_COUNT.sum();
+    }
+
+    /**
+     * 读取并发限制配置（启动时及配置热加载后调用）
+     */
+    private static synchronized void applyConfig() {
+        timeoutMillis = Math.max(0, AppConfig.getLong("db.concurrency.timeoutMillis", 3000));
+        int limit = Math.max(0, AppConfig.getInt("db.concurrency.limit", 0));
+        Semaphore current = semaphore;
+        int currentLimit = current != null ? ((LimitSemaphore) current).limit : 0;
+        if (limit != currentLimit) {
+            semaphore = limit > 0 ? new LimitSemaphore(limit) : null;
+        }
+    }
+
+    /**
+     * 记录许可总数的公平信号量（按到达顺序分配许可，避免长时间等待的线程一直抢不到）
+     */
+    private static final class LimitSemaphore extends Semaphore {
+        private final int limit;
+
+        LimitSemaphore(int limit) {
+            super(limit, true);
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * 执行数据库操作的许可
+     */
+    public static final class Permit implements AutoCloseable {
+        private final Semaphore source;
+        private int depth = 1;
+
+        private Permit(Semaphore source) {
+            this.source = source;
+        }
+
+        /**
+         * 归还许可（嵌套获取时只有最外层归还）
+         */
+        @Override
+        public void close() {
+            if (--depth > 0) {
+                return;
+            }
+            HELD.remove();
+            if (source != null) {
+                source.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package util;
+
+import dao.StudentDao;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 请求执行方式压测（ExecutionLoadTest）
+ * 独立运行的main程序，对比servlet.execution.mode的virtual和platform两种方式：
+ * 模拟N个用户同时发起请求，每个请求在执行线程中做一次数据库操作（经DbConcurrencyLimiter获取许可），
+ * 统计从提交到完成的延迟百分位（P50/P90/P99/最大值）、吞吐量，以及线程池队列满被拒绝（线上返回503）和执行失败的请求数
+ * 用法：java -cp <classes:lib/*> util.ExecutionLoadTest [用户数列表] [模拟耗时毫秒]
+ * 1. 用户数列表：逗号分隔，默认1000,2000,5000,10000
+ * 2. 模拟耗时：大于0时每个请求持有许可休眠指定毫秒，代替真实查询（无需数据库）；默认0，执行StudentDao.countStudents()
+ * 线程池大小、队列长度和并发上限与应用使用同一组配置，可用系统属性临时覆盖，如
+ * -Dservlet.execution.platformThreads=200 -Dservlet.execution.queueCapacity=1000 -Ddb.concurrency.limit=40
+ * 注：虚拟线程需JDK 21+运行，低版本JDK只输出platform结果
+ */
+public class ExecutionLoadTest {
+    private static final String[] MODES = {"virtual", "platform"};
+
+    private ExecutionLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] userCounts = args.length > 0 ? parseUserCounts(args[0]) : new int[]{1000, 2000, 5000, 10000};
+        long simulateMillis = args.length > 1 ? Long.parseLong(args[1].trim()) : 0;
+        Runnable task = simulateMillis > 0 ? () -> simulateQuery(simulateMillis) : new StudentDao()::countStudents;
+
+        System.out.println("压测对象：" + (simulateMillis > 0 ? "模拟查询（" + simulateMillis + "ms）" : "StudentDao.countStudents()")
+                + "，db.concurrency.limit=" + AppConfig.getInt("db.concurrency.limit", 0)
+                + "，platformThreads=" + platformThreads() + "，queueCapacity=" + queueCapacity());
+        System.out.printf("%-8s %7s %9s %9s %9s %9s %10s %7s %7s%n",
+                "mode", "users", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "req/s", "503", "failed");
+        for (String mode : MODES) {
+            // 预热：类加载、连接池建立连接、JIT编译，不计入结果
+            run(mode, Math.min(200, userCounts[0]), task);
+            for (int users : userCounts) {
+                Result result = run(mode, users, task);
+                if (result == null) {
+                    System.out.println(mode + "：当前JDK不支持虚拟线程，跳过");
+                    break;
+                }
+                System.out.println(result);
+            }
+        }
+        if (simulateMillis <= 0) {
+            DBUtil.shutdown();
+        }
+    }
+
+    /**
+     * 按指定方式同时提交users个请求，等待全部完成
+     * @return Result 统计结果（不支持该执行方式时返回null）
+     */
+    private static Result run(String mode, int users, Runnable task) throws InterruptedException {
+        ExecutorService executor = "virtual".equals(mode)
+                ? ThreadPools.newVirtualThreadExecutor("load-vt")
+                : ThreadPools.newBoundedDaemonExecutor("load-worker", platformThreads(), queueCapacity());
+        if (executor == null) {
+            return null;
+        }
+        long[] latencies = new long[users];
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(users);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < users; i++) {
+                int index = i;
+                long submitted = System.nanoTime();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.run();
+                            latencies[index] = System.nanoTime() - submitted;
+                        } catch (RuntimeException e) {
+                            latencies[index] = -1;
+                            failed.incrementAndGet();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    latencies[index] = -1;
+                    rejected.incrementAndGet();
+                    done.countDown();
+                }
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] completed = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        return new Result(mode, users, completed, elapsed, rejected.get(), failed.get());
+    }
+
+    /**
+     * 模拟一次数据库操作：获取许可后休眠（与JdbcTemplate.execute一样先获取许可，再占用"连接"）
+     */
+    private static void simulateQuery(long millis) {
+        DbConcurrencyLimiter.Permit permit = DbConcurrencyLimiter.acquire();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("模拟查询被中断", e);
+        } finally {
+            permit.close();
+        }
+    }
+
+    private static int[] parseUserCounts(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                .mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static int platformThreads() {
+        return Math.max(1, AppConfig.getInt("servlet.execution.platformThreads", 200));
+    }
+
+    private static int queueCapacity() {
+        return Math.max(1, AppConfig.getInt("servlet.execution.queueCapacity", 1000));
+    }
+
+    /**
+     * 一轮压测的统计结果
+     */
+    private static final class Result {
+        private final String mode;
+        private final int users;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int rejected;
+        private final int failed;
+
+        Result(String mode, int users, long[] latencies, long elapsedNanos, int rejected, int failed) {
+            this.mode = mode;
+            this.users = users;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.rejected = rejected;
+            this.failed = failed;
+        }
+
+        /**
+         * 第p百分位延迟（毫秒，最近秩法；没有完成的请求时返回NaN）
+         */
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100 * latencies.length);
+            return latencies[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %7d %9.1f %9.1f %9.1f %9.1f %10.0f %7d %7d", mode, users,
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    latencies.length / (elapsedNanos / 1e9), rejected, failed);
+        }
+    }
+}
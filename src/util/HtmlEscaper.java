@@ -0,0 +1,54 @@
+package util;
+
+/**
+ * HTML转义工具类（HtmlEscaper）
+ * 页面输出数据库或请求中的文本前转义 & < > " '，防止内容被当作HTML/脚本执行（XSS）
+ */
+public class HtmlEscaper {
+    private HtmlEscaper() {
+    }
+
+    /**
+     * 转义文本（可用于标签内容和带引号的属性值）
+     * @param value 原始值（null输出空字符串，其他对象取toString()）
+     * @return String 转义后的文本
+     */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\'':
+                    replacement = "&#39;";
+                    break;
+                default:
+                    if (escaped != null) {
+                        escaped.append(text.charAt(i));
+                    }
+                    continue;
+            }
+            if (escaped == null) {
+                // 第一个需要转义的字符出现前原样复制，不含特殊字符的文本直接返回原字符串
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            escaped.append(replacement);
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
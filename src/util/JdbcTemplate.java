@@ -0,0 +1,374 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JDBC模板（JdbcTemplate）
+ * 统一DAO中"借用连接 → 预编译SQL → 设置参数 → 执行 → 映射结果 → 关闭资源"的流程，DAO只需提供SQL、参数和行映射器
+ * 两类方法：
+ * 1. 实例方法：从构造时指定的连接来源借用连接，执行一条SQL后归还；SQLException包装为RuntimeException，
+ *    异常信息为"调用方传入的错误描述：数据库错误信息"，与原DAO的异常信息保持一致
+ * 2. 静态方法（第一个参数为Connection）：在调用方已借用的连接上执行，用于同一连接上的多条SQL/事务（配合execute使用），
+ *    抛出SQLException由调用方处理
+ * 参数按Java类型绑定（String/Integer/Long/Float/Double/java.sql.Date/Timestamp），null绑定为SQL NULL
+ * 所有SQL执行后回调已注册的StatementListener（耗时统计、慢查询记录等）
+ */
+public class JdbcTemplate {
+    /**
+     * 连接来源（如DBUtil::getConnection），获取失败时抛出RuntimeException
+     */
+    @FunctionalInterface
+    public interface ConnectionSupplier {
+        Connection getConnection();
+    }
+
+    /**
+     * 在借用的连接上执行的操作（连接由JdbcTemplate归还，操作中不要关闭）
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 逐行处理结果集（流式遍历使用，不收集结果）
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void processRow(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * 设置批处理中一行的参数
+     */
+    @FunctionalInterface
+    public interface BatchSetter<T> {
+        void setValues(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    /**
+     * SQL执行监听器（为空时不计时，没有额外开销）
+     */
+    private static final List<StatementListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final ConnectionSupplier connectionSupplier;
+
+    /**
+     * @param connectionSupplier 连接来源（如DBUtil::getReadConnection）
+     */
+    public JdbcTemplate(ConnectionSupplier connectionSupplier) {
+        this.connectionSupplier = connectionSupplier;
+    }
+
+    /**
+     * 写操作模板：使用指定数据源的连接（DBUtil.getConnection）
+     * @param dataSourceName 数据源名称（DBUtil.DEFAULT/OLTP等）
+     */
+    public static JdbcTemplate forWrite(String dataSourceName) {
+        return new JdbcTemplate(() -> DBUtil.getConnection(dataSourceName));
+    }
+
+    /**
+     * 查询模板：使用只读连接（DBUtil.getReadConnection，配置了只读副本时路由到副本）
+     * @param fallbackDataSourceName 未配置副本时使用的数据源（DBUtil.DEFAULT/REPORT等）
+     */
+    public static JdbcTemplate forRead(String fallbackDataSourceName) {
+        return new JdbcTemplate(() -> DBUtil.getReadConnection(fallbackDataSourceName));
+    }
+
+    // -------------------------- 执行监听 --------------------------
+    /**
+     * 注册SQL执行监听器
+     * @param listener 监听器
+     */
+    public static void addStatementListener(StatementListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除SQL执行监听器
+     * @param listener 监听器
+     */
+    public static void removeStatementListener(StatementListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static long startTimer() {
+        return LISTENERS.isEmpty() ? 0 : System.nanoTime();
+    }
+
+    /**
+     * 回调所有监听器（单个监听器异常不影响其他监听器和SQL执行结果）
+     */
+    private static void fireExecuted(String sql, long startNanos, Exception error) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        for (StatementListener listener : LISTENERS) {
+            try {
+                listener.onExecuted(sql, elapsedNanos, error);
+            } catch (RuntimeException e) {
+                System.err.println("SQL执行监听器执行失败：" + e.getMessage());
+            }
+        }
+    }
+
+    // -------------------------- 借用连接执行（实例方法） --------------------------
+    /**
+     * 借用连接执行一组操作后归还（同一连接上执行多条SQL或事务时使用）
+     * 操作中开启的事务未提交时，连接归还连接池时回滚
+     * 借用连接前先获取DbConcurrencyLimiter许可，限制同时访问数据库的线程数
+     * @param action 操作
+     * @return T 操作的返回值
+     * @throws SQLException 操作抛出的数据库异常（由调用方转换为业务异常信息）
+     */
+    public <T> T execute(ConnectionCallback<T> action) throws SQLException {
+        DbConcurrencyLimiter.Permit permit = DbConcurrencyLimiter.acquire();
+        try {
+            Connection conn = connectionSupplier.getConnection();
+            try {
+                return action.doInConnection(conn);
+            } finally {
+                DBUtil.close(conn);
+            }
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * 借用连接执行一组操作后归还，数据库异常包装为RuntimeException
+     * @param errorMessage 错误描述（如"批量查询学生信息失败"）
+     * @param action 操作
+     * @return T 操作的返回值
+     */
+    public <T> T execute(String errorMessage, ConnectionCallback<T> action) {
+        try {
+            return execute(action);
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage + "：" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 查询单行
+     * @param errorMessage 错误描述
+     * @param sql SQL语句
+     * @param rowMapper 行映射器
+     * @param args 参数
+     * @return T 第一行的映射结果（无数据返回null）
+     */
+    public <T> T queryForObject(String errorMessage, String sql, RowMapper<T> rowMapper, Object... args) {
+        return execute(errorMessage, conn -> queryForObject(conn, sql, rowMapper, args));
+    }
+
+    /**
+     * 查询多行
+     * @param errorMessage 错误描述
+     * @param sql SQL语句
+     * @param rowMapper 行映射器
+     * @param args 参数
+     * @return List<T> 映射结果（无数据返回空列表）
+     */
+    public <T> List<T> query(String errorMessage, String sql, RowMapper<T> rowMapper, Object... args) {
+        return execute(errorMessage, conn -> query(conn, sql, rowMapper, args));
+    }
+
+    /**
+     * 流式查询：逐行从服务器读取并回调，不把结果集加载到内存（见DBUtil.prepareStreamingStatement）
+     * 注：回调期间占用连接，回调中不宜执行耗时操作
+     * @param errorMessage 错误描述
+     * @param sql SQL语句
+     * @param rowHandler 每行的处理逻辑
+     * @param args 参数
+     * @return int 处理的行数
+     */
+    public int stream(String errorMessage, String sql, RowHandler rowHandler, Object... args) {
+        return execute(errorMessage, conn -> stream(conn, sql, rowHandler, args));
+    }
+
+    /**
+     * 执行增删改
+     * @param errorMessage 错误描述
+     * @param sql SQL语句
+     * @param args 参数
+     * @return int 影响行数
+     */
+    public int update(String errorMessage, String sql, Object... args) {
+        return execute(errorMessage, conn -> update(conn, sql, args));
+    }
+
+    /**
+     * 以JDBC批处理执行同一SQL的多组参数，整批在一个事务中提交（任一行失败时整批回滚）
+     * @param errorMessage 错误描述
+     * @param sql SQL语句
+     * @param items 每行的数据
+     * @param setter 设置一行参数的逻辑
+     * @return int[] 每行的影响行数（驱动合并批处理时可能为Statement.SUCCESS_NO_INFO）
+     */
+    public <T> int[] batch(String errorMessage, String sql, List<T> items, BatchSetter<T> setter) {
+        return execute(errorMessage, conn -> {
+            conn.setAutoCommit(false);
+            int[] counts = batch(conn, sql, items, setter);
+            conn.commit();
+            return counts;
+        });
+    }
+
+    // -------------------------- 在已借用的连接上执行（静态方法） --------------------------
+    /**
+     * 在指定连接上查询单行
+     * @return T 第一行的映射结果（无数据返回null）
+     */
+    public static <T> T queryForObject(Connection conn, String sql, RowMapper<T> rowMapper, Object... args) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, args);
+            try (ResultSet rs = executeQuery(pstmt, sql)) {
+                return rs.next() ? rowMapper.mapRow(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * 在指定连接上查询多行
+     * @return List<T> 映射结果（无数据返回空列表）
+     */
+    public static <T> List<T> query(Connection conn, String sql, RowMapper<T> rowMapper, Object... args) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, args);
+            try (ResultSet rs = executeQuery(pstmt, sql)) {
+                List<T> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(rowMapper.mapRow(rs));
+                }
+                return list;
+            }
+        }
+    }
+
+    /**
+     * 在指定连接上流式查询
+     * 注：流式结果集读完前，该连接不能执行其他语句
+     * @return int 处理的行数
+     */
+    public static int stream(Connection conn, String sql, RowHandler rowHandler, Object... args) throws SQLException {
+        try (PreparedStatement pstmt = DBUtil.prepareStreamingStatement(conn, sql)) {
+            bind(pstmt, args);
+            try (ResultSet rs = executeQuery(pstmt, sql)) {
+                int count = 0;
+                while (rs.next()) {
+                    rowHandler.processRow(rs);
+                    count++;
+                }
+                return count;
+            }
+        }
+    }
+
+    /**
+     * 在指定连接上执行增删改
+     * @return int 影响行数
+     */
+    public static int update(Connection conn, String sql, Object... args) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, args);
+            long start = startTimer();
+            try {
+                int affectedRows = pstmt.executeUpdate();
+                fireExecuted(sql, start, null);
+                return affectedRows;
+            } catch (SQLException e) {
+                fireExecuted(sql, start, e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 在指定连接上以JDBC批处理执行（不提交，事务由调用方控制）
+     * @return int[] 每行的影响行数
+     * @throws java.sql.BatchUpdateException 批处理中有行失败
+     */
+    public static <T> int[] batch(Connection conn, String sql, List<T> items, BatchSetter<T> setter) throws SQLException {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (T item : items) {
+                setter.setValues(pstmt, item);
+                pstmt.addBatch();
+            }
+            long start = startTimer();
+            try {
+                int[] counts = pstmt.executeBatch();
+                fireExecuted(sql, start, null);
+                return counts;
+            } catch (SQLException e) {
+                fireExecuted(sql, start, e);
+                throw e;
+            }
+        }
+    }
+
+    private static ResultSet executeQuery(PreparedStatement pstmt, String sql) throws SQLException {
+        long start = startTimer();
+        try {
+            ResultSet rs = pstmt.executeQuery();
+            fireExecuted(sql, start, null);
+            return rs;
+        } catch (SQLException e) {
+            fireExecuted(sql, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 按参数的Java类型设置SQL参数（下标从1开始）
+     * @param pstmt 预编译语句
+     * @param args 参数（null设置为SQL NULL）
+     */
+    public static void bind(PreparedStatement pstmt, Object... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            int index = i + 1;
+            if (arg == null) {
+                pstmt.setNull(index, Types.NULL);
+            } else if (arg instanceof String) {
+                pstmt.setString(index, (String) arg);
+            } else if (arg instanceof Integer) {
+                pstmt.setInt(index, (Integer) arg);
+            } else if (arg instanceof Long) {
+                pstmt.setLong(index, (Long) arg);
+            } else if (arg instanceof Float) {
+                pstmt.setFloat(index, (Float) arg);
+            } else if (arg instanceof Double) {
+                pstmt.setDouble(index, (Double) arg);
+            } else if (arg instanceof Date) {
+                pstmt.setDate(index, (Date) arg);
+            } else if (arg instanceof Timestamp) {
+                pstmt.setTimestamp(index, (Timestamp) arg);
+            } else {
+                pstmt.setObject(index, arg);
+            }
+        }
+    }
+
+    /**
+     * 转换为DATE列参数
+     * @param date 日期（null时取当前日期）
+     * @return java.sql.Date SQL日期
+     */
+    public static Date toSqlDate(java.util.Date date) {
+        return new Date(date != null ? date.getTime() : System.currentTimeMillis());
+    }
+}
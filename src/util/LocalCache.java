@@ -0,0 +1,289 @@
+package util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 进程内本地缓存（LocalCache）
+ * 用于缓存很少变化但读取频繁的数据（如学生/教师/课程基础信息），减少数据库查询
+ * 特点：容量有界（LRU淘汰最久未访问的条目）、条目过期（TTL）、命中/未命中/淘汰计数便于评估缓存容量
+ * 线程安全：所有操作在缓存对象上同步，临界区只有内存操作，数据库查询在锁外执行
+ * 失效后routing.readYourWritesMillis内的重新加载走主库（load），避免把尚未同步的副本数据缓存整个过期时间
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LocalCache<K, V> {
+    /**
+     * 缓存名称（用于统计输出）
+     */
+    private final String name;
+
+    /**
+     * 最大条目数
+     */
+    private final int maxSize;
+
+    /**
+     * 默认过期时间（毫秒）
+     */
+    private final long ttlMillis;
+
+    /**
+     * 按访问顺序排列的条目（最久未访问的在最前），超过maxSize时淘汰最前面的条目
+     */
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    /**
+     * 失效次数：加载期间发生过失效则放弃写入，避免把加载前读到的旧数据写回缓存
+     */
+    private long invalidationCount;
+
+    /**
+     * 最近一次失效的时间（毫秒）
+     */
+    private long lastInvalidationMillis;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+
+    /**
+     * @param name 缓存名称
+     * @param maxSize 最大条目数
+     * @param ttlMillis 条目过期时间（毫秒）
+     */
+    public LocalCache(String name, int maxSize, long ttlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("缓存最大条目数必须大于0");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("缓存过期时间必须大于0");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LocalCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // -------------------------- 读取 --------------------------
+    /**
+     * 读取缓存
+     * @param key 键
+     * @return V 缓存值（未命中或已过期返回null）
+     */
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            expirationCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * 读穿缓存：命中直接返回，未命中调用loader加载并写入缓存（loader返回null时不缓存）
+     * @param key 键
+     * @param loader 未命中时的加载逻辑（如查询数据库），在锁外执行
+     * @return V 缓存值或加载结果
+     */
+    public V get(K key, Function<K, V> loader) {
+        long version;
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+            version = invalidationCount;
+        }
+        V loaded = load(() -> loader.apply(key));
+        if (loaded != null) {
+            putIfNotInvalidated(key, loaded, ttlMillis, version);
+        }
+        return loaded;
+    }
+
+    /**
+     * 执行未命中时的数据库加载：最近发生过失效（仍在routing.readYourWritesMillis内）时在主库会话中执行，
+     * 刚修改的数据从主库读取后再写回缓存，不会读到落后的只读副本；其余情况按常规路由
+     * 批量查询等不经过get(key, loader)的加载也应通过本方法执行
+     * @param loader 加载逻辑
+     * @return T 加载结果
+     */
+    public <T> T load(Supplier<T> loader) {
+        long invalidatedAt;
+        synchronized (this) {
+            invalidatedAt = lastInvalidationMillis;
+        }
+        return ReadWriteRouter.isWithinReadYourWrites(invalidatedAt) ? ReadWriteRouter.readPrimary(loader) : loader.get();
+    }
+
+    // -------------------------- 写入 --------------------------
+    /**
+     * 写入缓存（使用默认过期时间）
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    /**
+     * 写入缓存并指定过期时间（如"账户不存在"这类否定结果使用较短的过期时间）
+     * @param ttl 过期时间（毫秒）
+     */
+    public synchronized void put(K key, V value, long ttl) {
+        entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * @return long 当前失效版本号（加载数据前获取，写入时传给putIfNotInvalidated）
+     */
+    public synchronized long getInvalidationVersion() {
+        return invalidationCount;
+    }
+
+    /**
+     * 仅当加载期间没有发生过失效时写入缓存（使用默认过期时间）
+     * @param version 加载前通过getInvalidationVersion获取的版本号
+     * @return boolean 是否写入
+     */
+    public boolean putIfNotInvalidated(K key, V value, long version) {
+        return putIfNotInvalidated(key, value, ttlMillis, version);
+    }
+
+    /**
+     * 仅当加载期间没有发生过失效时写入缓存
+     * @param version 加载前通过getInvalidationVersion获取的版本号
+     * @return boolean 是否写入
+     */
+    public synchronized boolean putIfNotInvalidated(K key, V value, long ttl, long version) {
+        if (version != invalidationCount) {
+            return false;
+        }
+        put(key, value, ttl);
+        return true;
+    }
+
+    // -------------------------- 失效 --------------------------
+    /**
+     * 使单个键失效（对应数据新增、修改、删除后调用）
+     */
+    public synchronized void invalidate(K key) {
+        invalidationCount++;
+        lastInvalidationMillis = System.currentTimeMillis();
+        entries.remove(key);
+    }
+
+    /**
+     * 使满足条件的条目失效（如按非主键字段失效）
+     * @param predicate 判断条件（键, 值）
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        invalidationCount++;
+        lastInvalidationMillis = System.currentTimeMillis();
+        Iterator<Map.Entry<K, CacheEntry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, CacheEntry<V>> entry = it.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void invalidateAll() {
+        invalidationCount++;
+        lastInvalidationMillis = System.currentTimeMillis();
+        entries.clear();
+    }
+
+    // -------------------------- 统计 --------------------------
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return long 因容量不足被淘汰的条目数（持续增长说明maxSize偏小）
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return long 因过期被移除的条目数
+     */
+    public synchronized long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * @return double 命中率（0~1，尚无访问时为0）
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LocalCache{" +
+                "name='" + name + '\'' +
+                ", size=" + entries.size() + "/" + maxSize +
+                ", hit=" + hitCount +
+                ", miss=" + missCount +
+                ", eviction=" + evictionCount +
+                ", expiration=" + expirationCount +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                '}';
+    }
+
+    /**
+     * 缓存条目：值+过期时间
+     */
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long expireAt;
+
+        CacheEntry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
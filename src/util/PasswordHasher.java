@@ -0,0 +1,30 @@
+package util;
+
+/**
+ * 密码哈希算法接口（PasswordHasher）
+ * 不同实现（如PBKDF2、bcrypt）可互相替换，存储格式中需自带算法标识和成本参数，
+ * 以便调整成本参数或更换算法后识别出旧格式的密码并在登录时重新哈希
+ */
+public interface PasswordHasher {
+    /**
+     * 计算密码哈希（每次使用新的随机盐）
+     * @param rawPassword 原始密码
+     * @return String 存储格式的哈希字符串
+     */
+    String hash(String rawPassword);
+
+    /**
+     * 验证密码
+     * @param rawPassword 用户输入的原始密码
+     * @param storedHash 数据库中保存的密码
+     * @return boolean 是否匹配
+     */
+    boolean verify(String rawPassword, String storedHash);
+
+    /**
+     * 判断已保存的密码是否需要重新哈希（算法或成本参数与当前配置不一致）
+     * @param storedHash 数据库中保存的密码
+     * @return boolean 需要重新哈希返回true
+     */
+    boolean needsRehash(String storedHash);
+}
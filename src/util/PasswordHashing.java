@@ -0,0 +1,234 @@
+package util;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希执行器（PasswordHashing）
+ * 持有当前配置的密码哈希算法，并在专用的有界线程池中执行哈希/验证：
+ * 同时进行的哈希计算不超过password.hash.threads个，登录高峰时多余的请求在有界队列中等待或直接拒绝，
+ * 避免大量请求线程同时做CPU密集的哈希计算而拖慢其他页面
+ * 相关配置：
+ * password.hash.algorithm：密码哈希算法，pbkdf2（默认）或实现了PasswordHasher、带无参构造方法的类的全名；
+ *   更换算法后旧算法保存的密码需由新实现识别（verify/needsRehash），识别后在下次登录时重新哈希
+ * password.pbkdf2.iterations：PBKDF2迭代次数（成本参数），修改后旧密码在下次登录时自动按新参数重新哈希
+ * password.hash.threads / password.hash.queueCapacity：哈希线程数、等待队列长度
+ * password.hash.timeoutMillis：等待哈希结果的最长时间
+ */
+public class PasswordHashing {
+    private static final ThreadPoolExecutor EXECUTOR = ThreadPools.newBoundedDaemonExecutor("password-hash",
+            Math.max(1, AppConfig.getInt("password.hash.threads", Runtime.getRuntime().availableProcessors())),
+            Math.max(1, AppConfig.getInt("password.hash.queueCapacity", 200)));
+
+    private static volatile PasswordHasher hasher;
+
+    private static volatile long timeoutMillis;
+
+    /**
+     * 占位哈希（账户不存在时用于验证，使响应时间与账户存在时一致），与生成它的算法实例一起保存，算法变更后重新生成
+     */
+    private static volatile DummyHash dummyHash;
+
+    static {
+        applyConfig();
+        AppConfig.addReloadListener(PasswordHashing::applyConfig);
+    }
+
+    private PasswordHashing() {
+    }
+
+    /**
+     * @return PasswordHasher 当前配置的密码哈希算法
+     */
+    public static PasswordHasher getHasher() {
+        return hasher;
+    }
+
+    /**
+     * 计算密码哈希（在哈希线程池中执行，当前线程等待结果）
+     * @param rawPassword 原始密码
+     * @return String 存储格式的哈希字符串
+     */
+    public static String hash(String rawPassword) {
+        PasswordHasher current = hasher;
+        return execute(() -> current.hash(rawPassword));
+    }
+
+    /**
+     * 验证密码（在哈希线程池中执行，当前线程等待结果）
+     * @param rawPassword 用户输入的原始密码
+     * @param storedHash 数据库中保存的密码
+     * @return boolean 是否匹配
+     */
+    public static boolean verify(String rawPassword, String storedHash) {
+        PasswordHasher current = hasher;
+        return execute(() -> current.verify(rawPassword, storedHash));
+    }
+
+    /**
+     * 异步计算密码哈希（在哈希线程池中执行，不阻塞当前线程）
+     * @param rawPassword 原始密码
+     * @return CompletableFuture<String> 存储格式的哈希字符串（线程池已满或超时时以异常完成）
+     */
+    public static CompletableFuture<String> hashAsync(String rawPassword) {
+        PasswordHasher current = hasher;
+        return executeAsync(() -> current.hash(rawPassword));
+    }
+
+    /**
+     * 异步验证密码（在哈希线程池中执行，不阻塞当前线程）
+     * @param rawPassword 用户输入的原始密码
+     * @param storedHash 数据库中保存的密码
+     * @return CompletableFuture<Boolean> 是否匹配（线程池已满或超时时以异常完成）
+     */
+    public static CompletableFuture<Boolean> verifyAsync(String rawPassword, String storedHash) {
+        PasswordHasher current = hasher;
+        return executeAsync(() -> current.verify(rawPassword, storedHash));
+    }
+
+    /**
+     * 账户不存在时的密码验证：对占位哈希做一次完整验证后返回false，耗时与真实账户的验证相同，
+     * 登录接口不会因为"账户不存在直接返回"而暴露哪些账户存在
+     * @param rawPassword 用户输入的原始密码
+     * @return boolean 始终为false
+     */
+    public static boolean verifyUnknownAccount(String rawPassword) {
+        PasswordHasher current = hasher;
+        return execute(() -> verifyDummy(current, rawPassword));
+    }
+
+    /**
+     * 异步的账户不存在时的密码验证（见verifyUnknownAccount）
+     * @param rawPassword 用户输入的原始密码
+     * @return CompletableFuture<Boolean> 始终为false（线程池已满或超时时以异常完成）
+     */
+    public static CompletableFuture<Boolean> verifyUnknownAccountAsync(String rawPassword) {
+        PasswordHasher current = hasher;
+        return executeAsync(() -> verifyDummy(current, rawPassword));
+    }
+
+    private static boolean verifyDummy(PasswordHasher current, String rawPassword) {
+        DummyHash dummy = dummyHash;
+        if (dummy == null || dummy.hasher != current) {
+            // 首次使用或算法变更后生成（随机密码，任何输入都不会匹配）
+            dummy = new DummyHash(current, current.hash(UUID.randomUUID().toString()));
+            dummyHash = dummy;
+        }
+        current.verify(rawPassword != null ? rawPassword : "", dummy.hash);
+        return false;
+    }
+
+    /**
+     * 判断已保存的密码是否需要按当前配置重新哈希（只解析格式，不做哈希计算）
+     */
+    public static boolean needsRehash(String storedHash) {
+        return hasher.needsRehash(storedHash);
+    }
+
+    private static <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = EXECUTOR.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("系统繁忙：登录验证请求过多，请稍后重试！", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RuntimeException("系统繁忙：密码验证超时，请稍后重试！", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("密码验证被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("密码哈希计算失败：" + cause.getMessage(), cause);
+        }
+    }
+
+    private static <T> CompletableFuture<T> executeAsync(Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("系统繁忙：登录验证请求过多，请稍后重试！", e));
+        }
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 读取密码哈希相关配置（启动时及配置热加载后调用）
+     */
+    private static synchronized void applyConfig() {
+        hasher = createHasher(hasher);
+        timeoutMillis = AppConfig.getLong("password.hash.timeoutMillis", 5000);
+        int threads = Math.max(1, AppConfig.getInt("password.hash.threads", Runtime.getRuntime().availableProcessors()));
+        // 先调大最大线程数再调核心线程数，保证任意时刻core <= max
+        if (threads > EXECUTOR.getMaximumPoolSize()) {
+            EXECUTOR.setMaximumPoolSize(threads);
+            EXECUTOR.setCorePoolSize(threads);
+        } else {
+            EXECUTOR.setCorePoolSize(threads);
+            EXECUTOR.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * 按password.hash.algorithm创建密码哈希算法，配置未变化时沿用当前实例
+     * 自定义实现无法加载时记录错误：启动时退回PBKDF2，热加载时保持原算法不变
+     * @param current 当前使用的算法（启动时为null）
+     */
+    private static PasswordHasher createHasher(PasswordHasher current) {
+        String algorithm = AppConfig.getString("password.hash.algorithm", "pbkdf2").trim();
+        if (!"pbkdf2".equalsIgnoreCase(algorithm)) {
+            if (current != null && current.getClass().getName().equals(algorithm)) {
+                return current;
+            }
+            try {
+                return Class.forName(algorithm).asSubclass(PasswordHasher.class).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                System.err.println("加载密码哈希算法失败：" + algorithm + "，" + e);
+                if (current != null) {
+                    return current;
+                }
+            }
+        }
+        int iterations = AppConfig.getInt("password.pbkdf2.iterations", 310000);
+        if (current instanceof Pbkdf2PasswordHasher && ((Pbkdf2PasswordHasher) current).getIterations() == iterations) {
+            return current;
+        }
+        return new Pbkdf2PasswordHasher(iterations);
+    }
+
+    /**
+     * 关闭哈希线程池（应用停止时调用）
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /**
+     * 占位哈希及生成它的算法实例
+     */
+    private static final class DummyHash {
+        private final PasswordHasher hasher;
+        private final String hash;
+
+        DummyHash(PasswordHasher hasher, String hash) {
+            this.hasher = hasher;
+            this.hash = hash;
+        }
+    }
+}
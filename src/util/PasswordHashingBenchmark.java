@@ -0,0 +1,85 @@
+package util;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 密码哈希吞吐量基准（PasswordHashingBenchmark）
+ * 独立运行的main程序，测量Pbkdf2PasswordHasher在各成本参数（迭代次数）下每秒可完成的哈希次数，
+ * 用于选择password.pbkdf2.iterations和password.hash.threads：
+ * 1. 1线程：单次哈希的耗时，即每次登录在哈希线程中消耗的CPU时间
+ * 2. N线程（默认password.hash.threads）：哈希线程池满负荷时的总吞吐量，即登录高峰时每秒最多能验证的密码数
+ * 测量方式与JMH的吞吐量模式相同：每个组合先预热若干轮（不计入结果），再测量若干轮，每轮固定时长，
+ * 输出各轮每秒次数的平均值、最小值和最大值，以及每个线程完成一次哈希的平均耗时（线程数超过CPU核数时包含等待CPU的时间）
+ * 用法：java -cp <classes> util.PasswordHashingBenchmark [迭代次数列表] [每轮秒数] [线程数]
+ * 默认10000,100000,310000,600000、每轮1秒、password.hash.threads；预热2轮、测量5轮
+ * 注：登录时验证的耗时与哈希相同（verify按保存的迭代次数重新计算一次）
+ */
+public class PasswordHashingBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private PasswordHashingBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] costs = args.length > 0
+                ? Arrays.stream(args[0].split(",")).map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10000, 100000, 310000, 600000};
+        double roundSeconds = args.length > 1 ? Double.parseDouble(args[1].trim()) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2].trim())
+                : Math.max(1, AppConfig.getInt("password.hash.threads", Runtime.getRuntime().availableProcessors()));
+
+        System.out.println("CPU核数=" + Runtime.getRuntime().availableProcessors() + "，预热" + WARMUP_ROUNDS + "轮，测量"
+                + MEASURE_ROUNDS + "轮，每轮" + roundSeconds + "秒");
+        System.out.printf("%10s %7s %12s %12s %12s %12s%n", "iterations", "threads", "hashes/s", "min", "max", "ms/hash");
+        for (int cost : costs) {
+            Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(cost);
+            for (int threadCount : threads > 1 ? new int[]{1, threads} : new int[]{1}) {
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    round(hasher, threadCount, roundSeconds);
+                }
+                double[] rates = new double[MEASURE_ROUNDS];
+                for (int i = 0; i < MEASURE_ROUNDS; i++) {
+                    rates[i] = round(hasher, threadCount, roundSeconds);
+                }
+                double mean = Arrays.stream(rates).average().orElse(Double.NaN);
+                System.out.printf("%10d %7d %12.1f %12.1f %12.1f %12.2f%n", cost, threadCount, mean,
+                        Arrays.stream(rates).min().orElse(Double.NaN), Arrays.stream(rates).max().orElse(Double.NaN),
+                        1000.0 * threadCount / mean);
+            }
+        }
+    }
+
+    /**
+     * 一轮测量：threads个线程在给定时长内持续计算哈希
+     * @return double 每秒完成的哈希次数（按实际经过的时间计算，包含最后一次跨过截止时间的哈希）
+     */
+    private static double round(Pbkdf2PasswordHasher hasher, int threads, double seconds) throws InterruptedException {
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("hash-bench", threads, threads);
+        LongAdder hashes = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        long deadline = start + (long) (seconds * 1e9);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            hasher.hash("Benchmark#2024");
+                            hashes.increment();
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        return hashes.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,137 @@
+package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2-HMAC-SHA256密码哈希（Pbkdf2PasswordHasher）
+ * 存储格式：pbkdf2_sha256$迭代次数$base64(盐)$base64(哈希)，长度约90个字符
+ * 迭代次数即成本参数：次数越多越能抵抗离线暴力破解，但每次登录消耗的CPU也越多
+ * 兼容旧数据：不是该格式的密码按旧方式验证（64位十六进制视为SHA-256摘要，否则视为明文），并标记为需要重新哈希
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+    /**
+     * 存储格式前缀（算法标识）
+     */
+    public static final String PREFIX = "pbkdf2_sha256";
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final int SALT_BYTES = 16;
+
+    private static final int KEY_LENGTH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int iterations;
+
+    /**
+     * @param iterations 迭代次数（成本参数）
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("迭代次数必须大于0");
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        return PREFIX + "$" + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String rawPassword, String storedHash) {
+        if (rawPassword == null || storedHash == null) {
+            return false;
+        }
+        if (!storedHash.startsWith(PREFIX + "$")) {
+            return verifyLegacy(rawPassword, storedHash);
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = DECODER.decode(parts[2]);
+            byte[] expected = DECODER.decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(rawPassword, salt, storedIterations, expected.length * 8));
+        } catch (IllegalArgumentException e) {
+            // 迭代次数或Base64格式错误
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        int end = storedHash.indexOf('$', PREFIX.length() + 1);
+        return end < 0 || !String.valueOf(iterations).equals(storedHash.substring(PREFIX.length() + 1, end));
+    }
+
+    /**
+     * 验证旧格式密码（SHA-256十六进制摘要或明文），使用常量时间比较
+     */
+    private static boolean verifyLegacy(String rawPassword, String storedHash) {
+        byte[] expected;
+        byte[] actual;
+        if (storedHash.length() == 64 && storedHash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            expected = storedHash.toLowerCase().getBytes(StandardCharsets.US_ASCII);
+            actual = sha256Hex(rawPassword).getBytes(StandardCharsets.US_ASCII);
+        } else {
+            expected = storedHash.getBytes(StandardCharsets.UTF_8);
+            actual = rawPassword.getBytes(StandardCharsets.UTF_8);
+        }
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private static String sha256Hex(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256不可用：" + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        return pbkdf2(rawPassword, salt, iterations, KEY_LENGTH_BITS);
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations, int keyLengthBits) {
+        if (iterations <= 0 || keyLengthBits <= 0) {
+            throw new IllegalArgumentException("无效的PBKDF2参数");
+        }
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, keyLengthBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("密码哈希计算失败：" + e.getMessage(), e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
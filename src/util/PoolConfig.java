@@ -0,0 +1,256 @@
+package util;
+
+/**
+ * 连接池配置类（PoolConfig）
+ * 描述一个数据库连接池的连接参数与容量/超时策略，供ConnectionPool使用
+ * 遵循JavaBean规范：私有属性、无参构造、getter/setter，所有时间单位均为毫秒
+ */
+public class PoolConfig {
+    /**
+     * 连接池名称（用于日志、线程命名）
+     */
+    private String name = "default";
+
+    /**
+     * 数据库连接URL
+     */
+    private String url;
+
+    /**
+     * 数据库用户名
+     */
+    private String user;
+
+    /**
+     * 数据库密码
+     */
+    private String password;
+
+    /**
+     * 最大连接数（借出+空闲的物理连接总数上限）
+     */
+    private int maxPoolSize = 20;
+
+    /**
+     * 最小空闲连接数（后台线程预先建立并补足，空闲回收时至少保留的连接数）
+     */
+    private int minIdle = 2;
+
+    /**
+     * 借用连接的最长等待时间，超时抛出SQLTimeoutException
+     */
+    private long borrowTimeoutMillis = 5000;
+
+    /**
+     * 空闲连接的最长存活时间，超过后由后台线程回收
+     */
+    private long idleTimeoutMillis = 10 * 60 * 1000L;
+
+    /**
+     * 后台回收/泄漏检测线程的执行间隔
+     */
+    private long housekeepingIntervalMillis = 30 * 1000L;
+
+    /**
+     * 借用时校验连接的阈值：连接空闲超过该时长才执行isValid校验，避免每次借用都多一次往返
+     */
+    private long validateAfterIdleMillis = 500;
+
+    /**
+     * isValid校验的超时时间（秒，JDBC规范要求）
+     */
+    private int validationTimeoutSeconds = 2;
+
+    /**
+     * 连接泄漏检测阈值：连接借出超过该时长未归还则打印借用堆栈，0表示关闭检测
+     */
+    private long leakDetectionThresholdMillis = 60 * 1000L;
+
+    /**
+     * 每个连接缓存的预编译语句数（按SQL文本LRU淘汰），0表示不缓存
+     */
+    private int statementCacheSize = 100;
+
+    /**
+     * 参与缓存的SQL最大长度（字符），更长的SQL（如很长的IN列表）每次单独预编译，不占用缓存
+     */
+    private int statementCacheSqlLimit = 2048;
+
+    public PoolConfig() {
+    }
+
+    public PoolConfig(String name, String url, String user, String password) {
+        this.name = name;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        if (maxPoolSize <= 0) {
+            throw new IllegalArgumentException("最大连接数必须大于0");
+        }
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        if (minIdle < 0) {
+            throw new IllegalArgumentException("最小空闲连接数不能小于0");
+        }
+        this.minIdle = minIdle;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        if (housekeepingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("后台检测间隔必须大于0");
+        }
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    public long getValidateAfterIdleMillis() {
+        return validateAfterIdleMillis;
+    }
+
+    public void setValidateAfterIdleMillis(long validateAfterIdleMillis) {
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public void setLeakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("预编译语句缓存数不能小于0");
+        }
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public int getStatementCacheSqlLimit() {
+        return statementCacheSqlLimit;
+    }
+
+    public void setStatementCacheSqlLimit(int statementCacheSqlLimit) {
+        this.statementCacheSqlLimit = statementCacheSqlLimit;
+    }
+
+    /**
+     * 判断两份配置是否完全一致（配置热加载时，只有发生变化的连接池才需要替换）
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PoolConfig that = (PoolConfig) o;
+        return maxPoolSize == that.maxPoolSize
+                && minIdle == that.minIdle
+                && borrowTimeoutMillis == that.borrowTimeoutMillis
+                && idleTimeoutMillis == that.idleTimeoutMillis
+                && housekeepingIntervalMillis == that.housekeepingIntervalMillis
+                && validateAfterIdleMillis == that.validateAfterIdleMillis
+                && validationTimeoutSeconds == that.validationTimeoutSeconds
+                && leakDetectionThresholdMillis == that.leakDetectionThresholdMillis
+                && statementCacheSize == that.statementCacheSize
+                && statementCacheSqlLimit == that.statementCacheSqlLimit
+                && java.util.Objects.equals(name, that.name)
+                && java.util.Objects.equals(url, that.url)
+                && java.util.Objects.equals(user, that.user)
+                && java.util.Objects.equals(password, that.password);
+    }
+
+    @Override
+    public int hashCode() {
+        return java.util.Objects.hash(name, url, user, maxPoolSize);
+    }
+
+    @Override
+    public String toString() {
+        // 不输出密码，避免敏感信息进入日志
+        return "PoolConfig{" +
+                "name='" + name + '\'' +
+                ", url='" + url + '\'' +
+                ", user='" + user + '\'' +
+                ", maxPoolSize=" + maxPoolSize +
+                ", minIdle=" + minIdle +
+                ", borrowTimeoutMillis=" + borrowTimeoutMillis +
+                ", idleTimeoutMillis=" + idleTimeoutMillis +
+                ", statementCacheSize=" + statementCacheSize +
+                '}';
+    }
+}
@@ -0,0 +1,228 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离路由（ReadWriteRouter）
+ * 为DAO的只读方法从只读副本中选择数据源，写操作及"读自己的写"场景固定走主库，供DBUtil.getReadConnection使用
+ * 路由规则：
+ * 1. 当前线程处于主库会话（forcePrimary）或最近routing.readYourWritesMillis内发生过写操作 → 主库
+ * 2. 配置了只读副本（routing.replicas） → 按routing.balance在副本间负载均衡
+ * 3. 否则 → 调用方指定的数据源
+ * 写操作时间默认按线程记录；Web请求中由ReadYourWritesFilter绑定为请求/Session共享的记录，
+ * 写入后重定向到的下一个请求、DaoExecutor中执行的异步查询（propagating）都能看到同一个写操作时间
+ */
+public class ReadWriteRouter {
+    /**
+     * 副本负载均衡策略
+     */
+    public enum Balance {
+        /**
+         * 轮询
+         */
+        ROUND_ROBIN,
+        /**
+         * 选择当前借出+等待连接数最少的副本
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * 当前生效的副本列表（配置热加载时整体替换）
+     */
+    private static volatile List<String> replicas = new ArrayList<>();
+
+    private static volatile Balance balance = Balance.ROUND_ROBIN;
+
+    private static volatile long readYourWritesMillis = 2000;
+
+    private static final AtomicInteger ROUND_ROBIN_COUNTER = new AtomicInteger();
+
+    /**
+     * 当前线程绑定的最近写操作时间（请求/Session共享，见bindLastWrite），未绑定时使用THREAD_LAST_WRITE
+     */
+    private static final ThreadLocal<AtomicLong> BOUND_LAST_WRITE = new ThreadLocal<>();
+
+    /**
+     * 当前线程自己的最近写操作时间（非请求线程，如定时任务）
+     */
+    private static final ThreadLocal<AtomicLong> THREAD_LAST_WRITE = ThreadLocal.withInitial(AtomicLong::new);
+
+    /**
+     * 当前线程的主库会话嵌套层数（大于0时所有读操作走主库）
+     */
+    private static final ThreadLocal<int[]> PRIMARY_SESSION_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadWriteRouter() {
+    }
+
+    // -------------------------- 主库会话 --------------------------
+    /**
+     * 在主库会话中执行操作：期间当前线程的所有读操作都走主库（如写入后立即回显的页面）
+     * @param action 要执行的操作
+     * @return T 操作结果
+     */
+    public static <T> T forcePrimary(Callable<T> action) throws Exception {
+        int[] depth = PRIMARY_SESSION_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.call();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * 在主库会话中执行操作（不抛出受检异常的版本，如缓存失效后重新加载）
+     * @param action 要执行的操作
+     * @return T 操作结果
+     */
+    public static <T> T readPrimary(Supplier<T> action) {
+        int[] depth = PRIMARY_SESSION_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    // -------------------------- 写操作时间 --------------------------
+    /**
+     * 记录发生了写操作（DBUtil借出写连接时调用）
+     */
+    static void markWrite() {
+        if (!replicas.isEmpty()) {
+            currentLastWrite().set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return AtomicLong 当前线程使用的最近写操作时间（已绑定时为请求/Session共享的记录）
+     */
+    public static AtomicLong currentLastWrite() {
+        AtomicLong bound = BOUND_LAST_WRITE.get();
+        return bound != null ? bound : THREAD_LAST_WRITE.get();
+    }
+
+    /**
+     * 把最近写操作时间的记录绑定到当前线程（ReadYourWritesFilter在请求开始时调用，结束时用返回值恢复）
+     * @param lastWrite 要绑定的记录（null表示解除绑定）
+     * @return AtomicLong 之前绑定的记录（未绑定为null）
+     */
+    public static AtomicLong bindLastWrite(AtomicLong lastWrite) {
+        AtomicLong previous = BOUND_LAST_WRITE.get();
+        if (lastWrite != null) {
+            BOUND_LAST_WRITE.set(lastWrite);
+        } else {
+            BOUND_LAST_WRITE.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * 包装线程池：提交的任务在执行线程中沿用调用线程（调用本方法时）的写操作时间和主库会话，
+     * 请求中发起的异步查询与请求线程按同一规则路由，写入后的异步读取不会落到尚未同步的副本上
+     * @param executor 实际执行任务的线程池
+     * @return Executor 传递路由上下文的线程池
+     */
+    public static Executor propagating(Executor executor) {
+        AtomicLong lastWrite = currentLastWrite();
+        boolean primary = PRIMARY_SESSION_DEPTH.get()[0] > 0;
+        return task -> executor.execute(() -> {
+            AtomicLong previous = bindLastWrite(lastWrite);
+            int[] depth = PRIMARY_SESSION_DEPTH.get();
+            if (primary) {
+                depth[0]++;
+            }
+            try {
+                task.run();
+            } finally {
+                if (primary) {
+                    depth[0]--;
+                }
+                bindLastWrite(previous);
+            }
+        });
+    }
+
+    /**
+     * 判断某个时间点是否仍在"读自己的写"时间窗口内（LocalCache判断失效后是否应从主库重新加载）
+     * @param timeMillis 写操作（或缓存失效）时间
+     * @return boolean 配置了副本且距该时间不足routing.readYourWritesMillis时返回true
+     */
+    static boolean isWithinReadYourWrites(long timeMillis) {
+        return !replicas.isEmpty() && System.currentTimeMillis() - timeMillis < readYourWritesMillis;
+    }
+
+    // -------------------------- 读路由 --------------------------
+    /**
+     * 为只读操作选择数据源
+     * @param fallback 未配置副本时使用的数据源
+     * @return String 数据源名称
+     */
+    static String routeRead(String fallback) {
+        List<String> current = replicas;
+        if (current.isEmpty()) {
+            return fallback;
+        }
+        if (PRIMARY_SESSION_DEPTH.get()[0] > 0
+                || System.currentTimeMillis() - currentLastWrite().get() < readYourWritesMillis) {
+            return DBUtil.DEFAULT;
+        }
+        if (current.size() == 1) {
+            return current.get(0);
+        }
+        if (balance == Balance.LEAST_LOADED) {
+            String best = null;
+            int bestLoad = Integer.MAX_VALUE;
+            for (String replica : current) {
+                ConnectionPool pool = DBUtil.getPool(replica);
+                int load = pool.getActiveCount() + pool.getWaitingCount();
+                if (load < bestLoad) {
+                    best = replica;
+                    bestLoad = load;
+                }
+            }
+            return best;
+        }
+        return current.get(Math.floorMod(ROUND_ROBIN_COUNTER.getAndIncrement(), current.size()));
+    }
+
+    /**
+     * @return boolean 是否配置了只读副本
+     */
+    public static boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * 按当前配置刷新副本列表和路由策略（DBUtil创建/替换连接池后调用）
+     */
+    static void reload() {
+        List<String> configured = new ArrayList<>();
+        for (String name : AppConfig.getList("routing.replicas")) {
+            if (!DBUtil.getDataSourceNames().contains(name)) {
+                System.err.println("只读副本[" + name + "]未在datasource.names中定义，已忽略");
+                continue;
+            }
+            configured.add(name);
+        }
+        String balanceName = AppConfig.getString("routing.balance", Balance.ROUND_ROBIN.name());
+        try {
+            balance = Balance.valueOf(balanceName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("未知的副本负载均衡策略：" + balanceName + "，使用ROUND_ROBIN");
+            balance = Balance.ROUND_ROBIN;
+        }
+        readYourWritesMillis = AppConfig.getLong("routing.readYourWritesMillis", 2000);
+        replicas = configured;
+    }
+}
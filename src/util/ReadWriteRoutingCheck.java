@@ -0,0 +1,205 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 读写分离验证（ReadWriteRoutingCheck）
+ * 独立运行的main程序，在两个本地替身数据库（两个MySQL实例，或同一实例上的两个库）上验证ReadWriteRouter的路由，并测量读扩展：
+ * 1. 路由：没有写操作时连续借用只读连接，按实际连上的数据库（@@hostname:@@port/DATABASE()）统计分布，
+ *    round_robin下各副本次数应相同
+ * 2. 读自己的写：借用写连接后，同一线程和经DaoExecutor发起的异步查询都应连到主库；
+ *    等待routing.readYourWritesMillis之后应回到副本
+ * 3. 读吞吐量：N个线程持续执行同一条查询，统计每秒查询数和各数据库承担的次数；
+ *    不配置routing.replicas再运行一次即为只用主库的基线
+ * 替身数据库之间不需要复制：只比较连上的是哪个数据库，不比较数据
+ * 用法：java -cp <classes:lib/*> [-D配置] util.ReadWriteRoutingCheck [读线程数] [读测试秒数] [查询SQL]
+ * 默认8个线程、10秒、SELECT COUNT(*) FROM Student；副本通过系统属性配置，如
+ * -Ddatasource.names=default,replica1,replica2 -Drouting.replicas=replica1,replica2
+ * -Ddatasource.replica1.url=jdbc:mysql://localhost:3307/education_manage_system?...
+ * -Ddatasource.replica2.url=jdbc:mysql://localhost:3308/education_manage_system?...
+ * 注：验证不通过的项输出FAIL，全部通过时退出码为0
+ */
+public class ReadWriteRoutingCheck {
+    private static final String IDENTITY_SQL = "SELECT CONCAT(@@hostname, ':', @@port, '/', IFNULL(DATABASE(), ''))";
+
+    private ReadWriteRoutingCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0].trim()) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1].trim()) : 10;
+        String sql = args.length > 2 ? args[2] : "SELECT COUNT(*) FROM Student";
+        int failures = 0;
+        try {
+            String primary = identityOf(DBUtil.getPool(DBUtil.DEFAULT).getConnection());
+            System.out.println("主库：" + primary);
+            Map<String, String> replicaNames = new TreeMap<>();
+            for (String replica : AppConfig.getList("routing.replicas")) {
+                String identity = identityOf(DBUtil.getPool(replica).getConnection());
+                replicaNames.put(identity, replica);
+                System.out.println("副本[" + replica + "]：" + identity);
+            }
+            if (!ReadWriteRouter.hasReplicas()) {
+                System.out.println("未配置只读副本，只测量读吞吐量（作为基线）");
+            } else {
+                if (replicaNames.size() < AppConfig.getList("routing.replicas").size() || replicaNames.containsKey(primary)) {
+                    throw new IllegalStateException("主库和各副本必须是不同的数据库，否则无法区分路由结果");
+                }
+                failures += checkDistribution(primary, replicaNames);
+                failures += checkReadYourWrites(primary, replicaNames);
+            }
+            measureReads(threads, seconds, sql);
+        } finally {
+            DaoExecutor.shutdown();
+            DBUtil.shutdown();
+        }
+        System.out.println(failures == 0 ? "全部通过" : failures + "项未通过");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * 在没有写操作的新线程中连续借用只读连接，统计连到各数据库的次数
+     */
+    private static int checkDistribution(String primary, Map<String, String> replicaNames) throws Exception {
+        int reads = replicaNames.size() * 50;
+        Map<String, Integer> counts = new TreeMap<>();
+        Exception[] error = new Exception[1];
+        Thread reader = new Thread(() -> {
+            try {
+                for (int i = 0; i < reads; i++) {
+                    counts.merge(identityOf(DBUtil.getReadConnection()), 1, Integer::sum);
+                }
+            } catch (SQLException | RuntimeException e) {
+                error[0] = e;
+            }
+        }, "routing-check");
+        reader.start();
+        reader.join();
+        if (error[0] != null) {
+            throw error[0];
+        }
+        System.out.println("路由分布（" + AppConfig.getString("routing.balance", "round_robin") + "，" + reads + "次读）：" + counts);
+        int failures = expect("没有写操作时读操作不走主库", !counts.containsKey(primary));
+        failures += expect("读操作分布到全部副本", counts.keySet().containsAll(replicaNames.keySet()));
+        if ("round_robin".equalsIgnoreCase(AppConfig.getString("routing.balance", "round_robin"))) {
+            failures += expect("轮询时各副本次数相同", counts.values().stream().distinct().count() == 1);
+        }
+        return failures;
+    }
+
+    /**
+     * 写操作后同一线程和DaoExecutor中的读操作走主库，时间窗口过后回到副本
+     */
+    private static int checkReadYourWrites(String primary, Map<String, String> replicaNames) throws Exception {
+        int[] failures = new int[1];
+        Exception[] error = new Exception[1];
+        Thread writer = new Thread(() -> {
+            try {
+                // 借用写连接即记录写操作（不修改数据）
+                DBUtil.close(DBUtil.getConnection());
+                failures[0] += expect("写操作后同一线程读主库", primary.equals(identityOf(DBUtil.getReadConnection())));
+                String async = DaoExecutor.supplyAsync(() -> {
+                    try {
+                        return identityOf(DBUtil.getReadConnection());
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                    }
+                }).join();
+                failures[0] += expect("写操作后DaoExecutor中的异步查询读主库", primary.equals(async));
+                Thread.sleep(AppConfig.getLong("routing.readYourWritesMillis", 2000) + 200);
+                failures[0] += expect("routing.readYourWritesMillis之后回到副本",
+                        replicaNames.containsKey(identityOf(DBUtil.getReadConnection())));
+            } catch (SQLException | RuntimeException e) {
+                error[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error[0] = e;
+            }
+        }, "read-your-writes-check");
+        writer.start();
+        writer.join();
+        if (error[0] != null) {
+            throw error[0];
+        }
+        return failures[0];
+    }
+
+    /**
+     * 用threads个线程在seconds秒内持续执行查询，统计每秒查询数和各数据库承担的次数
+     */
+    private static void measureReads(int threads, int seconds, String sql) throws InterruptedException {
+        ExecutorService executor = ThreadPools.newBoundedDaemonExecutor("read-bench", threads, threads);
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Connection conn = null;
+                        PreparedStatement pstmt = null;
+                        ResultSet rs = null;
+                        try {
+                            conn = DBUtil.getReadConnection();
+                            // 按连接URL区分数据库（不额外查询，避免影响吞吐量）
+                            String url = conn.getMetaData().getURL();
+                            pstmt = conn.prepareStatement(sql);
+                            rs = pstmt.executeQuery();
+                            while (rs.next()) {
+                                // 读完结果集
+                            }
+                            counts.computeIfAbsent(url, k -> new LongAdder()).increment();
+                        } catch (SQLException | RuntimeException e) {
+                            failed.incrementAndGet();
+                        } finally {
+                            DBUtil.close(rs, pstmt, conn);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdownNow();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long total = counts.values().stream().mapToLong(LongAdder::sum).sum();
+        System.out.printf("读吞吐量：%d个线程，%.1f秒，%.0f次/秒，失败%d次%n", threads, elapsed, total / elapsed, failed.get());
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counts).entrySet()) {
+            System.out.printf("  %-90s %10d%n", entry.getKey(), entry.getValue().sum());
+        }
+    }
+
+    /**
+     * 查询连接实际连上的数据库（查询后归还连接）
+     */
+    private static String identityOf(Connection conn) throws SQLException {
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(IDENTITY_SQL);
+            rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getString(1);
+        } finally {
+            DBUtil.close(rs, pstmt, conn);
+        }
+    }
+
+    private static int expect(String description, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + description);
+        return passed ? 0 : 1;
+    }
+}
@@ -0,0 +1,20 @@
+package util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 结果集行映射器（RowMapper）
+ * 把结果集的当前行转换为对象；实现按列序号读取（由调用方保证SELECT的列顺序），不按列名查找，也不使用反射
+ * @param <T> 目标对象类型
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    /**
+     * 映射当前行（不移动游标）
+     * @param rs 结果集（已定位到要映射的行）
+     * @return T 映射得到的对象
+     * @throws SQLException 数据库异常
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
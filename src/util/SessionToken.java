@@ -0,0 +1,243 @@
+package util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * 无状态登录令牌（SessionToken）
+ * 将用户ID、角色、关联ID和过期时间签名后存入Cookie，服务端不保存会话，任意节点用同一密钥即可验证，无需访问数据库
+ * 令牌格式：base64url(载荷) + "." + base64url(HMAC-SHA256(载荷))，载荷为"userId|role|relId|过期时间（秒）"
+ * 相关配置：
+ * session.mode：session（默认，HttpSession）/ token（签名令牌）
+ * session.token.secret：签名密钥，多节点部署必须配置为相同的值；为空时每次启动随机生成（重启后已签发的令牌失效）
+ * session.token.ttlSeconds：令牌有效期（秒）
+ */
+public final class SessionToken {
+    /**
+     * 会话模式
+     */
+    public enum Mode {
+        /**
+         * 用户信息保存在HttpSession中
+         */
+        SESSION,
+        /**
+         * 用户信息保存在签名令牌Cookie中
+         */
+        TOKEN
+    }
+
+    /**
+     * 令牌Cookie名称
+     */
+    public static final String COOKIE_NAME = "EMS_TOKEN";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static volatile Mode mode = Mode.SESSION;
+
+    private static volatile int ttlSeconds = 3600;
+
+    private static volatile SecretKeySpec key;
+
+    /**
+     * 每个线程复用一个Mac实例（Mac非线程安全，且getInstance开销较大），密钥变化后重新初始化
+     */
+    private static final ThreadLocal<KeyedMac> MAC = new ThreadLocal<>();
+
+    static {
+        applyConfig();
+        AppConfig.addReloadListener(SessionToken::applyConfig);
+    }
+
+    private final int userId;
+    private final String role;
+    private final String relId;
+    private final long expiresAtSeconds;
+
+    private SessionToken(int userId, String role, String relId, long expiresAtSeconds) {
+        this.userId = userId;
+        this.role = role;
+        this.relId = relId;
+        this.expiresAtSeconds = expiresAtSeconds;
+    }
+
+    // -------------------------- 签发与验证 --------------------------
+    /**
+     * 签发令牌
+     * @param userId 用户ID
+     * @param role 角色
+     * @param relId 关联ID（学号/工号，可为null）
+     * @return String 令牌字符串（可直接作为Cookie值）
+     */
+    public static String issue(int userId, String role, String relId) {
+        if (role == null || role.indexOf('|') >= 0 || (relId != null && relId.indexOf('|') >= 0)) {
+            throw new IllegalArgumentException("角色和关联ID不能包含字符'|'");
+        }
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = userId + "|" + role + "|" + (relId != null ? relId : "") + "|" + expiresAt;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 验证令牌
+     * @param token 令牌字符串
+     * @return SessionToken 令牌内容（签名不正确、格式错误或已过期返回null）
+     */
+    public static SessionToken verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // 常量时间比较，避免通过响应时间逐字节猜测签名
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return null;
+        }
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", -1);
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            long expiresAt = Long.parseLong(fields[3]);
+            if (expiresAt <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return new SessionToken(Integer.parseInt(fields[0]), fields[1],
+                    fields[2].isEmpty() ? null : fields[2], expiresAt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] sign(byte[] payload) {
+        SecretKeySpec currentKey = key;
+        KeyedMac keyedMac = MAC.get();
+        try {
+            if (keyedMac == null || keyedMac.key != currentKey) {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(currentKey);
+                keyedMac = new KeyedMac(currentKey, mac);
+                MAC.set(keyedMac);
+            }
+            return keyedMac.mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("令牌签名失败：" + e.getMessage(), e);
+        }
+    }
+
+    // -------------------------- 配置 --------------------------
+    /**
+     * @return Mode 当前会话模式
+     */
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return boolean 是否使用签名令牌模式
+     */
+    public static boolean isTokenMode() {
+        return mode == Mode.TOKEN;
+    }
+
+    /**
+     * @return int 令牌有效期（秒）
+     */
+    public static int getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * 读取会话相关配置（启动时及配置热加载后调用）
+     */
+    private static synchronized void applyConfig() {
+        String modeName = AppConfig.getString("session.mode", Mode.SESSION.name());
+        try {
+            mode = Mode.valueOf(modeName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("未知的会话模式：" + modeName + "，使用SESSION");
+            mode = Mode.SESSION;
+        }
+        ttlSeconds = AppConfig.getInt("session.token.ttlSeconds", 3600);
+
+        String secret = AppConfig.getString("session.token.secret", "");
+        if (!secret.isEmpty()) {
+            SecretKeySpec configured = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            if (key == null || !MessageDigest.isEqual(key.getEncoded(), configured.getEncoded())) {
+                key = configured;
+            }
+        } else if (key == null) {
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            key = new SecretKeySpec(random, ALGORITHM);
+            if (mode == Mode.TOKEN) {
+                System.err.println("未配置session.token.secret，已随机生成签名密钥：多节点部署时各节点令牌互不认可，重启后令牌失效");
+            }
+        }
+    }
+
+    // -------------------------- 令牌内容 --------------------------
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getRelId() {
+        return relId;
+    }
+
+    /**
+     * @return long 过期时间（Unix时间戳，秒）
+     */
+    public long getExpiresAtSeconds() {
+        return expiresAtSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionToken{" +
+                "userId=" + userId +
+                ", role='" + role + '\'' +
+                ", relId='" + relId + '\'' +
+                ", expiresAtSeconds=" + expiresAtSeconds +
+                '}';
+    }
+
+    /**
+     * 线程内缓存的Mac及其初始化所用的密钥
+     */
+    private static final class KeyedMac {
+        private final SecretKeySpec key;
+        private final Mac mac;
+
+        KeyedMac(SecretKeySpec key, Mac mac) {
+            this.key = key;
+            this.mac = mac;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package util;
+
+/**
+ * SQL执行监听器（StatementListener）
+ * 注册到JdbcTemplate后，每条经JdbcTemplate执行的SQL（查询、更新、批处理）执行完成时回调一次，
+ * 用于统计耗时、记录慢查询等，不需要修改DAO代码
+ * 注：在执行SQL的线程中同步回调，实现应尽量轻量且不抛出异常
+ */
+public interface StatementListener {
+    /**
+     * SQL执行完成（成功或失败）后回调
+     * @param sql SQL语句
+     * @param elapsedNanos 执行耗时（纳秒，查询不含逐行读取结果集的时间）
+     * @param error 执行失败时的异常（成功为null）
+     */
+    void onExecuted(String sql, long elapsedNanos, Exception error);
+}
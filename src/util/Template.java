@@ -0,0 +1,188 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译页面模板（Template）
+ * 模板文本在加载时拆分为静态片段和变量：静态片段一次性编码为UTF-8字节，渲染时直接写出，只有变量需要转义和编码，
+ * 不经过JSP编译和RequestDispatcher转发，适合登录页等高频页面
+ * 语法：
+ * 1. {{name}}：变量，值经HtmlEscaper转义后输出；值为Fragment时直接写出（用于嵌套的块、循环）；值为null或不存在时不输出
+ * 2. {{#block name}}...{{/block}}：定义名为name的块（不能嵌套），块从主模板中移除，通过block(name)取得后单独渲染，
+ *    条件显示的区域和列表的每一行定义为块，由调用方决定渲染几次
+ * 3. {{!-- ... --}}：模板注释，编译时移除，不输出到页面
+ * 模板不包含条件和循环逻辑，这些在Java代码中组合Fragment完成
+ */
+public class Template {
+    /**
+     * 可直接写出的片段（嵌套块、循环生成的行等），作为变量值时不转义
+     */
+    @FunctionalInterface
+    public interface Fragment {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 不输出任何内容的片段（条件不成立的区域）
+     */
+    public static final Fragment EMPTY = out -> {
+    };
+
+    private static final Pattern COMMENT = Pattern.compile("\\{\\{!--.*?--}}\\r?\\n?", Pattern.DOTALL);
+
+    private static final Pattern BLOCK = Pattern.compile("\\{\\{#block\\s+([\\w-]+)\\s*}}\\r?\\n?(.*?)\\{\\{/block}}\\r?\\n?", Pattern.DOTALL);
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*([\\w.-]+)\\s*}}");
+
+    private final String name;
+
+    /**
+     * 静态片段（UTF-8字节）：segments[i]在第i个变量之前，最后一个在所有变量之后，长度比变量数多1
+     */
+    private final byte[][] segments;
+
+    /**
+     * 变量名（按出现顺序）
+     */
+    private final String[] variables;
+
+    private final Map<String, Template> blocks;
+
+    private Template(String name, byte[][] segments, String[] variables, Map<String, Template> blocks) {
+        this.name = name;
+        this.segments = segments;
+        this.variables = variables;
+        this.blocks = blocks;
+    }
+
+    // -------------------------- 编译 --------------------------
+    /**
+     * 从类路径加载并编译模板（应用启动时调用一次，之后重复使用）
+     * @param resource 类路径下的模板文件（UTF-8编码），如 templates/login.html
+     * @return Template 编译后的模板
+     */
+    public static Template load(String resource) {
+        try (InputStream in = Template.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("找不到模板文件：" + resource);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return compile(resource, new String(buffer.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("加载模板失败：" + resource + "，" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 编译模板文本
+     * @param name 模板名称（用于错误提示）
+     * @param source 模板文本
+     * @return Template 编译后的模板
+     */
+    public static Template compile(String name, String source) {
+        source = COMMENT.matcher(source).replaceAll("");
+        Map<String, Template> blocks = new HashMap<>();
+        StringBuilder main = new StringBuilder(source.length());
+        Matcher blockMatcher = BLOCK.matcher(source);
+        int position = 0;
+        while (blockMatcher.find()) {
+            main.append(source, position, blockMatcher.start());
+            String blockName = blockMatcher.group(1);
+            if (blocks.put(blockName, compileText(name + "#" + blockName, blockMatcher.group(2), Collections.emptyMap())) != null) {
+                throw new IllegalArgumentException("模板[" + name + "]中的块重复定义：" + blockName);
+            }
+            position = blockMatcher.end();
+        }
+        main.append(source, position, source.length());
+        return compileText(name, main.toString(), Collections.unmodifiableMap(blocks));
+    }
+
+    private static Template compileText(String name, String text, Map<String, Template> blocks) {
+        if (text.contains("{{#block") || text.contains("{{/block}}")) {
+            throw new IllegalArgumentException("模板[" + name + "]中的块未闭合或嵌套定义");
+        }
+        List<byte[]> segments = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(text);
+        int position = 0;
+        while (matcher.find()) {
+            segments.add(text.substring(position, matcher.start()).getBytes(StandardCharsets.UTF_8));
+            variables.add(matcher.group(1));
+            position = matcher.end();
+        }
+        segments.add(text.substring(position).getBytes(StandardCharsets.UTF_8));
+        return new Template(name, segments.toArray(new byte[0][]), variables.toArray(new String[0]), blocks);
+    }
+
+    // -------------------------- 渲染 --------------------------
+    /**
+     * 渲染模板写出到输出流（如HttpServletResponse.getOutputStream()）
+     * @param model 变量名 → 值
+     * @param out 输出流
+     */
+    public void render(Map<String, ?> model, OutputStream out) throws IOException {
+        for (int i = 0; i < variables.length; i++) {
+            out.write(segments[i]);
+            writeValue(model.get(variables[i]), out);
+        }
+        out.write(segments[variables.length]);
+    }
+
+    /**
+     * 绑定变量，得到可作为其他模板变量值的片段（写出时才渲染）
+     * @param model 变量名 → 值
+     * @return Fragment 片段
+     */
+    public Fragment with(Map<String, ?> model) {
+        return out -> render(model, out);
+    }
+
+    /**
+     * 获取模板中定义的块
+     * @param blockName 块名称
+     * @return Template 块模板
+     */
+    public Template block(String blockName) {
+        Template block = blocks.get(blockName);
+        if (block == null) {
+            throw new IllegalArgumentException("模板[" + name + "]中没有定义块：" + blockName);
+        }
+        return block;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private static void writeValue(Object value, OutputStream out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Fragment) {
+            ((Fragment) value).writeTo(out);
+            return;
+        }
+        out.write(HtmlEscaper.escape(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        return "Template{" + name + ", variables=" + variables.length + ", blocks=" + blocks.keySet() + "}";
+    }
+}
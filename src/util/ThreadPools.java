@@ -0,0 +1,82 @@
+package util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 线程池工具类（ThreadPools）
+ * 统一创建项目内部使用的后台线程：命名清晰便于排查，守护线程不阻止容器关闭
+ */
+public class ThreadPools {
+    private ThreadPools() {
+    }
+
+    /**
+     * 创建命名的守护线程工厂
+     * @param namePrefix 线程名前缀，实际线程名为 前缀-序号
+     * @return ThreadFactory 线程工厂
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 创建单线程的守护定时任务线程池（用于连接池维护等后台任务）
+     * @param name 线程名
+     * @return ScheduledExecutorService 定时任务线程池
+     */
+    public static ScheduledExecutorService newSingleDaemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 创建有界的守护线程池：线程数和等待队列长度都有上限，队列满时直接拒绝（抛出RejectedExecutionException），
+     * 用于把CPU密集或阻塞的任务与请求线程隔离，过载时快速失败而不是无限排队
+     * @param namePrefix 线程名前缀
+     * @param threads 最大线程数（空闲60秒后回收）
+     * @param queueCapacity 等待队列长度
+     * @return ThreadPoolExecutor 线程池
+     */
+    public static ThreadPoolExecutor newBoundedDaemonExecutor(String namePrefix, int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreadFactory(namePrefix), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 创建虚拟线程执行器（每个任务一个虚拟线程，阻塞时不占用平台线程）
+     * 项目按JDK 11编译，通过反射调用JDK 21+的Thread.ofVirtual()和Executors.newThreadPerTaskExecutor，
+     * 运行在不支持虚拟线程的JDK上时返回null，由调用方退回平台线程池
+     * @param namePrefix 线程名前缀，实际线程名为 前缀-序号
+     * @return ExecutorService 虚拟线程执行器（不支持时返回null）
+     */
+    public static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
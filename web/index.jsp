@@ -6,6 +6,7 @@
   To change this template use File | Settings | File Templates.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page import="servlet.StaticAssetServlet" %>
 <!DOCTYPE html>
 <html lang="zh-CN">
 <head>
@@ -13,7 +14,7 @@
   <meta name="viewport" content="width=device-width, initial-scale=1.0">
   <title>教务管理系统 - 首页</title>
   <!-- 引入自定义样式（放在static/css目录下） -->
-  <link rel="stylesheet" href="${pageContext.request.contextPath}/static/css/index.css">
+  <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/index.css") %>">
 </head>
 <body>
 <!-- 页面容器：居中布局，简洁美观 -->
@@ -28,7 +29,7 @@
   <div class="jump-box">
     <p>系统将在 <span id="countDown">3</span> 秒后自动跳转到登录页面...</p>
     <p>如果没有自动跳转，请点击下方链接：</p>
-    <a href="${pageContext.request.contextPath}/pages/login/login.jsp" class="login-btn">立即登录</a>
+    <a href="${pageContext.request.contextPath}/login" class="login-btn">立即登录</a>
   </div>
 
   <!-- 底部版权信息 -->
@@ -50,7 +51,7 @@
     // 倒计时结束，跳转登录页
     if (count <= 0) {
       clearInterval(timer);
-      window.location.href = "${pageContext.request.contextPath}/pages/login/login.jsp";
+      window.location.href = "${pageContext.request.contextPath}/login";
     }
   }, 1000);
 </script>
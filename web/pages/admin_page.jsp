@@ -6,11 +6,69 @@
   To change this template use File | Settings | File Templates.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
-<html>
+<%@ page import="service.AdminDashboard" %>
+<%@ page import="service.DashboardSection" %>
+<%@ page import="servlet.StaticAssetServlet" %>
+<%@ page import="util.HtmlEscaper" %>
+<%!
+    // 统计数据块的显示值（未能加载时显示"--"）
+    private static String countOf(DashboardSection<Integer> section) {
+        return section.isAvailable() ? String.valueOf(section.getValue()) : "--";
+    }
+%>
+<%
+    // 首页数据由DashboardServlet加载；直接访问本页面时先经过DashboardServlet
+    AdminDashboard dashboard = (AdminDashboard) request.getAttribute("dashboard");
+    if (dashboard == null) {
+        response.sendRedirect(request.getContextPath() + "/dashboard");
+        return;
+    }
+%>
+<!DOCTYPE html>
+<html lang="zh-CN">
 <head>
-    <title>Title</title>
+    <meta charset="UTF-8">
+    <title>教务管理系统 - 管理员首页</title>
+    <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/index.css") %>">
 </head>
 <body>
+<div class="container dashboard">
+    <div class="title-box">
+        <h1>管理员首页</h1>
+        <% if (dashboard.isDegraded()) { %>
+        <p class="degraded">部分数据暂时无法加载：<%= HtmlEscaper.escape(String.join("、", dashboard.getDegradedSections())) %></p>
+        <% } %>
+    </div>
 
+    <!-- 基础数据统计 -->
+    <div class="section">
+        <h3>数据概览</h3>
+        <table>
+            <tr><th>学生人数</th><th>教师人数</th><th>课程数量</th></tr>
+            <tr>
+                <td><%= countOf(dashboard.getStudentCount()) %></td>
+                <td><%= countOf(dashboard.getTeacherCount()) %></td>
+                <td><%= countOf(dashboard.getCourseCount()) %></td>
+            </tr>
+        </table>
+    </div>
+
+    <!-- 系统用户统计 -->
+    <div class="section">
+        <h3>系统用户</h3>
+        <% if (!dashboard.getUserCounts().isAvailable()) { %>
+        <p class="unavailable">用户统计暂时无法加载，请稍后刷新</p>
+        <% } else { %>
+        <table>
+            <tr><th>管理员</th><th>教师</th><th>学生</th></tr>
+            <tr>
+                <td><%= dashboard.getUserCount("admin") %></td>
+                <td><%= dashboard.getUserCount("teacher") %></td>
+                <td><%= dashboard.getUserCount("student") %></td>
+            </tr>
+        </table>
+        <% } %>
+    </div>
+</div>
 </body>
 </html>
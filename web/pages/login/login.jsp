@@ -6,6 +6,7 @@
   To change this template use File | Settings | File Templates.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page import="servlet.StaticAssetServlet" %>
 <!DOCTYPE html>
 <html lang="zh-CN">
 <head>
@@ -13,7 +14,7 @@
     <meta name="viewport" content="width=device-width, initial-scale=1.0">
     <title>教务管理系统 - 登录</title>
     <!-- 引入登录页样式（放在static/css目录下） -->
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/static/css/login.css">
+    <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/login.css") %>">
 </head>
 <body>
 <!-- 登录容器：居中布局 -->
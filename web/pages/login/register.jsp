@@ -7,10 +7,11 @@
 --%>
 <!-- register.jsp 核心表单 -->
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ page import="servlet.StaticAssetServlet" %>
 <html>
 <head>
     <title>用户注册</title>
-    <link rel="stylesheet" href="${pageContext.request.contextPath}/static/css/login.css">
+    <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/login.css") %>">
 </head>
 <body>
 <div class="login-container">
@@ -32,7 +33,6 @@
         <div class="form-item">
             <label for="userType">用户角色：</label>
             <select id="userType" name="userType">
-                <option value="admin">管理员</option>
                 <option value="teacher">教师</option>
                 <option value="student">学生</option>
             </select>
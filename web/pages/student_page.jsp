@@ -6,11 +6,80 @@
   To change this template use File | Settings | File Templates.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
-<html>
+<%@ page import="dao.CourseScore" %>
+<%@ page import="entity.Student" %>
+<%@ page import="service.RankingService" %>
+<%@ page import="service.StudentDashboard" %>
+<%@ page import="service.Transcript" %>
+<%@ page import="servlet.StaticAssetServlet" %>
+<%@ page import="util.HtmlEscaper" %>
+<%
+    // 首页数据由DashboardServlet加载；直接访问本页面时先经过DashboardServlet
+    StudentDashboard dashboard = (StudentDashboard) request.getAttribute("dashboard");
+    if (dashboard == null) {
+        response.sendRedirect(request.getContextPath() + "/dashboard");
+        return;
+    }
+    Student student = dashboard.getStudent().getValue();
+    Transcript transcript = dashboard.getTranscript().getValue();
+    RankingService.RankEntry majorRank = dashboard.getMajorRank();
+%>
+<!DOCTYPE html>
+<html lang="zh-CN">
 <head>
-    <title>Title</title>
+    <meta charset="UTF-8">
+    <title>教务管理系统 - 学生首页</title>
+    <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/index.css") %>">
 </head>
 <body>
+<div class="container dashboard">
+    <div class="title-box">
+        <h1>学生首页</h1>
+        <% if (dashboard.isDegraded()) { %>
+        <p class="degraded">部分数据暂时无法加载：<%= HtmlEscaper.escape(String.join("、", dashboard.getDegradedSections())) %></p>
+        <% } %>
+    </div>
 
+    <!-- 学生信息 -->
+    <div class="section">
+        <h3>个人信息</h3>
+        <% if (!dashboard.getStudent().isAvailable()) { %>
+        <p class="unavailable">个人信息暂时无法加载，请稍后刷新</p>
+        <% } else if (student == null) { %>
+        <p class="unavailable">未找到学号为 <%= HtmlEscaper.escape(dashboard.getSno()) %> 的学生信息</p>
+        <% } else { %>
+        <table>
+            <tr><th>学号</th><td><%= HtmlEscaper.escape(student.getSno()) %></td><th>姓名</th><td><%= HtmlEscaper.escape(student.getSname()) %></td></tr>
+            <tr><th>年级</th><td><%= HtmlEscaper.escape(student.getSgrade()) %></td><th>专业</th><td><%= HtmlEscaper.escape(student.getSmajor()) %></td></tr>
+        </table>
+        <% } %>
+    </div>
+
+    <!-- 成绩单 -->
+    <div class="section">
+        <h3>我的成绩</h3>
+        <% if (!dashboard.getTranscript().isAvailable()) { %>
+        <p class="unavailable">成绩暂时无法加载，请稍后刷新</p>
+        <% } else { %>
+        <p>已获学分：<%= transcript.getEarnedCredits() %> / <%= transcript.getAttemptedCredits() %>
+            &nbsp;&nbsp;绩点：<%= String.format("%.2f", transcript.getGpa()) %>
+            <% if (majorRank != null) { %>
+            &nbsp;&nbsp;专业排名：<%= majorRank.getRank() %> / <%= majorRank.getCohortSize() %>
+            <% } %>
+        </p>
+        <table>
+            <tr><th>课程编号</th><th>课程名称</th><th>学分</th><th>成绩</th></tr>
+            <% for (CourseScore courseScore : transcript.getCourses()) { %>
+            <tr>
+                <td><%= HtmlEscaper.escape(courseScore.getScore().getCno()) %></td>
+                <td><%= HtmlEscaper.escape(courseScore.getCname()) %></td>
+                <td><%= courseScore.getCcredit() %></td>
+                <td><%= courseScore.getScore().getScore() != null ? courseScore.getScore().getScore() : "未录入" %></td>
+            </tr>
+            <% } %>
+        </table>
+        <% } %>
+    </div>
+</div>
 </body>
 </html>
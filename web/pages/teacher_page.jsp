@@ -6,11 +6,71 @@
   To change this template use File | Settings | File Templates.
 --%>
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
-<html>
+<%@ page import="entity.Course" %>
+<%@ page import="entity.Teacher" %>
+<%@ page import="service.TeacherDashboard" %>
+<%@ page import="servlet.StaticAssetServlet" %>
+<%@ page import="util.HtmlEscaper" %>
+<%
+    // 首页数据由DashboardServlet加载；直接访问本页面时先经过DashboardServlet
+    TeacherDashboard dashboard = (TeacherDashboard) request.getAttribute("dashboard");
+    if (dashboard == null) {
+        response.sendRedirect(request.getContextPath() + "/dashboard");
+        return;
+    }
+    Teacher teacher = dashboard.getTeacher().getValue();
+%>
+<!DOCTYPE html>
+<html lang="zh-CN">
 <head>
-    <title>Title</title>
+    <meta charset="UTF-8">
+    <title>教务管理系统 - 教师首页</title>
+    <link rel="stylesheet" href="<%= StaticAssetServlet.url(request, "/static/css/index.css") %>">
 </head>
 <body>
+<div class="container dashboard">
+    <div class="title-box">
+        <h1>教师首页</h1>
+        <% if (dashboard.isDegraded()) { %>
+        <p class="degraded">部分数据暂时无法加载：<%= HtmlEscaper.escape(String.join("、", dashboard.getDegradedSections())) %></p>
+        <% } %>
+    </div>
 
+    <!-- 教师信息 -->
+    <div class="section">
+        <h3>个人信息</h3>
+        <% if (!dashboard.getTeacher().isAvailable()) { %>
+        <p class="unavailable">个人信息暂时无法加载，请稍后刷新</p>
+        <% } else if (teacher == null) { %>
+        <p class="unavailable">未找到工号为 <%= HtmlEscaper.escape(dashboard.getTno()) %> 的教师信息</p>
+        <% } else { %>
+        <table>
+            <tr><th>工号</th><td><%= HtmlEscaper.escape(teacher.getTno()) %></td><th>姓名</th><td><%= HtmlEscaper.escape(teacher.getTname()) %></td></tr>
+            <tr><th>职称</th><td><%= HtmlEscaper.escape(teacher.getTtitle()) %></td><th>院系</th><td><%= HtmlEscaper.escape(teacher.getTdept()) %></td></tr>
+        </table>
+        <% } %>
+    </div>
+
+    <!-- 授课课程及选课人数 -->
+    <div class="section">
+        <h3>授课课程</h3>
+        <% if (!dashboard.getCourses().isAvailable()) { %>
+        <p class="unavailable">授课课程暂时无法加载，请稍后刷新</p>
+        <% } else { %>
+        <table>
+            <tr><th>课程编号</th><th>课程名称</th><th>学分</th><th>选课人数</th></tr>
+            <% for (Course course : dashboard.getCourses().getValue()) {
+                Integer rosterSize = dashboard.getRosterSize(course.getCno()); %>
+            <tr>
+                <td><%= HtmlEscaper.escape(course.getCno()) %></td>
+                <td><%= HtmlEscaper.escape(course.getCname()) %></td>
+                <td><%= HtmlEscaper.escape(course.getCcredit()) %></td>
+                <td><%= rosterSize != null ? rosterSize : "--" %></td>
+            </tr>
+            <% } %>
+        </table>
+        <% } %>
+    </div>
+</div>
 </body>
 </html>